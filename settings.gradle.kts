@@ -2,7 +2,7 @@
 
 include(
     ":", // root project
-    "docs",
+
 )
 
 // Auto detect and provision JVM
@@ -25,13 +25,18 @@ package pascal.taie.analysis.pta;
 import org.apache.logging.log4j.Level;
 import pascal.taie.World;
 import pascal.taie.analysis.ProgramAnalysis;
+import pascal.taie.analysis.pta.core.cs.element.ArrayBasedCSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
 import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
+import pascal.taie.analysis.pta.core.cs.selector.AdaptiveSelector;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelectorFactory;
 import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.core.solver.DefaultSolver;
+import pascal.taie.analysis.pta.core.solver.ParallelSolver;
 import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.core.solver.StateFile;
 import pascal.taie.analysis.pta.plugin.AnalysisTimer;
 import pascal.taie.analysis.pta.plugin.ClassInitializer;
 import pascal.taie.analysis.pta.plugin.CompositePlugin;
@@ -56,10 +61,14 @@ import pascal.taie.config.AnalysisOptions;
 import pascal.taie.config.ConfigException;
 import pascal.taie.util.AnalysisException;
 import pascal.taie.util.Timer;
+import pascal.taie.util.collection.Sets;
 
+import java.io.File;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
 
@@ -71,6 +80,50 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
 
     @Override
     public PointerAnalysisResult analyze() {
+        AnalysisOptions options = getOptions();
+        String stateFile = options.getString("state-file");
+        if (stateFile == null) {
+            return solve();
+        }
+        checkStateFileOptions(options);
+        // reuse the solved state if it exists and matches current
+        // program and options, otherwise, solve (and the solver saves
+        // the state when it finishes)
+        PointerAnalysisResult result = StateFile.load(
+                options, makeCSManager(options), new File(stateFile));
+        if (result != null) {
+            ResultProcessor.process(options, result);
+        } else {
+            result = solve();
+        }
+        return result;
+    }
+
+    /**
+     * The solver and plugins are not run when the solved state is loaded
+     * from the state file, thus the options which rely on plugins
+     * cannot be used with option {@code state-file}.
+     *
+     * @throws ConfigException if any of such options is set
+     */
+    private static void checkStateFileOptions(AnalysisOptions options) {
+        List<String> conflicts = new ArrayList<>();
+        if (options.getString("taint-config") != null) {
+            conflicts.add("taint-config");
+        }
+        for (String key : List.of("taint-configs", "taint-config-providers", "plugins")) {
+            if (!((List<?>) options.get(key)).isEmpty()) {
+                conflicts.add(key);
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new ConfigException("Option state-file cannot be used with "
+                    + String.join(", ", conflicts)
+                    + ", as the plugins are not run when the state is loaded");
+        }
+    }
+
+    private PointerAnalysisResult solve() {
         AnalysisOptions options = getOptions();
         HeapModel heapModel = new AllocationSiteBasedModel(options);
         ContextSelector selector = null;
@@ -80,9 +133,13 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
             if (advanced.equals("collection")) {
                 selector = ContextSelectorFactory.makeSelectiveSelector(cs,
                         new CollectionMethods(World.get().getClassHierarchy()).get());
+            } else if (advanced.startsWith("adaptive")) {
+                // no pre-analysis, the selector adapts during solving
+                selector = ContextSelectorFactory.makeAdaptiveSelector(cs, advanced);
             } else {
                 // run context-insensitive analysis as pre-analysis
-                PointerAnalysisResult preResult = runAnalysis(heapModel,
+                PointerAnalysisResult preResult = runAnalysis(
+                        getPreAnalysisOptions(options), heapModel,
                         ContextSelectorFactory.makeCISelector());
                 if (advanced.startsWith("scaler")) {
                     selector = Timer.runAndCount(() -> ContextSelectorFactory
@@ -104,14 +161,24 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
         if (selector == null) {
             selector = ContextSelectorFactory.makePlainSelector(cs);
         }
-        return runAnalysis(heapModel, selector);
+        return runAnalysis(options, heapModel, selector);
     }
 
-    private PointerAnalysisResult runAnalysis(HeapModel heapModel,
-                                              ContextSelector selector) {
-        AnalysisOptions options = getOptions();
-        Solver solver = new DefaultSolver(options,
-                heapModel, selector, new MapBasedCSManager());
+    /**
+     * @return the options for the pre-analysis, which does not save
+     * the checkpoint of the main analysis nor resume from it, and does
+     * not overwrite the metrics file of the main analysis.
+     */
+    private static AnalysisOptions getPreAnalysisOptions(AnalysisOptions options) {
+        return options.with("checkpoint-file", null)
+                .with("state-file", null)
+                .with("metrics-interval", -1);
+    }
+
+    private static PointerAnalysisResult runAnalysis(
+            AnalysisOptions options, HeapModel heapModel, ContextSelector selector) {
+        Solver solver = makeSolver(options,
+                heapModel, selector, makeCSManager(options));
         // The initialization of some Plugins may read the fields in solver,
         // e.g., contextSelector or csManager, thus we initialize Plugins
         // after setting all other fields of solver.
@@ -120,6 +187,29 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
         return solver.getResult();
     }
 
+    private static CSManager makeCSManager(AnalysisOptions options) {
+        String csManager = options.getString("cs-manager");
+        return switch (csManager) {
+            case "map" -> new MapBasedCSManager();
+            case "array" -> new ArrayBasedCSManager();
+            default -> throw new ConfigException(
+                    "Illegal cs-manager argument: " + csManager);
+        };
+    }
+
+    private static Solver makeSolver(AnalysisOptions options, HeapModel heapModel,
+                                     ContextSelector selector, CSManager csManager) {
+        String solver = options.getString("solver");
+        return switch (solver) {
+            case "default" -> new DefaultSolver(options,
+                    heapModel, selector, csManager);
+            case "parallel" -> new ParallelSolver(options,
+                    heapModel, selector, csManager);
+            default -> throw new ConfigException(
+                    "Illegal solver argument: " + solver);
+        };
+    }
+
     private static void setPlugin(Solver solver, AnalysisOptions options) {
         CompositePlugin plugin = new CompositePlugin();
         // add builtin plugins
@@ -155,15 +245,39 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
                 || !((List<String>) options.get("taint-config-providers")).isEmpty()) {
             plugin.addPlugin(new TaintAnalysis());
         }
+        addTaintAnalyses(plugin, (List<String>) options.get("taint-configs"));
+        if (solver.getContextSelector() instanceof AdaptiveSelector adaptive) {
+            plugin.addPlugin(adaptive.getMonitor());
+        }
         plugin.addPlugin(new ResultProcessor());
         // add plugins specified in options
         // noinspection unchecked
         addPlugins(plugin, (List<String>) options.get("plugins"));
+        if (options.getInt("metrics-interval") > 0) {
+            plugin.registerMetrics(solver.getMetrics());
+        }
         // connects plugins and solver
         plugin.setSolver(solver);
         solver.setPlugin(plugin);
     }
 
+    /**
+     * Adds a taint analysis for each of given taint configs, so that
+     * the configs are analyzed separately in one pointer analysis.
+     */
+    private static void addTaintAnalyses(CompositePlugin plugin,
+                                         List<String> configPaths) {
+        Set<String> names = Sets.newSet();
+        for (String path : configPaths) {
+            String name = TaintAnalysis.getConfigName(path);
+            if (!names.add(name)) {
+                throw new ConfigException("Taint configs " + configPaths +
+                        " contain multiple configs named " + name);
+            }
+            plugin.addPlugin(new TaintAnalysis(path));
+        }
+    }
+
     private static void addPlugins(CompositePlugin plugin,
                                    List<String> pluginClasses) {
         for (String pluginClass : pluginClasses) {
@@ -22,6 +22,7 @@
 
 package pascal.taie.analysis.pta.core.cs.context;
 
+import pascal.taie.util.Indexable;
 import pascal.taie.util.collection.Maps;
 
 import java.util.Arrays;
@@ -29,8 +30,17 @@ import java.util.Map;
 
 /**
  * An implementation of {@link Context}, which organizes contexts as Trie.
+ * Each context is given a dense index by the {@link Factory} that
+ * creates it, which spreads contexts evenly in the hash tables keyed by
+ * contexts, e.g., the tables of context-sensitive elements.
  */
-public class TrieContext implements Context {
+public class TrieContext implements Context, Indexable {
+
+    /**
+     * Maximum number of children stored in an array. Beyond this,
+     * the children are stored in a map.
+     */
+    private static final int ARRAY_LIMIT = 8;
 
     private final TrieContext parent;
 
@@ -38,18 +48,30 @@ public class TrieContext implements Context {
 
     private final int length;
 
-    private Map<Object, TrieContext> children;
+    private final int index;
+
+    /**
+     * Children of this context, which is {@code null} (no child),
+     * a {@link TrieContext} (single child), a {@link TrieContext}{@code []}
+     * (a few children, filled from the front), or a
+     * {@link Map}{@code <Object, TrieContext>} (many children).
+     * Since each child keeps its element, the array form needs not
+     * store the elements.
+     */
+    private Object children;
 
     private TrieContext() {
         parent = null;
         elem = null;
         length = 0;
+        index = 0;
     }
 
-    private TrieContext(TrieContext parent, Object elem) {
+    private TrieContext(TrieContext parent, Object elem, int index) {
         this.parent = parent;
         this.elem = elem;
         this.length = parent.getLength() + 1;
+        this.index = index;
     }
 
     @Override
@@ -71,12 +93,74 @@ public class TrieContext implements Context {
         return parent;
     }
 
-    TrieContext getChild(Object elem) {
+    /**
+     * @return the index of this context in the factory that creates it.
+     */
+    @Override
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the child context with given element, or {@code null}
+     * if the child does not exist.
+     */
+    @SuppressWarnings("unchecked")
+    TrieContext findChild(Object elem) {
+        if (children instanceof TrieContext child) {
+            return child.elem.equals(elem) ? child : null;
+        } else if (children instanceof TrieContext[] array) {
+            for (TrieContext child : array) {
+                if (child == null) {
+                    break;
+                }
+                if (child.elem.equals(elem)) {
+                    return child;
+                }
+            }
+            return null;
+        } else if (children != null) {
+            return ((Map<Object, TrieContext>) children).get(elem);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Adds a child context. The caller must guarantee that there is
+     * no existing child with the same element.
+     */
+    @SuppressWarnings("unchecked")
+    void addChild(TrieContext child) {
         if (children == null) {
-            children = Maps.newHybridMap();
+            children = child;
+        } else if (children instanceof TrieContext first) {
+            TrieContext[] array = new TrieContext[4];
+            array[0] = first;
+            array[1] = child;
+            children = array;
+        } else if (children instanceof TrieContext[] array) {
+            int i = 0;
+            while (i < array.length && array[i] != null) {
+                ++i;
+            }
+            if (i < array.length) {
+                array[i] = child;
+            } else if (array.length < ARRAY_LIMIT) {
+                array = Arrays.copyOf(array, ARRAY_LIMIT);
+                array[i] = child;
+                children = array;
+            } else {
+                Map<Object, TrieContext> map = Maps.newMap(ARRAY_LIMIT * 2);
+                for (TrieContext c : array) {
+                    map.put(c.elem, c);
+                }
+                map.put(child.elem, child);
+                children = map;
+            }
+        } else {
+            ((Map<Object, TrieContext>) children).put(child.elem, child);
         }
-        return children.computeIfAbsent(elem,
-                e -> new TrieContext(this, e));
     }
 
     Object getElem() {
@@ -102,6 +186,12 @@ public class TrieContext implements Context {
          */
         private final TrieContext rootContext = new TrieContext();
 
+        /**
+         * Number of contexts created by this factory, i.e., the index
+         * of the next context.
+         */
+        private int contextCount = 1;
+
         @Override
         public TrieContext getEmptyContext() {
             return rootContext;
@@ -109,14 +199,14 @@ public class TrieContext implements Context {
 
         @Override
         public Context make(T elem) {
-            return rootContext.getChild(elem);
+            return getChild(rootContext, elem);
         }
 
         @Override
         public TrieContext make(T... elems) {
             TrieContext result = rootContext;
             for (T elem : elems) {
-                result = result.getChild(elem);
+                result = getChild(result, elem);
             }
             return result;
         }
@@ -138,13 +228,30 @@ public class TrieContext implements Context {
             return make((T[]) elems);
         }
 
+        private TrieContext getChild(TrieContext parent, Object elem) {
+            TrieContext child = parent.findChild(elem);
+            if (child == null) {
+                child = new TrieContext(parent, elem, contextCount++);
+                parent.addChild(child);
+            }
+            return child;
+        }
+
+        /**
+         * @return the number of contexts created by this factory, i.e.,
+         * the upper bound (exclusive) of the indexes of the contexts.
+         */
+        public int getContextCount() {
+            return contextCount;
+        }
+
         @Override
         public TrieContext append(Context parent, T elem, int limit) {
             TrieContext p = (TrieContext) parent;
             if (parent.getLength() < limit) {
-                return p.getChild(elem);
+                return getChild(p, elem);
             } else {
-                return makeLastK(p, limit - 1).getChild(elem);
+                return getChild(makeLastK(p, limit - 1), elem);
             }
         }
     }
@@ -110,7 +110,12 @@ abstract class AbstractPointer implements Pointer {
 
     @Override
     public void removeEdgesIf(Predicate<PointerFlowEdge> filter) {
-        outEdges.removeIf(filter);
+        if (outEdges.removeIf(filter)) {
+            // keeps successors consistent with the remaining edges,
+            // so that the removed edges can be added again
+            successors.clear();
+            outEdges.forEach(edge -> successors.add(edge.target()));
+        }
     }
 
     @Override
@@ -0,0 +1,250 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Streams;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Manages data by maintaining the data and their context-sensitive
+ * counterparts by compact tables.
+ * <p>
+ * Compared to {@link MapBasedCSManager}, which looks up context-sensitive
+ * elements through nested hash maps, this manager stores the elements
+ * of each key (e.g., the {@link CSVar}s of a {@link Var}) in a single
+ * {@link IdentityTable}, and looks up the pointers of objects
+ * (i.e., {@link InstanceField}s and {@link ArrayIndex}es) in arrays
+ * indexed by the indexes of {@link CSObj}s.
+ */
+public class ArrayBasedCSManager implements CSManager {
+
+    private static final int INITIAL_OBJ_CAPACITY = 65536;
+
+    private final Map<Var, IdentityTable<Context, CSVar>> vars = Maps.newMap();
+
+    private final List<CSVar> csVars = new ArrayList<>();
+
+    private final Map<JField, StaticField> staticFields = Maps.newMap();
+
+    /**
+     * Maps index of base object to its instance fields.
+     */
+    private IdentityTable<JField, InstanceField>[] instanceFields;
+
+    private final List<InstanceField> instanceFieldList = new ArrayList<>();
+
+    /**
+     * Maps index of array object to its array index pointer.
+     */
+    private ArrayIndex[] arrayIndexes = new ArrayIndex[INITIAL_OBJ_CAPACITY];
+
+    private final List<ArrayIndex> arrayIndexList = new ArrayList<>();
+
+    /**
+     * Counter for assigning unique indexes to Pointers.
+     */
+    private int counter = 0;
+
+    private final CSObjManager objManager = new CSObjManager();
+
+    private final Map<Invoke, IdentityTable<Context, CSCallSite>> callSites = Maps.newMap();
+
+    private final Map<JMethod, IdentityTable<Context, CSMethod>> methods = Maps.newMap();
+
+    @SuppressWarnings("unchecked")
+    public ArrayBasedCSManager() {
+        instanceFields = (IdentityTable<JField, InstanceField>[])
+                new IdentityTable<?, ?>[INITIAL_OBJ_CAPACITY];
+    }
+
+    @Override
+    public CSVar getCSVar(Context context, Var var) {
+        IdentityTable<Context, CSVar> table = vars.get(var);
+        if (table == null) {
+            table = new IdentityTable<>();
+            vars.put(var, table);
+        }
+        CSVar csVar = table.get(context);
+        if (csVar == null) {
+            csVar = new CSVar(var, context, counter++);
+            table.put(context, csVar);
+            csVars.add(csVar);
+        }
+        return csVar;
+    }
+
+    @Override
+    public StaticField getStaticField(JField field) {
+        return staticFields.computeIfAbsent(field,
+                f -> new StaticField(f, counter++));
+    }
+
+    @Override
+    public InstanceField getInstanceField(CSObj base, JField field) {
+        int index = base.getIndex();
+        if (index >= instanceFields.length) {
+            instanceFields = Arrays.copyOf(instanceFields, newLength(
+                    instanceFields.length, index));
+        }
+        IdentityTable<JField, InstanceField> fields = instanceFields[index];
+        if (fields == null) {
+            fields = new IdentityTable<>();
+            instanceFields[index] = fields;
+        }
+        InstanceField instanceField = fields.get(field);
+        if (instanceField == null) {
+            instanceField = new InstanceField(base, field, counter++);
+            fields.put(field, instanceField);
+            instanceFieldList.add(instanceField);
+        }
+        return instanceField;
+    }
+
+    @Override
+    public ArrayIndex getArrayIndex(CSObj array) {
+        int index = array.getIndex();
+        if (index >= arrayIndexes.length) {
+            arrayIndexes = Arrays.copyOf(arrayIndexes, newLength(
+                    arrayIndexes.length, index));
+        }
+        ArrayIndex arrayIndex = arrayIndexes[index];
+        if (arrayIndex == null) {
+            arrayIndex = new ArrayIndex(array, counter++);
+            arrayIndexes[index] = arrayIndex;
+            arrayIndexList.add(arrayIndex);
+        }
+        return arrayIndex;
+    }
+
+    private static int newLength(int length, int index) {
+        return Math.max(index + 1, (int) (length * 1.5));
+    }
+
+    @Override
+    public Collection<Var> getVars() {
+        return Collections.unmodifiableSet(vars.keySet());
+    }
+
+    @Override
+    public Collection<CSVar> getCSVars() {
+        return Collections.unmodifiableList(csVars);
+    }
+
+    @Override
+    public Collection<CSVar> getCSVarsOf(Var var) {
+        var csVars = vars.get(var);
+        return csVars != null ? csVars.values() : Set.of();
+    }
+
+    @Override
+    public Collection<StaticField> getStaticFields() {
+        return Collections.unmodifiableCollection(staticFields.values());
+    }
+
+    @Override
+    public Collection<InstanceField> getInstanceFields() {
+        return Collections.unmodifiableList(instanceFieldList);
+    }
+
+    @Override
+    public Collection<ArrayIndex> getArrayIndexes() {
+        return Collections.unmodifiableList(arrayIndexList);
+    }
+
+    @Override
+    public Stream<Pointer> pointers() {
+        return Streams.concat(
+                getCSVars().stream(),
+                getInstanceFields().stream(),
+                getArrayIndexes().stream(),
+                getStaticFields().stream());
+    }
+
+    @Override
+    public CSObj getCSObj(Context heapContext, Obj obj) {
+        return objManager.getCSObj(heapContext, obj);
+    }
+
+    @Override
+    public Collection<CSObj> getObjects() {
+        return objManager.getObjects();
+    }
+
+    @Override
+    public Collection<CSObj> getCSObjsOf(Obj obj) {
+        return objManager.getCSObjsOf(obj);
+    }
+
+    @Override
+    public int getNumberOfPointers() {
+        return counter;
+    }
+
+    @Override
+    public int getNumberOfObjects() {
+        return objManager.getObjectCount();
+    }
+
+    @Override
+    public Indexer<CSObj> getObjectIndexer() {
+        return objManager;
+    }
+
+    @Override
+    public CSCallSite getCSCallSite(Context context, Invoke callSite) {
+        return callSites.computeIfAbsent(callSite, cs -> new IdentityTable<>())
+                .computeIfAbsent(context, callSite, (ctx, cs) -> {
+                    CSMethod container = getCSMethod(ctx, cs.getContainer());
+                    return new CSCallSite(cs, ctx, container);
+                });
+    }
+
+    @Override
+    public CSMethod getCSMethod(Context context, JMethod method) {
+        return methods.computeIfAbsent(method, m -> new IdentityTable<>())
+                .computeIfAbsent(context, method,
+                        (ctx, m) -> new CSMethod(m, ctx));
+    }
+
+    @Override
+    public Collection<CSMethod> getCSMethodsOf(JMethod method) {
+        var csMethods = methods.get(method);
+        return csMethods != null ? csMethods.values() : Set.of();
+    }
+}
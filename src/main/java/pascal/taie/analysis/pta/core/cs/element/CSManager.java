@@ -99,6 +99,11 @@ public interface CSManager {
      */
     Collection<CSObj> getCSObjsOf(Obj obj);
 
+    /**
+     * @return all context-sensitive methods for given method.
+     */
+    Collection<CSMethod> getCSMethodsOf(JMethod method);
+
     /**
      * @return all static field pointers.
      */
@@ -119,6 +124,17 @@ public interface CSManager {
      */
     Stream<Pointer> pointers();
 
+    /**
+     * @return the number of pointers created by this manager so far.
+     */
+    int getNumberOfPointers();
+
+    /**
+     * @return the number of context-sensitive objects created
+     * by this manager so far.
+     */
+    int getNumberOfObjects();
+
     /**
      * @return {@link Indexer} for {@link CSObj} maintained by this manager.
      * The indexer is useful for creating efficient points-to sets.
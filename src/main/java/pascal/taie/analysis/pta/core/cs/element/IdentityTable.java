@@ -0,0 +1,219 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import pascal.taie.util.Indexable;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+
+/**
+ * A compact map from keys to values, which compares keys by identity.
+ * <p>
+ * The keys and values are stored alternately in a single array without
+ * entry objects. Small tables (which are the majority, e.g., the contexts
+ * of a variable or the fields of an object) are scanned linearly, and
+ * larger tables are organized as open-addressing hash tables with
+ * linear probing.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+class IdentityTable<K, V> {
+
+    /**
+     * Maximum number of entries that are stored contiguously and scanned
+     * linearly. Beyond this, the table becomes a hash table.
+     */
+    private static final int LINEAR_LIMIT = 8;
+
+    private static final int INITIAL_CAPACITY = 2;
+
+    /**
+     * Stores keys at even positions, and the corresponding values
+     * at the following odd positions.
+     */
+    private Object[] table;
+
+    private int size = 0;
+
+    IdentityTable() {
+        table = new Object[INITIAL_CAPACITY * 2];
+    }
+
+    /**
+     * @return the value for {@code key}, or {@code null} if it is absent.
+     */
+    V get(K key) {
+        Object[] tab = table;
+        if (isLinear()) {
+            for (int i = 0; i < size * 2; i += 2) {
+                if (tab[i] == key) {
+                    return value(i);
+                }
+            }
+            return null;
+        }
+        int mask = tab.length - 1;
+        for (int i = hash(key, tab.length); ; i = (i + 2) & mask) {
+            Object k = tab[i];
+            if (k == key) {
+                return value(i);
+            } else if (k == null) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * @return the value for {@code key}. If it is absent, computes it by
+     * {@code factory} and puts it to this table.
+     */
+    <A> V computeIfAbsent(K key, A arg, BiFunction<K, A, V> factory) {
+        V value = get(key);
+        if (value == null) {
+            value = factory.apply(key, arg);
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Puts a mapping from {@code key} to {@code value} to this table.
+     * The caller must guarantee that {@code key} is absent in this table.
+     */
+    void put(K key, V value) {
+        if (size + 1 > capacity() / (isLinear() ? 1 : 2)) {
+            resize(capacity() * 2);
+        }
+        if (isLinear()) {
+            table[size * 2] = key;
+            table[size * 2 + 1] = value;
+        } else {
+            insert(table, key, value);
+        }
+        ++size;
+    }
+
+    private boolean isLinear() {
+        return capacity() <= LINEAR_LIMIT;
+    }
+
+    private int capacity() {
+        return table.length / 2;
+    }
+
+    private void resize(int newCapacity) {
+        Object[] oldTab = table;
+        int oldSize = size;
+        table = new Object[newCapacity * 2];
+        if (isLinear()) {
+            System.arraycopy(oldTab, 0, table, 0, oldSize * 2);
+        } else {
+            for (int i = 0; i < oldTab.length; i += 2) {
+                if (oldTab[i] != null) {
+                    insert(table, oldTab[i], oldTab[i + 1]);
+                }
+            }
+        }
+    }
+
+    private static void insert(Object[] tab, Object key, Object value) {
+        int mask = tab.length - 1;
+        int i = hash(key, tab.length);
+        while (tab[i] != null) {
+            i = (i + 2) & mask;
+        }
+        tab[i] = key;
+        tab[i + 1] = value;
+    }
+
+    /**
+     * @return the (even) position where the probing for {@code key} starts.
+     */
+    private static int hash(Object key, int length) {
+        // dense indexes (e.g., of contexts) spread perfectly over the table
+        int h = key instanceof Indexable indexable
+                ? indexable.getIndex() : System.identityHashCode(key);
+        h ^= (h >>> 16);
+        return (h << 1) & (length - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int keyPos) {
+        return (V) table[keyPos + 1];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return an unmodifiable view of the values in this table.
+     */
+    Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new ValueIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private class ValueIterator implements Iterator<V> {
+
+        private final Object[] tab = table;
+
+        private int pos = 0;
+
+        private int remaining = size;
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public V next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            while (tab[pos] == null) {
+                pos += 2;
+            }
+            @SuppressWarnings("unchecked")
+            V value = (V) tab[pos + 1];
+            pos += 2;
+            --remaining;
+            return value;
+        }
+    }
+}
@@ -22,22 +22,17 @@
 
 package pascal.taie.analysis.pta.core.cs.element;
 
-import pascal.taie.World;
 import pascal.taie.analysis.pta.core.cs.context.Context;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Invoke;
-import pascal.taie.language.classes.ClassNames;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
-import pascal.taie.language.type.Type;
-import pascal.taie.language.type.TypeSystem;
 import pascal.taie.util.Indexer;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.Streams;
 import pascal.taie.util.collection.TwoKeyMap;
 
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
@@ -128,6 +123,16 @@ public class MapBasedCSManager implements CSManager {
         return objManager.getCSObjsOf(obj);
     }
 
+    @Override
+    public int getNumberOfPointers() {
+        return ptrManager.counter;
+    }
+
+    @Override
+    public int getNumberOfObjects() {
+        return objManager.getObjectCount();
+    }
+
     @Override
     public Indexer<CSObj> getObjectIndexer() {
         return objManager;
@@ -146,6 +151,12 @@ public class MapBasedCSManager implements CSManager {
         return methods.computeIfAbsent(method, context, CSMethod::new);
     }
 
+    @Override
+    public Collection<CSMethod> getCSMethodsOf(JMethod method) {
+        var csMethods = methods.get(method);
+        return csMethods != null ? csMethods.values() : Set.of();
+    }
+
     private static class PointerManager {
 
         private final TwoKeyMap<Var, Context, CSVar> vars = Maps.newTwoKeyMap();
@@ -214,99 +225,4 @@ public class MapBasedCSManager implements CSManager {
                     getStaticFields().stream());
         }
     }
-
-    private static class CSObjManager implements Indexer<CSObj> {
-
-        private final TwoKeyMap<Obj, Context, CSObj> objMap = Maps.newTwoKeyMap();
-
-        private final TypeSystem typeSystem = World.get().getTypeSystem();
-
-        private final Type throwable = typeSystem.getClassType(ClassNames.THROWABLE);
-
-        private final Type string = typeSystem.getClassType(ClassNames.STRING);
-
-        /**
-         * Counter for assign unique indexes to throwable objects.
-         */
-        private int throwableCounter = 0;
-
-        /**
-         * Number of indexes reserved for throwable objects.
-         */
-        private static final int THROWABLE_BUDGET = 2048;
-
-        /**
-         * Counter for assign unique indexes to string objects.
-         */
-        private int stringCounter = THROWABLE_BUDGET;
-
-        /**
-         * Number of indexes reserved for string objects.
-         */
-        private static final int STRING_BUDGET = 4096;
-
-        /**
-         * Counter for assigning unique indexes to other CSObjs.
-         */
-        private int counter = THROWABLE_BUDGET + STRING_BUDGET;
-
-        /**
-         * Maps index to CSObj.
-         * Since there are empty slots, using array (instead of List)
-         * is more convenient.
-         */
-        private CSObj[] objs = new CSObj[65536];
-
-        CSObj getCSObj(Context heapContext, Obj obj) {
-            return objMap.computeIfAbsent(obj, heapContext, (o, c) -> {
-                int index = getCSObjIndex(o);
-                CSObj csObj = new CSObj(o, c, index);
-                storeCSObj(csObj, index);
-                return csObj;
-            });
-        }
-
-        private int getCSObjIndex(Obj obj) {
-            if (typeSystem.isSubtype(throwable, obj.getType()) &&
-                    throwableCounter < THROWABLE_BUDGET) {
-                return throwableCounter++;
-            } else if (obj.getType().equals(string) &&
-                    stringCounter < THROWABLE_BUDGET + STRING_BUDGET) {
-                return stringCounter++;
-            } else {
-                return counter++;
-            }
-        }
-
-        /**
-         * Stores {@code csObj} to the {@code objs} array with the position
-         * specified by {@code index}.
-         */
-        private void storeCSObj(CSObj csObj, int index) {
-            if (index >= objs.length) {
-                int newLength = Math.max(index + 1, (int) (objs.length * 1.5));
-                objs = Arrays.copyOf(objs, newLength);
-            }
-            objs[index] = csObj;
-        }
-
-        Collection<CSObj> getObjects() {
-            return objMap.values();
-        }
-
-        Collection<CSObj> getCSObjsOf(Obj obj) {
-            var csObjs = objMap.get(obj);
-            return csObjs != null ? csObjs.values() : Set.of();
-        }
-
-        @Override
-        public int getIndex(CSObj o) {
-            return o.getIndex();
-        }
-
-        @Override
-        public CSObj getObject(int index) {
-            return objs[index];
-        }
-    }
 }
@@ -38,6 +38,12 @@ abstract class AbstractContextSelector<T> implements ContextSelector {
         return factory.getEmptyContext();
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public Context makeContext(Object... elems) {
+        return factory.make((T[]) elems);
+    }
+
     @Override
     public Context selectHeapContext(CSMethod method, Obj obj) {
         // Uses different strategies to select heap contexts
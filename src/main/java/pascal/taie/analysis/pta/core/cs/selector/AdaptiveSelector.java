@@ -0,0 +1,225 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.selector;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Adaptive context selector which starts with the context sensitivity
+ * variant of a delegate selector for all methods, and demotes the methods
+ * that turn out to be expensive during solving to shorter contexts.
+ * <p>
+ * A method is demoted when the number of its contexts, or the number of
+ * objects propagated to its variables (monitored by {@link #getMonitor()}),
+ * exceeds the given limit. Each demotion shortens the contexts selected
+ * for the method afterwards by one element (by keeping the last elements),
+ * until the method becomes context-insensitive. The contexts selected
+ * before a demotion are kept, thus the result is still sound.
+ */
+public class AdaptiveSelector implements ContextSelector {
+
+    private static final Logger logger = LogManager.getLogger(AdaptiveSelector.class);
+
+    /**
+     * Delegate context selector.
+     */
+    private final ContextSelector delegate;
+
+    /**
+     * Limit of the number of contexts of a method before it is demoted.
+     */
+    private final int ctxLimit;
+
+    /**
+     * Limit of the number of objects propagated to the variables of
+     * a method before it is demoted.
+     */
+    private final long ptsLimit;
+
+    private final Map<JMethod, MethodState> states = Maps.newMap();
+
+    /**
+     * Number of demotions.
+     */
+    private int demotions = 0;
+
+    AdaptiveSelector(ContextSelector delegate, int ctxLimit, long ptsLimit) {
+        this.delegate = delegate;
+        this.ctxLimit = ctxLimit;
+        this.ptsLimit = ptsLimit;
+    }
+
+    @Override
+    public Context getEmptyContext() {
+        return delegate.getEmptyContext();
+    }
+
+    @Override
+    public Context selectContext(CSCallSite callSite, JMethod callee) {
+        return adapt(callee, delegate.selectContext(callSite, callee));
+    }
+
+    @Override
+    public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
+        return adapt(callee, delegate.selectContext(callSite, recv, callee));
+    }
+
+    @Override
+    public Context selectHeapContext(CSMethod method, Obj obj) {
+        return delegate.selectHeapContext(method, obj);
+    }
+
+    @Override
+    public Context makeContext(Object... elems) {
+        return delegate.makeContext(elems);
+    }
+
+    /**
+     * Truncates the context selected for {@code method} according to
+     * the demotions of the method, and records the context.
+     */
+    private Context adapt(JMethod method, Context context) {
+        MethodState state = states.computeIfAbsent(method, __ -> new MethodState());
+        if (context.getLength() > state.lengthLimit) {
+            context = lastK(context, state.lengthLimit);
+        }
+        if (state.contexts.add(context)) {
+            state.maxLength = Math.max(state.maxLength, context.getLength());
+            if (state.contexts.size() > ctxLimit) {
+                demote(method, state);
+            }
+        }
+        return context;
+    }
+
+    private Context lastK(Context context, int k) {
+        Object[] elems = new Object[k];
+        int offset = context.getLength() - k;
+        for (int i = 0; i < k; ++i) {
+            elems[i] = context.getElementAt(offset + i);
+        }
+        return delegate.makeContext(elems);
+    }
+
+    /**
+     * Records that {@code count} new objects are propagated to
+     * a variable of {@code method}.
+     */
+    private void onNewPointsTo(JMethod method, int count) {
+        MethodState state = states.get(method);
+        if (state != null) {
+            state.ptsVolume += count;
+            if (state.ptsVolume > ptsLimit) {
+                demote(method, state);
+            }
+        }
+    }
+
+    private void demote(JMethod method, MethodState state) {
+        if (state.maxLength > 0) {
+            state.lengthLimit = state.maxLength - 1;
+            ++demotions;
+            logger.debug("Demoted {} to {}-limiting contexts",
+                    method, state.lengthLimit);
+        }
+        state.contexts.clear();
+        state.maxLength = 0;
+        state.ptsVolume = 0;
+    }
+
+    /**
+     * @return the methods that have been demoted to context-insensitivity.
+     */
+    public Set<JMethod> getCIMethods() {
+        Set<JMethod> result = Sets.newSet();
+        states.forEach((m, s) -> {
+            if (s.lengthLimit == 0) {
+                result.add(m);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @return the plugin that monitors the growth of the points-to sets
+     * of the variables in each method, which should be added to
+     * pointer analysis together with this selector.
+     */
+    public Plugin getMonitor() {
+        return new Plugin() {
+            @Override
+            public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
+                onNewPointsTo(csVar.getVar().getMethod(), pts.size());
+            }
+
+            @Override
+            public void onFinish() {
+                logger.info("Adaptive context sensitivity: {} demotions," +
+                                " {} methods demoted to context-insensitivity",
+                        demotions, getCIMethods().size());
+            }
+        };
+    }
+
+    /**
+     * Adaptation state of a method since its last demotion.
+     */
+    private static class MethodState {
+
+        /**
+         * Maximum length of the contexts selected for the method.
+         */
+        private int lengthLimit = Integer.MAX_VALUE;
+
+        /**
+         * Contexts selected for the method since its last demotion.
+         */
+        private final Set<Context> contexts = Sets.newHybridSet();
+
+        /**
+         * Maximum length of {@link #contexts}.
+         */
+        private int maxLength = 0;
+
+        /**
+         * Number of objects propagated to the variables of the method
+         * since its last demotion.
+         */
+        private long ptsVolume = 0;
+    }
+}
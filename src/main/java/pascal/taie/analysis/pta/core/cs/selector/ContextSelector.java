@@ -28,6 +28,7 @@ import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
 
 /**
  * Represents context sensitivity variants.
@@ -67,4 +68,20 @@ public interface ContextSelector {
      * @return the heap context for the object.
      */
     Context selectHeapContext(CSMethod method, Obj obj);
+
+    /**
+     * Makes the context which consists of given elements, e.g., to restore
+     * the contexts saved by a previous analysis.
+     * <p>
+     * The default implementation throws {@link AnalysisException},
+     * and the selectors which support the checkpoints of pointer analysis
+     * should override it.
+     *
+     * @param elems the context elements.
+     * @return the context produced by this selector.
+     */
+    default Context makeContext(Object... elems) {
+        throw new AnalysisException(getClass().getName()
+                + " does not support making contexts from elements");
+    }
 }
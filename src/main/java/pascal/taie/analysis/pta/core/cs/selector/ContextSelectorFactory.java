@@ -102,6 +102,43 @@ public class ContextSelectorFactory {
         return new SelectiveSelector(makePlainSelector(cs), isCSMethod, isCSObj);
     }
 
+    /**
+     * Default limit of the number of contexts of a method
+     * for adaptive selector.
+     */
+    private static final int DEFAULT_ADAPTIVE_CTX_LIMIT = 200;
+
+    /**
+     * Default limit of the number of objects propagated to the variables
+     * of a method for adaptive selector.
+     */
+    private static final long DEFAULT_ADAPTIVE_PTS_LIMIT = 500_000;
+
+    /**
+     * @return an adaptive context selector which starts with given context
+     * sensitivity variant (specified by cs) and demotes the expensive methods
+     * during solving. The limits of demotion are specified by arg, which is
+     * either {@code adaptive} (default limits) or {@code adaptive=CTX,PTS}.
+     */
+    public static AdaptiveSelector makeAdaptiveSelector(String cs, String arg) {
+        int ctxLimit = DEFAULT_ADAPTIVE_CTX_LIMIT;
+        long ptsLimit = DEFAULT_ADAPTIVE_PTS_LIMIT;
+        if (arg.startsWith("adaptive=")) {
+            try {
+                String[] limits = arg.substring("adaptive=".length()).split(",");
+                ctxLimit = Integer.parseInt(limits[0].trim());
+                if (limits.length > 1) {
+                    ptsLimit = Long.parseLong(limits[1].trim());
+                }
+            } catch (NumberFormatException e) {
+                throw new ConfigException("Illegal adaptive argument: " + arg, e);
+            }
+        } else if (!arg.equals("adaptive")) {
+            throw new ConfigException("Illegal adaptive argument: " + arg);
+        }
+        return new AdaptiveSelector(makePlainSelector(cs), ctxLimit, ptsLimit);
+    }
+
     /**
      * @return a guided context selector which applies the context sensitivity
      * variants to the methods according to given map.
@@ -84,4 +84,9 @@ class SelectiveSelector implements ContextSelector {
                 delegate.selectHeapContext(method, obj) :
                 delegate.getEmptyContext();
     }
+
+    @Override
+    public Context makeContext(Object... elems) {
+        return delegate.makeContext(elems);
+    }
 }
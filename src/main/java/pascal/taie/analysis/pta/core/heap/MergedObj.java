@@ -55,6 +55,10 @@ public class MergedObj extends Obj {
         this.name = name;
     }
 
+    public String getName() {
+        return name;
+    }
+
     public void addRepresentedObj(Obj obj) {
         setRepresentative(obj);
         representedObjs.add(obj);
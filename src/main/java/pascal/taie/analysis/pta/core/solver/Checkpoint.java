@@ -0,0 +1,386 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.analysis.graph.callgraph.CallKind;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.InstanceField;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.cs.element.StaticField;
+import pascal.taie.analysis.pta.core.heap.ConstantObj;
+import pascal.taie.analysis.pta.core.heap.MergedObj;
+import pascal.taie.analysis.pta.core.heap.NewObj;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.frontend.cache.CachedWorldBuilder;
+import pascal.taie.frontend.cache.WorldRefStreams;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.ReferenceLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checkpoint of pointer analysis, which contains the points-to facts and
+ * call edges found so far, so that an analysis which stops early (e.g.,
+ * due to time limit) can be resumed by a later run.
+ * <p>
+ * As pointer analysis is monotone, the facts in a checkpoint are part of
+ * the final results, thus a later run can start from them and reach the
+ * same results without discovering the facts one by one again.
+ * The contexts and objects are saved by their elements and allocation
+ * sites, and restored via the context selector and heap model of the
+ * later run. The facts which involve synthetic elements (e.g., the mock
+ * objects and the variables created by plugins) are not saved, and they
+ * are derived again by the later run.
+ */
+class Checkpoint implements Serializable {
+
+    private static final Logger logger = LogManager.getLogger(Checkpoint.class);
+
+    private final List<Fact> facts = new ArrayList<>();
+
+    private final List<CallEdge> callEdges = new ArrayList<>();
+
+    /**
+     * Points-to facts of a pointer.
+     */
+    private record Fact(Serializable pointer, List<ObjKey> objs)
+            implements Serializable {
+    }
+
+    private record VarKey(Object[] context, Var var) implements Serializable {
+    }
+
+    private record StaticFieldKey(JField field) implements Serializable {
+    }
+
+    private record InstanceFieldKey(ObjKey base, JField field)
+            implements Serializable {
+    }
+
+    private record ArrayIndexKey(ObjKey array) implements Serializable {
+    }
+
+    /**
+     * @param alloc allocation site ({@link New} or {@link ReferenceLiteral})
+     *              of the object.
+     */
+    private record ObjKey(Object[] context, Object alloc)
+            implements Serializable {
+    }
+
+    /**
+     * Object which acts as a context element.
+     */
+    private record ObjElem(Object alloc) implements Serializable {
+    }
+
+    private record CallEdge(CallKind kind,
+                            Object[] callerContext, Invoke callSite,
+                            Object[] calleeContext, JMethod callee)
+            implements Serializable {
+    }
+
+    /**
+     * Makes a checkpoint for the current state of given solver.
+     */
+    static Checkpoint make(DefaultSolver solver) {
+        Checkpoint checkpoint = new Checkpoint();
+        solver.getCSManager().pointers().forEach(pointer ->
+                checkpoint.addFact(pointer, pointer.getPointsToSet()));
+        solver.getCallGraph().edges().forEach(checkpoint::addCallEdge);
+        // the pending entries in work list are also part of the results
+        WorkList workList = solver.getWorkList();
+        while (!workList.isEmpty()) {
+            WorkList.Entry entry = workList.pollEntry();
+            if (entry instanceof WorkList.PointerEntry pEntry) {
+                checkpoint.addFact(pEntry.pointer(), pEntry.pointsToSet());
+            } else if (entry instanceof WorkList.CallEdgeEntry eEntry) {
+                eEntry.edges().forEach(checkpoint::addCallEdge);
+            }
+        }
+        return checkpoint;
+    }
+
+    private void addFact(Pointer pointer, PointsToSet pts) {
+        Serializable key = encodePointer(pointer);
+        if (pts == null || pts.isEmpty() || key == null) {
+            return;
+        }
+        List<ObjKey> objs = new ArrayList<>(pts.size());
+        pts.forEach(csObj -> {
+            ObjKey objKey = encodeObj(csObj);
+            if (objKey != null) {
+                objs.add(objKey);
+            }
+        });
+        if (!objs.isEmpty()) {
+            facts.add(new Fact(key, objs));
+        }
+    }
+
+    private void addCallEdge(Edge<CSCallSite, CSMethod> edge) {
+        CSCallSite csCallSite = edge.getCallSite();
+        CSMethod csCallee = edge.getCallee();
+        Object[] callerCtx = encodeContext(csCallSite.getContext());
+        Object[] calleeCtx = encodeContext(csCallee.getContext());
+        // call edges of OTHER kind are added by plugins
+        // with their own semantics, thus they are not saved
+        if (edge.getKind() != CallKind.OTHER
+                && isInIR(csCallSite.getCallSite())
+                && callerCtx != null && calleeCtx != null) {
+            callEdges.add(new CallEdge(edge.getKind(),
+                    callerCtx, csCallSite.getCallSite(),
+                    calleeCtx, csCallee.getMethod()));
+        }
+    }
+
+    /**
+     * Adds the facts and call edges in this checkpoint to given solver.
+     */
+    void restore(DefaultSolver solver) {
+        Decoder decoder = new Decoder(solver);
+        int nFacts = 0;
+        for (Fact fact : facts) {
+            Pointer pointer = decoder.decodePointer(fact.pointer());
+            PointsToSet pts = solver.makePointsToSet();
+            fact.objs().forEach(objKey -> pts.addObject(decoder.decodeObj(objKey)));
+            solver.propagateTo(pointer, pts);
+            nFacts += pts.size();
+        }
+        CSManager csManager = solver.getCSManager();
+        for (CallEdge edge : callEdges) {
+            CSCallSite csCallSite = csManager.getCSCallSite(
+                    decoder.decodeContext(edge.callerContext()), edge.callSite());
+            CSMethod csCallee = csManager.getCSMethod(
+                    decoder.decodeContext(edge.calleeContext()), edge.callee());
+            solver.addCallEdge(new Edge<>(edge.kind(), csCallSite, csCallee));
+        }
+        logger.info("Restored {} points-to facts and {} call edges from checkpoint",
+                nFacts, callEdges.size());
+    }
+
+    private static Serializable encodePointer(Pointer pointer) {
+        if (pointer instanceof CSVar csVar) {
+            Object[] context = encodeContext(csVar.getContext());
+            return context != null && isInIR(csVar.getVar())
+                    ? new VarKey(context, csVar.getVar()) : null;
+        } else if (pointer instanceof StaticField staticField) {
+            return new StaticFieldKey(staticField.getField());
+        } else if (pointer instanceof InstanceField instanceField) {
+            ObjKey base = encodeObj(instanceField.getBase());
+            return base != null
+                    ? new InstanceFieldKey(base, instanceField.getField()) : null;
+        } else if (pointer instanceof ArrayIndex arrayIndex) {
+            ObjKey array = encodeObj(arrayIndex.getArray());
+            return array != null ? new ArrayIndexKey(array) : null;
+        }
+        return null;
+    }
+
+    private static ObjKey encodeObj(CSObj csObj) {
+        Object[] context = encodeContext(csObj.getContext());
+        Object alloc = getAllocSite(csObj.getObject());
+        return context != null && alloc != null
+                ? new ObjKey(context, alloc) : null;
+    }
+
+    /**
+     * @return the elements of given context, or {@code null} if
+     * the context contains synthetic elements.
+     */
+    private static Object[] encodeContext(Context context) {
+        Object[] elems = new Object[context.getLength()];
+        for (int i = 0; i < elems.length; ++i) {
+            Object elem = context.getElementAt(i);
+            if (elem instanceof Obj obj) {
+                Object alloc = getAllocSite(obj);
+                if (alloc == null) {
+                    return null;
+                }
+                elems[i] = new ObjElem(alloc);
+            } else if (elem instanceof Invoke invoke && !isInIR(invoke)) {
+                return null;
+            } else {
+                elems[i] = elem;
+            }
+        }
+        return elems;
+    }
+
+    /**
+     * @return the allocation site from which the heap model produces
+     * given object, or {@code null} if the object is synthetic.
+     */
+    private static Object getAllocSite(Obj obj) {
+        if (obj instanceof NewObj newObj) {
+            return isInIR(newObj.getAllocation()) ? newObj.getAllocation() : null;
+        } else if (obj instanceof ConstantObj constantObj) {
+            return constantObj.getAllocation();
+        } else if (obj instanceof MergedObj mergedObj) {
+            // the heap model produces the merged object for
+            // the allocation site of any represented object
+            for (Obj represented : mergedObj.getAllocation()) {
+                Object alloc = getAllocSite(represented);
+                if (alloc != null) {
+                    return alloc;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isInIR(Var var) {
+        IR ir = var.getMethod().getIR();
+        return var.getIndex() < ir.getVars().size()
+                && ir.getVar(var.getIndex()) == var;
+    }
+
+    private static boolean isInIR(Stmt stmt) {
+        JMethod container = stmt instanceof Invoke invoke
+                ? invoke.getContainer() : ((New) stmt).getContainer();
+        IR ir = container.getIR();
+        return stmt.getIndex() >= 0 && stmt.getIndex() < ir.getStmts().size()
+                && ir.getStmt(stmt.getIndex()) == stmt;
+    }
+
+    /**
+     * Restores the elements saved in checkpoint for the solver.
+     */
+    private record Decoder(DefaultSolver solver) {
+
+        private Pointer decodePointer(Object key) {
+            CSManager csManager = solver.getCSManager();
+            if (key instanceof VarKey varKey) {
+                return csManager.getCSVar(
+                        decodeContext(varKey.context()), varKey.var());
+            } else if (key instanceof StaticFieldKey staticFieldKey) {
+                return csManager.getStaticField(staticFieldKey.field());
+            } else if (key instanceof InstanceFieldKey instanceFieldKey) {
+                return csManager.getInstanceField(
+                        decodeObj(instanceFieldKey.base()), instanceFieldKey.field());
+            } else {
+                return csManager.getArrayIndex(
+                        decodeObj(((ArrayIndexKey) key).array()));
+            }
+        }
+
+        private CSObj decodeObj(ObjKey key) {
+            return solver.getCSManager().getCSObj(
+                    decodeContext(key.context()), getObj(key.alloc()));
+        }
+
+        private Context decodeContext(Object[] elems) {
+            Object[] decoded = new Object[elems.length];
+            for (int i = 0; i < elems.length; ++i) {
+                decoded[i] = elems[i] instanceof ObjElem objElem
+                        ? getObj(objElem.alloc()) : elems[i];
+            }
+            return solver.getContextSelector().makeContext(decoded);
+        }
+
+        private Obj getObj(Object alloc) {
+            return alloc instanceof New allocSite
+                    ? solver.getHeapModel().getObj(allocSite)
+                    : solver.getHeapModel().getConstantObj((ReferenceLiteral) alloc);
+        }
+    }
+
+    /**
+     * @return the fingerprint of the analyzed program and given options.
+     */
+    static String getFingerprint(AnalysisOptions options) {
+        return new Fingerprints().getOptionsDigest(options) + ";"
+                + CachedWorldBuilder.getWorldCacheHash(World.get().getOptions());
+    }
+
+    /**
+     * Saves this checkpoint to given file.
+     *
+     * @param fingerprint the fingerprint of the analyzed program and
+     *                    options, which is checked when loading the checkpoint
+     */
+    void save(String fingerprint, File file) {
+        logger.info("Saving checkpoint ({} pointers, {} call edges) to {}",
+                facts.size(), callEdges.size(), file);
+        try (ObjectOutputStream oos = WorldRefStreams.newOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            oos.writeUTF(fingerprint);
+            oos.writeObject(this);
+        } catch (Exception e) {
+            logger.error("Failed to save checkpoint to {} due to {}", file, e);
+            file.delete();
+        }
+    }
+
+    /**
+     * Loads the checkpoint from given file.
+     *
+     * @return the loaded checkpoint, or {@code null} if the file does
+     * not exist, or it mismatches the fingerprint, or it fails to be loaded.
+     */
+    static Checkpoint load(String fingerprint, File file) {
+        if (!file.exists()) {
+            return null;
+        }
+        logger.info("Loading checkpoint from {}", file);
+        try (ObjectInputStream ois = WorldRefStreams.newInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (!ois.readUTF().equals(fingerprint)) {
+                logger.info("Checkpoint in {} is outdated," +
+                        " the program or the options have changed", file);
+                return null;
+            }
+            return (Checkpoint) ois.readObject();
+        } catch (Exception e) {
+            logger.error("Failed to load checkpoint from {} due to {}", file, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Detects cycles in pointer flow graph on the fly, and collapses
+ * the pointers in a cycle so that they share a single points-to set.
+ * <p>
+ * The detection follows lazy cycle detection (Hardekopf and Lin, PLDI'07):
+ * after the new objects of a pointer {@code p} have been propagated,
+ * for each out edge {@code p -> q} that has not been checked, if
+ * pt(p) is equal to pt(q), then {@code q} probably reaches {@code p},
+ * and we search the cycle that contains the edge.
+ * <p>
+ * Only the edges with {@link Identity} transfer and the pointers without
+ * filters are considered in the cycles, thus all pointers in a cycle must
+ * point to the same objects, and sharing points-to set among them does
+ * not change the analysis result. When propagating objects, the solver
+ * skips the {@link Identity} transfer on the edges inside a collapsed
+ * cycle, and still applies the other transfer functions on the edges.
+ * If a filter is added to a collapsed pointer later, its whole cycle
+ * is split by {@link #split(Pointer)}.
+ */
+final class CycleCollapser {
+
+    private final Solver solver;
+
+    /**
+     * Maps each collapsed pointer to the members of its cycle.
+     * All members of a cycle share the same list.
+     */
+    private final Map<Pointer, List<Pointer>> cycles = Maps.newMap();
+
+    /**
+     * Edges that have been checked by cycle detection.
+     * Each edge is checked at most once.
+     */
+    private final Set<PointerFlowEdge> checkedEdges = Sets.newSet();
+
+    /**
+     * Number of cycles that have been collapsed.
+     */
+    private int collapsedCycles = 0;
+
+    CycleCollapser(Solver solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * @return the pointers that share the points-to set with given pointer,
+     * including the pointer itself.
+     */
+    List<Pointer> getMembers(Pointer pointer) {
+        List<Pointer> members = cycles.get(pointer);
+        return members != null ? members : List.of(pointer);
+    }
+
+    /**
+     * @return the representative of the cycle that contains given pointer,
+     * or the pointer itself if it has not been collapsed.
+     */
+    Pointer getRepresentative(Pointer pointer) {
+        List<Pointer> members = cycles.get(pointer);
+        return members != null ? members.get(0) : pointer;
+    }
+
+    /**
+     * @return {@code true} if the objects propagated along given edge
+     * by given transfer can be skipped, i.e., the transfer is
+     * {@link Identity} and the edge is inside a collapsed cycle.
+     */
+    boolean isSkipped(PointerFlowEdge edge, Transfer transfer) {
+        return transfer == Identity.get()
+                && isInSameCycle(edge.source(), edge.target());
+    }
+
+    private boolean isInSameCycle(Pointer p1, Pointer p2) {
+        List<Pointer> members = cycles.get(p1);
+        return members != null && members == cycles.get(p2);
+    }
+
+    /**
+     * Checks the out edges of the cycle that contains given pointer,
+     * and collapses the detected cycles.
+     *
+     * @return the new objects of the pointers in the collapsed cycles,
+     * which need to be processed by the solver.
+     */
+    Map<Pointer, PointsToSet> collapseCycles(Pointer pointer) {
+        Map<Pointer, PointsToSet> diffs = Maps.newLinkedHashMap();
+        for (Pointer source : List.copyOf(getMembers(pointer))) {
+            for (PointerFlowEdge edge : source.getOutEdges()) {
+                Pointer target = edge.target();
+                if (isCandidate(edge)
+                        && !isInSameCycle(source, target)
+                        && checkedEdges.add(edge)
+                        && hasSameObjects(source, target)) {
+                    List<Pointer> cycle = findCycle(source, target);
+                    if (!cycle.isEmpty()) {
+                        collapse(cycle, diffs);
+                    }
+                }
+            }
+        }
+        return diffs;
+    }
+
+    /**
+     * @return {@code true} if given edge can be part of a collapsed cycle.
+     */
+    private static boolean isCandidate(PointerFlowEdge edge) {
+        return edge.getTransfers().contains(Identity.get())
+                && edge.source().getFilters().isEmpty()
+                && edge.target().getFilters().isEmpty();
+    }
+
+    private static boolean hasSameObjects(Pointer p1, Pointer p2) {
+        PointsToSet pts1 = p1.getPointsToSet();
+        PointsToSet pts2 = p2.getPointsToSet();
+        return pts1 != null && pts2 != null
+                && pts1.size() == pts2.size()
+                && pts1.getObjects().containsAll(pts2.getObjects());
+    }
+
+    /**
+     * Finds the pointers in the cycle that contains edge source -> target.
+     *
+     * @return the pointers that are reachable from {@code target}
+     * and can reach {@code source}, or an empty list if
+     * {@code source} is unreachable from {@code target}.
+     */
+    private static List<Pointer> findCycle(Pointer source, Pointer target) {
+        // traverses forward from target, and records reversed edges
+        MultiMap<Pointer, Pointer> preds = Maps.newMultiMap();
+        Set<Pointer> visited = Sets.newSet();
+        Queue<Pointer> queue = new ArrayDeque<>();
+        visited.add(target);
+        queue.add(target);
+        while (!queue.isEmpty()) {
+            Pointer p = queue.poll();
+            for (PointerFlowEdge edge : p.getOutEdges()) {
+                if (isCandidate(edge)) {
+                    Pointer succ = edge.target();
+                    preds.put(succ, p);
+                    if (visited.add(succ)) {
+                        queue.add(succ);
+                    }
+                }
+            }
+        }
+        if (!visited.contains(source)) {
+            return List.of();
+        }
+        // traverses backward from source to collect the pointers
+        // which can reach source
+        List<Pointer> cycle = new ArrayList<>();
+        Set<Pointer> reached = Sets.newSet();
+        reached.add(source);
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            Pointer p = queue.poll();
+            cycle.add(p);
+            for (Pointer pred : preds.get(p)) {
+                if (reached.add(pred)) {
+                    queue.add(pred);
+                }
+            }
+        }
+        return cycle;
+    }
+
+    /**
+     * Collapses the pointers in given cycle (together with the existing
+     * cycles that contain them), and records the new objects of each
+     * pointer in {@code diffs}.
+     */
+    private void collapse(List<Pointer> cycle, Map<Pointer, PointsToSet> diffs) {
+        List<Pointer> members = new ArrayList<>();
+        Set<List<Pointer>> merged = Sets.newHybridSet();
+        for (Pointer p : cycle) {
+            List<Pointer> oldMembers = cycles.get(p);
+            if (oldMembers == null) {
+                members.add(p);
+            } else if (merged.add(oldMembers)) {
+                members.addAll(oldMembers);
+            }
+        }
+        PointsToSet shared = solver.makePointsToSet();
+        members.forEach(p -> shared.addAll(solver.getPointsToSetOf(p)));
+        for (Pointer p : members) {
+            PointsToSet old = solver.getPointsToSetOf(p);
+            PointsToSet diff = solver.makePointsToSet();
+            shared.forEach(o -> {
+                if (!old.contains(o)) {
+                    diff.addObject(o);
+                }
+            });
+            if (!diff.isEmpty()) {
+                diffs.computeIfAbsent(p, unused -> solver.makePointsToSet())
+                        .addAll(diff);
+            }
+            p.setPointsToSet(shared);
+            cycles.put(p, members);
+        }
+        ++collapsedCycles;
+    }
+
+    /**
+     * Splits the collapsed cycle that contains given pointer, i.e.,
+     * gives every member of the cycle its own copy of the shared
+     * points-to set. This is called when a filter is added to the pointer.
+     * The whole cycle is split, as the other members may be connected
+     * only via this pointer, and sharing points-to set among them would
+     * let the objects rejected by the filter flow around it.
+     * The out edges of the members can be checked again, so that the
+     * cycles which remain without this pointer are detected and
+     * collapsed later.
+     */
+    void split(Pointer pointer) {
+        List<Pointer> members = cycles.get(pointer);
+        if (members != null) {
+            // the member list is not modified, as it may be being
+            // iterated by the solver
+            for (Pointer p : members) {
+                cycles.remove(p);
+                p.setPointsToSet(solver.getPointsToSetOf(p).copy());
+                p.getOutEdges().forEach(checkedEdges::remove);
+            }
+        }
+    }
+
+    /**
+     * @return the number of cycles that have been collapsed.
+     */
+    int getCollapsedCycles() {
+        return collapsedCycles;
+    }
+
+    /**
+     * @return the number of pointers in the collapsed cycles.
+     */
+    int getCollapsedPointers() {
+        return cycles.size();
+    }
+}
@@ -51,9 +51,11 @@ import pascal.taie.analysis.pta.plugin.Plugin;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.analysis.pta.pts.PointsToSetFactory;
 import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.CastExp;
 import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.InvokeInstanceExp;
 import pascal.taie.ir.exp.InvokeStatic;
 import pascal.taie.ir.exp.Literal;
 import pascal.taie.ir.exp.NewExp;
@@ -80,15 +82,23 @@ import pascal.taie.language.type.ArrayType;
 import pascal.taie.language.type.ClassType;
 import pascal.taie.language.type.Type;
 import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.AnalysisException;
 import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
 import pascal.taie.util.collection.Sets;
 
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
 import static pascal.taie.language.classes.Signatures.FINALIZE;
@@ -122,6 +132,17 @@ public class DefaultSolver implements Solver {
 
     private final PointsToSetFactory ptsFactory;
 
+    /**
+     * Whether interns the points-to sets of pointers during the analysis.
+     */
+    private final boolean internPointsToSets;
+
+    /**
+     * The number of processed pointer entries at which the points-to sets
+     * of pointers will be interned next time.
+     */
+    private long nextInterning;
+
     private final PropagateTypes propTypes;
 
     /**
@@ -134,6 +155,58 @@ public class DefaultSolver implements Solver {
      */
     private final long timeLimit;
 
+    /**
+     * Strategy to order the pointer entries in work list.
+     */
+    private final String workListStrategy;
+
+    /**
+     * Whether collapses the cycles in pointer flow graph.
+     */
+    private final boolean collapseCycles;
+
+    /**
+     * Whether the solver records the facts needed by {@link #removeMethods},
+     * and updates the outdated state in {@link #stateFile} (if any)
+     * for the changes of the program.
+     */
+    private final boolean incremental;
+
+    /**
+     * File to save the checkpoint when the solver stops early,
+     * and to resume the solver from.
+     */
+    private final File checkpointFile;
+
+    /**
+     * File to save the state when the solver finishes, see {@link StateFile}.
+     */
+    private final File stateFile;
+
+    private final SolverMetrics metrics = new SolverMetrics();
+
+    /**
+     * Number of pointer flow edges added to pointer flow graph.
+     */
+    private final SolverMetrics.Counter pfgEdges =
+            metrics.addCounter(SolverMetrics.PFG_EDGES);
+
+    /**
+     * Total size of the new objects added to points-to sets.
+     */
+    private final SolverMetrics.Counter ptsVolume =
+            metrics.addCounter(SolverMetrics.PTS_VOLUME);
+
+    /**
+     * Writes metrics periodically, {@code null} if disabled.
+     */
+    private MetricsReporter metricsReporter;
+
+    /**
+     * Saves the checkpoint on JVM shutdown (e.g., on SIGTERM).
+     */
+    private CheckpointHook checkpointHook;
+
     private TimeLimiter timeLimiter;
 
     /**
@@ -141,10 +214,58 @@ public class DefaultSolver implements Solver {
      */
     private volatile boolean isTimeout;
 
+    /**
+     * Whether the analysis is stopped as the JVM is shutting down.
+     */
+    private volatile boolean isTerminated;
+
+    /**
+     * Whether the analysis is running and the plugins have not finished,
+     * i.e., the results can still be updated.
+     */
+    private boolean isSolving;
+
     private Plugin plugin;
 
     private WorkList workList;
 
+    private CycleCollapser collapser;
+
+    /**
+     * Caches the filtering results of the pointers with filters.
+     */
+    private Map<Pointer, FilterCache> filterCaches;
+
+    /**
+     * Caches the callees resolved for receiver types at call sites.
+     */
+    private DispatchCache dispatchCache;
+
+    /**
+     * Points-to facts added from outside of pointer flow graph
+     * (e.g., by entry points and plugins). Recorded for incremental update.
+     */
+    private Map<Pointer, PointsToSet> seeds;
+
+    /**
+     * Points-to facts generated by the statements (i.e., {@link New} and
+     * {@link AssignLiteral}) of reachable methods. Recorded for
+     * incremental update.
+     */
+    private Map<Pointer, PointsToSet> stmtSeeds;
+
+    /**
+     * In edges of the pointers in pointer flow graph, which is not
+     * maintained by the graph itself. Recorded for incremental update.
+     */
+    private MultiMap<Pointer, PointerFlowEdge> inEdges;
+
+    /**
+     * Methods removed by {@link #removeMethods}, the calls to which
+     * are not resolved anymore.
+     */
+    private Set<JMethod> removedMethods;
+
     private CSCallGraph callGraph;
 
     private PointerFlowGraph pointerFlowGraph;
@@ -174,12 +295,25 @@ public class DefaultSolver implements Solver {
         this.csManager = csManager;
         hierarchy = World.get().getClassHierarchy();
         typeSystem = World.get().getTypeSystem();
-        ptsFactory = new PointsToSetFactory(csManager.getObjectIndexer());
+        ptsFactory = new PointsToSetFactory(csManager.getObjectIndexer(),
+                options.getString("pts"));
+        internPointsToSets = options.getString("pts").equals("shared");
         propTypes = new PropagateTypes(
                 (List<String>) options.get("propagate-types"),
                 typeSystem);
         onlyApp = options.getBoolean("only-app");
         timeLimit = options.getInt("time-limit");
+        workListStrategy = options.getString("worklist");
+        collapseCycles = options.getBoolean("collapse-cycles");
+        incremental = options.getBoolean("incremental");
+        String checkpoint = options.getString("checkpoint-file");
+        checkpointFile = checkpoint != null ? new File(checkpoint) : null;
+        String state = options.getString("state-file");
+        stateFile = state != null ? new File(state) : null;
+        if (incremental && collapseCycles) {
+            throw new ConfigException("Option incremental:true cannot be" +
+                    " used together with collapse-cycles:true");
+        }
     }
 
     @Override
@@ -237,6 +371,31 @@ public class DefaultSolver implements Solver {
         this.plugin = plugin;
     }
 
+    @Override
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
+    WorkList getWorkList() {
+        return workList;
+    }
+
+    PointerFlowGraph getPointerFlowGraph() {
+        return pointerFlowGraph;
+    }
+
+    boolean isTimeout() {
+        return isTimeout;
+    }
+
+    /**
+     * Makes this solver stop early as if it reaches the time limit,
+     * e.g., for the tests to stop it at a deterministic point.
+     */
+    void setTimeout() {
+        isTimeout = true;
+    }
+
     // ---------- solver logic starts ----------
 
     /**
@@ -244,8 +403,32 @@ public class DefaultSolver implements Solver {
      */
     @Override
     public void solve() {
-        initialize();
-        analyze();
+        try {
+            initialize();
+            boolean restored = false;
+            if (checkpointFile != null) {
+                Checkpoint checkpoint = Checkpoint.load(
+                        Checkpoint.getFingerprint(options),
+                        checkpointFile);
+                if (checkpoint != null) {
+                    checkpoint.restore(this);
+                    restored = true;
+                }
+                // the hook is registered after the solver is initialized,
+                // so that it never saves a half-initialized solver
+                checkpointHook = new CheckpointHook();
+            }
+            // the saved state which is outdated by the changes of
+            // the program is updated instead of solving from scratch
+            boolean updated = !restored && incremental && stateFile != null
+                    && StateFile.update(this, stateFile);
+            analyze();
+            if (updated) {
+                getResult().storeResult(StateFile.UPDATED_FROM, stateFile);
+            }
+        } finally {
+            stopHelpers();
+        }
     }
 
     /**
@@ -254,19 +437,53 @@ public class DefaultSolver implements Solver {
     private void initialize() {
         callGraph = new CSCallGraph(csManager);
         pointerFlowGraph = new PointerFlowGraph(csManager);
-        workList = new WorkList();
+        workList = new WorkList(workListStrategy, pointerFlowGraph);
+        collapser = collapseCycles ? new CycleCollapser(this) : null;
+        filterCaches = Maps.newMap();
+        dispatchCache = new DispatchCache();
+        seeds = incremental ? Maps.newMap() : null;
+        stmtSeeds = incremental ? Maps.newMap() : null;
+        inEdges = incremental ? Maps.newMultiMap() : null;
+        removedMethods = Sets.newSet();
         reachableMethods = Sets.newSet();
         initializedClasses = Sets.newSet();
         ignoredMethods = Sets.newSet();
         stmtProcessor = new StmtProcessor();
         isTimeout = false;
+        isTerminated = false;
+        isSolving = true;
         if (timeLimit != UNLIMITED) {
             timeLimiter = new TimeLimiter(timeLimit);
             timeLimiter.countDown();
         }
+        initializeMetrics();
         plugin.onStart();
     }
 
+    /**
+     * Registers the gauges of solver states (once, as the solver may be
+     * run multiple times), and starts the metrics reporter if it is enabled.
+     */
+    private void initializeMetrics() {
+        if (!metrics.contains(SolverMetrics.WORK_LIST_SIZE)) {
+            // the gauges read the fields on sampling, as the work list and
+            // call graph are recreated each time the solver is initialized
+            metrics.addGauge(SolverMetrics.WORK_LIST_SIZE, () -> workList.size());
+            metrics.addGauge(SolverMetrics.PROPAGATIONS, () -> workList.getPolledEntries());
+            metrics.addGauge(SolverMetrics.POINTERS, csManager::getNumberOfPointers);
+            metrics.addGauge(SolverMetrics.CS_OBJECTS, csManager::getNumberOfObjects);
+            metrics.addGauge(SolverMetrics.CS_METHODS, () -> callGraph.getNumberOfMethods());
+            metrics.addGauge(SolverMetrics.CALL_EDGES, () -> callGraph.getNumberOfEdges());
+        }
+        int interval = options.getInt("metrics-interval");
+        if (interval > 0) {
+            metricsReporter = new MetricsReporter(metrics, interval,
+                    options.getString("metrics-format"),
+                    World.get().getOptions().getOutputDir());
+            metricsReporter.start();
+        }
+    }
+
     private class TimeLimiter {
 
         private static final long MILLIS_FACTOR = 1000;
@@ -301,65 +518,537 @@ public class DefaultSolver implements Solver {
         }
     }
 
+    private class CheckpointHook {
+
+        private static final long WAIT_MILLIS = 100;
+
+        private final Thread thread;
+
+        private final CountDownLatch stopped = new CountDownLatch(1);
+
+        /**
+         * The thread running the solver.
+         */
+        private final Thread solverThread = Thread.currentThread();
+
+        private CheckpointHook() {
+            thread = new Thread(() -> {
+                // stops the solver like reaching time limit, and waits
+                // for it to save the checkpoint before JVM exits,
+                // unless the solver thread has already died
+                isTerminated = true;
+                isTimeout = true;
+                try {
+                    while (!stopped.await(WAIT_MILLIS, TimeUnit.MILLISECONDS)
+                            && solverThread.isAlive()) {
+                        // keeps waiting
+                    }
+                } catch (InterruptedException ignored) {
+                }
+            });
+            Runtime.getRuntime().addShutdownHook(thread);
+        }
+
+        /**
+         * Notifies the hook that the solver has stopped.
+         */
+        private void stop() {
+            stopped.countDown();
+            try {
+                Runtime.getRuntime().removeShutdownHook(thread);
+            } catch (IllegalStateException ignored) {
+                // JVM is shutting down
+            }
+        }
+    }
+
     /**
      * Processes work list entries until the work list is empty.
      */
     private void analyze() {
-        while (!workList.isEmpty() && !isTimeout) {
-            // phase starts
+        try {
             while (!workList.isEmpty() && !isTimeout) {
-                WorkList.Entry entry = workList.pollEntry();
-                if (entry instanceof WorkList.PointerEntry pEntry) {
-                    Pointer p = pEntry.pointer();
-                    PointsToSet pts = pEntry.pointsToSet();
-                    PointsToSet diff = propagate(p, pts);
-                    if (!diff.isEmpty() && p instanceof CSVar v) {
-                        processInstanceStore(v, diff);
-                        processInstanceLoad(v, diff);
-                        processArrayStore(v, diff);
-                        processArrayLoad(v, diff);
-                        processCall(v, diff);
-                        plugin.onNewPointsToSet(v, diff);
-                    }
-                } else if (entry instanceof WorkList.CallEdgeEntry eEntry) {
-                    processCallEdge(eEntry.edge());
+                // phase starts
+                processWorkList();
+                plugin.onPhaseFinish();
+                internPointsToSets(true);
+            }
+            if (!workList.isEmpty() && isTimeout) {
+                if (isTerminated) {
+                    logger.warn("Pointer analysis stops early as the JVM is" +
+                            " shutting down, and the result may be unsound!");
+                } else {
+                    logger.warn("Pointer analysis stops early as it reaches time limit ({} seconds)," +
+                            " and the result may be unsound!", timeLimit);
+                }
+                if (checkpointFile != null) {
+                    Checkpoint.make(this).save(
+                            Checkpoint.getFingerprint(options),
+                            checkpointFile);
+                    logger.warn("Re-run pointer analysis with the same options" +
+                            " to resume from checkpoint {}", checkpointFile);
                 }
+            } else if (checkpointFile != null && checkpointFile.exists()) {
+                // the checkpoint is useless once the analysis finishes
+                checkpointFile.delete();
             }
-            plugin.onPhaseFinish();
+        } finally {
+            stopHelpers();
+            isSolving = false;
         }
-        if (!workList.isEmpty() && isTimeout) {
-            logger.warn("Pointer analysis stops early as it reaches time limit ({} seconds)," +
-                    " and the result may be unsound!", timeLimit);
-        } else if (timeLimiter != null) { // finish normally but time limiter is still running
-            timeLimiter.stop();
+        logger.info("Work list ({}): {} pointer entries processed, {} merged",
+                workListStrategy, workList.getPolledEntries(),
+                workList.getMergedEntries());
+        long lookups = dispatchCache.getHits() + dispatchCache.getMisses();
+        int[] sites = dispatchCache.countSites();
+        logger.info("Dispatch cache: {} lookups, hit rate {}%," +
+                        " {} monomorphic/{} polymorphic/{} megamorphic call sites",
+                lookups, lookups == 0 ? 0 : String.format("%.2f",
+                        100.0 * dispatchCache.getHits() / lookups),
+                sites[0], sites[1], sites[2]);
+        logger.info("Call edges: {} processed in {} batches (max batch size: {})",
+                workList.getPolledCallEdges(), workList.getPolledBatches(),
+                workList.getMaxBatchSize());
+        if (collapser != null) {
+            logger.info("Collapsed {} cycles ({} pointers) in pointer flow graph",
+                    collapser.getCollapsedCycles(), collapser.getCollapsedPointers());
         }
         plugin.onFinish();
+        if (stateFile != null && workList.isEmpty()) {
+            StateFile.save(this, stateFile);
+        }
+    }
+
+    /**
+     * Stops the helper threads (if any), which is called even if the
+     * analysis fails, otherwise they would keep the JVM from exiting.
+     */
+    private void stopHelpers() {
+        if (timeLimiter != null) {
+            timeLimiter.stop();
+            timeLimiter = null;
+        }
+        if (checkpointHook != null) {
+            checkpointHook.stop();
+            checkpointHook = null;
+        }
+        if (metricsReporter != null) {
+            metricsReporter.stop();
+            metricsReporter = null;
+        }
+    }
+
+    /**
+     * Removes given methods from the solved results, instead of re-solving
+     * the whole program without them. This method should be called during
+     * {@link #solve()} with option {@code incremental:true}, e.g., by
+     * a plugin in {@link Plugin#onPhaseFinish()}, as the plugins may
+     * release their states once they finish, and then they cannot
+     * process the re-propagated facts.
+     * <p>
+     * The removal resets the points-to sets of the <i>affected region</i>,
+     * i.e., the variables of the removed methods and the pointers
+     * reachable from them in pointer flow graph (including the variables
+     * and fields accessed through these variables, and the <i>this</i>
+     * variables of their callees), removes the pointer
+     * flow edges and call edges of the removed methods, and then
+     * re-propagates the region from the recorded seed facts and the
+     * pointers outside the region. Its cost is proportional to the size
+     * of the region (plus the edges into it), not the whole analysis.
+     * The edges of the field and array accesses on the region are removed
+     * and added again by the re-propagation, while the call edges on
+     * the region are kept, thus the results are sound but may be less
+     * precise than re-solving from scratch.
+     * <p>
+     * The removed methods are ignored by the subsequent analysis, and
+     * the calls to them are not resolved anymore.
+     */
+    @Override
+    public void removeMethods(Collection<JMethod> methods) {
+        if (inEdges == null) {
+            throw new AnalysisException("Removing methods requires" +
+                    " option incremental:true and a solved state");
+        }
+        if (!isSolving) {
+            throw new AnalysisException("Methods can only be removed" +
+                    " before the plugins finish, e.g., in Plugin.onPhaseFinish()");
+        }
+        // collect the affected region before the graphs are modified
+        List<CSMethod> csMethods = new ArrayList<>();
+        Set<Pointer> removedVars = Sets.newSet();
+        Set<Edge<CSCallSite, CSMethod>> callEdges = Sets.newSet();
+        for (JMethod method : methods) {
+            for (CSMethod csMethod : csManager.getCSMethodsOf(method)) {
+                if (callGraph.contains(csMethod)) {
+                    csMethods.add(csMethod);
+                    callEdges.addAll(csMethod.getEdges());
+                    if (!isIgnored(method)) {
+                        callGraph.getCallSitesIn(csMethod).forEach(csCallSite ->
+                                callEdges.addAll(csCallSite.getEdges()));
+                    }
+                }
+            }
+            if (!isIgnored(method)) {
+                method.getIR().getVars().forEach(var ->
+                        removedVars.addAll(csManager.getCSVarsOf(var)));
+            }
+        }
+        Set<Pointer> region = getAffectedRegion(removedVars);
+        methods.forEach(this::addIgnoredMethod);
+        removedMethods.addAll(methods);
+        dispatchCache.removeSitesIn(removedMethods);
+        // remove the pointer flow edges from and to the removed variables
+        Set<Pointer> sources = Sets.newSet();
+        for (Pointer var : removedVars) {
+            var.getOutEdges().forEach(edge -> inEdges.remove(edge.target(), edge));
+            var.removeEdgesIf(edge -> true);
+            inEdges.get(var).forEach(edge -> sources.add(edge.source()));
+            inEdges.removeAll(var);
+        }
+        sources.forEach(source -> source.removeEdgesIf(edge ->
+                removedVars.contains(edge.target())));
+        removeAccessEdges(region);
+        // remove the call edges from and to the removed methods
+        callEdges.forEach(callGraph::removeEdge);
+        for (CSMethod csMethod : csMethods) {
+            callGraph.removeReachableMethod(csMethod);
+        }
+        methods.forEach(reachableMethods::remove);
+        // reset the points-to sets of the region
+        removedVars.forEach(seeds::remove);
+        removedVars.forEach(stmtSeeds::remove);
+        region.forEach(p -> p.setPointsToSet(makePointsToSet()));
+        // re-propagate the region from its seeds, and from the pointers
+        // outside the region, the running analysis processes the facts
+        for (Pointer p : region) {
+            PointsToSet pts = seeds.get(p);
+            if (pts != null) {
+                propagateTo(p, pts.copy());
+            }
+            pts = stmtSeeds.get(p);
+            if (pts != null) {
+                propagateTo(p, pts.copy());
+            }
+            for (PointerFlowEdge edge : inEdges.get(p)) {
+                PointsToSet sourceSet = edge.source().getPointsToSet();
+                if (!region.contains(edge.source())
+                        && sourceSet != null && !sourceSet.isEmpty()) {
+                    edge.getTransfers().forEach(transfer ->
+                            propagateTo(p, transfer.apply(edge, sourceSet)));
+                }
+            }
+        }
+        // dispatch the calls to the reset this variables again, from
+        // the receivers outside the region
+        Set<CSVar> receivers = Sets.newSet();
+        region.forEach(p -> {
+            if (p instanceof CSVar csVar && isThis(csVar.getVar())) {
+                CSMethod csMethod = csManager.getCSMethod(
+                        csVar.getContext(), csVar.getVar().getMethod());
+                csMethod.getEdges().forEach(edge ->
+                        addReceiver(receivers, edge.getCallSite()));
+            }
+        });
+        receivers.removeAll(region);
+        receivers.forEach(recv -> processCall(recv, getPointsToSetOf(recv)));
+        logger.info("Removed {} methods ({} CS methods), {} pointers reset",
+                methods.size(), csMethods.size(), region.size());
+        result = null;
+    }
+
+    /**
+     * Removes the pointer flow edges of the field and array accesses
+     * on the variables in given region, which are added for the objects
+     * pointed to by the variables, and are added again when the region
+     * is re-propagated. The edges which are also added by the accesses on
+     * the variables outside the region are added back immediately.
+     */
+    private void removeAccessEdges(Set<Pointer> region) {
+        Set<CSMethod> containers = Sets.newSet();
+        for (Pointer p : region) {
+            if (p instanceof CSVar base && base.getPointsToSet() != null) {
+                Context context = base.getContext();
+                Var var = base.getVar();
+                List<CSObj> objs = base.getPointsToSet().objects().toList();
+                for (LoadField load : var.getLoadFields()) {
+                    if (propTypes.isAllowed(load.getLValue())) {
+                        JField field = load.getFieldRef().resolve();
+                        CSVar to = csManager.getCSVar(context, load.getLValue());
+                        objs.forEach(o -> removePFGEdge(
+                                csManager.getInstanceField(o, field), to));
+                    }
+                }
+                for (LoadArray load : var.getLoadArrays()) {
+                    if (propTypes.isAllowed(load.getLValue())) {
+                        CSVar to = csManager.getCSVar(context, load.getLValue());
+                        objs.forEach(o -> removePFGEdge(csManager.getArrayIndex(o), to));
+                    }
+                }
+                for (StoreField store : var.getStoreFields()) {
+                    if (propTypes.isAllowed(store.getRValue())) {
+                        JField field = store.getFieldRef().resolve();
+                        CSVar from = csManager.getCSVar(context, store.getRValue());
+                        objs.forEach(o -> removePFGEdge(
+                                from, csManager.getInstanceField(o, field)));
+                    }
+                }
+                for (StoreArray store : var.getStoreArrays()) {
+                    if (propTypes.isAllowed(store.getRValue())) {
+                        CSVar from = csManager.getCSVar(context, store.getRValue());
+                        objs.forEach(o -> removePFGEdge(from, csManager.getArrayIndex(o)));
+                    }
+                }
+                containers.add(csManager.getCSMethod(context, var.getMethod()));
+            }
+        }
+        // the same edges may be added by other variables in the methods
+        for (CSMethod container : containers) {
+            for (Var var : container.getMethod().getIR().getVars()) {
+                if (!propTypes.isAllowed(var)) {
+                    continue;
+                }
+                CSVar base = csManager.getCSVar(container.getContext(), var);
+                PointsToSet pts = base.getPointsToSet();
+                if (!region.contains(base) && pts != null && !pts.isEmpty()) {
+                    processInstanceStore(base, pts);
+                    processInstanceLoad(base, pts);
+                    processArrayStore(base, pts);
+                    processArrayLoad(base, pts);
+                }
+            }
+        }
+    }
+
+    private void removePFGEdge(Pointer source, Pointer target) {
+        source.removeEdgesIf(edge -> {
+            if (edge.target().equals(target)) {
+                inEdges.remove(target, edge);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * @return the pointers whose points-to sets may depend on given variables,
+     * i.e., the variables and the pointers reachable from them in pointer
+     * flow graph, the fields and variables accessed through them, and
+     * the <i>this</i> variables of the methods called on them.
+     */
+    private Set<Pointer> getAffectedRegion(Set<Pointer> vars) {
+        Set<Pointer> region = Sets.newSet(vars);
+        Deque<Pointer> queue = new ArrayDeque<>(vars);
+        while (!queue.isEmpty()) {
+            Pointer pointer = queue.poll();
+            List<Pointer> succs = new ArrayList<>();
+            pointer.getOutEdges().forEach(edge -> succs.add(edge.target()));
+            if (pointer instanceof CSVar csVar) {
+                Context context = csVar.getContext();
+                Var var = csVar.getVar();
+                // the edges of field and array accesses on the variable
+                // are added for the objects it points to
+                var.getLoadFields().forEach(load ->
+                        succs.add(csManager.getCSVar(context, load.getLValue())));
+                var.getLoadArrays().forEach(load ->
+                        succs.add(csManager.getCSVar(context, load.getLValue())));
+                PointsToSet pts = csVar.getPointsToSet();
+                if (pts != null) {
+                    List<CSObj> objs = pts.objects()
+                            .filter(o -> o.getObject().isFunctional())
+                            .toList();
+                    for (StoreField store : var.getStoreFields()) {
+                        JField field = store.getFieldRef().resolve();
+                        objs.forEach(o -> succs.add(csManager.getInstanceField(o, field)));
+                    }
+                    if (!var.getStoreArrays().isEmpty()) {
+                        objs.forEach(o -> succs.add(csManager.getArrayIndex(o)));
+                    }
+                }
+                for (Invoke callSite : var.getInvokes()) {
+                    csManager.getCSCallSite(csVar.getContext(), callSite)
+                            .getEdges()
+                            .forEach(edge -> {
+                                JMethod callee = edge.getCallee().getMethod();
+                                if (!isIgnored(callee)) {
+                                    succs.add(csManager.getCSVar(
+                                            edge.getCallee().getContext(),
+                                            callee.getIR().getThis()));
+                                }
+                            });
+                }
+            }
+            for (Pointer succ : succs) {
+                if (region.add(succ)) {
+                    queue.add(succ);
+                }
+            }
+        }
+        return region;
+    }
+
+    private static boolean isThis(Var var) {
+        return !var.getMethod().isStatic()
+                && var.equals(var.getMethod().getIR().getThis());
+    }
+
+    /**
+     * Adds the receiver variable (if any) of given call site to receivers.
+     */
+    private void addReceiver(Set<CSVar> receivers, CSCallSite csCallSite) {
+        if (csCallSite.getCallSite().getInvokeExp()
+                instanceof InvokeInstanceExp invokeExp) {
+            receivers.add(csManager.getCSVar(
+                    csCallSite.getContext(), invokeExp.getBase()));
+        }
+    }
+
+    /**
+     * Processes work list entries until the work list is empty
+     * or the analysis reaches time limit.
+     */
+    void processWorkList() {
+        while (!workList.isEmpty() && !isTimeout) {
+            internPointsToSets(false);
+            WorkList.Entry entry = workList.pollEntry();
+            if (entry instanceof WorkList.PointerEntry pEntry) {
+                Pointer p = pEntry.pointer();
+                PointsToSet pts = pEntry.pointsToSet();
+                propagate(p, pts);
+            } else if (entry instanceof WorkList.CallEdgeEntry eEntry) {
+                processCallEdges(eEntry.callee(), eEntry.edges());
+            }
+        }
+    }
+
+    /**
+     * Interns the points-to sets of all pointers (if enabled), so that
+     * the pointers with the same points-to set share a single set.
+     * To amortize the cost, the interning is performed only when enough
+     * pointer entries have been processed since last interning,
+     * unless {@code force} is true.
+     */
+    void internPointsToSets(boolean force) {
+        if (internPointsToSets &&
+                (force || workList.getPolledEntries() >= nextInterning)) {
+            List<PointsToSet> sets = csManager.pointers()
+                    .map(Pointer::getPointsToSet)
+                    .filter(Objects::nonNull)
+                    .toList();
+            int nDistinct = ptsFactory.intern(sets.stream());
+            nextInterning = workList.getPolledEntries() + Math.max(100_000, sets.size());
+            if (force) {
+                logger.info("Interned {} points-to sets into {} distinct sets",
+                        sets.size(), nDistinct);
+            }
+        }
     }
 
     /**
      * Propagates pointsToSet to pt(pointer) and its PFG successors,
-     * returns the difference set of pointsToSet and pt(pointer).
+     * and processes the new objects of the pointer.
+     */
+    private void propagate(Pointer pointer, PointsToSet pointsToSet) {
+        PointsToSet diff = addToPointsToSetOf(pointer, pointsToSet);
+        if (!diff.isEmpty()) {
+            for (Pointer p : getMembers(pointer)) {
+                propagateToSuccessors(p, diff);
+                processNewPointsTo(p, diff);
+            }
+            collapseCycles(pointer);
+        }
+    }
+
+    /**
+     * Propagates the new objects (i.e., diff) of pointer to its PFG successors.
+     */
+    private void propagateToSuccessors(Pointer pointer, PointsToSet diff) {
+        pointerFlowGraph.getOutEdgesOf(pointer).forEach(edge -> {
+            Pointer target = edge.target();
+            edge.getTransfers().forEach(transfer -> {
+                if (!isSkipped(edge, transfer)) {
+                    propagateTo(target, transfer.apply(edge, diff));
+                }
+            });
+        });
+    }
+
+    /**
+     * @return the pointers that share points-to set with given pointer
+     * (including the pointer itself) due to cycle collapsing.
+     */
+    List<Pointer> getMembers(Pointer pointer) {
+        return collapser != null ? collapser.getMembers(pointer) : List.of(pointer);
+    }
+
+    /**
+     * @return the representative of the pointers which share points-to set
+     * with given pointer due to cycle collapsing.
+     */
+    Pointer getRepresentative(Pointer pointer) {
+        return collapser != null ? collapser.getRepresentative(pointer) : pointer;
+    }
+
+    /**
+     * @return {@code true} if the propagation along given edge by given
+     * transfer can be skipped, as the edge is inside a collapsed cycle.
+     */
+    boolean isSkipped(PointerFlowEdge edge, Transfer transfer) {
+        return collapser != null && collapser.isSkipped(edge, transfer);
+    }
+
+    /**
+     * Detects and collapses the cycles around given pointer (if enabled),
+     * and processes the new objects of the collapsed pointers.
      */
-    private PointsToSet propagate(Pointer pointer, PointsToSet pointsToSet) {
+    void collapseCycles(Pointer pointer) {
+        if (collapser != null) {
+            collapser.collapseCycles(pointer).forEach((p, diff) -> {
+                propagateToSuccessors(p, diff);
+                processNewPointsTo(p, diff);
+            });
+        }
+    }
+
+    /**
+     * Applies the filters of pointer on pointsToSet, adds the result
+     * to pt(pointer), and returns the difference set.
+     * This method only modifies pt(pointer), thus it can be called
+     * concurrently for different pointers.
+     */
+    PointsToSet addToPointsToSetOf(Pointer pointer, PointsToSet pointsToSet) {
         logger.trace("Propagate {} to {}", pointsToSet, pointer);
         Set<Predicate<CSObj>> filters = pointer.getFilters();
         if (!filters.isEmpty()) {
             // apply filters (of the pointer) on pointsToSet
-            pointsToSet = pointsToSet.objects()
-                    .filter(o -> filters.stream().allMatch(f -> f.test(o)))
-                    .collect(ptsFactory::make, PointsToSet::addObject, PointsToSet::addAll);
+            FilterCache filterCache = filterCaches.get(pointer);
+            if (filterCache != null) {
+                pointsToSet = filterCache.apply(pointsToSet);
+            } else { // the filters were not added via addPointerFilter()
+                pointsToSet = pointsToSet.objects()
+                        .filter(o -> filters.stream().allMatch(f -> f.test(o)))
+                        .collect(ptsFactory::make, PointsToSet::addObject, PointsToSet::addAll);
+            }
         }
         PointsToSet diff = getPointsToSetOf(pointer).addAllDiff(pointsToSet);
-        if (!diff.isEmpty()) {
-            pointerFlowGraph.getOutEdgesOf(pointer).forEach(edge -> {
-                Pointer target = edge.target();
-                edge.getTransfers().forEach(transfer ->
-                        addPointsTo(target, transfer.apply(edge, diff)));
-            });
-        }
+        ptsVolume.add(diff.size());
         return diff;
     }
 
+    /**
+     * Processes the statements and plugins that are affected by
+     * the new objects (i.e., diff) pointed to by given pointer.
+     */
+    void processNewPointsTo(Pointer pointer, PointsToSet diff) {
+        if (!diff.isEmpty() && pointer instanceof CSVar v) {
+            processInstanceStore(v, diff);
+            processInstanceLoad(v, diff);
+            processArrayStore(v, diff);
+            processArrayLoad(v, diff);
+            processCall(v, diff);
+            plugin.onNewPointsToSet(v, diff);
+        }
+    }
+
     /**
      * Processes instance stores when points-to set of the base variable changes.
      *
@@ -468,10 +1157,11 @@ public class DefaultSolver implements Solver {
         Context context = recv.getContext();
         Var var = recv.getVar();
         for (Invoke callSite : var.getInvokes()) {
+            DispatchCache.Site site = dispatchCache.getSite(callSite);
             pts.forEach(recvObj -> {
                 // resolve callee
-                JMethod callee = CallGraphs.resolveCallee(
-                        recvObj.getObject().getType(), callSite);
+                JMethod callee = dispatchCache.resolve(
+                        site, recvObj.getObject().getType());
                 if (callee != null) {
                     // select context
                     CSCallSite csCallSite = csManager.getCSCallSite(context, callSite);
@@ -483,8 +1173,9 @@ public class DefaultSolver implements Solver {
                             csCallSite, csCallee));
                     // pass receiver object to *this* variable
                     if (!isIgnored(callee)) {
-                        addVarPointsTo(calleeContext, callee.getIR().getThis(),
-                                recvObj);
+                        CSVar thisVar = csManager.getCSVar(
+                                calleeContext, callee.getIR().getThis());
+                        propagateTo(thisVar, recvObj);
                     }
                 } else {
                     plugin.onUnresolvedCall(recvObj, context, callSite);
@@ -493,42 +1184,74 @@ public class DefaultSolver implements Solver {
         }
     }
 
-    private void processCallEdge(Edge<CSCallSite, CSMethod> edge) {
-        if (callGraph.addEdge(edge)) {
-            // process new call edge
-            CSMethod csCallee = edge.getCallee();
-            addCSMethod(csCallee);
-            if (edge.getKind() != CallKind.OTHER
-                    && !isIgnored(csCallee.getMethod())) {
+    void processCallEdge(Edge<CSCallSite, CSMethod> edge) {
+        processCallEdges(edge.getCallee(), List.of(edge));
+    }
+
+    /**
+     * Processes a batch of call edges to the same callee. The callee
+     * is made reachable, and its context-sensitive parameters and return
+     * variables are resolved, only once for all new edges in the batch.
+     */
+    void processCallEdges(CSMethod csCallee, List<Edge<CSCallSite, CSMethod>> edges) {
+        List<Edge<CSCallSite, CSMethod>> newEdges = new ArrayList<>(edges.size());
+        if (removedMethods.contains(csCallee.getMethod())) {
+            return;
+        }
+        for (Edge<CSCallSite, CSMethod> edge : edges) {
+            if (callGraph.addEdge(edge)) {
+                newEdges.add(edge);
+            }
+        }
+        if (newEdges.isEmpty()) {
+            return;
+        }
+        // process new call edges
+        addCSMethod(csCallee);
+        JMethod callee = csCallee.getMethod();
+        if (!isIgnored(callee)) {
+            Context calleeCtx = csCallee.getContext();
+            IR calleeIR = callee.getIR();
+            CSVar[] paramVars = new CSVar[calleeIR.getParams().size()];
+            List<CSVar> retVars = null;
+            for (Edge<CSCallSite, CSMethod> edge : newEdges) {
+                if (edge.getKind() == CallKind.OTHER) {
+                    continue;
+                }
                 Context callerCtx = edge.getCallSite().getContext();
                 Invoke callSite = edge.getCallSite().getCallSite();
-                Context calleeCtx = csCallee.getContext();
-                JMethod callee = csCallee.getMethod();
                 InvokeExp invokeExp = callSite.getInvokeExp();
                 // pass arguments to parameters
                 for (int i = 0; i < invokeExp.getArgCount(); ++i) {
                     Var arg = invokeExp.getArg(i);
                     if (propTypes.isAllowed(arg)) {
-                        Var param = callee.getIR().getParam(i);
+                        if (paramVars[i] == null) {
+                            paramVars[i] = csManager.getCSVar(
+                                    calleeCtx, calleeIR.getParam(i));
+                        }
                         CSVar argVar = csManager.getCSVar(callerCtx, arg);
-                        CSVar paramVar = csManager.getCSVar(calleeCtx, param);
-                        addPFGEdge(argVar, paramVar, FlowKind.PARAMETER_PASSING);
+                        addPFGEdge(argVar, paramVars[i], FlowKind.PARAMETER_PASSING);
                     }
                 }
                 // pass results to LHS variable
                 Var lhs = callSite.getResult();
                 if (lhs != null && propTypes.isAllowed(lhs)) {
-                    CSVar csLHS = csManager.getCSVar(callerCtx, lhs);
-                    for (Var ret : callee.getIR().getReturnVars()) {
-                        if (propTypes.isAllowed(ret)) {
-                            CSVar csRet = csManager.getCSVar(calleeCtx, ret);
-                            addPFGEdge(csRet, csLHS, FlowKind.RETURN);
+                    if (retVars == null) {
+                        retVars = new ArrayList<>();
+                        for (Var ret : calleeIR.getReturnVars()) {
+                            if (propTypes.isAllowed(ret)) {
+                                retVars.add(csManager.getCSVar(calleeCtx, ret));
+                            }
                         }
                     }
+                    CSVar csLHS = csManager.getCSVar(callerCtx, lhs);
+                    for (CSVar csRet : retVars) {
+                        addPFGEdge(csRet, csLHS, FlowKind.RETURN);
+                    }
                 }
             }
-            plugin.onNewCallEdge(edge);
         }
+        newEdges.forEach(plugin::onNewCallEdge);
     }
 
     private boolean isIgnored(JMethod method) {
@@ -591,7 +1314,8 @@ public class DefaultSolver implements Solver {
                 NewExp rvalue = stmt.getRValue();
                 Obj obj = heapModel.getObj(stmt);
                 Context heapContext = contextSelector.selectHeapContext(csMethod, obj);
-                addVarPointsTo(context, stmt.getLValue(), heapContext, obj);
+                addStmtPointsTo(csManager.getCSVar(context, stmt.getLValue()),
+                        csManager.getCSObj(heapContext, obj));
                 if (rvalue instanceof NewMultiArray) {
                     processNewMultiArray(stmt, heapContext, obj);
                 }
@@ -666,7 +1390,8 @@ public class DefaultSolver implements Solver {
                     Obj obj = heapModel.getConstantObj((ReferenceLiteral) literal);
                     Context heapContext = contextSelector
                             .selectHeapContext(csMethod, obj);
-                    addVarPointsTo(context, stmt.getLValue(), heapContext, obj);
+                    addStmtPointsTo(csManager.getCSVar(context, stmt.getLValue()),
+                            csManager.getCSObj(heapContext, obj));
                 }
                 return null;
             }
@@ -736,10 +1461,43 @@ public class DefaultSolver implements Solver {
         }
     }
 
+    /**
+     * Adds the points-to facts generated by a statement of reachable method.
+     */
+    private void addStmtPointsTo(CSVar var, CSObj csObj) {
+        if (stmtSeeds != null) {
+            getPointsToSetOf(stmtSeeds, var).addObject(csObj);
+        }
+        propagateTo(var, csObj);
+    }
+
+    /**
+     * Adds the points-to facts derived by the solver itself, which,
+     * unlike {@link #addPointsTo(Pointer, PointsToSet)}, are not recorded
+     * as seeds for incremental update.
+     */
+    void propagateTo(Pointer pointer, PointsToSet pts) {
+        workList.addEntry(pointer, pts);
+    }
+
+    private void propagateTo(Pointer pointer, CSObj csObj) {
+        PointsToSet pts = makePointsToSet();
+        pts.addObject(csObj);
+        propagateTo(pointer, pts);
+    }
+
+    private PointsToSet getPointsToSetOf(
+            Map<Pointer, PointsToSet> facts, Pointer pointer) {
+        return facts.computeIfAbsent(pointer, unused -> makePointsToSet());
+    }
+
     // ---------- solver logic ends ----------
 
     @Override
     public void addPointsTo(Pointer pointer, PointsToSet pts) {
+        if (seeds != null) {
+            getPointsToSetOf(seeds, pointer).addAll(pts);
+        }
         workList.addEntry(pointer, pts);
     }
 
@@ -772,17 +1530,31 @@ public class DefaultSolver implements Solver {
 
     @Override
     public void addPointerFilter(Pointer pointer, Predicate<CSObj> filter) {
+        if (collapser != null) {
+            // filtered pointer cannot share points-to set with others
+            collapser.split(pointer);
+        }
         pointer.addFilter(filter);
+        // renews the cache as the new filter may reject the objects
+        // accepted before
+        filterCaches.put(pointer, new FilterCache(pointer.getFilters(), ptsFactory));
     }
 
     @Override
     public void addPFGEdge(PointerFlowEdge edge, Transfer transfer) {
+        PointerFlowEdge newEdge = edge;
         edge = pointerFlowGraph.addEdge(edge);
+        if (edge == newEdge) {
+            pfgEdges.increment();
+            if (inEdges != null) {
+                inEdges.put(edge.target(), edge);
+            }
+        }
         if (edge != null && edge.addTransfer(transfer)) {
             PointsToSet targetSet = transfer.apply(
                     edge, getPointsToSetOf(edge.source()));
             if (!targetSet.isEmpty()) {
-                addPointsTo(edge.target(), targetSet);
+                propagateTo(edge.target(), targetSet);
             }
         }
     }
@@ -0,0 +1,187 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import pascal.taie.analysis.graph.callgraph.CallGraphs;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Caches the callees resolved for the receiver types at each call site.
+ * <p>
+ * In the manner of inline caches of virtual machines, the cache of
+ * a call site is monomorphic (one receiver type) at first, becomes
+ * polymorphic (up to {@link #POLY_LIMIT} receiver types, compared by
+ * identity) as more receiver types are seen, and finally megamorphic
+ * (a map from receiver types to callees). As the receiver objects
+ * of a call site mostly have a few types, most lookups only compare
+ * a few references instead of looking up the dispatch table of
+ * the class hierarchy.
+ */
+final class DispatchCache {
+
+    /**
+     * Maximum number of receiver types of a polymorphic cache.
+     */
+    static final int POLY_LIMIT = 4;
+
+    /**
+     * Resolves the callee of a call site for a receiver type.
+     */
+    private final BiFunction<Type, Invoke, JMethod> resolver;
+
+    private final Map<Invoke, Site> sites = Maps.newMap();
+
+    private long hits = 0;
+
+    private long misses = 0;
+
+    DispatchCache() {
+        this(CallGraphs::resolveCallee);
+    }
+
+    DispatchCache(BiFunction<Type, Invoke, JMethod> resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * @return the cache of given call site.
+     */
+    Site getSite(Invoke callSite) {
+        return sites.computeIfAbsent(callSite, Site::new);
+    }
+
+    /**
+     * @return the callee of {@code site} for receiver type {@code type},
+     * or {@code null} if the callee cannot be resolved.
+     */
+    JMethod resolve(Site site, Type type) {
+        Type[] types = site.types;
+        for (int i = 0; i < site.size; ++i) {
+            if (types[i] == type) {
+                ++hits;
+                return site.callees[i];
+            }
+        }
+        if (site.mega != null) {
+            JMethod callee = site.mega.get(type);
+            if (callee != null || site.mega.containsKey(type)) {
+                ++hits;
+                return callee;
+            }
+        }
+        ++misses;
+        JMethod callee = resolver.apply(type, site.callSite);
+        site.add(type, callee);
+        return callee;
+    }
+
+    /**
+     * Removes the caches of the call sites in given methods, so that
+     * the caches are not reused if the methods are analyzed again.
+     */
+    void removeSitesIn(Collection<JMethod> methods) {
+        sites.keySet().removeIf(callSite ->
+                methods.contains(callSite.getContainer()));
+    }
+
+    /**
+     * @return the number of lookups that hit the cache.
+     */
+    long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of lookups that miss the cache.
+     */
+    long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the numbers of monomorphic, polymorphic and megamorphic
+     * call sites in this cache.
+     */
+    int[] countSites() {
+        int[] counts = new int[3];
+        for (Site site : sites.values()) {
+            if (site.mega != null) {
+                ++counts[2];
+            } else if (site.size > 1) {
+                ++counts[1];
+            } else {
+                ++counts[0];
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Cache of a call site.
+     */
+    static final class Site {
+
+        private final Invoke callSite;
+
+        private final Type[] types = new Type[POLY_LIMIT];
+
+        /**
+         * Callees of {@link #types}, {@code null} for unresolved ones.
+         */
+        private final JMethod[] callees = new JMethod[POLY_LIMIT];
+
+        /**
+         * Number of entries in {@link #types} and {@link #callees}.
+         */
+        private int size = 0;
+
+        /**
+         * Callees of the receiver types beyond the polymorphic limit.
+         */
+        private Map<Type, JMethod> mega;
+
+        private Site(Invoke callSite) {
+            this.callSite = callSite;
+        }
+
+        private void add(Type type, JMethod callee) {
+            if (size < POLY_LIMIT) {
+                types[size] = type;
+                callees[size] = callee;
+                ++size;
+            } else {
+                if (mega == null) {
+                    mega = Maps.newMap();
+                }
+                mega.put(type, callee);
+            }
+        }
+    }
+}
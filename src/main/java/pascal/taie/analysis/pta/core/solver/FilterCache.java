@@ -0,0 +1,89 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Caches the results of applying the filters of a pointer on objects.
+ * <p>
+ * Each object is tested by the filters of the pointer at most once,
+ * and the tested and accepted objects are recorded in points-to sets
+ * (i.e., bit sets over the indexes of {@link CSObj}). Filtering a
+ * points-to set then takes a bitwise difference with the tested set
+ * (to find the objects not tested yet) and a bitwise intersection
+ * with the accepted set, which allocates the result set and the
+ * (usually empty) set of untested objects.
+ * The filters are assumed to be deterministic. As a filter added to
+ * the pointer may reject the objects accepted before, the cache
+ * should be renewed when the filters of the pointer change.
+ */
+final class FilterCache {
+
+    private final Set<Predicate<CSObj>> filters;
+
+    /**
+     * Objects that have been tested by the filters.
+     */
+    private final PointsToSet tested;
+
+    /**
+     * Objects that have been accepted by the filters.
+     */
+    private final PointsToSet accepted;
+
+    FilterCache(Set<Predicate<CSObj>> filters, PointsToSetFactory ptsFactory) {
+        this.filters = filters;
+        this.tested = ptsFactory.make();
+        this.accepted = ptsFactory.make();
+    }
+
+    /**
+     * @return a new points-to set that contains the objects of
+     * given pts that are accepted by the filters.
+     */
+    PointsToSet apply(PointsToSet pts) {
+        for (CSObj obj : tested.addAllDiff(pts)) {
+            if (test(obj)) {
+                accepted.addObject(obj);
+            }
+        }
+        PointsToSet result = pts.copy();
+        result.retainAll(accepted);
+        return result;
+    }
+
+    private boolean test(CSObj obj) {
+        for (Predicate<CSObj> filter : filters) {
+            if (!filter.test(obj)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import pascal.taie.World;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.Options;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.proginfo.ExceptionEntry;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.ClassMember;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.Modifier;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes the fingerprints of the inputs of pointer analysis, i.e.,
+ * the options and the analyzed program, so that the saved states can
+ * be checked against the inputs of a later run.
+ * <p>
+ * The fingerprints are computed from the contents instead of
+ * the timestamps of the inputs, thus a state is still valid if
+ * the program is rebuilt without changes, and the class and method
+ * hashes also tell which parts of the program have changed.
+ */
+final class Fingerprints {
+
+    /**
+     * Options which do not affect the results of pointer analysis.
+     */
+    private static final Set<String> IRRELEVANT_OPTIONS = Set.of(
+            "dump", "dump-ci", "dump-yaml", "expected-file",
+            "taint-interactive-mode", "taint-flow-paths", "taint-flow-stream",
+            "time-limit", "checkpoint-file", "state-file", "incremental",
+            "solver", "solver-threads", "solver-parallel-threshold",
+            "worklist", "collapse-cycles", "pts", "cs-manager",
+            "metrics-interval", "metrics-format");
+
+    private final MessageDigest digest;
+
+    Fingerprints() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AnalysisException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @return the digest of the options (of both pointer analysis and
+     * {@link World}) which affect the results of pointer analysis.
+     */
+    String getOptionsDigest(AnalysisOptions options) {
+        digest.reset();
+        Options worldOptions = World.get().getOptions();
+        update(worldOptions.getMainClass());
+        update(worldOptions.getInputClasses());
+        update(worldOptions.getJavaVersion());
+        update(worldOptions.isPrependJVM());
+        update(worldOptions.isAllowPhantom());
+        update(worldOptions.getWorldBuilderClass());
+        options.keySet()
+                .stream()
+                .filter(key -> !IRRELEVANT_OPTIONS.contains(key))
+                .sorted()
+                .forEach(key -> {
+                    update(key);
+                    update(options.get(key));
+                });
+        // reflection log is an input of the analysis
+        String reflectionLog = options.getString("reflection-log");
+        if (reflectionLog != null && new File(reflectionLog).isFile()) {
+            try {
+                digest.update(Files.readAllBytes(new File(reflectionLog).toPath()));
+            } catch (IOException e) {
+                throw new AnalysisException("Failed to read " + reflectionLog, e);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * @return the hash of the declaration of given class, i.e.,
+     * its modifiers, super types and declared members (without
+     * the method bodies, which are covered by {@link #getMethodHash}).
+     */
+    long getClassHash(JClass jclass) {
+        digest.reset();
+        update(jclass.getName());
+        updateModifiers(jclass.getModifiers());
+        update(jclass.getSuperClass() != null
+                ? jclass.getSuperClass().getName() : null);
+        jclass.getInterfaces()
+                .stream()
+                .map(JClass::getName)
+                .sorted()
+                .forEach(this::update);
+        updateMembers(jclass.getDeclaredFields());
+        updateMembers(jclass.getDeclaredMethods());
+        return finish();
+    }
+
+    /**
+     * @return the hash of the position of given class in class hierarchy,
+     * i.e., its name and super types.
+     */
+    long getHierarchyHash(JClass jclass) {
+        digest.reset();
+        update(jclass.getName());
+        update(jclass.getSuperClass() != null
+                ? jclass.getSuperClass().getName() : null);
+        jclass.getInterfaces()
+                .stream()
+                .map(JClass::getName)
+                .sorted()
+                .forEach(this::update);
+        return finish();
+    }
+
+    /**
+     * @return the hash of the body (i.e., the IR) of given method.
+     * The line numbers are excluded, so that the hash does not change
+     * when the method only moves in source file, and the variables
+     * are renamed by {@link CanonicalBody}.
+     */
+    long getMethodHash(JMethod method) {
+        digest.reset();
+        update(method.getSignature());
+        if (!method.isAbstract()) {
+            IR ir = method.getIR();
+            CanonicalBody body = new CanonicalBody(ir);
+            for (Var var : body.vars()) {
+                update(var.getType());
+            }
+            body.stmts().forEach(this::update);
+            for (ExceptionEntry entry : ir.getExceptionEntries()) {
+                update(entry.start().getIndex() + ":" + entry.end().getIndex()
+                        + ":" + entry.handler().getIndex() + ":" + entry.catchType());
+            }
+        }
+        return finish();
+    }
+
+    /**
+     * @return the variables of given IR in canonical order,
+     * see {@link CanonicalBody}.
+     */
+    static List<Var> getCanonicalVars(IR ir) {
+        return new CanonicalBody(ir).vars();
+    }
+
+    private void updateModifiers(Set<Modifier> modifiers) {
+        // iterates modifiers in a fixed order
+        for (Modifier modifier : Modifier.values()) {
+            if (modifiers.contains(modifier)) {
+                update(modifier.name());
+            }
+        }
+    }
+
+    private void updateMembers(Collection<? extends ClassMember> members) {
+        List<? extends ClassMember> sorted = members.stream()
+                .sorted(Comparator.comparing(ClassMember::getSignature))
+                .toList();
+        for (ClassMember member : sorted) {
+            update(member.getSignature());
+            updateModifiers(member.getModifiers());
+        }
+    }
+
+    private void update(Object o) {
+        // the separator distinguishes, e.g., ["ab", "c"] and ["a", "bc"]
+        digest.update(String.valueOf(o).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private long finish() {
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    /**
+     * The IR of a method in which the variables are numbered in the order
+     * of their first occurrences (i.e., this variable, parameters, and then
+     * the statements), and renamed by their numbers.
+     * <p>
+     * The frontend does not always name and order the temporary variables
+     * in the same way for the same method body (e.g., it may swap the names
+     * of two temporary variables in different runs), thus the variables are
+     * identified by the canonical order instead of their names or indexes.
+     *
+     * @param vars  the variables in canonical order. The variables which
+     *              never occur in the statements are placed at the end.
+     * @param stmts the strings of the statements with renamed variables.
+     */
+    private record CanonicalBody(List<Var> vars, List<String> stmts) {
+
+        private CanonicalBody(IR ir) {
+            this(new ArrayList<>(), new ArrayList<>());
+            Map<String, Var> nameToVar = Maps.newMap();
+            ir.getVars().forEach(v -> nameToVar.put(v.getName(), v));
+            Map<Var, Integer> ids = Maps.newLinkedHashMap();
+            if (ir.getThis() != null) {
+                ids.put(ir.getThis(), 0);
+            }
+            ir.getParams().forEach(p -> ids.putIfAbsent(p, ids.size()));
+            for (Stmt stmt : ir) {
+                // Invoke.toString() contains the line number
+                String string = stmt instanceof Invoke invoke
+                        ? invoke.getResult() + "=" + invoke.getInvokeExp()
+                        : stmt.toString();
+                stmts.add(rename(string, nameToVar, ids));
+            }
+            vars.addAll(ids.keySet());
+            ir.getVars().forEach(v -> {
+                if (!ids.containsKey(v)) {
+                    vars.add(v);
+                }
+            });
+        }
+
+        /**
+         * Replaces the names of the variables in given string
+         * by their canonical numbers.
+         */
+        private static String rename(String string, Map<String, Var> nameToVar,
+                                     Map<Var, Integer> ids) {
+            StringBuilder sb = new StringBuilder(string.length());
+            int i = 0;
+            while (i < string.length()) {
+                int j = i;
+                while (j < string.length() && isNameChar(string.charAt(j))) {
+                    ++j;
+                }
+                if (j == i) {
+                    sb.append(string.charAt(i++));
+                    continue;
+                }
+                String token = string.substring(i, j);
+                Var var = nameToVar.get(token);
+                if (var != null) {
+                    sb.append('#').append(ids.computeIfAbsent(var, v -> ids.size()));
+                } else {
+                    sb.append(token);
+                }
+                i = j;
+            }
+            return sb.toString();
+        }
+
+        private static boolean isNameChar(char c) {
+            return Character.isJavaIdentifierPart(c) || c == '%' || c == '#';
+        }
+    }
+}
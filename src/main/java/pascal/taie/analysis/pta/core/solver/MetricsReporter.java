@@ -0,0 +1,164 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.config.ConfigException;
+import pascal.taie.util.collection.Maps;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Periodically samples {@link SolverMetrics} and writes the samples
+ * to a file, one sample per line. Each sample also contains the elapsed
+ * time since the reporter starts, and the number of propagations
+ * per second since the previous sample.
+ */
+class MetricsReporter {
+
+    private static final Logger logger = LogManager.getLogger(MetricsReporter.class);
+
+    private static final String ELAPSED_MS = "elapsed-ms";
+
+    private static final String PROPAGATIONS_PER_SEC = "propagations-per-sec";
+
+    private final SolverMetrics metrics;
+
+    private final long interval;
+
+    private final boolean csv;
+
+    private final File outFile;
+
+    private PrintStream out;
+
+    private ScheduledExecutorService executor;
+
+    private long startTime;
+
+    private long lastTime;
+
+    private long lastPropagations;
+
+    /**
+     * Whether the header of CSV file has been written.
+     */
+    private boolean hasHeader;
+
+    /**
+     * @param metrics  the metrics to be sampled
+     * @param interval the interval between samples (in seconds)
+     * @param format   format of the output file, i.e., {@code jsonl} or {@code csv}
+     * @param outDir   directory of the output file
+     */
+    MetricsReporter(SolverMetrics metrics, long interval,
+                    String format, File outDir) {
+        this.metrics = metrics;
+        this.interval = interval;
+        csv = switch (format) {
+            case "jsonl" -> false;
+            case "csv" -> true;
+            default -> throw new ConfigException(
+                    "Illegal metrics format: " + format);
+        };
+        outFile = new File(outDir, "pta-metrics." + format);
+    }
+
+    /**
+     * Starts sampling the metrics.
+     */
+    void start() {
+        try {
+            out = new PrintStream(new FileOutputStream(outFile));
+        } catch (FileNotFoundException e) {
+            logger.warn("Failed to write pointer analysis metrics to {}, caused by {}",
+                    outFile.getAbsolutePath(), e);
+            return;
+        }
+        logger.info("Dumping pointer analysis metrics to {} every {} seconds",
+                outFile.getAbsolutePath(), interval);
+        startTime = lastTime = System.nanoTime();
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "pta-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::sample, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops sampling the metrics, and writes the final sample.
+     */
+    void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(interval, TimeUnit.SECONDS);
+        } catch (InterruptedException ignored) {
+        }
+        executor = null;
+        sample();
+        out.close();
+    }
+
+    private synchronized void sample() {
+        Map<String, Long> values = metrics.snapshot();
+        long now = System.nanoTime();
+        long propagations = values.getOrDefault(SolverMetrics.PROPAGATIONS, 0L);
+        long elapsed = now - lastTime;
+        Map<String, Long> sample = Maps.newLinkedHashMap();
+        sample.put(ELAPSED_MS, TimeUnit.NANOSECONDS.toMillis(now - startTime));
+        sample.put(PROPAGATIONS_PER_SEC, elapsed == 0 ? 0 :
+                (propagations - lastPropagations) * 1_000_000_000L / elapsed);
+        sample.putAll(values);
+        lastTime = now;
+        lastPropagations = propagations;
+        if (csv) {
+            if (!hasHeader) {
+                out.println(String.join(",", sample.keySet()));
+                hasHeader = true;
+            }
+            out.println(sample.values()
+                    .stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(",")));
+        } else {
+            out.println(sample.entrySet()
+                    .stream()
+                    .map(e -> "\"" + e.getKey() + "\":" + e.getValue())
+                    .collect(Collectors.joining(",", "{", "}")));
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.util.AnalysisException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Solver which propagates points-to sets in parallel.
+ * <p>
+ * This solver processes the work list in rounds. In each round, it first
+ * processes all pending call edges, and then takes all pending pointer
+ * entries and propagates them in parallel, i.e., each worker thread adds
+ * the objects of an entry to the points-to set of the pointer, and applies
+ * the side-effect-free transfer functions ({@link Identity} and
+ * {@link TypeFilter}) on the out edges of the pointer. After that,
+ * the propagation results are consumed by the solver thread in the order
+ * of the entries: the work list is updated, the other transfer functions
+ * are applied, and the statements and plugins that are affected by the
+ * new objects are processed.
+ * <p>
+ * As the pointer flow graph, call graph and context-sensitive elements
+ * are only modified by the solver thread, the plugins need not to be
+ * thread-safe, and this solver produces the same result as
+ * {@link DefaultSolver}.
+ */
+public class ParallelSolver extends DefaultSolver {
+
+    private static final Logger logger = LogManager.getLogger(ParallelSolver.class);
+
+    /**
+     * Number of pointer entries propagated by a task.
+     */
+    private static final int TASK_SIZE = 32;
+
+    private final int nThreads;
+
+    /**
+     * If the number of pointer entries in a round is less than this
+     * threshold, the entries are propagated by the solver thread,
+     * as parallelization does not pay off for them.
+     */
+    private final int parallelThreshold;
+
+    /**
+     * Number of rounds whose entries are propagated by worker threads.
+     */
+    private long parallelRounds;
+
+    /**
+     * Number of pointer entries propagated by worker threads.
+     */
+    private long parallelEntries;
+
+    /**
+     * Executor of the worker threads, which lives during {@link #solve()}.
+     */
+    private ExecutorService executor;
+
+    public ParallelSolver(AnalysisOptions options, HeapModel heapModel,
+                          ContextSelector contextSelector, CSManager csManager) {
+        super(options, heapModel, contextSelector, csManager);
+        int threads = options.getInt("solver-threads");
+        nThreads = threads > 0 ? threads
+                : Runtime.getRuntime().availableProcessors();
+        parallelThreshold = Math.max(1, options.getInt("solver-parallel-threshold"));
+    }
+
+    @Override
+    public void solve() {
+        executor = Executors.newFixedThreadPool(nThreads);
+        parallelRounds = 0;
+        parallelEntries = 0;
+        try {
+            super.solve();
+        } finally {
+            executor.shutdown();
+            executor = null;
+        }
+        logger.info("Parallel solver: {} of {} pointer entries propagated" +
+                        " by {} threads in {} rounds",
+                parallelEntries, getWorkList().getPolledEntries(),
+                nThreads, parallelRounds);
+    }
+
+    @Override
+    void processWorkList() {
+        WorkList workList = getWorkList();
+        while (!workList.isEmpty() && !isTimeout()) {
+            internPointsToSets(false);
+            processCallEdges(workList);
+            List<WorkList.PointerEntry> entries = coalesce(
+                    workList.pollPointerEntries());
+            for (Propagation prop : propagate(entries)) {
+                if (!prop.diff().isEmpty()) {
+                    prop.results().forEach(r -> propagateTo(r.target(), r.pts()));
+                    prop.deferredEdges().forEach(d -> propagateTo(d.edge().target(),
+                            d.transfer().apply(d.edge(), prop.diff())));
+                    for (Pointer member : prop.members()) {
+                        processNewPointsTo(member, prop.diff());
+                    }
+                    collapseCycles(prop.pointer());
+                    // for correctness, the call edges produced by an entry
+                    // must be processed prior to the subsequent entries
+                    processCallEdges(workList);
+                }
+            }
+        }
+    }
+
+    private void processCallEdges(WorkList workList) {
+        while (workList.hasCallEdges()) {
+            var entry = (WorkList.CallEdgeEntry) workList.pollEntry();
+            processCallEdges(entry.callee(), entry.edges());
+        }
+    }
+
+    /**
+     * Merges the entries of the pointers that share points-to set due to
+     * cycle collapsing, so that each points-to set is modified by
+     * at most one worker thread.
+     */
+    private List<WorkList.PointerEntry> coalesce(List<WorkList.PointerEntry> entries) {
+        if (entries.stream().allMatch(e -> getRepresentative(e.pointer()) == e.pointer())) {
+            return entries;
+        }
+        Map<Pointer, WorkList.PointerEntry> merged = new LinkedHashMap<>();
+        for (WorkList.PointerEntry entry : entries) {
+            Pointer rep = getRepresentative(entry.pointer());
+            WorkList.PointerEntry prev = merged.get(rep);
+            if (prev == null) {
+                merged.put(rep, new WorkList.PointerEntry(rep, entry.pointsToSet()));
+            } else {
+                prev.pointsToSet().addAll(entry.pointsToSet());
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    /**
+     * Propagates given pointer entries, in parallel if there are enough
+     * entries.
+     *
+     * @return the propagation results in the same order as {@code entries}.
+     */
+    private List<Propagation> propagate(List<WorkList.PointerEntry> entries) {
+        if (entries.size() < parallelThreshold) {
+            return entries.stream().map(this::propagate).toList();
+        }
+        ++parallelRounds;
+        parallelEntries += entries.size();
+        List<Callable<List<Propagation>>> tasks = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i += TASK_SIZE) {
+            List<WorkList.PointerEntry> subEntries = entries.subList(
+                    i, Math.min(i + TASK_SIZE, entries.size()));
+            tasks.add(() -> subEntries.stream().map(this::propagate).toList());
+        }
+        List<Propagation> results = new ArrayList<>(entries.size());
+        try {
+            for (Future<List<Propagation>> future : executor.invokeAll(tasks)) {
+                results.addAll(future.get());
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new AnalysisException("Failed to propagate points-to sets", e);
+        }
+        return results;
+    }
+
+    /**
+     * Propagates a pointer entry. This method only modifies the points-to
+     * set (and filter cache) of the pointer in the entry, thus it is safe to propagate
+     * entries of different pointers concurrently.
+     */
+    private Propagation propagate(WorkList.PointerEntry entry) {
+        Pointer pointer = entry.pointer();
+        PointsToSet diff = addToPointsToSetOf(pointer, entry.pointsToSet());
+        List<Pointer> members = getMembers(pointer);
+        if (diff.isEmpty()) {
+            return new Propagation(pointer, members, diff, List.of(), List.of());
+        }
+        List<Result> results = new ArrayList<>();
+        List<DeferredEdge> deferredEdges = new ArrayList<>(0);
+        for (PointerFlowEdge edge : members.stream()
+                .flatMap(p -> p.getOutEdges().stream()).toList()) {
+            for (Transfer transfer : edge.getTransfers()) {
+                if (isSkipped(edge, transfer)) {
+                    continue;
+                }
+                if (transfer instanceof Identity || transfer instanceof TypeFilter) {
+                    PointsToSet pts = transfer.apply(edge, diff);
+                    if (!pts.isEmpty()) {
+                        results.add(new Result(edge.target(), pts));
+                    }
+                } else {
+                    // transfer functions provided by plugins may have
+                    // side effects, thus we apply them on the solver thread
+                    deferredEdges.add(new DeferredEdge(edge, transfer));
+                }
+            }
+        }
+        return new Propagation(pointer, members, diff, results, deferredEdges);
+    }
+
+    /**
+     * Result of propagating a pointer entry.
+     *
+     * @param pointer       the pointer of the entry
+     * @param members       the pointers sharing points-to set with
+     *                      {@code pointer}, including itself
+     * @param diff          the new objects of the pointer
+     * @param results       the objects to be propagated to PFG successors
+     * @param deferredEdges the out edges whose transfer functions should
+     *                      be applied by the solver thread
+     */
+    private record Propagation(Pointer pointer, List<Pointer> members,
+                               PointsToSet diff,
+                               List<Result> results,
+                               List<DeferredEdge> deferredEdges) {
+    }
+
+    private record Result(Pointer target, PointsToSet pts) {
+    }
+
+    private record DeferredEdge(PointerFlowEdge edge, Transfer transfer) {
+    }
+}
@@ -45,6 +45,7 @@ import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.type.Type;
 import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.AnalysisException;
 
 import java.util.Collection;
 import java.util.function.Predicate;
@@ -82,11 +83,36 @@ public interface Solver {
      */
     void setPlugin(Plugin plugin);
 
+    /**
+     * @return the metrics of this solver, which can be queried
+     * (and extended by plugins) during and after solving.
+     * The default implementation returns an empty registry, i.e.,
+     * the solver reports no metrics.
+     */
+    default SolverMetrics getMetrics() {
+        return new SolverMetrics();
+    }
+
     /**
      * Starts this solver.
      */
     void solve();
 
+    /**
+     * Removes given methods from the solved results, as if the methods
+     * were ignored from the beginning (the results may be less precise
+     * than re-solving the program without them, but still sound).
+     * This API should be called during {@link #solve()} (e.g., by plugins
+     * in {@link Plugin#onPhaseFinish()}), and it requires
+     * option {@code incremental:true}.
+     * The default implementation throws {@link AnalysisException},
+     * i.e., the solver does not support removing methods.
+     */
+    default void removeMethods(Collection<JMethod> methods) {
+        throw new AnalysisException(getClass().getName()
+                + " does not support removing methods");
+    }
+
     // ---------- side-effect APIs (begin) ----------
     // These side-effect APIs could be used by Plugins to update
     // points-to information.
@@ -0,0 +1,136 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import pascal.taie.util.collection.Maps;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of the metrics of a pointer analysis solver, e.g., the size
+ * of the work list and the number of pointer flow edges.
+ * <p>
+ * A metric is either a {@link Counter}, which is incremented by the
+ * solver (or plugins), or a gauge, which reads its value from the state
+ * of the solver when sampled. The metrics can be sampled by other threads
+ * during solving, e.g., by {@link MetricsReporter}, thus the values
+ * of gauges are approximate.
+ */
+public class SolverMetrics {
+
+    public static final String WORK_LIST_SIZE = "worklist-size";
+
+    public static final String PROPAGATIONS = "propagations";
+
+    public static final String PFG_EDGES = "pfg-edges";
+
+    public static final String PTS_VOLUME = "pts-volume";
+
+    public static final String POINTERS = "pointers";
+
+    public static final String CS_OBJECTS = "cs-objects";
+
+    public static final String CS_METHODS = "cs-methods";
+
+    public static final String CALL_EDGES = "call-edges";
+
+    /**
+     * Metrics in the order of registration.
+     */
+    private final Map<String, LongSupplier> metrics =
+            Collections.synchronizedMap(Maps.newLinkedHashMap());
+
+    /**
+     * Registers a counter with given name.
+     *
+     * @return the new counter.
+     */
+    public Counter addCounter(String name) {
+        Counter counter = new Counter();
+        addGauge(name, counter::get);
+        return counter;
+    }
+
+    /**
+     * Registers a gauge with given name, whose value is given by {@code gauge}.
+     */
+    public void addGauge(String name, LongSupplier gauge) {
+        if (metrics.putIfAbsent(name, gauge) != null) {
+            throw new IllegalArgumentException(
+                    "Metric " + name + " has been registered");
+        }
+    }
+
+    /**
+     * @return {@code true} if a metric with given name has been registered.
+     */
+    public boolean contains(String name) {
+        return metrics.containsKey(name);
+    }
+
+    /**
+     * @return the current value of given metric.
+     * @throws IllegalArgumentException if given metric does not exist.
+     */
+    public long get(String name) {
+        LongSupplier metric = metrics.get(name);
+        if (metric == null) {
+            throw new IllegalArgumentException("Metric " + name + " does not exist");
+        }
+        return metric.getAsLong();
+    }
+
+    /**
+     * @return the current values of all metrics, in the order of registration.
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> values = Maps.newLinkedHashMap();
+        synchronized (metrics) {
+            metrics.forEach((name, metric) -> values.put(name, metric.getAsLong()));
+        }
+        return values;
+    }
+
+    /**
+     * Counter which can be incremented by multiple threads.
+     */
+    public static class Counter {
+
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long delta) {
+            value.add(delta);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+}
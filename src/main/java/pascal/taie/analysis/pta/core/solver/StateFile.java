@@ -0,0 +1,2170 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.analysis.graph.callgraph.CallKind;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.graph.flowgraph.FlowKind;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.PointerAnalysisResultImpl;
+import pascal.taie.analysis.pta.core.cs.CSCallGraph;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.TrieContext;
+import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.InstanceField;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.cs.element.StaticField;
+import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
+import pascal.taie.analysis.pta.core.heap.AbstractHeapModel;
+import pascal.taie.analysis.pta.core.heap.ConstantObj;
+import pascal.taie.analysis.pta.core.heap.Descriptor;
+import pascal.taie.analysis.pta.core.heap.MergedObj;
+import pascal.taie.analysis.pta.core.heap.MockObj;
+import pascal.taie.analysis.pta.core.heap.NewObj;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.ClassLiteral;
+import pascal.taie.ir.exp.InvokeInstanceExp;
+import pascal.taie.ir.exp.MethodHandle;
+import pascal.taie.ir.exp.MethodType;
+import pascal.taie.ir.exp.NewArray;
+import pascal.taie.ir.exp.NewExp;
+import pascal.taie.ir.exp.NewInstance;
+import pascal.taie.ir.exp.ReferenceLiteral;
+import pascal.taie.ir.exp.StringLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.proginfo.FieldRef;
+import pascal.taie.ir.proginfo.MemberRef;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.ClassNames;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ArrayType;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.NullType;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.Timer;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Saves the solved state of pointer analysis (i.e., the context-sensitive
+ * elements, points-to sets, pointer flow graph and call graph) to a file,
+ * and loads it in a later run, so that the downstream analyses can use
+ * the results without re-solving.
+ * <p>
+ * The state is saved in a compact binary format: the elements (e.g.,
+ * methods, variables, objects, contexts and pointers) are saved in tables
+ * and referred to by their indexes in the tables, and each points-to set
+ * is saved as the sorted indexes of its objects, encoded as variable-length
+ * deltas. The file is read via memory mapping, and the results are rebuilt
+ * from it directly, i.e., neither the solver nor the plugins are run.
+ * <p>
+ * A saved state is reused only if the options which affect the results,
+ * the declarations of all classes, and the bodies of the methods referred
+ * to by the state are all unchanged, which is checked via the
+ * {@link Fingerprints} of them. With option {@code incremental:true},
+ * a state which is outdated only by the changes of the program is
+ * updated instead of being discarded, see {@link #update}.
+ * <p>
+ * The elements of the program are saved as references to the program
+ * (e.g., signatures and indexes in IR), and the synthetic variables and
+ * allocation sites created by plugins are re-created. The other elements
+ * which are not part of the program, e.g., the synthetic call sites in
+ * contexts and the allocations of some mock objects, are restored as
+ * placeholders with the same string representations. The call edges from
+ * synthetic call sites (which are not returned by {@link CSCallGraph#edges()}),
+ * and the transfer functions of pointer flow edges are not saved.
+ */
+public final class StateFile {
+
+    private static final Logger logger = LogManager.getLogger(StateFile.class);
+
+    /**
+     * The result loaded from a state file holds the file with this key
+     * (via {@link PointerAnalysisResult#getResult(String)}), which tells
+     * that the result is not solved in current run.
+     */
+    public static final String LOADED_FROM = "pta-state-file";
+
+    /**
+     * The result solved by updating the state in a state file holds the file
+     * with this key, which tells that the result is derived incrementally
+     * from the saved state, see {@link #update(DefaultSolver, File)}.
+     */
+    public static final String UPDATED_FROM = "pta-state-file-updated";
+
+    /**
+     * Magic number ("TAIE") at the beginning of state files.
+     */
+    private static final int MAGIC = 0x54414945;
+
+    private static final int VERSION = 2;
+
+    // tags of variables
+    private static final byte IR_VAR = 0;
+
+    private static final byte SYNTHETIC_VAR = 1;
+
+    // tags of statements
+    private static final byte IR_STMT = 0;
+
+    private static final byte SYNTHETIC_NEW_INSTANCE = 1;
+
+    private static final byte SYNTHETIC_NEW_ARRAY = 2;
+
+    // tags of objects
+    private static final byte NEW_OBJ = 0;
+
+    private static final byte CONSTANT_OBJ = 1;
+
+    private static final byte MOCK_OBJ = 2;
+
+    private static final byte MERGED_OBJ = 3;
+
+    // tags of constants
+    private static final byte STRING_CONSTANT = 0;
+
+    private static final byte CLASS_CONSTANT = 1;
+
+    private static final byte METHOD_TYPE_CONSTANT = 2;
+
+    private static final byte METHOD_HANDLE_CONSTANT = 3;
+
+    // tags of pointers
+    private static final byte VAR_POINTER = 0;
+
+    private static final byte STATIC_FIELD_POINTER = 1;
+
+    private static final byte INSTANCE_FIELD_POINTER = 2;
+
+    private static final byte ARRAY_INDEX_POINTER = 3;
+
+    // tags of values, i.e., the context elements and
+    // the allocations of mock objects
+    private static final byte NULL_VALUE = 0;
+
+    private static final byte OBJ_VALUE = 1;
+
+    private static final byte STMT_VALUE = 2;
+
+    private static final byte TYPE_VALUE = 3;
+
+    private static final byte METHOD_VALUE = 4;
+
+    private static final byte FIELD_VALUE = 5;
+
+    private static final byte VAR_VALUE = 6;
+
+    private static final byte CLASS_VALUE = 7;
+
+    private static final byte STRING_VALUE = 8;
+
+    private static final byte OTHER_VALUE = 9;
+
+    private StateFile() {
+    }
+
+    /**
+     * Saves the state of given solver, which has finished solving,
+     * to the state file.
+     */
+    static void save(DefaultSolver solver, File file) {
+        logger.info("Saving pointer analysis state to {}", file);
+        Timer timer = new Timer("Save pointer analysis state");
+        timer.start();
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            new Writer(solver).write(out);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to save pointer analysis state to {} due to {}",
+                    file, e);
+            file.delete();
+        } finally {
+            timer.stop();
+            logger.info(timer);
+        }
+    }
+
+    /**
+     * Loads the pointer analysis result from the state file.
+     *
+     * @param options   options of pointer analysis in current run
+     * @param csManager the manager of context-sensitive elements
+     *                  for the loaded result
+     * @param file      the state file
+     * @return the loaded result, or {@code null} if the state file does not
+     * exist, or it is outdated (i.e., the program or the options have changed),
+     * or it fails to be loaded.
+     */
+    public static PointerAnalysisResult load(
+            AnalysisOptions options, CSManager csManager, File file) {
+        if (!file.exists()) {
+            logger.info("Pointer analysis state not found in {}", file);
+            return null;
+        }
+        logger.info("Loading pointer analysis state from {}", file);
+        Timer timer = new Timer("Load pointer analysis state");
+        timer.start();
+        try (FileChannel channel = FileChannel.open(
+                file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            PointerAnalysisResult result = new Reader(
+                    options, csManager, buffer, file, null).read();
+            if (result != null) {
+                result.storeResult(LOADED_FROM, file);
+            }
+            return result;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to load pointer analysis state from {} due to {}",
+                    file, e);
+            return null;
+        } finally {
+            timer.stop();
+            logger.info(timer);
+        }
+    }
+
+    /**
+     * Updates the state in the state file for the changes of the program,
+     * i.e., adds the facts in the state which are not affected by the changed,
+     * added and removed methods and classes to given solver, which has been
+     * initialized but has not started solving. Then the solver only needs
+     * to derive the facts of the changed parts, which are much fewer than
+     * the facts of the whole program when the changes are small.
+     * <p>
+     * The state cannot be updated if the options have changed, or any class
+     * is removed, or the super types of any class have changed.
+     *
+     * @return {@code true} if the facts have been added to the solver.
+     */
+    static boolean update(DefaultSolver solver, File file) {
+        if (!file.exists()) {
+            return false;
+        }
+        logger.info("Updating pointer analysis state in {}", file);
+        Timer timer = new Timer("Update pointer analysis state");
+        timer.start();
+        try (FileChannel channel = FileChannel.open(
+                file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new Reader(solver.getOptions(), solver.getCSManager(),
+                    buffer, file, solver).update();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to update pointer analysis state in {} due to {}",
+                    file, e);
+            return false;
+        } finally {
+            timer.stop();
+            logger.info(timer);
+        }
+    }
+
+    /**
+     * Section of a state file, which contains a number of records.
+     */
+    private static class Section {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        final DataOutputStream out = new DataOutputStream(bytes);
+
+        int count;
+
+        void writeTo(DataOutputStream file) throws IOException {
+            writeVarInt(file, count);
+            bytes.writeTo(file);
+        }
+    }
+
+    /**
+     * Section of the elements which are referred to by their indexes.
+     */
+    private static class Table<T> extends Section {
+
+        private final Map<T, Integer> ids = Maps.newMap();
+
+        Integer getId(T elem) {
+            return ids.get(elem);
+        }
+
+        /**
+         * Adds an element to this table, whose record should be
+         * written to {@link #out} right after this call.
+         *
+         * @return the index of the element.
+         */
+        int add(T elem) {
+            ids.put(elem, count);
+            return count++;
+        }
+    }
+
+    /**
+     * Buffer of a record which refers to other records in the same table.
+     * It is appended to the table after the records it refers to, so that
+     * the records are always read after the ones they refer to.
+     */
+    private static class Record extends DataOutputStream {
+
+        private Record() {
+            super(new ByteArrayOutputStream());
+        }
+
+        private <T> int appendTo(Table<T> table, T elem) throws IOException {
+            int id = table.add(elem);
+            ((ByteArrayOutputStream) out).writeTo(table.out);
+            return id;
+        }
+    }
+
+    private static class Writer {
+
+        private final AnalysisOptions options;
+
+        private final CSManager csManager;
+
+        private final CSCallGraph callGraph;
+
+        private final Fingerprints fingerprints = new Fingerprints();
+
+        private final Table<String> strings = new Table<>();
+
+        private final Section classes = new Section();
+
+        private final Table<JMethod> methods = new Table<>();
+
+        private final Table<Type> types = new Table<>();
+
+        private final Table<JField> fields = new Table<>();
+
+        private final Table<Var> vars = new Table<>();
+
+        private final Table<Stmt> stmts = new Table<>();
+
+        private final Table<Obj> objs = new Table<>();
+
+        private final Table<Context> contexts = new Table<>();
+
+        private final Table<CSObj> csObjs = new Table<>();
+
+        private final Table<CSMethod> csMethods = new Table<>();
+
+        private final Table<Pointer> pointers = new Table<>();
+
+        private final Section pfgEdges = new Section();
+
+        private final Section entryMethods = new Section();
+
+        private final Section reachableMethods = new Section();
+
+        private final Section callEdges = new Section();
+
+        /**
+         * The variables of IR are identified by their canonical indexes,
+         * see {@link Fingerprints#getCanonicalVars}.
+         */
+        private final Map<JMethod, Map<Var, Integer>> canonicalIds = Maps.newMap();
+
+        private Writer(DefaultSolver solver) {
+            this.options = solver.getOptions();
+            this.csManager = solver.getCSManager();
+            this.callGraph = solver.getCallGraph();
+        }
+
+        private void write(DataOutputStream file) throws IOException {
+            encode();
+            file.writeInt(MAGIC);
+            file.writeInt(VERSION);
+            writeString(file, fingerprints.getOptionsDigest(options));
+            for (Section section : List.of(strings, classes, methods,
+                    types, fields, vars, stmts, objs, contexts, csObjs,
+                    csMethods, pointers, pfgEdges,
+                    entryMethods, reachableMethods, callEdges)) {
+                section.writeTo(file);
+            }
+            logger.info("Saved {} pointers, {} objects, {} pointer flow edges" +
+                            " and {} call edges", pointers.count, csObjs.count,
+                    pfgEdges.count, callEdges.count);
+        }
+
+        private void encode() throws IOException {
+            for (JClass jclass : World.get().getClassHierarchy()
+                    .allClasses().toList()) {
+                writeVarInt(classes.out, stringId(jclass.getName()));
+                classes.out.writeLong(fingerprints.getClassHash(jclass));
+                classes.out.writeLong(fingerprints.getHierarchyHash(jclass));
+                ++classes.count;
+            }
+            for (CSObj csObj : csManager.getObjects()) {
+                csObjId(csObj);
+            }
+            for (Pointer pointer : csManager.pointers().toList()) {
+                encodePointer(pointer);
+            }
+            for (Pointer pointer : csManager.pointers().toList()) {
+                for (PointerFlowEdge edge : pointer.getOutEdges()) {
+                    Integer target = pointers.getId(edge.target());
+                    if (target != null) {
+                        writeVarInt(pfgEdges.out, pointers.getId(pointer));
+                        writeVarInt(pfgEdges.out, target);
+                        writeKind(pfgEdges.out, edge.kind(), edge.getInfo());
+                        ++pfgEdges.count;
+                    }
+                }
+            }
+            for (CSMethod csMethod : callGraph.entryMethods().toList()) {
+                writeVarInt(entryMethods.out, csMethodId(csMethod));
+                ++entryMethods.count;
+            }
+            for (CSMethod csMethod : callGraph.reachableMethods().toList()) {
+                writeVarInt(reachableMethods.out, csMethodId(csMethod));
+                ++reachableMethods.count;
+            }
+            for (Edge<CSCallSite, CSMethod> edge : callGraph.edges().toList()) {
+                CSCallSite csCallSite = edge.getCallSite();
+                int callSite = stmtId(csCallSite.getCallSite());
+                if (callSite != -1) {
+                    writeVarInt(callEdges.out, contextId(csCallSite.getContext()));
+                    writeVarInt(callEdges.out, callSite);
+                    writeVarInt(callEdges.out, csMethodId(edge.getCallee()));
+                    writeKind(callEdges.out, edge.getKind(), edge.getInfo());
+                    ++callEdges.count;
+                }
+            }
+        }
+
+        /**
+         * Writes the kind of edge, and the information of the edges
+         * of OTHER kind, which are added by plugins.
+         */
+        private void writeKind(DataOutputStream out, Enum<?> kind, String info)
+                throws IOException {
+            out.writeByte(kind.ordinal());
+            if (kind == FlowKind.OTHER || kind == CallKind.OTHER) {
+                writeVarInt(out, stringId(info));
+            }
+        }
+
+        private void encodePointer(Pointer pointer) throws IOException {
+            Record record = new Record();
+            if (pointer instanceof CSVar csVar) {
+                record.writeByte(VAR_POINTER);
+                writeVarInt(record, contextId(csVar.getContext()));
+                writeVarInt(record, varId(csVar.getVar()));
+            } else if (pointer instanceof StaticField staticField) {
+                record.writeByte(STATIC_FIELD_POINTER);
+                writeVarInt(record, fieldId(staticField.getField()));
+            } else if (pointer instanceof InstanceField instanceField) {
+                record.writeByte(INSTANCE_FIELD_POINTER);
+                writeVarInt(record, csObjId(instanceField.getBase()));
+                writeVarInt(record, fieldId(instanceField.getField()));
+            } else {
+                record.writeByte(ARRAY_INDEX_POINTER);
+                writeVarInt(record, csObjId(((ArrayIndex) pointer).getArray()));
+            }
+            PointsToSet pts = pointer.getPointsToSet();
+            int[] objIds = new int[pts != null ? pts.size() : 0];
+            if (pts != null) {
+                int i = 0;
+                for (CSObj csObj : pts) {
+                    objIds[i++] = csObjId(csObj);
+                }
+                Arrays.sort(objIds);
+            }
+            writeVarInt(record, objIds.length);
+            int last = 0;
+            for (int objId : objIds) {
+                writeVarInt(record, objId - last);
+                last = objId;
+            }
+            record.appendTo(pointers, pointer);
+        }
+
+        private int csObjId(CSObj csObj) throws IOException {
+            Integer id = csObjs.getId(csObj);
+            if (id == null) {
+                Record record = new Record();
+                writeVarInt(record, contextId(csObj.getContext()));
+                writeVarInt(record, objId(csObj.getObject()));
+                id = record.appendTo(csObjs, csObj);
+            }
+            return id;
+        }
+
+        private int csMethodId(CSMethod csMethod) throws IOException {
+            Integer id = csMethods.getId(csMethod);
+            if (id == null) {
+                Record record = new Record();
+                writeVarInt(record, contextId(csMethod.getContext()));
+                writeVarInt(record, methodId(csMethod.getMethod()));
+                id = record.appendTo(csMethods, csMethod);
+            }
+            return id;
+        }
+
+        private int contextId(Context context) throws IOException {
+            Integer id = contexts.getId(context);
+            if (id == null) {
+                Record record = new Record();
+                writeVarInt(record, context.getLength());
+                for (int i = 0; i < context.getLength(); ++i) {
+                    writeValue(record, context.getElementAt(i));
+                }
+                id = record.appendTo(contexts, context);
+            }
+            return id;
+        }
+
+        private int objId(Obj obj) throws IOException {
+            Integer id = objs.getId(obj);
+            if (id != null) {
+                return id;
+            }
+            Record record = new Record();
+            if (obj instanceof NewObj newObj) {
+                int allocSite = stmtId(newObj.getAllocation());
+                if (allocSite == -1) {
+                    throw new AnalysisException(
+                            "Unsupported allocation site: " + newObj.getAllocation());
+                }
+                record.writeByte(NEW_OBJ);
+                writeVarInt(record, allocSite);
+            } else if (obj instanceof ConstantObj constantObj) {
+                record.writeByte(CONSTANT_OBJ);
+                writeConstant(record, constantObj.getAllocation());
+            } else if (obj instanceof MockObj mockObj) {
+                record.writeByte(MOCK_OBJ);
+                writeVarInt(record, stringId(mockObj.getDescriptor().string()));
+                writeValue(record, mockObj.getAllocation());
+                writeVarInt(record, typeId(mockObj.getType()));
+                JMethod container = mockObj.getContainerMethod().orElse(null);
+                writeVarInt(record, container != null ? methodId(container) + 1 : 0);
+                record.writeBoolean(mockObj.isFunctional());
+            } else if (obj instanceof MergedObj mergedObj) {
+                record.writeByte(MERGED_OBJ);
+                writeVarInt(record, typeId(mergedObj.getType()));
+                writeVarInt(record, stringId(mergedObj.getName()));
+                // the representative object (which provides the container
+                // of merged object) is the first one added when loading
+                List<Obj> represented = new ArrayList<>(mergedObj.getAllocation());
+                represented.sort((o1, o2) -> Boolean.compare(
+                        !isRepresentative(mergedObj, o1),
+                        !isRepresentative(mergedObj, o2)));
+                writeVarInt(record, represented.size());
+                for (Obj o : represented) {
+                    writeVarInt(record, objId(o));
+                }
+            } else {
+                throw new AnalysisException("Unsupported object: " + obj);
+            }
+            return record.appendTo(objs, obj);
+        }
+
+        private static boolean isRepresentative(MergedObj mergedObj, Obj obj) {
+            return obj.getContainerMethod().equals(mergedObj.getContainerMethod())
+                    && obj.getContainerType().equals(mergedObj.getContainerType());
+        }
+
+        private void writeConstant(DataOutputStream out, ReferenceLiteral value)
+                throws IOException {
+            if (value instanceof StringLiteral string) {
+                out.writeByte(STRING_CONSTANT);
+                writeVarInt(out, stringId(string.getString()));
+            } else if (value instanceof ClassLiteral classLiteral) {
+                out.writeByte(CLASS_CONSTANT);
+                writeVarInt(out, typeId(classLiteral.getTypeValue()));
+            } else if (value instanceof MethodType methodType) {
+                out.writeByte(METHOD_TYPE_CONSTANT);
+                writeTypes(out, methodType.getParamTypes());
+                writeVarInt(out, typeId(methodType.getReturnType()));
+            } else if (value instanceof MethodHandle methodHandle) {
+                out.writeByte(METHOD_HANDLE_CONSTANT);
+                writeVarInt(out, methodHandle.getKind().getValue());
+                MemberRef ref = methodHandle.isFieldRef()
+                        ? methodHandle.getFieldRef() : methodHandle.getMethodRef();
+                writeVarInt(out, stringId(ref.getDeclaringClass().getName()));
+                writeVarInt(out, stringId(ref.getName()));
+                out.writeBoolean(ref.isStatic());
+                if (ref instanceof FieldRef fieldRef) {
+                    writeVarInt(out, typeId(fieldRef.getType()));
+                } else {
+                    MethodRef methodRef = (MethodRef) ref;
+                    writeTypes(out, methodRef.getParameterTypes());
+                    writeVarInt(out, typeId(methodRef.getReturnType()));
+                }
+            } else {
+                throw new AnalysisException("Unsupported constant: " + value);
+            }
+        }
+
+        private void writeTypes(DataOutputStream out, List<Type> types)
+                throws IOException {
+            writeVarInt(out, types.size());
+            for (Type type : types) {
+                writeVarInt(out, typeId(type));
+            }
+        }
+
+        private void writeValue(DataOutputStream out, Object value)
+                throws IOException {
+            int stmt;
+            if (value == null) {
+                out.writeByte(NULL_VALUE);
+            } else if (value instanceof Obj obj) {
+                out.writeByte(OBJ_VALUE);
+                writeVarInt(out, objId(obj));
+            } else if (value instanceof Stmt s && (stmt = stmtId(s)) != -1) {
+                out.writeByte(STMT_VALUE);
+                writeVarInt(out, stmt);
+            } else if (value instanceof Type type) {
+                out.writeByte(TYPE_VALUE);
+                writeVarInt(out, typeId(type));
+            } else if (value instanceof JMethod method) {
+                out.writeByte(METHOD_VALUE);
+                writeVarInt(out, methodId(method));
+            } else if (value instanceof JField field) {
+                out.writeByte(FIELD_VALUE);
+                writeVarInt(out, fieldId(field));
+            } else if (value instanceof Var var) {
+                out.writeByte(VAR_VALUE);
+                writeVarInt(out, varId(var));
+            } else if (value instanceof JClass jclass) {
+                out.writeByte(CLASS_VALUE);
+                writeVarInt(out, stringId(jclass.getName()));
+            } else if (value instanceof String string) {
+                out.writeByte(STRING_VALUE);
+                writeVarInt(out, stringId(string));
+            } else {
+                out.writeByte(OTHER_VALUE);
+                writeVarInt(out, stringId(value.toString()));
+            }
+        }
+
+        /**
+         * @return the index of given statement, or -1 if the statement
+         * is synthetic and cannot be re-created.
+         */
+        private int stmtId(Stmt stmt) throws IOException {
+            Integer id = stmts.getId(stmt);
+            if (id != null) {
+                return id;
+            }
+            JMethod container;
+            if (stmt instanceof Invoke invoke) {
+                container = invoke.getContainer();
+            } else if (stmt instanceof New newStmt) {
+                container = newStmt.getContainer();
+            } else {
+                return -1;
+            }
+            Record record = new Record();
+            if (isInIR(stmt, container)) {
+                record.writeByte(IR_STMT);
+                writeVarInt(record, methodId(container));
+                writeVarInt(record, stmt.getIndex());
+            } else if (stmt instanceof New newStmt
+                    && newStmt.getRValue() instanceof NewInstance newInstance) {
+                record.writeByte(SYNTHETIC_NEW_INSTANCE);
+                writeVarInt(record, methodId(container));
+                writeVarInt(record, varId(newStmt.getLValue()));
+                writeVarInt(record, typeId(newInstance.getType()));
+            } else if (stmt instanceof New newStmt
+                    && newStmt.getRValue() instanceof NewArray newArray) {
+                record.writeByte(SYNTHETIC_NEW_ARRAY);
+                writeVarInt(record, methodId(container));
+                writeVarInt(record, varId(newStmt.getLValue()));
+                writeVarInt(record, typeId(newArray.getType()));
+                writeVarInt(record, varId(newArray.getLength()));
+            } else {
+                return -1;
+            }
+            return record.appendTo(stmts, stmt);
+        }
+
+        private int varId(Var var) throws IOException {
+            Integer id = vars.getId(var);
+            if (id == null) {
+                Record record = new Record();
+                JMethod method = var.getMethod();
+                if (isInIR(var)) {
+                    record.writeByte(IR_VAR);
+                    writeVarInt(record, methodId(method));
+                    writeVarInt(record, canonicalIds.computeIfAbsent(method, m -> {
+                        Map<Var, Integer> ids = Maps.newMap();
+                        List<Var> vars = Fingerprints.getCanonicalVars(m.getIR());
+                        for (int i = 0; i < vars.size(); ++i) {
+                            ids.put(vars.get(i), i);
+                        }
+                        return ids;
+                    }).get(var));
+                } else {
+                    record.writeByte(SYNTHETIC_VAR);
+                    writeVarInt(record, methodId(method));
+                    writeVarInt(record, stringId(var.getName()));
+                    writeVarInt(record, typeId(var.getType()));
+                }
+                id = record.appendTo(vars, var);
+            }
+            return id;
+        }
+
+        private int methodId(JMethod method) throws IOException {
+            Integer id = methods.getId(method);
+            if (id == null) {
+                int signature = stringId(method.getSignature());
+                long hash = fingerprints.getMethodHash(method);
+                id = methods.add(method);
+                writeVarInt(methods.out, signature);
+                methods.out.writeLong(hash);
+            }
+            return id;
+        }
+
+        private int fieldId(JField field) throws IOException {
+            Integer id = fields.getId(field);
+            if (id == null) {
+                int signature = stringId(field.getSignature());
+                id = fields.add(field);
+                writeVarInt(fields.out, signature);
+            }
+            return id;
+        }
+
+        private int typeId(Type type) throws IOException {
+            Integer id = types.getId(type);
+            if (id == null) {
+                int name = stringId(type.getName());
+                id = types.add(type);
+                writeVarInt(types.out, name);
+            }
+            return id;
+        }
+
+        private int stringId(String string) throws IOException {
+            Integer id = strings.getId(string);
+            if (id == null) {
+                id = strings.add(string);
+                writeString(strings.out, string);
+            }
+            return id;
+        }
+    }
+
+    private static boolean isInIR(Var var) {
+        IR ir = var.getMethod().getIR();
+        int index = var.getIndex();
+        return index >= 0 && index < ir.getVars().size()
+                && ir.getVar(index) == var;
+    }
+
+    private static boolean isInIR(Stmt stmt, JMethod container) {
+        IR ir = container.getIR();
+        int index = stmt.getIndex();
+        return index >= 0 && index < ir.getStmts().size()
+                && ir.getStmt(index) == stmt;
+    }
+
+    private static class Reader {
+
+        private final AnalysisOptions options;
+
+        private final CSManager csManager;
+
+        private final ByteBuffer buffer;
+
+        private final File file;
+
+        /**
+         * The solver whose state is updated from the state file,
+         * or {@code null} if the results are loaded from the file.
+         * When updating, the elements which have changed (or cannot be
+         * re-created, e.g., the mock objects) are read as {@code null}.
+         */
+        private final DefaultSolver solver;
+
+        private final ClassHierarchy hierarchy = World.get().getClassHierarchy();
+
+        private final TypeSystem typeSystem = World.get().getTypeSystem();
+
+        private final Fingerprints fingerprints = new Fingerprints();
+
+        private final LoadedHeapModel heapModel;
+
+        private final TrieContext.Factory<Object> contextFactory =
+                new TrieContext.Factory<>();
+
+        private final PointsToSetFactory ptsFactory;
+
+        /**
+         * The descriptors of the loaded mock objects.
+         */
+        private final Map<String, Descriptor> descriptors = Maps.newMap();
+
+        private final Map<JMethod, List<Var>> canonicalVars = Maps.newMap();
+
+        /**
+         * The classes whose declarations have changed, and the new classes.
+         */
+        private final Set<JClass> changedClasses = Sets.newSet();
+
+        private String[] strings;
+
+        private JMethod[] methods;
+
+        private Type[] types;
+
+        private JField[] fields;
+
+        private Var[] vars;
+
+        private Stmt[] stmts;
+
+        private Obj[] objs;
+
+        private Context[] contexts;
+
+        private CSObj[] csObjs;
+
+        private CSMethod[] csMethods;
+
+        private Pointer[] pointers;
+
+        private Reader(AnalysisOptions options, CSManager csManager,
+                       ByteBuffer buffer, File file, DefaultSolver solver) {
+            this.options = options;
+            this.csManager = csManager;
+            this.buffer = buffer;
+            this.file = file;
+            this.solver = solver;
+            heapModel = solver == null ? new LoadedHeapModel(options) : null;
+            ptsFactory = new PointsToSetFactory(
+                    csManager.getObjectIndexer(), options.getString("pts"));
+        }
+
+        /**
+         * @return the loaded result, or {@code null} if the state is outdated.
+         */
+        private PointerAnalysisResult read() {
+            if (!readElements()) {
+                return null;
+            }
+            csObjs = new CSObj[readVarInt()];
+            Arrays.setAll(csObjs, i -> csManager.getCSObj(
+                    contexts[readVarInt()], objs[readVarInt()]));
+            csMethods = new CSMethod[readVarInt()];
+            Arrays.setAll(csMethods, i -> csManager.getCSMethod(
+                    contexts[readVarInt()], methods[readVarInt()]));
+            pointers = new Pointer[readVarInt()];
+            Arrays.setAll(pointers, i -> readPointer());
+            PointerFlowGraph pfg = readPointerFlowGraph();
+            CSCallGraph callGraph = readCallGraph();
+            @SuppressWarnings("unchecked")
+            PropagateTypes propTypes = new PropagateTypes(
+                    (List<String>) options.get("propagate-types"), typeSystem);
+            logger.info("Loaded {} pointers, {} objects and {} call edges",
+                    pointers.length, csObjs.length, callGraph.edges().count());
+            return new PointerAnalysisResultImpl(
+                    propTypes, csManager, heapModel, callGraph, pfg);
+        }
+
+        /**
+         * Adds the facts which are not affected by the changes of
+         * the program to the solver, see {@link StateFile#update}.
+         *
+         * @return {@code false} if the state cannot be updated.
+         */
+        private boolean update() {
+            if (!readElements()) {
+                return false;
+            }
+            new Updater().update();
+            return true;
+        }
+
+        /**
+         * Reads the header of the state file, and the program elements
+         * and contexts referred to by the state.
+         *
+         * @return {@code false} if the state cannot be used in current run.
+         */
+        private boolean readElements() {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                logger.info("{} is not a pointer analysis state file of" +
+                        " current version", file);
+                return false;
+            }
+            if (!readString().equals(fingerprints.getOptionsDigest(options))) {
+                logger.info("Pointer analysis state in {} is outdated," +
+                        " the options have changed", file);
+                return false;
+            }
+            strings = new String[readVarInt()];
+            Arrays.setAll(strings, i -> readString());
+            if (!readClasses() || !readMethods()) {
+                logger.info("Pointer analysis state in {} is outdated," +
+                        " the program has changed", file);
+                return false;
+            }
+            types = new Type[readVarInt()];
+            Arrays.setAll(types, i -> getType(strings[readVarInt()]));
+            fields = new JField[readVarInt()];
+            Arrays.setAll(fields, i -> resolve(
+                    hierarchy.getField(strings[readVarInt()])));
+            vars = new Var[readVarInt()];
+            Arrays.setAll(vars, i -> readVar());
+            stmts = new Stmt[readVarInt()];
+            Arrays.setAll(stmts, i -> readStmt());
+            objs = new Obj[readVarInt()];
+            Arrays.setAll(objs, i -> readObj());
+            contexts = new Context[readVarInt()];
+            Arrays.setAll(contexts, i -> readContext());
+            return true;
+        }
+
+        /**
+         * Checks the classes in current program against the saved ones.
+         * When updating, the changed and new classes are collected, and
+         * the state cannot be updated only if a class is removed or its
+         * super types have changed.
+         *
+         * @return {@code true} if the state can be used for the classes.
+         */
+        private boolean readClasses() {
+            int nClasses = readVarInt();
+            if (solver == null && nClasses != hierarchy.allClasses().count()) {
+                return false;
+            }
+            Set<JClass> savedClasses = Sets.newSet(nClasses);
+            for (int i = 0; i < nClasses; ++i) {
+                JClass jclass = hierarchy.getClass(strings[readVarInt()]);
+                long hash = buffer.getLong();
+                long hierarchyHash = buffer.getLong();
+                if (jclass == null
+                        || fingerprints.getHierarchyHash(jclass) != hierarchyHash) {
+                    return false;
+                }
+                if (fingerprints.getClassHash(jclass) != hash) {
+                    if (solver == null) {
+                        return false;
+                    }
+                    changedClasses.add(jclass);
+                }
+                savedClasses.add(jclass);
+            }
+            if (solver != null) {
+                hierarchy.allClasses()
+                        .filter(c -> !savedClasses.contains(c))
+                        .forEach(changedClasses::add);
+            }
+            return true;
+        }
+
+        /**
+         * Reads the methods referred to by the state. When updating,
+         * the changed and removed methods are read as {@code null}.
+         *
+         * @return {@code true} if the state can be used for the methods.
+         */
+        private boolean readMethods() {
+            methods = new JMethod[readVarInt()];
+            int nChanged = 0;
+            for (int i = 0; i < methods.length; ++i) {
+                JMethod method = hierarchy.getMethod(strings[readVarInt()]);
+                long hash = buffer.getLong();
+                if (method == null || fingerprints.getMethodHash(method) != hash) {
+                    if (solver == null) {
+                        return false;
+                    }
+                    method = null;
+                    ++nChanged;
+                }
+                methods[i] = method;
+            }
+            if (solver != null) {
+                logger.info("{} classes and {} methods have changed",
+                        changedClasses.size(), nChanged);
+            }
+            return true;
+        }
+
+        private Type getType(String name) {
+            return name.equals(NullType.NULL.getName())
+                    ? NullType.NULL : typeSystem.getType(name);
+        }
+
+        private Var readVar() {
+            byte tag = buffer.get();
+            JMethod method = methods[readVarInt()];
+            if (tag == IR_VAR) {
+                int index = readVarInt();
+                return method == null ? null : canonicalVars.computeIfAbsent(
+                        method, m -> Fingerprints.getCanonicalVars(m.getIR()))
+                        .get(index);
+            } else {
+                String name = strings[readVarInt()];
+                Type type = types[readVarInt()];
+                // when updating, the synthetic variables
+                // are created again by the plugins
+                return solver == null ? new Var(method, name, type, -1) : null;
+            }
+        }
+
+        private Stmt readStmt() {
+            byte tag = buffer.get();
+            JMethod container = methods[readVarInt()];
+            if (tag == IR_STMT) {
+                int index = readVarInt();
+                return container == null ? null : container.getIR().getStmt(index);
+            } else {
+                Var lvalue = vars[readVarInt()];
+                Type type = types[readVarInt()];
+                Var length = tag == SYNTHETIC_NEW_ARRAY ? vars[readVarInt()] : null;
+                if (solver != null) {
+                    return null;
+                }
+                NewExp newExp = tag == SYNTHETIC_NEW_INSTANCE
+                        ? new NewInstance((ClassType) type)
+                        : new NewArray((ArrayType) type, length);
+                return new New(container, lvalue, newExp);
+            }
+        }
+
+        private Obj readObj() {
+            byte tag = buffer.get();
+            switch (tag) {
+                case NEW_OBJ -> {
+                    New allocSite = (New) stmts[readVarInt()];
+                    if (solver != null) {
+                        return allocSite == null ? null
+                                : solver.getHeapModel().getObj(allocSite);
+                    }
+                    return heapModel.makeNewObj(allocSite);
+                }
+                case CONSTANT_OBJ -> {
+                    ReferenceLiteral value = readConstant();
+                    return solver != null
+                            ? solver.getHeapModel().getConstantObj(value)
+                            : heapModel.makeConstantObj(value);
+                }
+                case MOCK_OBJ -> {
+                    String desc = strings[readVarInt()];
+                    Object alloc = readValue();
+                    Type type = types[readVarInt()];
+                    int container = readVarInt();
+                    boolean isFunctional = buffer.get() != 0;
+                    // when updating, the mock objects
+                    // are created again by the plugins
+                    return solver != null ? null : heapModel.getMockObj(
+                            descriptors.computeIfAbsent(desc, s -> () -> s),
+                            alloc, type,
+                            container != 0 ? methods[container - 1] : null,
+                            isFunctional);
+                }
+                default -> {
+                    Type type = types[readVarInt()];
+                    String name = strings[readVarInt()];
+                    int nRepresented = readVarInt();
+                    if (solver != null) {
+                        // the heap model of the solver produces the merged
+                        // object for the allocation site of any represented
+                        // object, thus the represented objects have been
+                        // read as the merged object
+                        Obj merged = null;
+                        for (int i = 0; i < nRepresented; ++i) {
+                            Obj obj = objs[readVarInt()];
+                            if (merged == null) {
+                                merged = obj;
+                            }
+                        }
+                        return merged;
+                    }
+                    MergedObj mergedObj = heapModel.makeMergedObj(type, name);
+                    for (int i = 0; i < nRepresented; ++i) {
+                        mergedObj.addRepresentedObj(objs[readVarInt()]);
+                    }
+                    return mergedObj;
+                }
+            }
+        }
+
+        private ReferenceLiteral readConstant() {
+            byte tag = buffer.get();
+            switch (tag) {
+                case STRING_CONSTANT -> {
+                    return StringLiteral.get(strings[readVarInt()]);
+                }
+                case CLASS_CONSTANT -> {
+                    return ClassLiteral.get(types[readVarInt()]);
+                }
+                case METHOD_TYPE_CONSTANT -> {
+                    List<Type> paramTypes = readTypes();
+                    return MethodType.get(paramTypes, types[readVarInt()]);
+                }
+                default -> {
+                    MethodHandle.Kind kind = MethodHandle.Kind.get(readVarInt());
+                    JClass declaringClass = check(
+                            hierarchy.getClass(strings[readVarInt()]));
+                    String name = strings[readVarInt()];
+                    boolean isStatic = buffer.get() != 0;
+                    MemberRef ref;
+                    if (kind.getValue() <= MethodHandle.Kind.REF_putStatic.getValue()) {
+                        ref = FieldRef.get(declaringClass, name,
+                                types[readVarInt()], isStatic);
+                    } else {
+                        List<Type> paramTypes = readTypes();
+                        ref = MethodRef.get(declaringClass, name, paramTypes,
+                                types[readVarInt()], isStatic);
+                    }
+                    return MethodHandle.get(kind, ref);
+                }
+            }
+        }
+
+        private List<Type> readTypes() {
+            Type[] result = new Type[readVarInt()];
+            Arrays.setAll(result, i -> types[readVarInt()]);
+            return List.of(result);
+        }
+
+        private Context readContext() {
+            Object[] elems = new Object[readVarInt()];
+            Arrays.setAll(elems, i -> readValue());
+            if (solver != null) {
+                // the contexts which contain the changed or synthetic
+                // elements cannot be restored
+                for (Object elem : elems) {
+                    if (elem instanceof Placeholder) {
+                        return null;
+                    }
+                }
+                return solver.getContextSelector().makeContext(elems);
+            }
+            return elems.length == 0
+                    ? contextFactory.getEmptyContext()
+                    : contextFactory.make(elems);
+        }
+
+        private Object readValue() {
+            byte tag = buffer.get();
+            return switch (tag) {
+                case NULL_VALUE -> null;
+                case OBJ_VALUE -> orStale(objs[readVarInt()]);
+                case STMT_VALUE -> orStale(stmts[readVarInt()]);
+                case TYPE_VALUE -> types[readVarInt()];
+                case METHOD_VALUE -> orStale(methods[readVarInt()]);
+                case FIELD_VALUE -> orStale(fields[readVarInt()]);
+                case VAR_VALUE -> orStale(vars[readVarInt()]);
+                case CLASS_VALUE -> check(hierarchy.getClass(strings[readVarInt()]));
+                case STRING_VALUE -> strings[readVarInt()];
+                default -> new Placeholder(strings[readVarInt()]);
+            };
+        }
+
+        /**
+         * @return given element, or {@link Placeholder#STALE} if the element
+         * is {@code null}, i.e., it has changed when updating.
+         */
+        private static Object orStale(Object elem) {
+            return elem != null ? elem : Placeholder.STALE;
+        }
+
+        private Pointer readPointer() {
+            byte tag = buffer.get();
+            Pointer pointer = switch (tag) {
+                case VAR_POINTER -> {
+                    Context context = contexts[readVarInt()];
+                    yield csManager.getCSVar(context, vars[readVarInt()]);
+                }
+                case STATIC_FIELD_POINTER -> csManager.getStaticField(
+                        fields[readVarInt()]);
+                case INSTANCE_FIELD_POINTER -> {
+                    CSObj base = csObjs[readVarInt()];
+                    yield csManager.getInstanceField(base, fields[readVarInt()]);
+                }
+                default -> csManager.getArrayIndex(csObjs[readVarInt()]);
+            };
+            int size = readVarInt();
+            if (size > 0) {
+                PointsToSet pts = ptsFactory.make();
+                int objId = 0;
+                for (int i = 0; i < size; ++i) {
+                    objId += readVarInt();
+                    pts.addObject(csObjs[objId]);
+                }
+                pointer.setPointsToSet(pts);
+            }
+            return pointer;
+        }
+
+        private PointerFlowGraph readPointerFlowGraph() {
+            PointerFlowGraph pfg = new PointerFlowGraph(csManager);
+            int nEdges = readVarInt();
+            for (int i = 0; i < nEdges; ++i) {
+                Pointer source = pointers[readVarInt()];
+                Pointer target = pointers[readVarInt()];
+                FlowKind kind = FlowKind.values()[buffer.get()];
+                pfg.addEdge(kind == FlowKind.OTHER
+                        ? new LoadedOtherEdge(source, target, strings[readVarInt()])
+                        : new PointerFlowEdge(kind, source, target));
+            }
+            return pfg;
+        }
+
+        private CSCallGraph readCallGraph() {
+            CSCallGraph callGraph = new CSCallGraph(csManager);
+            int nEntries = readVarInt();
+            for (int i = 0; i < nEntries; ++i) {
+                callGraph.addEntryMethod(csMethods[readVarInt()]);
+            }
+            int nReachable = readVarInt();
+            for (int i = 0; i < nReachable; ++i) {
+                callGraph.addReachableMethod(csMethods[readVarInt()]);
+            }
+            int nEdges = readVarInt();
+            for (int i = 0; i < nEdges; ++i) {
+                Context context = contexts[readVarInt()];
+                CSCallSite csCallSite = csManager.getCSCallSite(
+                        context, (Invoke) stmts[readVarInt()]);
+                CSMethod csCallee = csMethods[readVarInt()];
+                CallKind kind = CallKind.values()[buffer.get()];
+                callGraph.addEdge(kind == CallKind.OTHER
+                        ? new LoadedOtherCallEdge(csCallSite, csCallee,
+                        strings[readVarInt()])
+                        : new Edge<>(kind, csCallSite, csCallee));
+            }
+            return callGraph;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get();
+                value |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        private String readString() {
+            byte[] bytes = new byte[readVarInt()];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private static <T> T check(T elem) {
+            if (elem == null) {
+                throw new AnalysisException("Failed to resolve program element");
+            }
+            return elem;
+        }
+
+        private <T> T resolve(T elem) {
+            return solver == null ? check(elem) : elem;
+        }
+
+        /**
+         * Finds the facts in the saved state which may be affected by
+         * the changes of the program, and adds the other facts to the solver.
+         * <p>
+         * The facts are identified by their indexes in the state file.
+         * The facts of the changed elements are affected, and the affected
+         * facts are propagated along the dependencies between the facts,
+         * similar to the pointer flow graph: the points-to set of a pointer
+         * depends on the pointers flowing to it, the edges of the field
+         * and array accesses and the calls on the variables depend on
+         * the objects pointed to by the variables, and the facts of
+         * a (context-sensitive) method depend on its reachability. The
+         * affected facts are dropped, and derived again by the solver if
+         * they still hold, thus the results are the same as solving from
+         * scratch, except for the facts which are added by the plugins
+         * outside of pointer flow graph (e.g., the points-to sets added
+         * by reflection analysis), which may be kept even if they no
+         * longer hold.
+         */
+        private class Updater {
+
+            private final ContextSelector contextSelector =
+                    solver.getContextSelector();
+
+            private final Map<JMethod, Integer> methodIds = Maps.newMap();
+
+            private final Map<Var, Integer> varIds = Maps.newMap();
+
+            private final Map<Stmt, Integer> stmtIds = Maps.newMap();
+
+            // context-sensitive objects
+            private final int[] csObjContexts;
+
+            private final int[] csObjObjs;
+
+            private final boolean[] removedObjs;
+
+            /**
+             * The objects removed since the last call to
+             * {@link #dropCallsOnRemovedObjs()}.
+             */
+            private final List<Integer> newlyRemovedObjs = new ArrayList<>();
+
+            private final CSObj[] restoredCSObjs;
+
+            // context-sensitive methods
+            private final int[] csMethodContexts;
+
+            private final int[] csMethodMethods;
+
+            private final boolean[] reachedMethods;
+
+            private final CSMethod[] restoredCSMethods;
+
+            /**
+             * (context index, method index) -> context-sensitive method index.
+             */
+            private final Map<Long, Integer> csMethodIds = Maps.newMap();
+
+            /**
+             * method index -> context-sensitive method indexes.
+             */
+            private final MultiMap<Integer, Integer> methodCSMethods =
+                    Maps.newMultiMap();
+
+            // pointers
+            private final byte[] pointerTags;
+
+            /**
+             * The context of each variable, the field of each static field,
+             * or the base object of each instance field and array index.
+             */
+            private final int[] pointerBases;
+
+            /**
+             * The variable of each variable, or the field of each
+             * instance field.
+             */
+            private final int[] pointerElems;
+
+            private final int[][] pointsTo;
+
+            private final boolean[] deletedPointers;
+
+            /**
+             * (context index, variable index) -> pointer index.
+             */
+            private final Map<Long, Integer> varPointers = Maps.newMap();
+
+            /**
+             * object index -> indexes of its instance fields and array index.
+             */
+            private final MultiMap<Integer, Integer> objPointers =
+                    Maps.newMultiMap();
+
+            /**
+             * context-sensitive method index -> indexes of its variables.
+             */
+            private final MultiMap<Integer, Integer> methodPointers =
+                    Maps.newMultiMap();
+
+            // pointer flow graph in compressed sparse row format, i.e.,
+            // the successors of pointer p are successors[offsets[p]]
+            // ... successors[offsets[p + 1] - 1]
+            private final int[] offsets;
+
+            private final int[] successors;
+
+            // call graph
+            private final int[] entryMethods;
+
+            private final int[] reachableMethods;
+
+            private final int[] edgeContexts;
+
+            private final int[] edgeCallSites;
+
+            private final int[] edgeCallees;
+
+            private final CallKind[] edgeKinds;
+
+            private final boolean[] droppedEdges;
+
+            /**
+             * (context index, call site index) -> call edge indexes.
+             */
+            private final MultiMap<Long, Integer> callSiteEdges =
+                    Maps.newMultiMap();
+
+            /**
+             * context-sensitive method index -> indexes of the call edges
+             * from the method.
+             */
+            private final MultiMap<Integer, Integer> methodEdges =
+                    Maps.newMultiMap();
+
+            private final Deque<Integer> deletedPointerQueue = new ArrayDeque<>();
+
+            private final Deque<Integer> droppedEdgeQueue = new ArrayDeque<>();
+
+            private final Deque<Integer> removedObjQueue = new ArrayDeque<>();
+
+            /**
+             * Memoizes whether a class or any of its super types has changed.
+             */
+            private final Map<JClass, Boolean> affectedClasses = Maps.newMap();
+
+            private Updater() {
+                for (int i = 0; i < methods.length; ++i) {
+                    if (methods[i] != null) {
+                        methodIds.put(methods[i], i);
+                    }
+                }
+                for (int i = 0; i < vars.length; ++i) {
+                    if (vars[i] != null) {
+                        varIds.put(vars[i], i);
+                    }
+                }
+                for (int i = 0; i < stmts.length; ++i) {
+                    if (stmts[i] != null) {
+                        stmtIds.put(stmts[i], i);
+                    }
+                }
+                // context-sensitive objects and methods
+                int nCSObjs = readVarInt();
+                csObjContexts = new int[nCSObjs];
+                csObjObjs = new int[nCSObjs];
+                for (int i = 0; i < nCSObjs; ++i) {
+                    csObjContexts[i] = readVarInt();
+                    csObjObjs[i] = readVarInt();
+                }
+                removedObjs = new boolean[nCSObjs];
+                restoredCSObjs = new CSObj[nCSObjs];
+                int nCSMethods = readVarInt();
+                csMethodContexts = new int[nCSMethods];
+                csMethodMethods = new int[nCSMethods];
+                for (int i = 0; i < nCSMethods; ++i) {
+                    csMethodContexts[i] = readVarInt();
+                    csMethodMethods[i] = readVarInt();
+                    csMethodIds.put(key(csMethodContexts[i], csMethodMethods[i]), i);
+                    methodCSMethods.put(csMethodMethods[i], i);
+                }
+                reachedMethods = new boolean[nCSMethods];
+                restoredCSMethods = new CSMethod[nCSMethods];
+                // pointers
+                int nPointers = readVarInt();
+                pointerTags = new byte[nPointers];
+                pointerBases = new int[nPointers];
+                pointerElems = new int[nPointers];
+                pointsTo = new int[nPointers][];
+                for (int i = 0; i < nPointers; ++i) {
+                    readPointer(i);
+                }
+                deletedPointers = new boolean[nPointers];
+                // pointer flow graph
+                int nPFGEdges = readVarInt();
+                int[] sources = new int[nPFGEdges];
+                int[] targets = new int[nPFGEdges];
+                offsets = new int[nPointers + 1];
+                for (int i = 0; i < nPFGEdges; ++i) {
+                    sources[i] = readVarInt();
+                    targets[i] = readVarInt();
+                    if (FlowKind.values()[buffer.get()] == FlowKind.OTHER) {
+                        readVarInt(); // info
+                    }
+                    ++offsets[sources[i] + 1];
+                }
+                for (int i = 0; i < nPointers; ++i) {
+                    offsets[i + 1] += offsets[i];
+                }
+                successors = new int[nPFGEdges];
+                int[] next = Arrays.copyOf(offsets, nPointers);
+                for (int i = 0; i < nPFGEdges; ++i) {
+                    successors[next[sources[i]]++] = targets[i];
+                }
+                // call graph
+                entryMethods = readInts();
+                reachableMethods = readInts();
+                int nEdges = readVarInt();
+                edgeContexts = new int[nEdges];
+                edgeCallSites = new int[nEdges];
+                edgeCallees = new int[nEdges];
+                edgeKinds = new CallKind[nEdges];
+                for (int i = 0; i < nEdges; ++i) {
+                    edgeContexts[i] = readVarInt();
+                    edgeCallSites[i] = readVarInt();
+                    edgeCallees[i] = readVarInt();
+                    edgeKinds[i] = CallKind.values()[buffer.get()];
+                    if (edgeKinds[i] == CallKind.OTHER) {
+                        readVarInt(); // info
+                    }
+                    callSiteEdges.put(key(edgeContexts[i], edgeCallSites[i]), i);
+                }
+                droppedEdges = new boolean[nEdges];
+            }
+
+            private void readPointer(int i) {
+                byte tag = buffer.get();
+                pointerTags[i] = tag;
+                pointerBases[i] = readVarInt();
+                if (tag == VAR_POINTER || tag == INSTANCE_FIELD_POINTER) {
+                    pointerElems[i] = readVarInt();
+                }
+                if (tag == VAR_POINTER) {
+                    varPointers.put(key(pointerBases[i], pointerElems[i]), i);
+                    Var var = vars[pointerElems[i]];
+                    Integer method = var != null ? methodIds.get(var.getMethod()) : null;
+                    Integer csMethod = method != null
+                            ? csMethodIds.get(key(pointerBases[i], method)) : null;
+                    if (csMethod != null) {
+                        methodPointers.put(csMethod, i);
+                    }
+                } else if (tag != STATIC_FIELD_POINTER) {
+                    objPointers.put(pointerBases[i], i);
+                }
+                int[] objIds = new int[readVarInt()];
+                int objId = 0;
+                for (int j = 0; j < objIds.length; ++j) {
+                    objId += readVarInt();
+                    objIds[j] = objId;
+                }
+                pointsTo[i] = objIds;
+            }
+
+            private int[] readInts() {
+                int[] result = new int[readVarInt()];
+                Arrays.setAll(result, i -> readVarInt());
+                return result;
+            }
+
+            private void update() {
+                // the facts of the changed elements
+                for (int i = 0; i < csObjObjs.length; ++i) {
+                    if (!isUnchangedObj(i)) {
+                        removeObj(i);
+                    }
+                }
+                for (int i = 0; i < pointerTags.length; ++i) {
+                    if (!isRestorable(i)) {
+                        deletePointer(i);
+                    }
+                }
+                for (int i = 0; i < edgeKinds.length; ++i) {
+                    if (isAffected(i)) {
+                        dropEdge(i);
+                    }
+                }
+                boolean[] hasCaller = new boolean[restoredCSMethods.length];
+                for (int i = 0; i < edgeKinds.length; ++i) {
+                    Integer caller = getCaller(i);
+                    if (caller != null) {
+                        methodEdges.put(caller, i);
+                    } else {
+                        dropEdge(i);
+                    }
+                    hasCaller[edgeCallees[i]] = true;
+                }
+                // the methods which are reachable without call edges
+                // (e.g., the entry methods and the class initializers)
+                List<Integer> roots = new ArrayList<>();
+                for (int m : entryMethods) {
+                    roots.add(m);
+                }
+                for (int m : reachableMethods) {
+                    if (!hasCaller[m]) {
+                        roots.add(m);
+                    }
+                    reachedMethods[m] = isUnchangedMethod(m);
+                }
+                // propagates the affected facts until reaching a fixed point
+                do {
+                    processQueues();
+                    updateReachability(roots);
+                    removeUnproducedObjs();
+                    dropCallsOnRemovedObjs();
+                } while (!deletedPointerQueue.isEmpty()
+                        || !droppedEdgeQueue.isEmpty()
+                        || !removedObjQueue.isEmpty());
+                addFacts();
+            }
+
+            /**
+             * @return {@code true} if the pointer and the elements it
+             * refers to are unchanged.
+             */
+            private boolean isRestorable(int pointer) {
+                int base = pointerBases[pointer];
+                int elem = pointerElems[pointer];
+                return switch (pointerTags[pointer]) {
+                    case VAR_POINTER -> contexts[base] != null && vars[elem] != null;
+                    case STATIC_FIELD_POINTER -> fields[base] != null;
+                    case INSTANCE_FIELD_POINTER -> isUnchangedObj(base)
+                            && fields[elem] != null;
+                    default -> isUnchangedObj(base);
+                };
+            }
+
+            /**
+             * @return {@code true} if given call edge may be changed, i.e.,
+             * its call site or callee has changed, or the resolution of
+             * the callee may be changed by the changed classes.
+             */
+            private boolean isAffected(int edge) {
+                if (contexts[edgeContexts[edge]] == null
+                        || stmts[edgeCallSites[edge]] == null
+                        || !isUnchangedMethod(edgeCallees[edge])) {
+                    return true;
+                }
+                Invoke callSite = (Invoke) stmts[edgeCallSites[edge]];
+                switch (edgeKinds[edge]) {
+                    case VIRTUAL, INTERFACE -> {
+                        // the callee is dispatched on the receiver objects
+                        Var base = ((InvokeInstanceExp) callSite.getInvokeExp()).getBase();
+                        Integer recv = getVarPointer(edgeContexts[edge], base);
+                        if (recv == null) {
+                            return true;
+                        }
+                        for (int obj : pointsTo[recv]) {
+                            Obj o = objs[csObjObjs[obj]];
+                            if (o != null && isAffected(o.getType())) {
+                                return true;
+                            }
+                        }
+                        return false;
+                    }
+                    case OTHER -> {
+                        return false;
+                    }
+                    default -> {
+                        // the callee is resolved from the referenced class
+                        return isAffected(callSite.getMethodRef().getDeclaringClass());
+                    }
+                }
+            }
+
+            private boolean isAffected(Type type) {
+                if (type instanceof ClassType classType) {
+                    return isAffected(classType.getJClass());
+                } else if (type instanceof ArrayType) {
+                    return isAffected(hierarchy.getJREClass(ClassNames.OBJECT));
+                }
+                return false;
+            }
+
+            /**
+             * @return {@code true} if given class or any of its super types
+             * has changed, in which case the methods resolved on the class
+             * may be changed.
+             */
+            private boolean isAffected(JClass jclass) {
+                if (jclass == null) {
+                    return false;
+                }
+                Boolean affected = affectedClasses.get(jclass);
+                if (affected == null) {
+                    affected = changedClasses.contains(jclass)
+                            || isAffected(jclass.getSuperClass())
+                            || jclass.getInterfaces().stream().anyMatch(this::isAffected);
+                    affectedClasses.put(jclass, affected);
+                }
+                return affected;
+            }
+
+            private void deletePointer(int pointer) {
+                if (!deletedPointers[pointer]) {
+                    deletedPointers[pointer] = true;
+                    deletedPointerQueue.add(pointer);
+                }
+            }
+
+            private void dropEdge(int edge) {
+                if (!droppedEdges[edge]) {
+                    droppedEdges[edge] = true;
+                    droppedEdgeQueue.add(edge);
+                }
+            }
+
+            private void removeObj(int obj) {
+                if (!removedObjs[obj]) {
+                    removedObjs[obj] = true;
+                    removedObjQueue.add(obj);
+                    newlyRemovedObjs.add(obj);
+                }
+            }
+
+            private void processQueues() {
+                while (!deletedPointerQueue.isEmpty()
+                        || !droppedEdgeQueue.isEmpty()
+                        || !removedObjQueue.isEmpty()) {
+                    if (!deletedPointerQueue.isEmpty()) {
+                        processDeletedPointer(deletedPointerQueue.poll());
+                    } else if (!droppedEdgeQueue.isEmpty()) {
+                        processDroppedEdge(droppedEdgeQueue.poll());
+                    } else {
+                        // the fields of removed objects are removed
+                        objPointers.get(removedObjQueue.poll())
+                                .forEach(this::deletePointer);
+                    }
+                }
+            }
+
+            private void processDeletedPointer(int pointer) {
+                for (int i = offsets[pointer]; i < offsets[pointer + 1]; ++i) {
+                    deletePointer(successors[i]);
+                }
+                Var var = pointerTags[pointer] == VAR_POINTER
+                        ? vars[pointerElems[pointer]] : null;
+                if (var == null) {
+                    return;
+                }
+                // the edges of the field and array accesses and the calls
+                // on the variable depend on the objects it points to
+                int context = pointerBases[pointer];
+                var.getInvokes().forEach(invoke -> dropCallsAt(context, invoke));
+                var.getLoadFields().forEach(load ->
+                        deleteVarPointer(context, load.getLValue()));
+                var.getLoadArrays().forEach(load ->
+                        deleteVarPointer(context, load.getLValue()));
+                for (StoreField store : var.getStoreFields()) {
+                    JField field = store.getFieldRef().resolveNullable();
+                    for (int obj : pointsTo[pointer]) {
+                        for (int p : objPointers.get(obj)) {
+                            if (pointerTags[p] == INSTANCE_FIELD_POINTER
+                                    && fields[pointerElems[p]] == field) {
+                                deletePointer(p);
+                            }
+                        }
+                    }
+                }
+                if (!var.getStoreArrays().isEmpty()) {
+                    for (int obj : pointsTo[pointer]) {
+                        for (int p : objPointers.get(obj)) {
+                            if (pointerTags[p] == ARRAY_INDEX_POINTER) {
+                                deletePointer(p);
+                            }
+                        }
+                    }
+                }
+            }
+
+            private void processDroppedEdge(int edge) {
+                // the parameters and the result of the call
+                int callee = edgeCallees[edge];
+                Set<Integer> calleePointers = methodPointers.get(callee);
+                if (!calleePointers.isEmpty()) {
+                    IR ir = methods[csMethodMethods[callee]].getIR();
+                    for (int p : calleePointers) {
+                        Var var = vars[pointerElems[p]];
+                        if (var == ir.getThis() || ir.getParams().contains(var)) {
+                            deletePointer(p);
+                        }
+                    }
+                }
+                if (stmts[edgeCallSites[edge]] instanceof Invoke callSite
+                        && callSite.getResult() != null) {
+                    deleteVarPointer(edgeContexts[edge], callSite.getResult());
+                }
+            }
+
+            private void dropCallsAt(int context, Invoke callSite) {
+                Integer stmt = stmtIds.get(callSite);
+                if (stmt != null) {
+                    callSiteEdges.get(key(context, stmt)).forEach(this::dropEdge);
+                }
+            }
+
+            private void deleteVarPointer(int context, Var var) {
+                Integer pointer = getVarPointer(context, var);
+                if (pointer != null) {
+                    deletePointer(pointer);
+                }
+            }
+
+            private Integer getVarPointer(int context, Var var) {
+                Integer varId = varIds.get(var);
+                return varId != null ? varPointers.get(key(context, varId)) : null;
+            }
+
+            /**
+             * Removes the methods which are not reachable from the roots
+             * via the call edges which are not dropped.
+             */
+            private void updateReachability(List<Integer> roots) {
+                boolean[] reached = new boolean[restoredCSMethods.length];
+                Deque<Integer> queue = new ArrayDeque<>();
+                for (int root : roots) {
+                    if (reachedMethods[root] && !reached[root]) {
+                        reached[root] = true;
+                        queue.add(root);
+                    }
+                }
+                while (!queue.isEmpty()) {
+                    for (int edge : methodEdges.get(queue.poll())) {
+                        int callee = edgeCallees[edge];
+                        if (!droppedEdges[edge] && reachedMethods[callee]
+                                && !reached[callee]) {
+                            reached[callee] = true;
+                            queue.add(callee);
+                        }
+                    }
+                }
+                for (int m = 0; m < reached.length; ++m) {
+                    if (reachedMethods[m] && !reached[m]) {
+                        reachedMethods[m] = false;
+                        methodPointers.get(m).forEach(this::deletePointer);
+                        methodEdges.get(m).forEach(this::dropEdge);
+                    }
+                }
+            }
+
+            /**
+             * Removes the objects whose allocation sites are not in
+             * the reachable methods (with the contexts which produce
+             * the heap contexts of the objects).
+             */
+            private void removeUnproducedObjs() {
+                for (int i = 0; i < csObjObjs.length; ++i) {
+                    if (!removedObjs[i]
+                            && objs[csObjObjs[i]] instanceof NewObj obj
+                            && !isProduced(obj, contexts[csObjContexts[i]])) {
+                        removeObj(i);
+                    }
+                }
+            }
+
+            private boolean isProduced(NewObj obj, Context heapContext) {
+                Integer method = methodIds.get(obj.getAllocation().getContainer());
+                if (method != null) {
+                    for (int m : methodCSMethods.get(method)) {
+                        if (reachedMethods[m] && contextSelector.selectHeapContext(
+                                getCSMethod(m), obj).equals(heapContext)) {
+                            return true;
+                        }
+                    }
+                }
+                return false;
+            }
+
+            /**
+             * Drops the call edges which are dispatched on the removed objects.
+             */
+            private void dropCallsOnRemovedObjs() {
+                if (newlyRemovedObjs.isEmpty()) {
+                    return;
+                }
+                boolean[] removed = new boolean[csObjObjs.length];
+                newlyRemovedObjs.forEach(obj -> removed[obj] = true);
+                newlyRemovedObjs.clear();
+                for (int p = 0; p < pointerTags.length; ++p) {
+                    Var var = pointerTags[p] == VAR_POINTER
+                            ? vars[pointerElems[p]] : null;
+                    if (var != null && !deletedPointers[p]
+                            && !var.getInvokes().isEmpty()) {
+                        for (int obj : pointsTo[p]) {
+                            if (removed[obj]) {
+                                int context = pointerBases[p];
+                                var.getInvokes().forEach(invoke ->
+                                        dropCallsAt(context, invoke));
+                                break;
+                            }
+                        }
+                    }
+                }
+            }
+
+            /**
+             * Adds the facts which are not affected to the solver.
+             */
+            private void addFacts() {
+                int nPointers = 0;
+                int nFacts = 0;
+                for (int p = 0; p < pointerTags.length; ++p) {
+                    if (deletedPointers[p]) {
+                        continue;
+                    }
+                    PointsToSet pts = solver.makePointsToSet();
+                    for (int obj : pointsTo[p]) {
+                        if (!removedObjs[obj]) {
+                            pts.addObject(getCSObj(obj));
+                        }
+                    }
+                    if (!pts.isEmpty()) {
+                        solver.propagateTo(getPointer(p), pts);
+                        ++nPointers;
+                        nFacts += pts.size();
+                    }
+                }
+                int nEdges = 0;
+                for (int e = 0; e < edgeKinds.length; ++e) {
+                    // the call edges of OTHER kind are added
+                    // by the plugins with their own semantics
+                    if (!droppedEdges[e] && edgeKinds[e] != CallKind.OTHER) {
+                        CSCallSite csCallSite = csManager.getCSCallSite(
+                                contexts[edgeContexts[e]],
+                                (Invoke) stmts[edgeCallSites[e]]);
+                        solver.addCallEdge(new Edge<>(edgeKinds[e],
+                                csCallSite, getCSMethod(edgeCallees[e])));
+                        ++nEdges;
+                    }
+                }
+                logger.info("Restored {} points-to facts of {}/{} pointers" +
+                                " and {}/{} call edges", nFacts, nPointers,
+                        pointerTags.length, nEdges, edgeKinds.length);
+            }
+
+            private Pointer getPointer(int pointer) {
+                int base = pointerBases[pointer];
+                int elem = pointerElems[pointer];
+                return switch (pointerTags[pointer]) {
+                    case VAR_POINTER -> csManager.getCSVar(contexts[base], vars[elem]);
+                    case STATIC_FIELD_POINTER -> csManager.getStaticField(fields[base]);
+                    case INSTANCE_FIELD_POINTER -> csManager.getInstanceField(
+                            getCSObj(base), fields[elem]);
+                    default -> csManager.getArrayIndex(getCSObj(base));
+                };
+            }
+
+            /**
+             * @return the context-sensitive object, or {@code null}
+             * if it has changed.
+             */
+            private CSObj getCSObj(int i) {
+                if (restoredCSObjs[i] == null && isUnchangedObj(i)) {
+                    restoredCSObjs[i] = csManager.getCSObj(
+                            contexts[csObjContexts[i]], objs[csObjObjs[i]]);
+                }
+                return restoredCSObjs[i];
+            }
+
+            private boolean isUnchangedObj(int i) {
+                return contexts[csObjContexts[i]] != null
+                        && objs[csObjObjs[i]] != null;
+            }
+
+            /**
+             * @return the context-sensitive method, or {@code null}
+             * if it has changed.
+             */
+            private CSMethod getCSMethod(int i) {
+                if (restoredCSMethods[i] == null && isUnchangedMethod(i)) {
+                    restoredCSMethods[i] = csManager.getCSMethod(
+                            contexts[csMethodContexts[i]], methods[csMethodMethods[i]]);
+                }
+                return restoredCSMethods[i];
+            }
+
+            private boolean isUnchangedMethod(int i) {
+                return contexts[csMethodContexts[i]] != null
+                        && methods[csMethodMethods[i]] != null;
+            }
+
+            /**
+             * @return the index of the method which contains the call site
+             * of given call edge, or {@code null} if it is unknown.
+             */
+            private Integer getCaller(int edge) {
+                if (stmts[edgeCallSites[edge]] instanceof Invoke callSite) {
+                    Integer method = methodIds.get(callSite.getContainer());
+                    if (method != null) {
+                        return csMethodIds.get(key(edgeContexts[edge], method));
+                    }
+                }
+                return null;
+            }
+
+            private static long key(int i, int j) {
+                return ((long) i << 32) | j;
+            }
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value)
+            throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static void writeString(DataOutputStream out, String string)
+            throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Heap model which re-creates the objects saved in state files.
+     */
+    private static class LoadedHeapModel extends AbstractHeapModel {
+
+        private LoadedHeapModel(AnalysisOptions options) {
+            super(options);
+        }
+
+        @Override
+        protected Obj doGetObj(New allocSite) {
+            return getNewObj(allocSite);
+        }
+
+        private Obj makeNewObj(New allocSite) {
+            return getNewObj(allocSite);
+        }
+
+        private Obj makeConstantObj(ReferenceLiteral value) {
+            return doGetConstantObj(value);
+        }
+
+        private MergedObj makeMergedObj(Type type, String name) {
+            // the merged string constant object is created by
+            // the constructor of AbstractHeapModel as the first object
+            if (getObject(0) instanceof MergedObj mergedSC
+                    && mergedSC.getName().equals(name)
+                    && mergedSC.getType().equals(type)) {
+                return mergedSC;
+            }
+            return add(new MergedObj(type, name));
+        }
+    }
+
+    /**
+     * Element which is not part of the program, e.g., a synthetic call site
+     * in contexts, restored from its string representation.
+     */
+    private record Placeholder(String string) {
+
+        /**
+         * Placeholder of the elements which have changed when updating.
+         */
+        private static final Placeholder STALE = new Placeholder("<stale>");
+
+        @Override
+        public String toString() {
+            return string;
+        }
+    }
+
+    /**
+     * Pointer flow edge of OTHER kind, which is added by plugins.
+     * Such edges may be distinguished by the contents of the plugins
+     * (which are not saved), thus each loaded edge is only equal to itself.
+     */
+    private static class LoadedOtherEdge extends OtherEdge {
+
+        private final String info;
+
+        private LoadedOtherEdge(Pointer source, Pointer target, String info) {
+            super(source, target);
+            this.info = info;
+        }
+
+        @Override
+        public String getInfo() {
+            return info;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+
+    /**
+     * Call edge of OTHER kind, which is added by plugins, and each loaded
+     * edge is only equal to itself for the same reason as {@link LoadedOtherEdge}.
+     */
+    private static class LoadedOtherCallEdge
+            extends pascal.taie.analysis.graph.callgraph.OtherEdge<CSCallSite, CSMethod> {
+
+        private final String info;
+
+        private LoadedOtherCallEdge(CSCallSite csCallSite, CSMethod callee,
+                                    String info) {
+            super(csCallSite, callee);
+            this.info = info;
+        }
+
+        @Override
+        public String getInfo() {
+            return info;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
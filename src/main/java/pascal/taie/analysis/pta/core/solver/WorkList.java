@@ -27,15 +27,43 @@ import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
 import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.config.ConfigException;
 import pascal.taie.util.collection.Maps;
+import pascal.taie.util.graph.SCC;
 
-import java.util.ArrayDeque;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
 import java.util.Queue;
 
 /**
  * Represents work list in pointer analysis.
+ * <p>
+ * The call edges are grouped into batches by their callees, and
+ * the batches are processed in FIFO order, so that the work shared by
+ * the edges to the same callee (e.g., processing the callee when it
+ * becomes reachable) is done once per batch. The order of
+ * pointer entries is determined by a strategy:
+ * <ul>
+ *     <li>{@code fifo}: processes the pointers in the order that they are
+ *     added to the work list.
+ *     <li>{@code topo}: processes the pointers in topological order of
+ *     strongly connected components of the pointer flow graph, so that
+ *     the objects are accumulated at the predecessors before they are
+ *     propagated to the successors.
+ *     <li>{@code lrf}: processes the least recently fired (polled)
+ *     pointers first.
+ *     <li>{@code pts-size}: processes the pointers with smaller points-to
+ *     sets first, so that more objects are accumulated (and merged in one
+ *     entry) for the pointers with large points-to sets.
+ * </ul>
+ * Pending entries of the same pointer are always merged into one entry,
+ * and the strategies reduce the number of propagations by increasing
+ * the chance of merging.
  */
 final class WorkList {
 
@@ -45,42 +73,200 @@ final class WorkList {
     private final Map<Pointer, PointsToSet> pointerEntries = Maps.newLinkedHashMap();
 
     /**
-     * Call edges to be processed.
+     * Priority of the pointers, {@code null} for FIFO order.
      */
-    private final Queue<Edge<CSCallSite, CSMethod>> callEdges = new ArrayDeque<>();
+    @Nullable
+    private final Priority priority;
+
+    /**
+     * Queue of pointers in {@link #pointerEntries} ordered by {@link #priority}.
+     */
+    private final Queue<QueuedPointer> pointerQueue = new PriorityQueue<>();
+
+    /**
+     * Call edges to be processed, grouped by callees.
+     */
+    private final Map<CSMethod, List<Edge<CSCallSite, CSMethod>>> callEdges =
+            Maps.newLinkedHashMap();
+
+    /**
+     * Number of call edges in {@link #callEdges}.
+     */
+    private int pendingCallEdges = 0;
+
+    /**
+     * Counter for sequence numbers of queued pointers, which are used
+     * to process the pointers with the same priority in FIFO order.
+     */
+    private long seq = 0;
+
+    /**
+     * Number of pointer entries that have been polled.
+     */
+    private long polledEntries = 0;
+
+    /**
+     * Number of pointer entries that have been merged into
+     * existing entries in this work list.
+     */
+    private long mergedEntries = 0;
+
+    /**
+     * Number of call edges that have been polled.
+     */
+    private long polledCallEdges = 0;
+
+    /**
+     * Number of call edge batches that have been polled.
+     */
+    private long polledBatches = 0;
+
+    /**
+     * Size of the largest call edge batch that has been polled.
+     */
+    private int maxBatchSize = 0;
+
+    /**
+     * @param strategy the strategy to order pointer entries
+     * @param pfg      the pointer flow graph, which is used by
+     *                 {@code topo} strategy
+     */
+    WorkList(String strategy, PointerFlowGraph pfg) {
+        priority = switch (strategy) {
+            case "fifo" -> null;
+            case "topo" -> new TopologicalOrder(pfg);
+            case "lrf" -> new LeastRecentlyFired();
+            case "pts-size" -> new PointsToSetSize();
+            default -> throw new ConfigException(
+                    "Illegal work list strategy: " + strategy);
+        };
+    }
 
     void addEntry(Pointer pointer, PointsToSet pointsToSet) {
         PointsToSet set = pointerEntries.get(pointer);
         if (set != null) {
             set.addAll(pointsToSet);
+            ++mergedEntries;
         } else {
             pointerEntries.put(pointer, pointsToSet.copy());
+            if (priority != null) {
+                pointerQueue.add(new QueuedPointer(pointer,
+                        priority.getPriority(pointer), seq++));
+            }
         }
     }
 
     void addEntry(Edge<CSCallSite, CSMethod> edge) {
-        callEdges.add(edge);
+        callEdges.computeIfAbsent(edge.getCallee(), __ -> new ArrayList<>())
+                .add(edge);
+        ++pendingCallEdges;
     }
 
     Entry pollEntry() {
         if (!callEdges.isEmpty()) {
             // for correctness, we need to ensure that any call edges in
             // the work list must be processed prior to the pointer entries
-            return new CallEdgeEntry(callEdges.poll());
+            return pollCallEdges();
         } else if (!pointerEntries.isEmpty()) {
+            return pollPointerEntry();
+        } else {
+            throw new NoSuchElementException();
+        }
+    }
+
+    private PointerEntry pollPointerEntry() {
+        Pointer pointer;
+        PointsToSet pts;
+        if (priority == null) {
             var it = pointerEntries.entrySet().iterator();
             var e = it.next();
             it.remove();
-            return new PointerEntry(e.getKey(), e.getValue());
+            pointer = e.getKey();
+            pts = e.getValue();
         } else {
-            throw new NoSuchElementException();
+            pointer = pointerQueue.remove().pointer();
+            pts = pointerEntries.remove(pointer);
+            priority.onPoll(pointer);
         }
+        ++polledEntries;
+        return new PointerEntry(pointer, pts);
+    }
+
+    private CallEdgeEntry pollCallEdges() {
+        var it = callEdges.entrySet().iterator();
+        var e = it.next();
+        it.remove();
+        List<Edge<CSCallSite, CSMethod>> edges = e.getValue();
+        polledCallEdges += edges.size();
+        pendingCallEdges -= edges.size();
+        ++polledBatches;
+        maxBatchSize = Math.max(maxBatchSize, edges.size());
+        return new CallEdgeEntry(e.getKey(), edges);
+    }
+
+    boolean hasCallEdges() {
+        return !callEdges.isEmpty();
+    }
+
+    /**
+     * Retrieves and removes all pointer entries in this work list.
+     */
+    List<PointerEntry> pollPointerEntries() {
+        List<PointerEntry> entries = new ArrayList<>(pointerEntries.size());
+        while (!pointerEntries.isEmpty()) {
+            entries.add(pollPointerEntry());
+        }
+        return entries;
     }
 
     boolean isEmpty() {
         return pointerEntries.isEmpty() && callEdges.isEmpty();
     }
 
+    /**
+     * @return the number of pointer entries and call edges in this work list.
+     */
+    int size() {
+        return pointerEntries.size() + pendingCallEdges;
+    }
+
+    /**
+     * @return the number of pointer entries that have been polled,
+     * i.e., the number of propagations.
+     */
+    long getPolledEntries() {
+        return polledEntries;
+    }
+
+    /**
+     * @return the number of pointer entries that have been merged into
+     * existing entries, i.e., the number of propagations saved by merging.
+     */
+    long getMergedEntries() {
+        return mergedEntries;
+    }
+
+    /**
+     * @return the number of call edges that have been polled.
+     */
+    long getPolledCallEdges() {
+        return polledCallEdges;
+    }
+
+    /**
+     * @return the number of call edge batches that have been polled.
+     */
+    long getPolledBatches() {
+        return polledBatches;
+    }
+
+    /**
+     * @return the size of the largest call edge batch that has been polled.
+     */
+    int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
     interface Entry {
     }
 
@@ -88,7 +274,138 @@ final class WorkList {
             implements Entry {
     }
 
-    record CallEdgeEntry(Edge<CSCallSite, CSMethod> edge)
+    /**
+     * A batch of call edges to the same callee.
+     */
+    record CallEdgeEntry(CSMethod callee, List<Edge<CSCallSite, CSMethod>> edges)
             implements Entry {
     }
+
+    private record QueuedPointer(Pointer pointer, long priority, long seq)
+            implements Comparable<QueuedPointer> {
+
+        @Override
+        public int compareTo(QueuedPointer other) {
+            int cmp = Long.compare(priority, other.priority);
+            return cmp != 0 ? cmp : Long.compare(seq, other.seq);
+        }
+    }
+
+    /**
+     * Priority of pointers. The pointers with smaller priority
+     * are processed first.
+     */
+    private interface Priority {
+
+        /**
+         * @return the priority of given pointer when it is added
+         * to the work list.
+         */
+        long getPriority(Pointer pointer);
+
+        /**
+         * Callback when an entry of given pointer is polled.
+         */
+        default void onPoll(Pointer pointer) {
+        }
+    }
+
+    private static class LeastRecentlyFired implements Priority {
+
+        /**
+         * Maps pointer index to the time when the pointer was last fired.
+         */
+        private long[] lastFired = new long[1024];
+
+        private long time = 0;
+
+        @Override
+        public long getPriority(Pointer pointer) {
+            int i = pointer.getIndex();
+            return i < lastFired.length ? lastFired[i] : 0;
+        }
+
+        @Override
+        public void onPoll(Pointer pointer) {
+            int i = pointer.getIndex();
+            if (i >= lastFired.length) {
+                lastFired = Arrays.copyOf(lastFired,
+                        Math.max(i + 1, lastFired.length * 2));
+            }
+            lastFired[i] = ++time;
+        }
+    }
+
+    private static class PointsToSetSize implements Priority {
+
+        @Override
+        public long getPriority(Pointer pointer) {
+            PointsToSet pts = pointer.getPointsToSet();
+            return pts == null ? 0 : pts.size();
+        }
+    }
+
+    private static class TopologicalOrder implements Priority {
+
+        /**
+         * Minimum number of queries before the topological order
+         * is re-computed.
+         */
+        private static final int MIN_RECOMPUTE_INTERVAL = 10000;
+
+        private final PointerFlowGraph pfg;
+
+        /**
+         * Maps pointer index to its topological rank (starting from 1).
+         * Rank 0 means that the pointer was not in the pointer flow graph
+         * when the order was computed.
+         */
+        private int[] ranks = new int[0];
+
+        /**
+         * Number of queries since last computation.
+         */
+        private int queries = 0;
+
+        /**
+         * Number of queries before next computation, which is proportional
+         * to the size of the pointer flow graph, so that the amortized
+         * cost of computation is linear.
+         */
+        private int interval = 0;
+
+        private TopologicalOrder(PointerFlowGraph pfg) {
+            this.pfg = pfg;
+        }
+
+        @Override
+        public long getPriority(Pointer pointer) {
+            if (++queries > interval) {
+                computeRanks();
+            }
+            int i = pointer.getIndex();
+            return i < ranks.length ? ranks[i] : 0;
+        }
+
+        private void computeRanks() {
+            // components are in reverse topological order
+            List<List<Pointer>> components = new SCC<>(pfg).getComponents();
+            int maxIndex = -1;
+            for (List<Pointer> component : components) {
+                for (Pointer p : component) {
+                    maxIndex = Math.max(maxIndex, p.getIndex());
+                }
+            }
+            ranks = new int[maxIndex + 1];
+            int rank = components.size();
+            for (List<Pointer> component : components) {
+                for (Pointer p : component) {
+                    ranks[p.getIndex()] = rank;
+                }
+                --rank;
+            }
+            queries = 0;
+            interval = Math.max(MIN_RECOMPUTE_INTERVAL, ranks.length);
+        }
+    }
 }
@@ -0,0 +1,92 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.demand;
+
+import pascal.taie.World;
+import pascal.taie.analysis.ProgramAnalysis;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
+import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.core.solver.DeclaredParamProvider;
+import pascal.taie.analysis.pta.core.solver.EmptyParamProvider;
+import pascal.taie.analysis.pta.core.solver.EntryPoint;
+import pascal.taie.analysis.pta.plugin.ThreadHandler;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Demand-driven pointer analysis. Instead of solving the whole program,
+ * this analysis produces a {@link DemandPointerAnalysisResult}, which
+ * computes the points-to sets of variables when they are queried.
+ * The queries explore the methods of the call graph given by {@code cg},
+ * which is typically built by CHA so that no whole-program pointer
+ * analysis is needed.
+ */
+public class DemandPointerAnalysis extends ProgramAnalysis<DemandPointerAnalysisResult> {
+
+    public static final String ID = "demand-pta";
+
+    public DemandPointerAnalysis(AnalysisConfig config) {
+        super(config);
+    }
+
+    @Override
+    public DemandPointerAnalysisResult analyze() {
+        CallGraph<Invoke, JMethod> callGraph = World.get().getResult(CallGraphBuilder.ID);
+        long budget = getOptions().getInt("query-budget");
+        if (budget <= 0) {
+            throw new ConfigException("Illegal query budget: " + budget);
+        }
+        HeapModel heapModel = new AllocationSiteBasedModel(getOptions());
+        return new DemandPointerAnalysisResult(callGraph, heapModel,
+                getEntryPoints(heapModel), budget);
+    }
+
+    /**
+     * @return the entry points of the program, which are the same as
+     * the ones given by the plugins of whole-program pointer analysis.
+     */
+    private List<EntryPoint> getEntryPoints(HeapModel heapModel) {
+        List<EntryPoint> entryPoints = new ArrayList<>();
+        JMethod main = World.get().getMainMethod();
+        if (main != null) {
+            entryPoints.add(new EntryPoint(main,
+                    new DeclaredParamProvider(main, heapModel, 1)));
+        }
+        if (getOptions().getBoolean("implicit-entries")) {
+            for (JMethod entry : World.get().getImplicitEntries()) {
+                entryPoints.add(new EntryPoint(entry, EmptyParamProvider.get()));
+            }
+            entryPoints.addAll(ThreadHandler.makeEntryPoints(
+                    World.get().getClassHierarchy(),
+                    World.get().getTypeSystem(), heapModel));
+        }
+        return entryPoints;
+    }
+}
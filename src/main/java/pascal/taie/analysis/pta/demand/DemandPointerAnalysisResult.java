@@ -0,0 +1,116 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.demand;
+
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.core.solver.EntryPoint;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Answers points-to queries on demand, without solving the whole program.
+ * <p>
+ * Each query may take at most a given number of steps (the budget).
+ * If a query runs out of its budget, the returned points-to set may
+ * be incomplete, which is reported by {@link #isComplete()}. The pending
+ * work is kept, and will be resumed by the following queries.
+ * <p>
+ * The results of sub-queries are memoized, thus the queries on
+ * related variables become cheaper over time.
+ *
+ * @see DemandSolver
+ */
+public class DemandPointerAnalysisResult {
+
+    private final DemandSolver solver;
+
+    private final long budget;
+
+    private boolean complete = true;
+
+    private int queryCount = 0;
+
+    /**
+     * @param callGraph   the call graph which bounds the methods explored
+     *                    by the queries, e.g., the one built by CHA.
+     * @param heapModel   the heap model which abstracts the objects.
+     * @param entryPoints the entry points which give the objects of
+     *                    the this variables and parameters of entry methods.
+     * @param budget      the maximum number of steps taken by each query.
+     */
+    public DemandPointerAnalysisResult(CallGraph<Invoke, JMethod> callGraph,
+                                       HeapModel heapModel,
+                                       Collection<EntryPoint> entryPoints,
+                                       long budget) {
+        this.solver = new DemandSolver(callGraph, heapModel, entryPoints);
+        this.budget = budget;
+    }
+
+    /**
+     * @return set of Obj pointed to by var. The set may be incomplete
+     * if the query runs out of its budget.
+     */
+    public Set<Obj> getPointsToSet(Var var) {
+        ++queryCount;
+        solver.demand(var);
+        complete = solver.solve(budget);
+        return Collections.unmodifiableSet(solver.getPointsToSet(var));
+    }
+
+    /**
+     * @return {@code true} if the last query finished within its budget,
+     * so that its result is complete.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @return number of queries answered so far.
+     */
+    public int getQueryCount() {
+        return queryCount;
+    }
+
+    /**
+     * @return number of variables whose points-to sets have been
+     * demanded (directly or indirectly) by the queries so far.
+     */
+    public int getDemandedVarCount() {
+        return solver.getDemandedVarCount();
+    }
+
+    /**
+     * @return total number of steps taken by the queries so far.
+     */
+    public long getSteps() {
+        return solver.getSteps();
+    }
+}
@@ -0,0 +1,690 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.demand;
+
+import pascal.taie.World;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.CallGraphs;
+import pascal.taie.analysis.pta.core.heap.Descriptor;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.core.solver.EntryPoint;
+import pascal.taie.analysis.pta.core.solver.ParamProvider;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.InvokeInstanceExp;
+import pascal.taie.ir.exp.Literal;
+import pascal.taie.ir.exp.NewMultiArray;
+import pascal.taie.ir.exp.ReferenceLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Cast;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ArrayType;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.ReferenceType;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.collection.TwoKeyMap;
+import pascal.taie.util.collection.TwoKeyMultiMap;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Context-insensitive, field-sensitive pointer analysis which only
+ * explores the part of the program that the demanded variables depend on.
+ * <p>
+ * Demanding a variable adds the pointers which flow into it to the
+ * pointer flow graph, and the points-to sets are then propagated
+ * along the graph as in the whole-program solver. For a load
+ * {@code v = x.f}, only the stores {@code y.f = w} where y may point to
+ * the same objects as x are connected to v, and the points-to sets
+ * of x and y are demanded in turn. Calls are resolved by the points-to
+ * sets of receiver variables, within the methods of the given call graph.
+ * The this variables and parameters of entry methods, as well as
+ * the fields and elements of their objects, point to the objects
+ * given by the entry points, as in the whole-program solver.
+ * <p>
+ * All demanded pointers and their points-to sets are kept across
+ * queries, so that the sub-queries shared by different queries are
+ * solved only once.
+ * <p>
+ * Currently, exceptions, invokedynamic, reflection and the methods
+ * outside given call graph are not handled.
+ */
+class DemandSolver {
+
+    private static final Descriptor MULTI_ARRAY_DESC = () -> "MultiArrayObj";
+
+    private final CallGraph<Invoke, JMethod> callGraph;
+
+    private final HeapModel heapModel;
+
+    private final TypeSystem typeSystem;
+
+    /**
+     * Parameter object providers of the entry methods.
+     */
+    private final MultiMap<JMethod, ParamProvider> entryProviders = Maps.newMultiMap();
+
+    /**
+     * Objects pointed to by the fields of the objects given by entry points.
+     */
+    private final TwoKeyMultiMap<Obj, JField, Obj> entryFieldObjs = Maps.newTwoKeyMultiMap();
+
+    /**
+     * Elements of the array objects given by entry points.
+     */
+    private final MultiMap<Obj, Obj> entryArrayObjs = Maps.newMultiMap();
+
+    private final Map<Var, VarNode> varNodes = Maps.newMap();
+
+    private final Map<JField, Node> staticFields = Maps.newMap();
+
+    private final TwoKeyMap<Obj, JField, Node> instanceFields = Maps.newTwoKeyMap();
+
+    private final Map<Obj, Node> arrayIndexes = Maps.newMap();
+
+    /**
+     * Definitions of the variables in each method, built on demand.
+     */
+    private final Map<JMethod, MultiMap<Var, Stmt>> defs = Maps.newMap();
+
+    /**
+     * Stores of the program, indexed on first use.
+     */
+    private MultiMap<JField, StoreField> instanceStores;
+
+    private MultiMap<JField, StoreField> staticStores;
+
+    private List<StoreArray> arrayStores;
+
+    /**
+     * Fields whose stores have been connected to the demanded pointers.
+     */
+    private final Set<JField> activeFields = Sets.newSet();
+
+    private boolean arrayStoresActive = false;
+
+    /**
+     * Methods whose parameters have been demanded.
+     */
+    private final Set<JMethod> paramsDemanded = Sets.newSet();
+
+    /**
+     * Call sites whose results have been demanded.
+     */
+    private final Set<Invoke> resultsDemanded = Sets.newSet();
+
+    /**
+     * Call sites whose callees are being resolved.
+     */
+    private final Set<Invoke> resolvingSites = Sets.newSet();
+
+    private final MultiMap<Invoke, JMethod> callees = Maps.newMultiMap();
+
+    /**
+     * Demanded variables whose definitions have not been processed.
+     */
+    private final Queue<VarNode> demands = new ArrayDeque<>();
+
+    private final Queue<Entry> workList = new ArrayDeque<>();
+
+    /**
+     * Number of demands and work-list entries processed so far.
+     */
+    private long steps = 0;
+
+    DemandSolver(CallGraph<Invoke, JMethod> callGraph, HeapModel heapModel,
+                 Collection<EntryPoint> entryPoints) {
+        this.callGraph = callGraph;
+        this.heapModel = heapModel;
+        this.typeSystem = World.get().getTypeSystem();
+        for (EntryPoint entryPoint : entryPoints) {
+            ParamProvider provider = entryPoint.paramProvider();
+            entryProviders.put(entryPoint.method(), provider);
+            provider.getFieldObjs().forEach(entryFieldObjs::put);
+            entryArrayObjs.putAll(provider.getArrayObjs());
+        }
+    }
+
+    /**
+     * Demands the points-to set of given variable.
+     */
+    void demand(Var var) {
+        getSource(var);
+    }
+
+    /**
+     * Processes the pending work, until all of it is done or
+     * the number of steps taken by this call reaches given budget.
+     *
+     * @return {@code true} if all pending work is done, i.e., the
+     * points-to sets of all demanded variables are complete.
+     */
+    boolean solve(long budget) {
+        long limit = steps + budget;
+        while (steps < limit) {
+            VarNode demanded = demands.poll();
+            if (demanded != null) {
+                processDemand(demanded);
+            } else {
+                Entry entry = workList.poll();
+                if (entry == null) {
+                    return true;
+                }
+                propagate(entry.node(), entry.objs());
+            }
+            ++steps;
+        }
+        return demands.isEmpty() && workList.isEmpty();
+    }
+
+    Set<Obj> getPointsToSet(Var var) {
+        VarNode node = varNodes.get(var);
+        return node != null ? node.pts : Set.of();
+    }
+
+    long getSteps() {
+        return steps;
+    }
+
+    int getDemandedVarCount() {
+        return (int) varNodes.values()
+                .stream()
+                .filter(node -> node.demanded)
+                .count();
+    }
+
+    // ---------- pointer flow graph ----------
+
+    private VarNode getVarNode(Var var) {
+        return varNodes.computeIfAbsent(var, VarNode::new);
+    }
+
+    /**
+     * Demands given variable as the source of a pointer flow edge.
+     */
+    private VarNode getSource(Var var) {
+        VarNode node = getVarNode(var);
+        if (!node.demanded) {
+            node.demanded = true;
+            demands.add(node);
+        }
+        return node;
+    }
+
+    private void addEdge(Node source, Node target, @Nullable Predicate<Obj> filter) {
+        if (source.succs.add(new FlowEdge(target, filter))
+                && !source.pts.isEmpty()) {
+            addPointsTo(target, filter(Sets.newHybridSet(source.pts), filter));
+        }
+    }
+
+    private void addPointsTo(Node node, Set<Obj> objs) {
+        if (!objs.isEmpty()) {
+            workList.add(new Entry(node, objs));
+        }
+    }
+
+    private static Set<Obj> filter(Set<Obj> objs, @Nullable Predicate<Obj> filter) {
+        if (filter != null) {
+            objs.removeIf(filter.negate());
+        }
+        return objs;
+    }
+
+    private void propagate(Node node, Set<Obj> objs) {
+        Set<Obj> diff = Sets.newHybridSet();
+        for (Obj obj : objs) {
+            if (node.pts.add(obj)) {
+                diff.add(obj);
+            }
+        }
+        if (diff.isEmpty()) {
+            return;
+        }
+        for (FlowEdge edge : node.succs) {
+            addPointsTo(edge.target(), filter(Sets.newHybridSet(diff), edge.filter()));
+        }
+        if (node instanceof VarNode varNode) {
+            // statements may be added to varNode.baseOf below, and
+            // they process the objects of varNode by themselves
+            List<Stmt> baseOf = varNode.baseOf;
+            for (int i = 0, size = baseOf.size(); i < size; ++i) {
+                Stmt stmt = baseOf.get(i);
+                for (Obj obj : diff) {
+                    processBaseObj(stmt, obj);
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes a new object of the base variable of given statement.
+     */
+    private void processBaseObj(Stmt stmt, Obj obj) {
+        if (stmt instanceof LoadField load) {
+            JField field = load.getFieldRef().resolve();
+            addEdge(demandInstanceField(obj, field),
+                    getVarNode(load.getLValue()), null);
+        } else if (stmt instanceof LoadArray load) {
+            addEdge(demandArrayIndex(obj), getVarNode(load.getLValue()), null);
+        } else if (stmt instanceof StoreField store) {
+            Node field = instanceFields.get(obj, store.getFieldRef().resolve());
+            if (field != null) {
+                addEdge(getSource(store.getRValue()), field, null);
+            }
+        } else if (stmt instanceof StoreArray store) {
+            Node arrayIndex = arrayIndexes.get(obj);
+            if (arrayIndex != null && arrayIndex.demanded) {
+                addEdge(getSource(store.getRValue()), arrayIndex, null);
+            }
+        } else if (stmt instanceof Invoke invoke) {
+            JMethod callee = CallGraphs.resolveCallee(obj.getType(), invoke);
+            if (callee != null && callGraph.contains(callee)) {
+                addCallee(invoke, callee);
+            }
+        }
+    }
+
+    private void addBaseOf(VarNode base, Stmt stmt) {
+        base.baseOf.add(stmt);
+        for (Obj obj : List.copyOf(base.pts)) {
+            processBaseObj(stmt, obj);
+        }
+    }
+
+    // ---------- demands ----------
+
+    private void processDemand(VarNode node) {
+        Var var = node.var;
+        JMethod method = var.getMethod();
+        IR ir = method.getIR();
+        if (ir.isThisOrParam(var)) {
+            demandParams(method);
+        }
+        for (Stmt stmt : getDefs(method).get(var)) {
+            if (stmt instanceof New newStmt) {
+                Obj obj = heapModel.getObj(newStmt);
+                addPointsTo(node, Set.of(obj));
+                if (newStmt.getRValue() instanceof NewMultiArray) {
+                    processNewMultiArray(newStmt, obj);
+                }
+            } else if (stmt instanceof AssignLiteral assign) {
+                Literal literal = assign.getRValue();
+                if (literal.getType() instanceof ClassType) {
+                    addPointsTo(node, Set.of(
+                            heapModel.getConstantObj((ReferenceLiteral) literal)));
+                }
+            } else if (stmt instanceof Copy copy) {
+                addEdge(getSource(copy.getRValue()), node, null);
+            } else if (stmt instanceof Cast cast) {
+                addEdge(getSource(cast.getRValue().getValue()), node,
+                        new TypeFilter(cast.getRValue().getCastType()));
+            } else if (stmt instanceof LoadField load) {
+                if (load.isStatic()) {
+                    addEdge(demandStaticField(load.getFieldRef().resolve()),
+                            node, null);
+                } else {
+                    Var base = ((InstanceFieldAccess) load.getFieldAccess()).getBase();
+                    addBaseOf(getSource(base), load);
+                }
+            } else if (stmt instanceof LoadArray load) {
+                addBaseOf(getSource(load.getArrayAccess().getBase()), load);
+            } else if (stmt instanceof Invoke invoke) {
+                demandResult(invoke);
+            }
+        }
+    }
+
+    private MultiMap<Var, Stmt> getDefs(JMethod method) {
+        return defs.computeIfAbsent(method, m -> {
+            MultiMap<Var, Stmt> result = Maps.newMultiMap();
+            for (Stmt stmt : m.getIR()) {
+                stmt.getDef().ifPresent(def -> {
+                    if (def instanceof Var var) {
+                        result.put(var, stmt);
+                    }
+                });
+            }
+            return result;
+        });
+    }
+
+    private void processNewMultiArray(New allocSite, Obj array) {
+        NewMultiArray newMultiArray = (NewMultiArray) allocSite.getRValue();
+        ArrayType type = newMultiArray.getType();
+        for (int i = 1; i < newMultiArray.getLengthCount(); ++i) {
+            type = (ArrayType) type.elementType();
+            Obj newArray = heapModel.getMockObj(MULTI_ARRAY_DESC,
+                    allocSite, type, allocSite.getContainer());
+            addPointsTo(getArrayIndex(array), Set.of(newArray));
+            array = newArray;
+        }
+    }
+
+    private Node demandStaticField(JField field) {
+        Node node = staticFields.get(field);
+        if (node == null) {
+            node = new Node();
+            staticFields.put(field, node);
+            for (StoreField store : getStaticStores().get(field)) {
+                addEdge(getSource(store.getRValue()), node, null);
+            }
+        }
+        return node;
+    }
+
+    private Node demandInstanceField(Obj obj, JField field) {
+        Node node = instanceFields.get(obj, field);
+        if (node == null) {
+            node = new Node();
+            instanceFields.put(obj, field, node);
+            addPointsTo(node, entryFieldObjs.get(obj, field));
+            Set<StoreField> stores = getInstanceStores().get(field);
+            if (activeFields.add(field)) {
+                // the stores of the field are processed with the objects
+                // of their base variables, including obj
+                stores.forEach(store -> addBaseOf(getSource(getBase(store)), store));
+            } else {
+                for (StoreField store : stores) {
+                    if (getVarNode(getBase(store)).pts.contains(obj)) {
+                        addEdge(getSource(store.getRValue()), node, null);
+                    }
+                }
+            }
+        }
+        return node;
+    }
+
+    private static Var getBase(StoreField store) {
+        return ((InstanceFieldAccess) store.getFieldAccess()).getBase();
+    }
+
+    private Node getArrayIndex(Obj array) {
+        return arrayIndexes.computeIfAbsent(array, __ -> new Node());
+    }
+
+    private Node demandArrayIndex(Obj array) {
+        Node node = getArrayIndex(array);
+        if (!node.demanded) {
+            node.demanded = true;
+            addPointsTo(node, entryArrayObjs.get(array));
+            List<StoreArray> stores = getArrayStores();
+            if (!arrayStoresActive) {
+                arrayStoresActive = true;
+                stores.forEach(store -> addBaseOf(
+                        getSource(store.getArrayAccess().getBase()), store));
+            } else {
+                for (StoreArray store : stores) {
+                    if (getVarNode(store.getArrayAccess().getBase())
+                            .pts.contains(array)) {
+                        addEdge(getSource(store.getRValue()), node, null);
+                    }
+                }
+            }
+        }
+        return node;
+    }
+
+    // ---------- calls ----------
+
+    private void demandParams(JMethod method) {
+        if (paramsDemanded.add(method)) {
+            for (ParamProvider provider : entryProviders.get(method)) {
+                passEntryObjs(method, provider);
+            }
+            for (Invoke invoke : callGraph.getCallersOf(method)) {
+                resolveCallees(invoke);
+                if (callees.get(invoke).contains(method)) {
+                    passArgs(invoke, method);
+                }
+            }
+        }
+    }
+
+    /**
+     * Passes the objects given by an entry point to the this variable
+     * and parameters of the entry method.
+     */
+    private void passEntryObjs(JMethod method, ParamProvider provider) {
+        IR ir = method.getIR();
+        if (ir.getThis() != null) {
+            addPointsTo(getVarNode(ir.getThis()), provider.getThisObjs());
+        }
+        for (int i = 0; i < ir.getParams().size(); ++i) {
+            Var param = ir.getParam(i);
+            if (param.getType() instanceof ReferenceType) {
+                addPointsTo(getVarNode(param), provider.getParamObjs(i));
+            }
+        }
+    }
+
+    private void demandResult(Invoke invoke) {
+        if (resultsDemanded.add(invoke)) {
+            resolveCallees(invoke);
+            for (JMethod callee : callees.get(invoke)) {
+                passResult(invoke, callee);
+            }
+        }
+    }
+
+    /**
+     * Resolves the callees of given call site. For virtual calls,
+     * the callees are resolved by the points-to set of the receiver
+     * variable, which is demanded here.
+     */
+    private void resolveCallees(Invoke invoke) {
+        if (!resolvingSites.add(invoke) || invoke.isDynamic()) {
+            return;
+        }
+        if (invoke.isStatic() || invoke.isSpecial()) {
+            JMethod callee = CallGraphs.resolveCallee(null, invoke);
+            if (callee != null && callGraph.contains(callee)) {
+                addCallee(invoke, callee);
+            }
+        } else {
+            Var base = ((InvokeInstanceExp) invoke.getInvokeExp()).getBase();
+            addBaseOf(getSource(base), invoke);
+        }
+    }
+
+    private void addCallee(Invoke invoke, JMethod callee) {
+        if (callees.put(invoke, callee)) {
+            if (resultsDemanded.contains(invoke)) {
+                passResult(invoke, callee);
+            }
+            if (paramsDemanded.contains(callee)) {
+                passArgs(invoke, callee);
+            }
+        }
+    }
+
+    private void passArgs(Invoke invoke, JMethod callee) {
+        IR ir = callee.getIR();
+        InvokeExp invokeExp = invoke.getInvokeExp();
+        int n = Math.min(invokeExp.getArgCount(), ir.getParams().size());
+        for (int i = 0; i < n; ++i) {
+            Var param = ir.getParam(i);
+            if (param.getType() instanceof ReferenceType) {
+                addEdge(getSource(invokeExp.getArg(i)), getVarNode(param), null);
+            }
+        }
+        if (invokeExp instanceof InvokeInstanceExp instanceExp
+                && ir.getThis() != null) {
+            // for virtual calls, only the receiver objects
+            // which are dispatched to callee are passed
+            Predicate<Obj> filter = invoke.isSpecial()
+                    ? null : new ReceiverFilter(invoke, callee);
+            addEdge(getSource(instanceExp.getBase()),
+                    getVarNode(ir.getThis()), filter);
+        }
+    }
+
+    private void passResult(Invoke invoke, JMethod callee) {
+        Var result = invoke.getResult();
+        if (result != null) {
+            VarNode target = getVarNode(result);
+            for (Var ret : callee.getIR().getReturnVars()) {
+                addEdge(getSource(ret), target, null);
+            }
+        }
+    }
+
+    // ---------- store indexes ----------
+
+    private MultiMap<JField, StoreField> getInstanceStores() {
+        if (instanceStores == null) {
+            indexStores();
+        }
+        return instanceStores;
+    }
+
+    private MultiMap<JField, StoreField> getStaticStores() {
+        if (staticStores == null) {
+            indexStores();
+        }
+        return staticStores;
+    }
+
+    private List<StoreArray> getArrayStores() {
+        if (arrayStores == null) {
+            indexStores();
+        }
+        return arrayStores;
+    }
+
+    /**
+     * Indexes the stores in the methods of the call graph. This is
+     * a linear scan of the statements, which is much cheaper than
+     * solving the whole program.
+     */
+    private void indexStores() {
+        instanceStores = Maps.newMultiMap();
+        staticStores = Maps.newMultiMap();
+        arrayStores = new ArrayList<>();
+        callGraph.reachableMethods().forEach(method -> {
+            for (Stmt stmt : method.getIR()) {
+                if (stmt instanceof StoreField store
+                        && store.getRValue().getType() instanceof ReferenceType) {
+                    JField field = store.getFieldRef().resolve();
+                    (store.isStatic() ? staticStores : instanceStores)
+                            .put(field, store);
+                } else if (stmt instanceof StoreArray store
+                        && store.getRValue().getType() instanceof ReferenceType) {
+                    arrayStores.add(store);
+                }
+            }
+        });
+    }
+
+    // ---------- data structures ----------
+
+    private static class Node {
+
+        final Set<Obj> pts = Sets.newHybridSet();
+
+        final Set<FlowEdge> succs = Sets.newHybridSet();
+
+        /**
+         * Whether the flows into this node have been added.
+         */
+        boolean demanded;
+    }
+
+    private static class VarNode extends Node {
+
+        final Var var;
+
+        /**
+         * Loads, stores and calls whose base variable is {@link #var},
+         * which need to process the objects pointed to by the variable.
+         */
+        final List<Stmt> baseOf = new ArrayList<>();
+
+        VarNode(Var var) {
+            this.var = var;
+        }
+    }
+
+    private record FlowEdge(Node target, @Nullable Predicate<Obj> filter) {
+    }
+
+    private record Entry(Node node, Set<Obj> objs) {
+    }
+
+    private class TypeFilter implements Predicate<Obj> {
+
+        private final Type type;
+
+        private TypeFilter(Type type) {
+            this.type = type;
+        }
+
+        @Override
+        public boolean test(Obj obj) {
+            return typeSystem.isSubtype(type, obj.getType());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof TypeFilter that && type.equals(that.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return type.hashCode();
+        }
+    }
+
+    private record ReceiverFilter(Invoke invoke, JMethod callee)
+            implements Predicate<Obj> {
+
+        @Override
+        public boolean test(Obj obj) {
+            return callee.equals(CallGraphs.resolveCallee(obj.getType(), invoke));
+        }
+    }
+}
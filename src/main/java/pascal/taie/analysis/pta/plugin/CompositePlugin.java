@@ -29,19 +29,30 @@ import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.cs.element.CSVar;
 import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.core.solver.SolverMetrics;
+import pascal.taie.analysis.pta.plugin.PluginTimes.Event;
 import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 /**
  * Composite plugin which allows multiple independent plugins
  * to be used together.
+ * <p>
+ * The plugins that set their {@link Subscription}s are notified of
+ * new points-to sets and new call edges only for the variables and
+ * callees they subscribe to, so that the frequently-fired events
+ * are not dispatched to the plugins which would ignore them.
  */
 public class CompositePlugin implements Plugin {
 
@@ -62,39 +73,155 @@ public class CompositePlugin implements Plugin {
 
     private final List<Plugin> onUnresolvedCallPlugins = new ArrayList<>();
 
+    /**
+     * Maps each variable to the plugins subscribing to its new points-to sets.
+     */
+    private final Map<Var, List<Plugin>> onNewPointsToSetSubscribers = Maps.newMap();
+
+    /**
+     * Maps each method to the plugins subscribing to the new call edges
+     * to the method.
+     */
+    private final Map<JMethod, List<Plugin>> onNewCallEdgeSubscribers = Maps.newMap();
+
+    /**
+     * Elapsed time of each plugin, or {@code null} if timing is disabled.
+     */
+    private PluginTimes times;
+
     public void addPlugin(Plugin... plugins) {
         for (Plugin plugin : plugins) {
             allPlugins.add(plugin);
-            addPlugin(plugin, onNewPointsToSetPlugins,
-                    "onNewPointsToSet", CSVar.class, PointsToSet.class);
-            addPlugin(plugin, onNewCallEdgePlugins, "onNewCallEdge", Edge.class);
+            if (overrides(plugin, "setSubscription", Subscription.class)) {
+                plugin.setSubscription(new Subscription(this, plugin));
+            } else {
+                addPlugin(plugin, onNewPointsToSetPlugins,
+                        "onNewPointsToSet", CSVar.class, PointsToSet.class);
+                addPlugin(plugin, onNewCallEdgePlugins, "onNewCallEdge", Edge.class);
+            }
             addPlugin(plugin, onNewMethodPlugins, "onNewMethod", JMethod.class);
             addPlugin(plugin, onNewStmtPlugins, "onNewStmt", Stmt.class, JMethod.class);
             addPlugin(plugin, onNewCSMethodPlugins, "onNewCSMethod", CSMethod.class);
             addPlugin(plugin, onUnresolvedCallPlugins,
                     "onUnresolvedCall", CSObj.class, Context.class, Invoke.class);
+            if (plugin instanceof Profiler profiler) {
+                profiler.setCompositePlugin(this);
+            }
         }
     }
 
     private void addPlugin(Plugin plugin, List<Plugin> plugins,
                            String name, Class<?>... parameterTypes) {
+        if (overrides(plugin, name, parameterTypes)) {
+            plugins.add(plugin);
+        }
+    }
+
+    /**
+     * @return {@code true} if the plugin overwrites the specific method.
+     */
+    private static boolean overrides(Plugin plugin,
+                                     String name, Class<?>... parameterTypes) {
         try {
             Method method = plugin.getClass().getMethod(name, parameterTypes);
-            if (!method.getDeclaringClass().equals(Plugin.class)) {
-                // the plugin does overwrite the specific method
-                plugins.add(plugin);
-            }
+            return !method.getDeclaringClass().equals(Plugin.class);
         } catch (NoSuchMethodException e) {
             throw new RuntimeException("Can't find method '" + name +
                     "' in " + plugin.getClass(), e);
         }
     }
 
+    void subscribe(Plugin plugin, Var var) {
+        addSubscriber(onNewPointsToSetSubscribers.computeIfAbsent(
+                var, __ -> new ArrayList<>(2)), plugin);
+    }
+
+    void subscribe(Plugin plugin, JMethod callee) {
+        addSubscriber(onNewCallEdgeSubscribers.computeIfAbsent(
+                callee, __ -> new ArrayList<>(2)), plugin);
+    }
+
+    private static void addSubscriber(List<Plugin> subscribers, Plugin plugin) {
+        if (!subscribers.contains(plugin)) {
+            subscribers.add(plugin);
+        }
+    }
+
     public void clearPlugins() {
         Stream.of(allPlugins,
                 onNewPointsToSetPlugins, onNewCallEdgePlugins, onNewMethodPlugins,
                 onNewStmtPlugins, onNewCSMethodPlugins, onUnresolvedCallPlugins
         ).forEach(List::clear);
+        onNewPointsToSetSubscribers.clear();
+        onNewCallEdgeSubscribers.clear();
+    }
+
+    /**
+     * Enables recording the elapsed time of each plugin on each event.
+     */
+    protected void enableTiming() {
+        if (times == null) {
+            times = new PluginTimes();
+        }
+    }
+
+    /**
+     * Enables timing, and registers the elapsed time (in milliseconds)
+     * of the plugins in this composite plugin to given metrics.
+     * The time of the plugins of the same class is summed up.
+     * This method should be called after all plugins have been added.
+     */
+    public void registerMetrics(SolverMetrics metrics) {
+        enableTiming();
+        Map<String, List<PluginTimes.Counter>> counters = Maps.newLinkedHashMap();
+        allPlugins.forEach(plugin -> counters.computeIfAbsent(
+                        plugin.getClass().getName(), __ -> new ArrayList<>())
+                .add(times.getCounter(plugin)));
+        counters.forEach((name, pluginCounters) ->
+                metrics.addGauge("plugin-ms:" + name, () -> pluginCounters
+                        .stream()
+                        .mapToLong(PluginTimes.Counter::getTotalNanos)
+                        .sum() / 1_000_000));
+    }
+
+    /**
+     * @return the elapsed time of the plugins, or {@code null}
+     * if timing is not enabled.
+     */
+    PluginTimes getTimes() {
+        return times;
+    }
+
+    /**
+     * @return the total elapsed time (in nanoseconds) of the plugins
+     * in this composite plugin, or 0 if timing is not enabled.
+     */
+    protected long getElapsedNanos() {
+        return times == null ? 0 : times.getCounters()
+                .values()
+                .stream()
+                .mapToLong(PluginTimes.Counter::getTotalNanos)
+                .sum();
+    }
+
+    /**
+     * Notifies the plugins of an event. The plugins are iterated by index,
+     * as handling the event may add subscribers to {@code plugins}.
+     */
+    private void notify(List<Plugin> plugins, Event event,
+                        Consumer<Plugin> action) {
+        if (times == null) {
+            for (int i = 0; i < plugins.size(); ++i) {
+                action.accept(plugins.get(i));
+            }
+        } else {
+            for (int i = 0; i < plugins.size(); ++i) {
+                Plugin plugin = plugins.get(i);
+                long start = System.nanoTime();
+                action.accept(plugin);
+                times.record(plugin, event, System.nanoTime() - start);
+            }
+        }
     }
 
     @Override
@@ -104,46 +231,63 @@ public class CompositePlugin implements Plugin {
 
     @Override
     public void onStart() {
-        allPlugins.forEach(Plugin::onStart);
+        notify(allPlugins, Event.START, Plugin::onStart);
     }
 
     @Override
     public void onPhaseFinish() {
-        allPlugins.forEach(Plugin::onPhaseFinish);
+        notify(allPlugins, Event.PHASE_FINISH, Plugin::onPhaseFinish);
     }
 
     @Override
     public void onFinish() {
-        allPlugins.forEach(Plugin::onFinish);
+        notify(allPlugins, Event.FINISH, Plugin::onFinish);
     }
 
     @Override
     public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
-        onNewPointsToSetPlugins.forEach(p -> p.onNewPointsToSet(csVar, pts));
+        notify(onNewPointsToSetPlugins, Event.NEW_POINTS_TO_SET,
+                p -> p.onNewPointsToSet(csVar, pts));
+        List<Plugin> subscribers = onNewPointsToSetSubscribers.get(csVar.getVar());
+        if (subscribers != null) {
+            notify(subscribers, Event.NEW_POINTS_TO_SET,
+                    p -> p.onNewPointsToSet(csVar, pts));
+        }
     }
 
     @Override
     public void onNewCallEdge(Edge<CSCallSite, CSMethod> edge) {
-        onNewCallEdgePlugins.forEach(p -> p.onNewCallEdge(edge));
+        notify(onNewCallEdgePlugins, Event.NEW_CALL_EDGE,
+                p -> p.onNewCallEdge(edge));
+        List<Plugin> subscribers = onNewCallEdgeSubscribers.get(
+                edge.getCallee().getMethod());
+        if (subscribers != null) {
+            notify(subscribers, Event.NEW_CALL_EDGE,
+                    p -> p.onNewCallEdge(edge));
+        }
     }
 
     @Override
     public void onNewMethod(JMethod method) {
-        onNewMethodPlugins.forEach(p -> p.onNewMethod(method));
+        notify(onNewMethodPlugins, Event.NEW_METHOD,
+                p -> p.onNewMethod(method));
     }
 
     @Override
     public void onNewStmt(Stmt stmt, JMethod container) {
-        onNewStmtPlugins.forEach(p -> p.onNewStmt(stmt, container));
+        notify(onNewStmtPlugins, Event.NEW_STMT,
+                p -> p.onNewStmt(stmt, container));
     }
 
     @Override
     public void onNewCSMethod(CSMethod csMethod) {
-        onNewCSMethodPlugins.forEach(p -> p.onNewCSMethod(csMethod));
+        notify(onNewCSMethodPlugins, Event.NEW_CS_METHOD,
+                p -> p.onNewCSMethod(csMethod));
     }
 
     @Override
     public void onUnresolvedCall(CSObj recv, Context context, Invoke invoke) {
-        onUnresolvedCallPlugins.forEach(p -> p.onUnresolvedCall(recv, context, invoke));
+        notify(onUnresolvedCallPlugins, Event.UNRESOLVED_CALL,
+                p -> p.onUnresolvedCall(recv, context, invoke));
     }
 }
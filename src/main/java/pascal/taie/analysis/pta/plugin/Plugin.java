@@ -52,6 +52,19 @@ public interface Plugin {
     default void setSolver(Solver solver) {
     }
 
+    /**
+     * Sets the subscription via which the plugin subscribes to the events
+     * it is interested in. A plugin that overrides this method is notified
+     * of {@link #onNewPointsToSet(CSVar, PointsToSet)} only for the subscribed
+     * variables, and of {@link #onNewCallEdge(Edge)} only for the edges
+     * to the subscribed callees, instead of all such events.
+     * <p>
+     * This method is invoked when the plugin is added to
+     * a {@link CompositePlugin}.
+     */
+    default void setSubscription(Subscription subscription) {
+    }
+
     /**
      * Invoked when pointer analysis starts.
      */
@@ -0,0 +1,112 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin;
+
+import pascal.taie.util.collection.Maps;
+
+import java.util.Map;
+
+/**
+ * Records the number of calls and the elapsed time of each plugin
+ * on each kind of pointer analysis event. The time of an event includes
+ * the time of the events triggered (synchronously) by handling it.
+ */
+class PluginTimes {
+
+    /**
+     * Kinds of pointer analysis events.
+     */
+    enum Event {
+        START("onStart"),
+        PHASE_FINISH("onPhaseFinish"),
+        FINISH("onFinish"),
+        NEW_POINTS_TO_SET("onNewPointsToSet"),
+        NEW_CALL_EDGE("onNewCallEdge"),
+        NEW_METHOD("onNewMethod"),
+        NEW_STMT("onNewStmt"),
+        NEW_CS_METHOD("onNewCSMethod"),
+        UNRESOLVED_CALL("onUnresolvedCall");
+
+        private final String callback;
+
+        Event(String callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public String toString() {
+            return callback;
+        }
+    }
+
+    private static final int EVENTS = Event.values().length;
+
+    /**
+     * Counters of each plugin, in the order of adding plugins.
+     */
+    private final Map<Plugin, Counter> counters = Maps.newLinkedHashMap();
+
+    void record(Plugin plugin, Event event, long nanos) {
+        Counter counter = counters.computeIfAbsent(plugin, __ -> new Counter());
+        ++counter.calls[event.ordinal()];
+        counter.nanos[event.ordinal()] += nanos;
+    }
+
+    /**
+     * @return the counter of given plugin.
+     */
+    Counter getCounter(Plugin plugin) {
+        return counters.computeIfAbsent(plugin, __ -> new Counter());
+    }
+
+    /**
+     * @return counters of the plugins which have handled any event
+     * (or whose counters have been retrieved).
+     */
+    Map<Plugin, Counter> getCounters() {
+        return counters;
+    }
+
+    static class Counter {
+
+        private final long[] calls = new long[EVENTS];
+
+        private final long[] nanos = new long[EVENTS];
+
+        long getCalls(Event event) {
+            return calls[event.ordinal()];
+        }
+
+        long getNanos(Event event) {
+            return nanos[event.ordinal()];
+        }
+
+        long getTotalNanos() {
+            long total = 0;
+            for (long n : nanos) {
+                total += n;
+            }
+            return total;
+        }
+    }
+}
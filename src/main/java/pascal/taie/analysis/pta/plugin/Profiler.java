@@ -52,6 +52,7 @@ import java.util.stream.Collectors;
 /**
  * Profiler to help identify analysis hot spots in the analyzed program
  * and assist performance tuning for pointer analysis.
+ * It also reports the time spent by each plugin on each kind of event.
  */
 public class Profiler implements Plugin {
 
@@ -72,6 +73,17 @@ public class Profiler implements Plugin {
 
     private final Map<Var, MutableInt> varVisited = Maps.newMap();
 
+    private CompositePlugin compositePlugin;
+
+    /**
+     * Sets the composite plugin holding this profiler, and enables
+     * timing of the plugins in it.
+     */
+    void setCompositePlugin(CompositePlugin compositePlugin) {
+        this.compositePlugin = compositePlugin;
+        compositePlugin.enableTiming();
+    }
+
     @Override
     public void setSolver(Solver solver) {
         this.solver = solver;
@@ -127,6 +139,10 @@ public class Profiler implements Plugin {
             reportPtsTop(out, "points-to set of static fields", ptaResult.getStaticFields());
             reportPtsTop(out, "points-to set of instance fields", ptaResult.getInstanceFields());
             reportPtsTop(out, "points-to set of array indexes", ptaResult.getArrayIndexes());
+            // report elapsed time of plugins
+            if (compositePlugin != null) {
+                reportPluginTimes(out, compositePlugin.getTimes());
+            }
         } catch (FileNotFoundException e) {
             logger.warn("Failed to write pointer analysis profile to {}, caused by {}",
                     outFile.getAbsolutePath(), e);
@@ -141,6 +157,32 @@ public class Profiler implements Plugin {
         reportTop(out, desc, map, Object::toString);
     }
 
+    private static void reportPluginTimes(PrintStream out, PluginTimes times) {
+        out.println("Elapsed time of plugins (calls/ms):");
+        times.getCounters().entrySet()
+                .stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<Plugin, PluginTimes.Counter> e) ->
+                                e.getValue().getTotalNanos()).reversed())
+                .forEach(e -> {
+                    PluginTimes.Counter counter = e.getValue();
+                    out.printf("%.2fms\t%s%n", toMillis(counter.getTotalNanos()),
+                            e.getKey().getClass().getName());
+                    for (PluginTimes.Event event : PluginTimes.Event.values()) {
+                        long calls = counter.getCalls(event);
+                        if (calls > 0) {
+                            out.printf("\t%s: %d/%.2fms%n", event, calls,
+                                    toMillis(counter.getNanos(event)));
+                        }
+                    }
+                });
+        out.println();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
     private static <E> void reportTop(
             PrintStream out, String desc,
             Map<E, ? extends Number> visited, Function<E, String> toString) {
@@ -0,0 +1,60 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin;
+
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.classes.JMethod;
+
+/**
+ * Subscription of a plugin to the events on specific program elements.
+ * The {@link CompositePlugin} that holds the plugin only notifies it
+ * of the events on the subscribed elements.
+ *
+ * @see Plugin#setSubscription(Subscription)
+ */
+public class Subscription {
+
+    private final CompositePlugin composite;
+
+    private final Plugin plugin;
+
+    Subscription(CompositePlugin composite, Plugin plugin) {
+        this.composite = composite;
+        this.plugin = plugin;
+    }
+
+    /**
+     * Subscribes to the new points-to sets of (all context-sensitive
+     * variables of) {@code var}.
+     */
+    public void subscribe(Var var) {
+        composite.subscribe(plugin, var);
+    }
+
+    /**
+     * Subscribes to the new call edges to (all contexts of) {@code callee}.
+     */
+    public void subscribe(JMethod callee) {
+        composite.subscribe(plugin, callee);
+    }
+}
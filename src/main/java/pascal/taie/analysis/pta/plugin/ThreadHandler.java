@@ -41,6 +41,7 @@ import pascal.taie.language.type.ClassType;
 import pascal.taie.language.type.TypeSystem;
 import pascal.taie.util.collection.Sets;
 
+import java.util.List;
 import java.util.Set;
 
 import static java.util.Objects.requireNonNull;
@@ -104,17 +105,33 @@ public class ThreadHandler implements Plugin {
         }
         TypeSystem typeSystem = solver.getTypeSystem();
         HeapModel heapModel = solver.getHeapModel();
+        makeEntryPoints(hierarchy, typeSystem, heapModel)
+                .forEach(solver::addEntryPoint);
 
+        // The main thread is never explicitly started, which would make it a
+        // RunningThread. Therefore, we make it a running thread explicitly.
+        Context ctx = solver.getContextSelector().getEmptyContext();
+        runningThreads.addObject(solver.getCSManager().getCSObj(ctx,
+                getMainThread(typeSystem, heapModel)));
+    }
+
+    /**
+     * @return the entry points which initialize the system thread group,
+     * main thread group and main thread. They are shared with the
+     * analyses which do not run plugins, e.g., demand-driven pointer analysis.
+     */
+    public static List<EntryPoint> makeEntryPoints(
+            ClassHierarchy hierarchy, TypeSystem typeSystem, HeapModel heapModel) {
         // setup system thread group
         JMethod threadGroupInit = requireNonNull(
                 hierarchy.getJREMethod("<java.lang.ThreadGroup: void <init>()>"));
         ClassType threadGroup = typeSystem.getClassType(ClassNames.THREAD_GROUP);
         Obj systemThreadGroup = heapModel.getMockObj(Descriptor.ENTRY_DESC,
                 "<system-thread-group>", threadGroup);
-        solver.addEntryPoint(new EntryPoint(threadGroupInit,
+        EntryPoint systemThreadGroupEntry = new EntryPoint(threadGroupInit,
                 new SpecifiedParamProvider.Builder(threadGroupInit)
                         .addThisObj(systemThreadGroup)
-                        .build()));
+                        .build());
 
         // setup main thread group
         JMethod threadGroupInit2 = requireNonNull(
@@ -122,30 +139,29 @@ public class ThreadHandler implements Plugin {
         Obj mainThreadGroup = heapModel.getMockObj(Descriptor.ENTRY_DESC,
                 "<main-thread-group>", threadGroup);
         Obj main = heapModel.getConstantObj(StringLiteral.get("main"));
-        solver.addEntryPoint(new EntryPoint(threadGroupInit2,
+        EntryPoint mainThreadGroupEntry = new EntryPoint(threadGroupInit2,
                 new SpecifiedParamProvider.Builder(threadGroupInit2)
                         .addThisObj(mainThreadGroup)
                         .addParamObj(0, systemThreadGroup)
                         .addParamObj(1, main)
-                        .build()));
+                        .build());
 
         // setup main thread
         JMethod threadInit = requireNonNull(
                 hierarchy.getJREMethod("<java.lang.Thread: void <init>(java.lang.ThreadGroup,java.lang.String)>"));
-        Obj mainThread = heapModel.getMockObj(Descriptor.ENTRY_DESC,
-                "<main-thread>", typeSystem.getClassType(ClassNames.THREAD));
-        solver.addEntryPoint(new EntryPoint(threadInit,
+        EntryPoint mainThreadEntry = new EntryPoint(threadInit,
                 new SpecifiedParamProvider.Builder(threadInit)
-                        .addThisObj(mainThread)
+                        .addThisObj(getMainThread(typeSystem, heapModel))
                         .addParamObj(0, mainThreadGroup)
                         .addParamObj(1, main)
-                        .build()));
+                        .build());
+        return List.of(systemThreadGroupEntry, mainThreadGroupEntry,
+                mainThreadEntry);
+    }
 
-        // The main thread is never explicitly started, which would make it a
-        // RunningThread. Therefore, we make it a running thread explicitly.
-        Context ctx = solver.getContextSelector().getEmptyContext();
-        runningThreads.addObject(
-                solver.getCSManager().getCSObj(ctx, mainThread));
+    private static Obj getMainThread(TypeSystem typeSystem, HeapModel heapModel) {
+        return heapModel.getMockObj(Descriptor.ENTRY_DESC,
+                "<main-thread>", typeSystem.getClassType(ClassNames.THREAD));
     }
 
     @Override
@@ -25,12 +25,10 @@ package pascal.taie.analysis.pta.plugin.taint;
 import pascal.taie.analysis.graph.callgraph.CallKind;
 import pascal.taie.analysis.graph.callgraph.Edge;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
-import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
-import pascal.taie.analysis.pta.core.cs.element.InstanceField;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
-import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
+import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.language.classes.JMethod;
@@ -39,8 +37,10 @@ import pascal.taie.util.collection.MultiMapCollector;
 import pascal.taie.util.collection.Sets;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Handles sinks in taint analysis.
@@ -90,30 +90,26 @@ public class SinkHandler extends Handler {
         IndexRef indexRef = sink.indexRef();
         Var arg = InvokeUtils.getVar(sinkCall, indexRef.index());
         SinkPoint sinkPoint = new SinkPoint(sinkCall, indexRef, sink);
-        // obtain objects to check for different IndexRef.Kind
-        Set<Obj> objs = switch (indexRef.kind()) {
+        // obtain points-to sets to check for different IndexRef.Kind
+        Stream<PointsToSet> ptss = switch (indexRef.kind()) {
             case VAR -> csManager.getCSVarsOf(arg)
                     .stream()
-                    .flatMap(Pointer::objects)
-                    .map(CSObj::getObject)
-                    .collect(Collectors.toUnmodifiableSet());
+                    .map(Pointer::getPointsToSet);
             case ARRAY -> csManager.getCSVarsOf(arg)
                     .stream()
                     .flatMap(Pointer::objects)
                     .map(csManager::getArrayIndex)
-                    .flatMap(ArrayIndex::objects)
-                    .map(CSObj::getObject)
-                    .collect(Collectors.toUnmodifiableSet());
+                    .map(Pointer::getPointsToSet);
             case FIELD -> csManager.getCSVarsOf(arg)
                     .stream()
                     .flatMap(Pointer::objects)
                     .map(o -> csManager.getInstanceField(o, indexRef.field()))
-                    .flatMap(InstanceField::objects)
-                    .map(CSObj::getObject)
-                    .collect(Collectors.toUnmodifiableSet());
+                    .map(Pointer::getPointsToSet);
         };
-        return objs.stream()
-                .filter(manager::isTaint)
+        return ptss.filter(Objects::nonNull)
+                .map(manager::getTaints)
+                .flatMap(PointsToSet::objects)
+                .map(CSObj::getObject)
                 .map(manager::getSourcePoint)
                 .map(sourcePoint -> new TaintFlow(sourcePoint, sinkPoint))
                 .collect(Collectors.toSet());
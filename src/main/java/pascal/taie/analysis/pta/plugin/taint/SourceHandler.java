@@ -29,6 +29,7 @@ import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSVar;
 import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.plugin.Subscription;
 import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.ir.IR;
@@ -71,6 +72,12 @@ public class SourceHandler extends OnFlyHandler {
 
     private final MultiMap<Var, SourceInfo> sourceInfos = Maps.newMultiMap();
 
+    /**
+     * Subscribes to the variables in {@link #sourceInfos}
+     * and the methods in {@link #callSources}.
+     */
+    private Subscription subscription;
+
     /**
      * Whether this handler needs to handle field sources.
      */
@@ -101,6 +108,12 @@ public class SourceHandler extends OnFlyHandler {
         handleFieldSources = !fieldSources.isEmpty();
     }
 
+    @Override
+    public void setSubscription(Subscription subscription) {
+        this.subscription = subscription;
+        callSources.keySet().forEach(subscription::subscribe);
+    }
+
     /**
      * Handles call sources.
      */
@@ -134,13 +147,18 @@ public class SourceHandler extends OnFlyHandler {
             case VAR -> solver.addVarPointsTo(context, var, taint);
             case ARRAY, FIELD -> {
                 SourceInfo info = new SourceInfo(indexRef, taint);
-                sourceInfos.put(var, info);
+                addSourceInfo(var, info);
                 CSVar csVar = csManager.getCSVar(context, var);
                 addArrayFieldTaint(solver.getPointsToSetOf(csVar), info);
             }
         }
     }
 
+    private void addSourceInfo(Var var, SourceInfo info) {
+        sourceInfos.put(var, info);
+        subscription.subscribe(var);
+    }
+
     private void addArrayFieldTaint(PointsToSet baseObjs, SourceInfo info) {
         IndexRef indexRef = info.indexRef();
         Obj taint = info.taint();
@@ -211,7 +229,7 @@ public class SourceHandler extends OnFlyHandler {
                 Obj taint = manager.makeTaint(sourcePoint, source.type());
                 switch (indexRef.kind()) {
                     case VAR -> solver.addVarPointsTo(context, param, taint);
-                    case ARRAY, FIELD -> sourceInfos.put(
+                    case ARRAY, FIELD -> addSourceInfo(
                             param, new SourceInfo(indexRef, taint));
                 }
             });
@@ -0,0 +1,212 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.taint;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.graph.callgraph.CallKind;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.plugin.Subscription;
+import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Handles sinks on-the-fly with pointer analysis, and writes each taint
+ * flow to a JSON lines file as soon as a taint object reaches the sink,
+ * so that the taint flows detected before the analysis is interrupted
+ * (e.g., by timeout) are preserved. Each taint flow is written once.
+ * <p>
+ * The solver does not notify new points-to sets of array indexes and
+ * instance fields, thus for the sinks on array elements or fields of
+ * arguments, taint objects are only checked when the arguments point to
+ * new objects. The missed taint flows are written by {@link #finish(Set)}.
+ */
+class StreamingSinkHandler extends OnFlyHandler {
+
+    private static final Logger logger = LogManager.getLogger(StreamingSinkHandler.class);
+
+    private final MultiMap<JMethod, Sink> sinks = Maps.newMultiMap();
+
+    /**
+     * Map from sink argument to the relevant sink points.
+     */
+    private final MultiMap<Var, SinkPoint> sinkPoints = Maps.newMultiMap();
+
+    /**
+     * Subscribes to the variables in {@link #sinkPoints}
+     * and the methods in {@link #sinks}.
+     */
+    private Subscription subscription;
+
+    private final Set<TaintFlow> reported = Sets.newSet();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final long startTime = System.nanoTime();
+
+    private PrintStream out;
+
+    StreamingSinkHandler(HandlerContext context, File outFile) {
+        super(context);
+        context.config().sinks().forEach(s -> sinks.put(s.method(), s));
+        try {
+            // flushes each taint flow once it is written
+            out = new PrintStream(new FileOutputStream(outFile), true);
+            logger.info("Streaming taint flows to {}", outFile.getAbsolutePath());
+        } catch (FileNotFoundException e) {
+            logger.warn("Failed to stream taint flows to {}, caused by {}",
+                    outFile.getAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public void setSubscription(Subscription subscription) {
+        this.subscription = subscription;
+        sinks.keySet().forEach(subscription::subscribe);
+    }
+
+    @Override
+    public void onNewCallEdge(Edge<CSCallSite, CSMethod> edge) {
+        // TODO: handle other call edges
+        if (edge.getKind() != CallKind.OTHER) {
+            Invoke callSite = edge.getCallSite().getCallSite();
+            sinks.get(edge.getCallee().getMethod())
+                    .forEach(sink -> addSinkPoint(callSite, sink));
+        }
+    }
+
+    @Override
+    public void onNewStmt(Stmt stmt, JMethod container) {
+        if (callSiteMode &&
+                stmt instanceof Invoke invoke &&
+                !invoke.isDynamic()) {
+            JMethod callee = invoke.getMethodRef().resolveNullable();
+            if (callee != null) {
+                sinks.get(callee).forEach(sink -> addSinkPoint(invoke, sink));
+            }
+        }
+    }
+
+    private void addSinkPoint(Invoke sinkCall, Sink sink) {
+        IndexRef indexRef = sink.indexRef();
+        Var arg = InvokeUtils.getVar(sinkCall, indexRef.index());
+        if (arg == null) {
+            return;
+        }
+        SinkPoint sinkPoint = new SinkPoint(sinkCall, indexRef, sink);
+        if (sinkPoints.put(arg, sinkPoint)) {
+            subscription.subscribe(arg);
+            // checks the objects which the argument already points to
+            csManager.getCSVarsOf(arg).forEach(csArg ->
+                    checkSinkPoint(sinkPoint, csArg.getPointsToSet()));
+        }
+    }
+
+    @Override
+    public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
+        sinkPoints.get(csVar.getVar())
+                .forEach(sinkPoint -> checkSinkPoint(sinkPoint, pts));
+    }
+
+    /**
+     * Checks the taint objects reaching given sink point.
+     *
+     * @param argObjs the (new) objects pointed to by the sink argument.
+     */
+    private void checkSinkPoint(SinkPoint sinkPoint, PointsToSet argObjs) {
+        if (argObjs == null) {
+            return;
+        }
+        IndexRef indexRef = sinkPoint.indexRef();
+        Stream<PointsToSet> ptss = switch (indexRef.kind()) {
+            case VAR -> Stream.of(argObjs);
+            case ARRAY -> argObjs.objects()
+                    .map(csManager::getArrayIndex)
+                    .map(Pointer::getPointsToSet);
+            case FIELD -> argObjs.objects()
+                    .map(o -> csManager.getInstanceField(o, indexRef.field()))
+                    .map(Pointer::getPointsToSet);
+        };
+        ptss.filter(Objects::nonNull)
+                .map(manager::getTaints)
+                .flatMap(PointsToSet::objects)
+                .map(CSObj::getObject)
+                .map(manager::getSourcePoint)
+                .forEach(sourcePoint ->
+                        report(new TaintFlow(sourcePoint, sinkPoint)));
+    }
+
+    private void report(TaintFlow taintFlow) {
+        if (out != null && reported.add(taintFlow)) {
+            SourcePoint sourcePoint = taintFlow.sourcePoint();
+            SinkPoint sinkPoint = taintFlow.sinkPoint();
+            Map<String, Object> record = Maps.newLinkedHashMap();
+            record.put("source", sourcePoint.toString());
+            record.put("source-method", sourcePoint.getContainer().toString());
+            record.put("sink", sinkPoint.toString());
+            record.put("sink-method", sinkPoint.sinkCall().getContainer().toString());
+            record.put("elapsed-ms", (System.nanoTime() - startTime) / 1_000_000);
+            try {
+                out.println(mapper.writeValueAsString(record));
+            } catch (JsonProcessingException e) {
+                logger.warn("Failed to write taint flow {}, caused by {}",
+                        taintFlow, e);
+            }
+        }
+    }
+
+    /**
+     * Writes the given taint flows (collected after pointer analysis)
+     * which have not been written, and closes the output file.
+     */
+    void finish(Set<TaintFlow> taintFlows) {
+        if (out != null) {
+            taintFlows.forEach(this::report);
+            out.close();
+            out = null;
+        }
+    }
+}
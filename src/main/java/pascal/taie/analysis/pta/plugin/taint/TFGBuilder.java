@@ -38,8 +38,8 @@ import pascal.taie.ir.exp.Var;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
 import pascal.taie.util.collection.Sets;
-import pascal.taie.util.graph.Reachability;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -49,10 +49,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * Taint flow graph builder.
+ * <p>
+ * The taint flow graph is explored from the source nodes in parallel,
+ * and each node is explored by the first task which reaches it. Besides
+ * the taint flow graph, this builder can also extract a shortest path
+ * for each taint flow, without building the taint flow graph.
  */
 public class TFGBuilder {
 
@@ -78,8 +85,9 @@ public class TFGBuilder {
 
     /**
      * Map from a node to set of taint objects pointed to by the node.
+     * It is shared by the concurrent tasks of exploring the graph.
      */
-    private Map<Node, Set<Obj>> node2TaintSet;
+    private final Map<Node, Set<Obj>> node2TaintSet = Maps.newConcurrentMap();
 
     TFGBuilder(PointerAnalysisResult pta,
                Set<TaintFlow> taintFlows,
@@ -95,64 +103,78 @@ public class TFGBuilder {
      */
     private TaintFlowGraph buildComplete() {
         // builds taint flow graph
-        node2TaintSet = Maps.newMap();
         TaintFlowGraph tfg = new TaintFlowGraph(
                 collectSourceNodes(), collectSinkNode());
-        Set<Node> visitedNodes = Sets.newSet();
-        Deque<Node> workList = new ArrayDeque<>(
-                tfg.getSourceNodes());
+        // explores the graph from the source nodes in parallel, and
+        // then merges the edges found by each task into the graph
+        Set<Node> visitedNodes = ConcurrentHashMap.newKeySet();
+        tfg.getSourceNodes()
+                .parallelStream()
+                .map(source -> explore(source, visitedNodes))
+                .toList()
+                .forEach(edges -> edges.forEach(tfg::addEdge));
+        return tfg;
+    }
+
+    /**
+     * Explores the nodes reachable from given source node, except the ones
+     * that have been visited (by any task).
+     *
+     * @return the edges whose sources are explored by this call.
+     */
+    private List<FlowEdge> explore(Node source, Set<Node> visitedNodes) {
+        List<FlowEdge> edges = new ArrayList<>();
+        Deque<Node> workList = new ArrayDeque<>();
+        workList.add(source);
         while (!workList.isEmpty()) {
             Node node = workList.poll();
             if (visitedNodes.add(node)) {
-                getOutEdges(node).forEach(edge -> {
-                    Node target = edge.target();
-                    if (!onlyApp || isApp(target)) {
-                        tfg.addEdge(edge);
-                        if (!visitedNodes.contains(target)) {
-                            workList.add(target);
-                        }
+                for (FlowEdge edge : getOutEdges(node)) {
+                    edges.add(edge);
+                    if (!visitedNodes.contains(edge.target())) {
+                        workList.add(edge.target());
                     }
-                });
+                }
             }
         }
-        node2TaintSet = null;
-        return tfg;
+        return edges;
     }
 
     private Map<Node, SourcePoint> collectSourceNodes() {
         Map<Node, SourcePoint> sourceNode2SourcePoint = Maps.newMap();
         for (Obj taintObj : taintManager.getTaintObjs()) {
             SourcePoint p = taintManager.getSourcePoint(taintObj);
-            if (p instanceof CallSourcePoint csp) {
-                IndexRef indexRef = csp.indexRef();
-                Var var = InvokeUtils.getVar(csp.sourceCall(), indexRef.index());
-                getNodes(var, indexRef).forEach(
-                        node ->  sourceNode2SourcePoint.put(node, p));
-            } else if (p instanceof ParamSourcePoint psp) {
-                IndexRef indexRef = psp.indexRef();
-                Var var = psp.sourceMethod().getIR().getParam(indexRef.index());
-                getNodes(var, indexRef).forEach(
-                        node ->  sourceNode2SourcePoint.put(node, p));
-            } else if (p instanceof FieldSourcePoint fsp) {
-                Var lhs = fsp.loadField().getLValue();
-                Node sourceNode = ofg.getVarNode(lhs);
-                if (sourceNode != null) {
-                    sourceNode2SourcePoint.put(sourceNode, p);
-                }
-            }
+            getSourceNodes(p).forEach(
+                    node -> sourceNode2SourcePoint.put(node, p));
         }
         logger.info("Source nodes:");
         sourceNode2SourcePoint.keySet().forEach(logger::info);
         return sourceNode2SourcePoint;
     }
 
+    private Stream<? extends Node> getSourceNodes(SourcePoint p) {
+        if (p instanceof CallSourcePoint csp) {
+            IndexRef indexRef = csp.indexRef();
+            Var var = InvokeUtils.getVar(csp.sourceCall(), indexRef.index());
+            return getNodes(var, indexRef);
+        } else if (p instanceof ParamSourcePoint psp) {
+            IndexRef indexRef = psp.indexRef();
+            Var var = psp.sourceMethod().getIR().getParam(indexRef.index());
+            return getNodes(var, indexRef);
+        } else if (p instanceof FieldSourcePoint fsp) {
+            Var lhs = fsp.loadField().getLValue();
+            Node sourceNode = ofg.getVarNode(lhs);
+            return sourceNode != null ? Stream.of(sourceNode) : Stream.empty();
+        } else {
+            return Stream.empty();
+        }
+    }
+
     private Map<Node, SinkPoint> collectSinkNode() {
         Map<Node, SinkPoint> sinkNode2SinkPoint = Maps.newMap();
         taintFlows.forEach(taintFlow -> {
             SinkPoint sinkPoint = taintFlow.sinkPoint();
-            IndexRef indexRef = sinkPoint.indexRef();
-            Var var = InvokeUtils.getVar(sinkPoint.sinkCall(), indexRef.index());
-            getNodes(var, indexRef).forEach(
+            getSinkNodes(sinkPoint).forEach(
                     node -> sinkNode2SinkPoint.put(node, sinkPoint));
         });
         logger.info("Sink nodes:");
@@ -160,6 +182,12 @@ public class TFGBuilder {
         return sinkNode2SinkPoint;
     }
 
+    private Stream<? extends Node> getSinkNodes(SinkPoint sinkPoint) {
+        IndexRef indexRef = sinkPoint.indexRef();
+        Var var = InvokeUtils.getVar(sinkPoint.sinkCall(), indexRef.index());
+        return getNodes(var, indexRef);
+    }
+
     private Stream<? extends Node> getNodes(Var baseVar, IndexRef indexRef) {
         return switch (indexRef.kind()) {
             case VAR -> {
@@ -180,11 +208,19 @@ public class TFGBuilder {
         };
     }
 
+    /**
+     * @return the out edges of given node in taint flow graph, i.e.,
+     * the OFG edges which may propagate taint objects from the node
+     * (to application code if {@link #onlyApp} is set).
+     */
     private List<FlowEdge> getOutEdges(Node source) {
         Set<Obj> sourceTaintSet = getTaintSet(source);
         List<FlowEdge> edges = new ArrayList<>();
         // collect OFG edges
         ofg.getOutEdgesOf(source).forEach(edge -> {
+            if (onlyApp && !isApp(edge.target())) {
+                return;
+            }
             switch (edge.kind()) {
                 case LOCAL_ASSIGN, INSTANCE_STORE, ARRAY_STORE,
                         THIS_PASSING, PARAMETER_PASSING, OTHER -> {
@@ -204,18 +240,13 @@ public class TFGBuilder {
     }
 
     private Set<Obj> getTaintSet(Node node) {
-        Set<Obj> taintSet = node2TaintSet.get(node);
-        if (taintSet == null) {
-            taintSet = getPointsToSet(node)
+        return node2TaintSet.computeIfAbsent(node, n -> {
+            Set<Obj> taintSet = getPointsToSet(n)
                     .stream()
                     .filter(taintManager::isTaint)
                     .collect(Sets::newHybridSet, Set::add, Set::addAll);
-            if (taintSet.isEmpty()) {
-                taintSet = Set.of();
-            }
-            node2TaintSet.put(node, taintSet);
-        }
-        return taintSet;
+            return taintSet.isEmpty() ? Set.of() : taintSet;
+        });
     }
 
     private Set<Obj> getPointsToSet(Node node) {
@@ -237,10 +268,14 @@ public class TFGBuilder {
                 complete.getSinkNode2SinkPoint());
         Set<Node> nodesReachSink = null;
         if (onlyReachSink) {
+            // traverses the graph backward from all sinks at once
             nodesReachSink = Sets.newHybridSet();
-            Reachability<Node> reachability = new Reachability<>(complete);
-            for (Node sink : complete.getSinkNodes()) {
-                nodesReachSink.addAll(reachability.nodesCanReach(sink));
+            Deque<Node> workList = new ArrayDeque<>(complete.getSinkNodes());
+            while (!workList.isEmpty()) {
+                Node node = workList.poll();
+                if (nodesReachSink.add(node)) {
+                    workList.addAll(complete.getPredsOf(node));
+                }
             }
         }
         Set<Node> visitedNodes = Sets.newSet();
@@ -262,6 +297,70 @@ public class TFGBuilder {
         return tfg;
     }
 
+    /**
+     * Extracts a shortest path from the source to the sink of each
+     * taint flow. The paths are searched on demand in the object flow
+     * graph when the returned stream is consumed, without building
+     * the taint flow graph, thus it is cheaper than {@link #build()}
+     * when only the taint flows (and their witnesses) are needed.
+     * The returned stream can be processed in parallel.
+     */
+    Stream<TaintFlowPath> buildPaths() {
+        MultiMap<SourcePoint, Obj> source2Taints = Maps.newMultiMap();
+        taintManager.getTaintObjs().forEach(taint ->
+                source2Taints.put(taintManager.getSourcePoint(taint), taint));
+        return taintFlows.stream().map(taintFlow -> findPath(taintFlow,
+                source2Taints.get(taintFlow.sourcePoint())));
+    }
+
+    /**
+     * Breadth-first searches a shortest path from the source nodes to
+     * the sink nodes of given taint flow. The search only visits
+     * the nodes which point to the taint objects of the source of
+     * the flow, as the other nodes cannot be on the path of the flow.
+     *
+     * @param taints the taint objects of the source of {@code taintFlow}.
+     */
+    private TaintFlowPath findPath(TaintFlow taintFlow, Set<Obj> taints) {
+        Set<Node> sinkNodes = getSinkNodes(taintFlow.sinkPoint())
+                .collect(Collectors.toSet());
+        // maps each visited node to the edge via which it is visited,
+        // or null for the source nodes
+        Map<Node, FlowEdge> visitedNodes = Maps.newMap();
+        Deque<Node> workList = new ArrayDeque<>();
+        getSourceNodes(taintFlow.sourcePoint()).forEach(source -> {
+            if (!visitedNodes.containsKey(source)
+                    && !Collections.disjoint(getTaintSet(source), taints)) {
+                visitedNodes.put(source, null);
+                workList.add(source);
+            }
+        });
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            if (sinkNodes.contains(node)) {
+                // reconstructs the path backward
+                List<FlowEdge> path = new ArrayList<>();
+                Node source = node;
+                for (FlowEdge edge = visitedNodes.get(node); edge != null;
+                     edge = visitedNodes.get(edge.source())) {
+                    path.add(edge);
+                    source = edge.source();
+                }
+                Collections.reverse(path);
+                return new TaintFlowPath(taintFlow, source, path);
+            }
+            for (FlowEdge edge : getOutEdges(node)) {
+                Node target = edge.target();
+                if (!visitedNodes.containsKey(target)
+                        && !Collections.disjoint(getTaintSet(target), taints)) {
+                    visitedNodes.put(target, edge);
+                    workList.add(target);
+                }
+            }
+        }
+        return new TaintFlowPath(taintFlow, null, List.of());
+    }
+
     private static boolean isApp(Node node) {
         if (node instanceof VarNode varNode) {
             return varNode.getVar().getMethod().isApplication();
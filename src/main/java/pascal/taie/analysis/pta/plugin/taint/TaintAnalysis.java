@@ -43,6 +43,9 @@ import pascal.taie.language.type.TypeSystem;
 import pascal.taie.util.AnalysisException;
 import pascal.taie.util.Timer;
 
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
 import javax.annotation.Nullable;
 import java.io.File;
 import java.lang.reflect.Constructor;
@@ -83,6 +86,10 @@ import java.util.Set;
  *   └►│     reportTaintFlows()    ├───┤and report taint flows       │
  *     └───────────────────────────┘   └─────────────────────────────┘
  * </code></pre>
+ * Multiple taint configs can be analyzed in one pointer analysis by
+ * adding a taint analysis for each (named) config. Their taint objects
+ * are tagged by the config names, so that they do not interfere with
+ * each other, and their results and elapsed time are reported separately.
  */
 public class TaintAnalysis extends CompositePlugin {
 
@@ -90,6 +97,25 @@ public class TaintAnalysis extends CompositePlugin {
 
     private static final String TAINT_FLOW_GRAPH_FILE = "taint-flow-graph.dot";
 
+    private static final String TAINT_FLOW_PATHS_FILE = "taint-flow-paths.txt";
+
+    private static final String TAINT_FLOWS_FILE = "taint-flows.jsonl";
+
+    /**
+     * Name of the taint config analyzed by this taint analysis, or
+     * {@code null} for the config given by options {@code taint-config}
+     * and {@code taint-config-providers}.
+     */
+    @Nullable
+    private final String configName;
+
+    /**
+     * Path of the taint config analyzed by this taint analysis, or
+     * {@code null} for the config given by options.
+     */
+    @Nullable
+    private final String configPath;
+
     private Solver solver;
 
     private boolean isInteractive;
@@ -103,10 +129,46 @@ public class TaintAnalysis extends CompositePlugin {
 
     private HandlerContext context;
 
+    /**
+     * Streams taint flows during pointer analysis, or {@code null}
+     * if option {@code taint-flow-stream} is disabled.
+     */
+    @Nullable
+    private StreamingSinkHandler streamingSinkHandler;
+
+    public TaintAnalysis() {
+        this(null);
+    }
+
+    /**
+     * Creates a taint analysis for the taint config at given path (of
+     * dir/file). The config is named after the file name (without
+     * extension) of the path.
+     */
+    public TaintAnalysis(@Nullable String configPath) {
+        this.configPath = configPath;
+        this.configName = configPath == null ? null : getConfigName(configPath);
+        if (configName != null) {
+            // records elapsed time of the handlers for per-config report
+            enableTiming();
+        }
+    }
+
+    /**
+     * @return the name of the taint config at given path.
+     */
+    public static String getConfigName(String configPath) {
+        String name = new File(configPath).getName();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
     @Override
     public void setSolver(Solver solver) {
         this.solver = solver;
-        isInteractive = solver.getOptions().getBoolean("taint-interactive-mode");
+        // interactive mode is only supported for the config given by options
+        isInteractive = configName == null &&
+                solver.getOptions().getBoolean("taint-interactive-mode");
         initialize();
     }
 
@@ -119,7 +181,7 @@ public class TaintAnalysis extends CompositePlugin {
             solver.getCSManager().pointers().forEach(p -> {
                 PointsToSet pts = p.getPointsToSet();
                 if (pts != null) {
-                    pts.removeIf(csObj -> manager.isTaint(csObj.getObject()));
+                    pts.removeAll(manager.getTaints(pts));
                 }
                 p.removeEdgesIf(TaintTransferEdge.class::isInstance);
             });
@@ -127,15 +189,17 @@ public class TaintAnalysis extends CompositePlugin {
         // load taint configuration and create new handlers
         AnalysisOptions options = solver.getOptions();
         TaintConfig config = TaintConfig.EMPTY;
-        if (options.getString("taint-config") != null) {
+        String path = configName != null ? configPath
+                : options.getString("taint-config");
+        if (path != null) {
             var provider = new YamlTaintConfigProvider(
                     solver.getHierarchy(), solver.getTypeSystem());
-            provider.setPath(options.getString("taint-config"));
+            provider.setPath(path);
             config = provider.get();
         }
         // load programmatic taint configuration
-        List<String> taintConfigProviders = (List<String>) solver
-                .getOptions().get("taint-config-providers");
+        List<String> taintConfigProviders = configName != null ? List.of()
+                : (List<String>) solver.getOptions().get("taint-config-providers");
         for (String taintConfigProvider : taintConfigProviders) {
             try {
                 Class<?> clazz = Class.forName(taintConfigProvider);
@@ -156,11 +220,18 @@ public class TaintAnalysis extends CompositePlugin {
             }
         }
         logger.info(config);
-        context = new HandlerContext(solver, new TaintManager(
-                solver.getHeapModel()), config);
+        context = new HandlerContext(solver,
+                new TaintManager(solver, configName), config);
         addPlugin(new SourceHandler(context),
                 new TransferHandler(context),
                 new SanitizerHandler(context));
+        if (options.getBoolean("taint-flow-stream")) {
+            streamingSinkHandler = new StreamingSinkHandler(
+                    context, getOutputFile(TAINT_FLOWS_FILE));
+            addPlugin(streamingSinkHandler);
+        } else {
+            streamingSinkHandler = null;
+        }
         // trigger the creation of taint objects
         CallGraph<CSCallSite, CSMethod> cg = solver.getCallGraph();
         if (cg != null) {
@@ -247,13 +318,76 @@ public class TaintAnalysis extends CompositePlugin {
         }
         isReported = true;
         Set<TaintFlow> taintFlows = new SinkHandler(context).collectTaintFlows();
-        logger.info("Detected {} taint flow(s):", taintFlows.size());
-        taintFlows.forEach(logger::info);
-        solver.getResult().storeResult(getClass().getName(), taintFlows);
+        if (streamingSinkHandler != null) {
+            streamingSinkHandler.finish(taintFlows);
+        }
         TaintManager manager = context.manager();
-        Timer.runAndCount(() -> new TFGDumper().dump(
-                        new TFGBuilder(solver.getResult(), taintFlows, manager).build(),
-                        new File(World.get().getOptions().getOutputDir(), TAINT_FLOW_GRAPH_FILE)),
-                "TFGDumper");
+        if (configName == null) {
+            logger.info("Detected {} taint flow(s):", taintFlows.size());
+        } else {
+            logger.info("Detected {} taint flow(s) for taint config {}" +
+                            " ({} taint objects, {}ms in handlers):",
+                    taintFlows.size(), configName,
+                    manager.getTaintObjs().size(), getElapsedNanos() / 1_000_000);
+        }
+        taintFlows.forEach(logger::info);
+        solver.getResult().storeResult(getResultKey(configName), taintFlows);
+        TFGBuilder builder = new TFGBuilder(solver.getResult(), taintFlows, manager);
+        if (solver.getOptions().getBoolean("taint-flow-paths")) {
+            Timer.runAndCount(() -> dumpTaintFlowPaths(builder,
+                            getOutputFile(TAINT_FLOW_PATHS_FILE)),
+                    "TaintFlowPaths");
+        } else {
+            Timer.runAndCount(() -> new TFGDumper().dump(builder.build(),
+                            getOutputFile(TAINT_FLOW_GRAPH_FILE)),
+                    "TFGDumper");
+        }
+    }
+
+    /**
+     * @param configName name of a taint config, or {@code null} for the
+     *                   config given by options.
+     * @return the key of the taint flows of given config stored in
+     * pointer analysis result.
+     */
+    public static String getResultKey(@Nullable String configName) {
+        String key = TaintAnalysis.class.getName();
+        return configName == null ? key : key + ":" + configName;
+    }
+
+    /**
+     * @return the output file with given name, which is suffixed by
+     * the config name of this taint analysis.
+     */
+    private File getOutputFile(String fileName) {
+        if (configName != null) {
+            int dot = fileName.lastIndexOf('.');
+            fileName = fileName.substring(0, dot) + "-" + configName
+                    + fileName.substring(dot);
+        }
+        return new File(World.get().getOptions().getOutputDir(), fileName);
+    }
+
+    /**
+     * Dumps a shortest path for each taint flow. The paths are searched
+     * in parallel, and written in the order of the taint flows.
+     */
+    private static void dumpTaintFlowPaths(TFGBuilder builder, File output) {
+        logger.info("Dumping {}", output.getAbsolutePath());
+        try (PrintStream out = new PrintStream(new FileOutputStream(output))) {
+            builder.buildPaths().parallel().forEachOrdered(path -> {
+                out.println(path.taintFlow());
+                if (!path.isFound()) {
+                    out.println("  (no path in application code)");
+                } else {
+                    out.println("  " + path.sourceNode());
+                    path.edges().forEach(edge -> out.printf("  -[%s]-> %s%n",
+                            edge.kind(), edge.target()));
+                }
+            });
+        } catch (FileNotFoundException e) {
+            logger.warn("Failed to dump taint flow paths to {}, caused by {}",
+                    output.getAbsolutePath(), e);
+        }
     }
 }
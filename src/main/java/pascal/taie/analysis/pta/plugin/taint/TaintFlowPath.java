@@ -0,0 +1,52 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.taint;
+
+import pascal.taie.analysis.graph.flowgraph.FlowEdge;
+import pascal.taie.analysis.graph.flowgraph.Node;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * A shortest path in object flow graph which witnesses a taint flow.
+ *
+ * @param taintFlow  the taint flow
+ * @param sourceNode the source node where the path starts, or
+ *                   {@code null} if no path is found, e.g., the flow
+ *                   goes through the code which is not tracked by
+ *                   {@link TFGBuilder}.
+ * @param edges      the edges from the source node to a sink node of
+ *                   the flow. It is empty if no path is found, or
+ *                   the source node is also the sink node.
+ */
+record TaintFlowPath(TaintFlow taintFlow, @Nullable Node sourceNode,
+                     List<FlowEdge> edges) {
+
+    /**
+     * @return {@code true} if a path is found for the taint flow.
+     */
+    boolean isFound() {
+        return sourceNode != null;
+    }
+}
@@ -22,30 +22,79 @@
 
 package pascal.taie.analysis.pta.plugin.taint;
 
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.heap.Descriptor;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.core.heap.MockObj;
 import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.language.type.Type;
 import pascal.taie.util.AnalysisException;
 import pascal.taie.util.collection.Sets;
 
+import javax.annotation.Nullable;
 import java.util.Collections;
 import java.util.Set;
 
 /**
  * Manages taint objects.
+ * <p>
+ * This manager also memoizes {@link #isTaint(Obj)} for the
+ * (context-sensitive) objects in large points-to sets, i.e., it records
+ * the objects it has tested and the taint objects among them in two
+ * points-to sets (bit sets over the indexes of {@link CSObj}), so that
+ * the taint objects in a large points-to set can be picked out by
+ * bitwise operations, instead of testing each object in the set.
+ * <p>
+ * When multiple taint configs are analyzed in one run, the taint objects
+ * of each config are tagged by the name of the config (in the descriptor),
+ * so that the taint objects of different configs are distinguished.
  */
 public class TaintManager {
 
     private static final Descriptor TAINT_DESC = () -> "TaintObj";
 
+    /**
+     * Points-to sets with at most this number of objects are filtered
+     * by testing each object, which is cheaper than the set operations
+     * for small sets.
+     */
+    private static final int SMALL_SIZE = 32;
+
+    private final Solver solver;
+
     private final HeapModel heapModel;
 
+    /**
+     * Descriptor of the taint objects generated via this manager.
+     */
+    private final Descriptor taintDesc;
+
     private final Set<Obj> taintObjs = Sets.newHybridSet();
 
-    TaintManager(HeapModel heapModel) {
-        this.heapModel = heapModel;
+    /**
+     * Objects that have been tested by {@link #getTaints(PointsToSet)}.
+     */
+    private final PointsToSet tested;
+
+    /**
+     * Taint objects among {@link #tested}.
+     */
+    private final PointsToSet taints;
+
+    /**
+     * @param configName name of the taint config whose taint objects are
+     *                   managed by this manager, or {@code null} if only
+     *                   one taint config is analyzed.
+     */
+    TaintManager(Solver solver, @Nullable String configName) {
+        this.solver = solver;
+        this.heapModel = solver.getHeapModel();
+        this.taintDesc = configName == null ? TAINT_DESC
+                : new TaintDescriptor(configName);
+        this.tested = solver.makePointsToSet();
+        this.taints = solver.makePointsToSet();
     }
 
     /**
@@ -56,7 +105,7 @@ public class TaintManager {
      * @return the taint object for given source and type.
      */
     Obj makeTaint(SourcePoint sourcePoint, Type type) {
-        Obj taint = heapModel.getMockObj(TAINT_DESC, sourcePoint, type, false);
+        Obj taint = heapModel.getMockObj(taintDesc, sourcePoint, type, false);
         taintObjs.add(taint);
         return taint;
     }
@@ -66,7 +115,32 @@ public class TaintManager {
      */
     boolean isTaint(Obj obj) {
         return obj instanceof MockObj mockObj &&
-                mockObj.getDescriptor().equals(TAINT_DESC);
+                mockObj.getDescriptor().equals(taintDesc);
+    }
+
+    /**
+     * @return a new points-to set that contains the taint objects
+     * in given points-to set.
+     */
+    PointsToSet getTaints(PointsToSet pts) {
+        if (pts.size() <= SMALL_SIZE) {
+            PointsToSet result = solver.makePointsToSet();
+            for (CSObj obj : pts) {
+                if (isTaint(obj.getObject())) {
+                    result.addObject(obj);
+                }
+            }
+            return result;
+        }
+        // each object of large sets is tested at most once
+        for (CSObj obj : tested.addAllDiff(pts)) {
+            if (isTaint(obj.getObject())) {
+                taints.addObject(obj);
+            }
+        }
+        PointsToSet result = pts.copy();
+        result.retainAll(taints);
+        return result;
     }
 
     /**
@@ -86,4 +160,17 @@ public class TaintManager {
     Set<Obj> getTaintObjs() {
         return Collections.unmodifiableSet(taintObjs);
     }
+
+    /**
+     * Descriptor of the taint objects of a named taint config.
+     * It is a record, so that the taint objects of the same config
+     * are the same after re-creating the manager (in interactive mode).
+     */
+    private record TaintDescriptor(String configName) implements Descriptor {
+
+        @Override
+        public String string() {
+            return "TaintObj[" + configName + "]";
+        }
+    }
 }
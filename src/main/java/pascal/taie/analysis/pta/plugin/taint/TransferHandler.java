@@ -32,6 +32,7 @@ import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.cs.element.CSVar;
 import pascal.taie.analysis.pta.core.solver.Transfer;
+import pascal.taie.analysis.pta.plugin.Subscription;
 import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.ir.exp.CastExp;
@@ -82,6 +83,12 @@ public class TransferHandler extends OnFlyHandler {
 
     private final MultiMap<Var, TransferInfo> transferInfos = Maps.newMultiMap();
 
+    /**
+     * Subscribes to the variables in {@link #transferInfos}
+     * and the methods in {@link #transfers}.
+     */
+    private Subscription subscription;
+
     /**
      * Map from a method to {@link Invoke} statements in the method
      * which matches any transfer method.
@@ -136,7 +143,7 @@ public class TransferHandler extends OnFlyHandler {
             };
             if (kind != null) {
                 TransferInfo info = new TransferInfo(kind, fromVar, transfer);
-                transferInfos.put(toVar, info);
+                addTransferInfo(toVar, info);
                 transferTaint(solver.getPointsToSetOf(csTo), context, info);
             }
         } else if (to.kind() == IndexRef.Kind.VAR) { // Array/Field -> Var
@@ -146,7 +153,7 @@ public class TransferHandler extends OnFlyHandler {
                 default -> throw new AnalysisException(); // unreachable
             };
             TransferInfo info = new TransferInfo(kind, toVar, transfer);
-            transferInfos.put(fromVar, info);
+            addTransferInfo(fromVar, info);
             transferTaint(solver.getPointsToSetOf(csFrom), context, info);
         } else { // ignore other cases
             logger.warn("TaintTransfer {} -> {} (in {}) is not supported",
@@ -211,18 +218,19 @@ public class TransferHandler extends OnFlyHandler {
     }
 
     private Transfer getTransferFunction(Type toType) {
-        return transferFunctions.computeIfAbsent(toType,
-                type -> ((edge, input) -> {
-                    PointsToSet newTaints = solver.makePointsToSet();
-                    input.objects()
-                            .map(CSObj::getObject)
-                            .filter(manager::isTaint)
-                            .map(manager::getSourcePoint)
-                            .map(source -> manager.makeTaint(source, type))
-                            .map(taint -> csManager.getCSObj(emptyContext, taint))
-                            .forEach(newTaints::addObject);
-                    return newTaints;
-                }));
+        return transferFunctions.computeIfAbsent(toType, type -> {
+            // caches the taint objects of given type converted from
+            // the input taint objects
+            Map<CSObj, CSObj> converted = Maps.newMap();
+            return (edge, input) -> {
+                PointsToSet newTaints = solver.makePointsToSet();
+                manager.getTaints(input).forEach(taint -> newTaints.addObject(
+                        converted.computeIfAbsent(taint, t -> csManager.getCSObj(
+                                emptyContext, manager.makeTaint(
+                                        manager.getSourcePoint(t.getObject()), type)))));
+                return newTaints;
+            };
+        });
     }
 
     private void backPropagateTaint(Var to, Context ctx) {
@@ -269,11 +277,22 @@ public class TransferHandler extends OnFlyHandler {
         return stmts.isEmpty() ? List.of() : stmts;
     }
 
+    private void addTransferInfo(Var var, TransferInfo info) {
+        transferInfos.put(var, info);
+        subscription.subscribe(var);
+    }
+
     private Var getTempVar(JMethod container, Type type) {
         String varName = "%taint-temp-" + counter++;
         return new Var(container, varName, type, -1);
     }
 
+    @Override
+    public void setSubscription(Subscription subscription) {
+        this.subscription = subscription;
+        transfers.keySet().forEach(subscription::subscribe);
+    }
+
     @Override
     public void onNewCallEdge(Edge<CSCallSite, CSMethod> edge) {
         if (edge.getKind() == CallKind.OTHER) {
@@ -144,6 +144,11 @@ class YamlTaintConfigProvider extends TaintConfigProvider {
                 throws IOException {
             ObjectCodec oc = p.getCodec();
             JsonNode node = oc.readTree(p);
+            // match the method patterns of all rules in bulk, so that
+            // the wildcard class patterns are resolved in a single pass
+            // over the class hierarchy; the per-rule lookups below
+            // then hit the matcher's cache
+            matcher.getMethods(node.findValuesAsText("method"));
             List<Source> sources = deserializeSources(node.get("sources"));
             List<Sink> sinks = deserializeSinks(node.get("sinks"));
             List<TaintTransfer> transfers = deserializeTransfers(node.get("transfers"));
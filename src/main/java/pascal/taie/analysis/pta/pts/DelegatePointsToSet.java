@@ -48,8 +48,9 @@ abstract class DelegatePointsToSet implements PointsToSet {
 
     @Override
     public boolean addAll(PointsToSet pts) {
-        if (pts instanceof DelegatePointsToSet other) {
-            return set.addAll(other.set);
+        if (pts instanceof DelegatePointsToSet
+                || pts instanceof SharedPointsToSet) {
+            return set.addAll(getSet(pts));
         } else {
             boolean changed = false;
             for (CSObj o : pts) {
@@ -59,6 +60,16 @@ abstract class DelegatePointsToSet implements PointsToSet {
         }
     }
 
+    @Override
+    public boolean removeAll(PointsToSet pts) {
+        return set.removeAll(getSet(pts));
+    }
+
+    @Override
+    public boolean retainAll(PointsToSet pts) {
+        return set.retainAll(getSet(pts));
+    }
+
     @Override
     public void removeIf(Predicate<CSObj> filter) {
         set.removeIf(filter);
@@ -96,9 +107,19 @@ abstract class DelegatePointsToSet implements PointsToSet {
 
     @Override
     public PointsToSet addAllDiff(PointsToSet pts) {
-        Set<CSObj> otherSet = pts instanceof DelegatePointsToSet other ?
+        return newSet(set.addAllDiff(getSet(pts)));
+    }
+
+    /**
+     * @return the underlying set of given pts, so that the operations
+     * on two sets of the same implementation can be optimized.
+     */
+    private static Set<CSObj> getSet(PointsToSet pts) {
+        if (pts instanceof SharedPointsToSet shared) {
+            pts = shared.getDelegate();
+        }
+        return pts instanceof DelegatePointsToSet other ?
                 other.set : pts.getObjects();
-        return newSet(set.addAllDiff(otherSet));
     }
 
     @Override
@@ -106,5 +127,20 @@ abstract class DelegatePointsToSet implements PointsToSet {
         return newSet(set.copy());
     }
 
+    /**
+     * @return true if this set contains all objects in given pts.
+     */
+    boolean containsAll(PointsToSet pts) {
+        return set.containsAll(getSet(pts));
+    }
+
+    /**
+     * @return a new empty set of the same implementation as this set.
+     */
+    PointsToSet newSet() {
+        // adding no objects results in an empty difference set
+        return newSet(set.addAllDiff(Set.of()));
+    }
+
     protected abstract PointsToSet newSet(SetEx<CSObj> set);
 }
@@ -58,6 +58,34 @@ public interface PointsToSet extends Iterable<CSObj>, Copyable<PointsToSet> {
      */
     PointsToSet addAllDiff(PointsToSet pts);
 
+    /**
+     * Removes all objects in given pts from this set.
+     * The default implementation removes the objects one by one,
+     * and the implementations backed by bit sets may override it
+     * with bulk operations.
+     *
+     * @return true if this points-to set changed as a result of the call,
+     * otherwise false.
+     */
+    default boolean removeAll(PointsToSet pts) {
+        int size = size();
+        removeIf(pts::contains);
+        return size() != size;
+    }
+
+    /**
+     * Retains only the objects that are contained in given pts.
+     * The default implementation removes the other objects one by one.
+     *
+     * @return true if this points-to set changed as a result of the call,
+     * otherwise false.
+     */
+    default boolean retainAll(PointsToSet pts) {
+        int size = size();
+        removeIf(obj -> !pts.contains(obj));
+        return size() != size;
+    }
+
     /**
      * Removes objects from this set if they satisfy the filter.
      * <p>
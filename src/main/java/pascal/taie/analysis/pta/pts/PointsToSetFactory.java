@@ -23,9 +23,14 @@
 package pascal.taie.analysis.pta.pts;
 
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.config.ConfigException;
 import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.Maps;
 
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Provides static factory methods for {@link PointsToSet}.
@@ -35,7 +40,26 @@ public class PointsToSetFactory {
     private final Supplier<PointsToSet> factory;
 
     public PointsToSetFactory(Indexer<CSObj> objIndexer) {
-        factory = () -> new HybridBitPointsToSet(objIndexer, true);
+        this(objIndexer, "bit");
+    }
+
+    /**
+     * @param objIndexer indexer of the objects in points-to sets
+     * @param kind       kind of the points-to sets made by this factory,
+     *                   either "bit" (hybrid bit sets), "shared"
+     *                   (copy-on-write hybrid bit sets, which can be
+     *                   interned by {@link #intern(Stream)}), or "roaring"
+     *                   (compressed bit sets in the style of Roaring bitmaps)
+     */
+    public PointsToSetFactory(Indexer<CSObj> objIndexer, String kind) {
+        factory = switch (kind) {
+            case "bit" -> () -> new HybridBitPointsToSet(objIndexer, true);
+            case "shared" -> () -> new SharedPointsToSet(
+                    new HybridBitPointsToSet(objIndexer, true), false);
+            case "roaring" -> () -> new RoaringBitPointsToSet(objIndexer);
+            default -> throw new ConfigException(
+                    "Unknown points-to set kind: " + kind);
+        };
     }
 
     public PointsToSet make() {
@@ -50,4 +74,23 @@ public class PointsToSetFactory {
         set.addObject(obj);
         return set;
     }
+
+    /**
+     * Interns given points-to sets, i.e., lets the sets of the same content
+     * share a single underlying set. Only the sets made by the factory
+     * of "shared" kind are interned, and other sets are ignored.
+     *
+     * @return the number of distinct underlying sets after interning.
+     */
+    public int intern(Stream<PointsToSet> sets) {
+        Map<Set<CSObj>, DelegatePointsToSet> canonical = Maps.newMap();
+        sets.forEach(pts -> {
+            if (pts instanceof SharedPointsToSet shared) {
+                DelegatePointsToSet delegate = shared.getDelegate();
+                shared.share(canonical.computeIfAbsent(
+                        delegate.set, unused -> delegate));
+            }
+        });
+        return canonical.size();
+    }
 }
@@ -0,0 +1,152 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.pts;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Copy-on-write points-to set, which may share its underlying set
+ * with other points-to sets.
+ * <p>
+ * A shared underlying set is never modified: before the first
+ * modification, this set copies the underlying set and owns the copy.
+ * The points-to sets of the same content are made to share a single
+ * underlying set by {@link PointsToSetFactory#intern(Stream)}.
+ */
+class SharedPointsToSet implements PointsToSet {
+
+    private DelegatePointsToSet delegate;
+
+    /**
+     * Whether {@link #delegate} may be shared with other points-to sets.
+     */
+    private boolean shared;
+
+    SharedPointsToSet(DelegatePointsToSet delegate, boolean shared) {
+        this.delegate = delegate;
+        this.shared = shared;
+    }
+
+    DelegatePointsToSet getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Lets this set share given underlying set.
+     */
+    void share(DelegatePointsToSet delegate) {
+        this.delegate = delegate;
+        this.shared = true;
+    }
+
+    /**
+     * @return the underlying set which is safe to modify.
+     */
+    private DelegatePointsToSet getMutableDelegate() {
+        if (shared) {
+            delegate = (DelegatePointsToSet) delegate.copy();
+            shared = false;
+        }
+        return delegate;
+    }
+
+    @Override
+    public boolean addObject(CSObj obj) {
+        if (shared && delegate.contains(obj)) {
+            return false;
+        }
+        return getMutableDelegate().addObject(obj);
+    }
+
+    @Override
+    public boolean addAll(PointsToSet pts) {
+        if (shared && delegate.containsAll(pts)) {
+            return false;
+        }
+        return getMutableDelegate().addAll(pts);
+    }
+
+    @Override
+    public PointsToSet addAllDiff(PointsToSet pts) {
+        PointsToSet diff = shared && delegate.containsAll(pts)
+                ? delegate.newSet()
+                : getMutableDelegate().addAllDiff(pts);
+        return new SharedPointsToSet((DelegatePointsToSet) diff, false);
+    }
+
+    @Override
+    public boolean removeAll(PointsToSet pts) {
+        return getMutableDelegate().removeAll(pts);
+    }
+
+    @Override
+    public boolean retainAll(PointsToSet pts) {
+        return getMutableDelegate().retainAll(pts);
+    }
+
+    @Override
+    public void removeIf(Predicate<CSObj> filter) {
+        getMutableDelegate().removeIf(filter);
+    }
+
+    @Override
+    public boolean contains(CSObj obj) {
+        return delegate.contains(obj);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public Set<CSObj> getObjects() {
+        return delegate.getObjects();
+    }
+
+    @Override
+    public Stream<CSObj> objects() {
+        return delegate.objects();
+    }
+
+    @Override
+    public PointsToSet copy() {
+        // the copy shares the underlying set with this set
+        shared = true;
+        return new SharedPointsToSet(delegate, true);
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
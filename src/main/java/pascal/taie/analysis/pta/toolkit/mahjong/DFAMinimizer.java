@@ -0,0 +1,282 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.mahjong;
+
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Pair;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Partitions the DFA states reachable from a set of start states into
+ * equivalence classes by Hopcroft's partition refinement algorithm.
+ * Two states are equivalent if they have the same output, and for every
+ * field, their next states are equivalent. Thus, two DFAs are equivalent
+ * (in the sense of {@link DFA}) if and only if their start states fall
+ * into the same class.
+ * <p>
+ * The DFAs are partial: a missing transition goes to the dead state,
+ * whose output is empty and thus differs from the outputs of all other
+ * states. We therefore put the states with different outgoing fields into
+ * different classes initially, and ignore the dead state afterwards.
+ * <p>
+ * This class is not thread-safe, but different instances can run
+ * on different threads.
+ */
+class DFAMinimizer {
+
+    /**
+     * Map from a reachable state to its index.
+     */
+    private final Map<DFAState, Integer> stateIndexes = Maps.newMap();
+
+    /**
+     * Array from a state index to the state.
+     */
+    private final DFAState[] states;
+
+    /**
+     * Incoming transitions of each state, encoded as
+     * (field index << 32 | source state index), and sorted.
+     */
+    private final long[][] inEdges;
+
+    // refinable partition: elements of each block are stored contiguously
+    // in elems[first[b] .. end[b]), and the marked ones of a block are at
+    // the front of its range, i.e., elems[first[b] .. first[b] + marked[b]).
+
+    private final int[] elems;
+
+    private final int[] locations;
+
+    private final int[] blockOf;
+
+    private final int[] first;
+
+    private final int[] end;
+
+    private final int[] marked;
+
+    private int blockCount;
+
+    /**
+     * Blocks which contain marked elements.
+     */
+    private final int[] touched;
+
+    private int touchedCount;
+
+    /**
+     * Splitters which are waiting to be processed.
+     */
+    private final Queue<Integer> splitters = new ArrayDeque<>();
+
+    private final boolean[] isSplitter;
+
+    DFAMinimizer(Collection<DFAState> startStates) {
+        states = collectStates(startStates);
+        int n = states.length;
+        inEdges = buildInEdges();
+        elems = new int[n];
+        locations = new int[n];
+        blockOf = new int[n];
+        first = new int[n];
+        end = new int[n];
+        marked = new int[n];
+        touched = new int[n];
+        isSplitter = new boolean[n];
+        initPartition();
+        refine();
+    }
+
+    private DFAState[] collectStates(Collection<DFAState> startStates) {
+        List<DFAState> list = new ArrayList<>();
+        Queue<DFAState> queue = new ArrayDeque<>();
+        for (DFAState s : startStates) {
+            if (stateIndexes.putIfAbsent(s, list.size()) == null) {
+                list.add(s);
+                queue.add(s);
+            }
+        }
+        while (!queue.isEmpty()) {
+            DFAState s = queue.poll();
+            for (DFAState next : s.getNextMap().values()) {
+                if (stateIndexes.putIfAbsent(next, list.size()) == null) {
+                    list.add(next);
+                    queue.add(next);
+                }
+            }
+        }
+        return list.toArray(new DFAState[0]);
+    }
+
+    private long[][] buildInEdges() {
+        Map<Field, Integer> fieldIndexes = Maps.newMap();
+        int[] inDegrees = new int[states.length];
+        for (DFAState s : states) {
+            for (DFAState next : s.getNextMap().values()) {
+                ++inDegrees[stateIndexes.get(next)];
+            }
+        }
+        long[][] result = new long[states.length][];
+        for (int i = 0; i < states.length; ++i) {
+            result[i] = new long[inDegrees[i]];
+        }
+        for (int source = 0; source < states.length; ++source) {
+            for (var entry : states[source].getNextMap().entrySet()) {
+                Integer field = fieldIndexes.get(entry.getKey());
+                if (field == null) {
+                    field = fieldIndexes.size();
+                    fieldIndexes.put(entry.getKey(), field);
+                }
+                int target = stateIndexes.get(entry.getValue());
+                result[target][--inDegrees[target]] =
+                        ((long) field << 32) | source;
+            }
+        }
+        for (long[] edges : result) {
+            Arrays.sort(edges);
+        }
+        return result;
+    }
+
+    /**
+     * Groups the states by their outputs and outgoing fields.
+     */
+    private void initPartition() {
+        Map<Pair<Set<Type>, Set<Field>>, List<Integer>> groups = Maps.newLinkedHashMap();
+        for (int i = 0; i < states.length; ++i) {
+            DFAState s = states[i];
+            groups.computeIfAbsent(
+                    new Pair<>(s.getOutput(), Set.copyOf(s.getNextMap().keySet())),
+                    __ -> new ArrayList<>()).add(i);
+        }
+        int pos = 0;
+        for (List<Integer> group : groups.values()) {
+            int b = blockCount++;
+            first[b] = pos;
+            for (int s : group) {
+                elems[pos] = s;
+                locations[s] = pos;
+                blockOf[s] = b;
+                ++pos;
+            }
+            end[b] = pos;
+            addSplitter(b);
+        }
+    }
+
+    private void refine() {
+        while (!splitters.isEmpty()) {
+            int splitter = splitters.poll();
+            isSplitter[splitter] = false;
+            // the splitter may be split below, thus we take a snapshot
+            // of its incoming transitions before marking any state
+            int size = 0;
+            for (int i = first[splitter]; i < end[splitter]; ++i) {
+                size += inEdges[elems[i]].length;
+            }
+            long[] edges = new long[size];
+            size = 0;
+            for (int i = first[splitter]; i < end[splitter]; ++i) {
+                long[] in = inEdges[elems[i]];
+                System.arraycopy(in, 0, edges, size, in.length);
+                size += in.length;
+            }
+            Arrays.sort(edges);
+            // for each field, splits the blocks by the predecessors
+            // of the splitter via the field
+            int i = 0;
+            while (i < edges.length) {
+                long field = edges[i] >>> 32;
+                while (i < edges.length && (edges[i] >>> 32) == field) {
+                    mark((int) edges[i]);
+                    ++i;
+                }
+                split();
+            }
+        }
+    }
+
+    private void mark(int s) {
+        int b = blockOf[s];
+        int markEnd = first[b] + marked[b];
+        int loc = locations[s];
+        if (loc >= markEnd) { // s has not been marked
+            int other = elems[markEnd];
+            elems[markEnd] = s;
+            locations[s] = markEnd;
+            elems[loc] = other;
+            locations[other] = loc;
+            if (marked[b]++ == 0) {
+                touched[touchedCount++] = b;
+            }
+        }
+    }
+
+    private void split() {
+        for (int t = 0; t < touchedCount; ++t) {
+            int b = touched[t];
+            int m = marked[b];
+            marked[b] = 0;
+            if (m == end[b] - first[b]) {
+                continue; // all states of b are marked
+            }
+            // moves the marked states to a new block
+            int nb = blockCount++;
+            first[nb] = first[b];
+            end[nb] = first[b] + m;
+            first[b] = end[nb];
+            for (int i = first[nb]; i < end[nb]; ++i) {
+                blockOf[elems[i]] = nb;
+            }
+            if (isSplitter[b]) {
+                addSplitter(nb);
+            } else {
+                addSplitter(m <= end[b] - first[b] ? nb : b);
+            }
+        }
+        touchedCount = 0;
+    }
+
+    private void addSplitter(int b) {
+        isSplitter[b] = true;
+        splitters.add(b);
+    }
+
+    /**
+     * @return the index of the equivalence class which given state belongs to.
+     * Given state must be reachable from the start states of this minimizer.
+     */
+    int classOf(DFAState s) {
+        return blockOf[stateIndexes.get(s)];
+    }
+}
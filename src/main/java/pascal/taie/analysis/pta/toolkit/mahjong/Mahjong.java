@@ -30,17 +30,18 @@ import pascal.taie.config.AnalysisOptions;
 import pascal.taie.language.type.Type;
 import pascal.taie.util.Timer;
 import pascal.taie.util.collection.Maps;
-import pascal.taie.util.collection.UnionFindSet;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 public class Mahjong {
 
-    private static final DFAEquivChecker dfaEqChecker = new DFAEquivChecker();
-
     private DFAFactory dfaFactory;
 
     /**
@@ -60,51 +61,52 @@ public class Mahjong {
                 "Building field points-to graph", Level.INFO);
         dfaFactory = Timer.runAndCount(() -> new DFAFactory(fpg),
                 "Building DFA", Level.INFO);
-        UnionFindSet<Obj> uf = Timer.runAndCount(
+        Collection<Set<Obj>> objGroups = Timer.runAndCount(
                 () -> mergeTypeConsistentObjects(fpg),
                 "Merging type-consistent objects", Level.INFO);
-        // build resulting heap model based on merge map
-        return new MahjongHeapModel(options, uf.getDisjointSets());
+        // build resulting heap model based on merged object groups
+        return new MahjongHeapModel(options, objGroups);
     }
 
-    private UnionFindSet<Obj> mergeTypeConsistentObjects(FieldPointsToGraph fpg) {
+    /**
+     * Merges the objects of the same type whose DFAs are equivalent.
+     * Instead of checking the equivalence of every pair of objects,
+     * this method partitions the DFA states of all objects of a type
+     * at once by {@link DFAMinimizer}, and the objects of different
+     * types are processed in parallel.
+     *
+     * @return the groups of objects to be merged.
+     */
+    private Collection<Set<Obj>> mergeTypeConsistentObjects(FieldPointsToGraph fpg) {
         Set<Obj> allObjs = fpg.getObjects();
         canMerged = Maps.newConcurrentMap(allObjs.size());
-        UnionFindSet<Obj> uf = new UnionFindSet<>(allObjs);
         // group the objects by their types
         Map<Type, Set<Obj>> groupedObjs = allObjs.stream()
                 .collect(Collectors.groupingBy(
                         Obj::getType, Collectors.toSet()));
-        // compute object merging, and store results in a union-find set
-        groupedObjs.entrySet()
+        Queue<Set<Obj>> objGroups = new ConcurrentLinkedQueue<>();
+        groupedObjs.values()
                 .parallelStream()
-                .forEach(entry -> {
-                    Set<Obj> objs = entry.getValue();
+                .forEach(objs -> {
                     DFAMap dfaMap = new DFAMap();
-                    for (Obj o1 : objs) {
-                        if (canBeMerged(o1, dfaMap)) {
-                            for (Obj o2 : objs) {
-                                if (canBeMerged(o2, dfaMap)) {
-                                    if (o1.getIndex() < o2.getIndex()
-                                            && !uf.isConnected(o1, o2)
-                                            && canBeMerged(o1, o2, dfaMap)) {
-                                        uf.union(o1, o2);
-                                    }
-                                }
-                            }
-                        }
+                    List<Obj> candidates = objs.stream()
+                            .filter(o -> canBeMerged(o, dfaMap))
+                            .toList();
+                    if (candidates.size() > 1) {
+                        DFAMinimizer minimizer = new DFAMinimizer(candidates.stream()
+                                .map(o -> dfaMap.getDFA(o).getStartState())
+                                .toList());
+                        candidates.stream()
+                                .collect(Collectors.groupingBy(o -> minimizer.classOf(
+                                        dfaMap.getDFA(o).getStartState()),
+                                        Collectors.toSet()))
+                                .values()
+                                .stream()
+                                .filter(group -> group.size() > 1)
+                                .forEach(objGroups::add);
                     }
                 });
-        return uf;
-    }
-
-    /**
-     * @return {@code true} if o1 and o2 can be merged.
-     */
-    private boolean canBeMerged(Obj o1, Obj o2, DFAMap dfaMap) {
-        DFA dfa1 = dfaMap.getDFA(o1);
-        DFA dfa2 = dfaMap.getDFA(o2);
-        return dfaEqChecker.isEquivalent(dfa1, dfa2);
+        return objGroups;
     }
 
     /**
@@ -22,10 +22,10 @@
 
 package pascal.taie.analysis.pta.toolkit.scaler;
 
-import pascal.taie.analysis.pta.toolkit.PointerAnalysisResultEx;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.collection.Maps;
 
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -34,15 +34,25 @@ import java.util.Map;
  */
 abstract class ContextComputer {
 
-    final PointerAnalysisResultEx pta;
+    final ScalerRelations relations;
 
     /**
      * Map from a method to its context number.
      */
-    final Map<JMethod, Integer> method2ctxNumber = Maps.newMap();
+    final Map<JMethod, Integer> method2ctxNumber = Maps.newConcurrentMap();
 
-    ContextComputer(PointerAnalysisResultEx pta) {
-        this.pta = pta;
+    ContextComputer(ScalerRelations relations) {
+        this.relations = relations;
+    }
+
+    /**
+     * Computes the context numbers of given methods in parallel.
+     * {@link #computeContextNumberOf(JMethod)} only reads
+     * {@link #relations}, thus it is safe to call it concurrently.
+     */
+    void computeAll(Collection<JMethod> methods) {
+        methods.parallelStream().forEach(method ->
+                method2ctxNumber.put(method, computeContextNumberOf(method)));
     }
 
     /**
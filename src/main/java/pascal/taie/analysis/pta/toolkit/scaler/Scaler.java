@@ -34,6 +34,7 @@ import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.type.NullType;
 import pascal.taie.language.type.ReferenceType;
 import pascal.taie.language.type.Type;
+import pascal.taie.util.Timer;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.graph.Graph;
 
@@ -67,11 +68,16 @@ public class Scaler {
 
     private final List<ContextComputer> ctxComputers;
 
+    /**
+     * Instance methods whose context sensitivity is selected by Scaler.
+     */
+    private final Set<JMethod> instanceMethods;
+
     /**
      * Map from a method to total size of points-to sets of all (concerned)
      * variables in the method.
      */
-    private final Map<JMethod, Integer> ptsSize = Maps.newMap();
+    private final Map<JMethod, Integer> ptsSize = Maps.newConcurrentMap();
 
     /**
      * Parses Scaler argument and runs Scaler.
@@ -91,14 +97,20 @@ public class Scaler {
     public Scaler(PointerAnalysisResult ptaBase, long tst) {
         this.pta = new PointerAnalysisResultExImpl(ptaBase, true);
         this.tst = tst;
-        bottomLine = new _InsensitiveContextComputer(pta);
-        // From the most precise analysis to the least precise analysis
+        instanceMethods = pta.getBase()
+                .getCallGraph()
+                .reachableMethods()
+                .filter(m -> !m.isStatic())
+                .collect(Collectors.toUnmodifiableSet());
         Graph<Obj> oag = OAGs.build(pta);
+        ScalerRelations relations = new ScalerRelations(pta, oag, instanceMethods);
+        bottomLine = new _InsensitiveContextComputer(relations);
+        // From the most precise analysis to the least precise analysis
         // TODO - make ctxComputers configurable
         ctxComputers = List.of(
-                new _2ObjContextComputer(pta, oag),
-                new _2TypeContextComputer(pta, oag),
-                new _1TypeContextComputer(pta));
+                new _2ObjContextComputer(relations),
+                new _2TypeContextComputer(relations),
+                new _1TypeContextComputer(relations));
     }
 
     /**
@@ -110,11 +122,7 @@ public class Scaler {
      */
     public Map<JMethod, String> selectContext() {
         logger.info("Scaler TST: {}", tst);
-        Set<JMethod> instanceMethods = pta.getBase()
-                .getCallGraph()
-                .reachableMethods()
-                .filter(m -> !m.isStatic())
-                .collect(Collectors.toUnmodifiableSet());
+        computeCosts();
         long st = binarySearch(instanceMethods, tst);
         Map<JMethod, String> csMap = instanceMethods.stream()
                 .collect(Collectors.toMap(m -> m, m -> selectVariantFor(m, st)));
@@ -122,6 +130,22 @@ public class Scaler {
         return csMap;
     }
 
+    /**
+     * Computes context numbers and sizes of context-insensitive
+     * points-to sets for all instance methods in parallel, so that
+     * the binary search below only reads the results.
+     */
+    private void computeCosts() {
+        instanceMethods.parallelStream().forEach(this::getCIPTSSizeOf);
+        for (ContextComputer cc : ctxComputers) {
+            Timer timer = new Timer("Scaler " + cc.getVariantName());
+            timer.start();
+            cc.computeAll(instanceMethods);
+            timer.stop();
+            logger.info(timer);
+        }
+    }
+
     /**
      * Search the suitable st such that the accumulative size of
      * context-sensitive points to sets of given methods is less than given tst.
@@ -158,15 +182,11 @@ public class Scaler {
      * computes the total size of all (concerned) variables in the program.
      */
     private long getTotalAccumulativePTS(Set<JMethod> methods, long st) {
-        long total = 0;
-        for (JMethod method : methods) {
-            if (!isSpecialMethod(method)) {
-                // special methods are excluded from this computation
-                ContextComputer cc = selectContextComputer(method, st);
-                total += getWeight(method, cc);
-            }
-        }
-        return total;
+        // special methods are excluded from this computation
+        return methods.parallelStream()
+                .filter(m -> !isSpecialMethod(m))
+                .mapToLong(m -> getWeight(m, selectContextComputer(m, st)))
+                .sum();
     }
 
     /**
@@ -219,16 +239,12 @@ public class Scaler {
      * in given method when analyzed using context insensitivity.
      */
     private int getCIPTSSizeOf(JMethod method) {
-        if (!ptsSize.containsKey(method)) {
-            int size = method.getIR()
-                    .getVars()
-                    .stream()
-                    .filter(Scaler::isConcerned)
-                    .mapToInt(v -> pta.getBase().getPointsToSet(v).size())
-                    .sum();
-            ptsSize.put(method, size);
-        }
-        return ptsSize.get(method);
+        return ptsSize.computeIfAbsent(method, m -> m.getIR()
+                .getVars()
+                .stream()
+                .filter(Scaler::isConcerned)
+                .mapToInt(v -> pta.getBase().getPointsToSet(v).size())
+                .sum());
     }
 
     /**
@@ -0,0 +1,135 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.scaler;
+
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.toolkit.PointerAnalysisResultEx;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.IBitSet;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.graph.Graph;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Receiver and allocation relations needed by {@link ContextComputer}s,
+ * precomputed once as bit sets over object indexes.
+ * After construction, this class is read-only and can be shared
+ * by multiple threads.
+ */
+class ScalerRelations {
+
+    private static final IBitSet EMPTY = IBitSet.of();
+
+    /**
+     * Map from a method to the indexes of its receiver objects.
+     */
+    private final Map<JMethod, IBitSet> receivers;
+
+    /**
+     * Array from object index to the indexes of its allocators,
+     * i.e., predecessors on object allocation graph.
+     */
+    private final IBitSet[] allocators;
+
+    /**
+     * Array from object index to the number of its allocators.
+     */
+    private final int[] allocatorCounts;
+
+    /**
+     * Array from object index to the index of its container type.
+     */
+    private final int[] containerTypes;
+
+    ScalerRelations(PointerAnalysisResultEx pta, Graph<Obj> oag,
+                    Collection<JMethod> methods) {
+        Collection<Obj> objs = pta.getBase().getObjects();
+        int objCount = objs.stream()
+                .mapToInt(Obj::getIndex)
+                .max()
+                .orElse(-1) + 1;
+        allocators = new IBitSet[objCount];
+        allocatorCounts = new int[objCount];
+        containerTypes = new int[objCount];
+        Map<Type, Integer> typeIndexes = Maps.newMap();
+        for (Obj obj : objs) {
+            Type type = obj.getContainerType();
+            Integer typeIndex = typeIndexes.get(type);
+            if (typeIndex == null) {
+                typeIndex = typeIndexes.size();
+                typeIndexes.put(type, typeIndex);
+            }
+            containerTypes[obj.getIndex()] = typeIndex;
+        }
+        objs.parallelStream().forEach(obj -> {
+            int index = obj.getIndex();
+            Collection<Obj> preds = oag.getPredsOf(obj);
+            if (!preds.isEmpty()) {
+                allocators[index] = toBitSet(preds);
+                allocatorCounts[index] = allocators[index].cardinality();
+            } else {
+                allocators[index] = EMPTY;
+            }
+        });
+        receivers = Maps.newConcurrentMap(methods.size());
+        methods.parallelStream().forEach(method ->
+                receivers.put(method, toBitSet(pta.getReceiverObjectsOf(method))));
+    }
+
+    private static IBitSet toBitSet(Collection<Obj> objs) {
+        IBitSet bitSet = IBitSet.newBitSet(false);
+        objs.forEach(obj -> bitSet.set(obj.getIndex()));
+        return bitSet;
+    }
+
+    /**
+     * @return indexes of the receiver objects of given method.
+     */
+    IBitSet getReceiversOf(JMethod method) {
+        return receivers.getOrDefault(method, EMPTY);
+    }
+
+    /**
+     * @return indexes of the allocators of the object with given index.
+     */
+    IBitSet getAllocatorsOf(int obj) {
+        return allocators[obj];
+    }
+
+    /**
+     * @return number of the allocators of the object with given index.
+     */
+    int getAllocatorCountOf(int obj) {
+        return allocatorCounts[obj];
+    }
+
+    /**
+     * @return index of container type of the object with given index.
+     */
+    int getContainerTypeOf(int obj) {
+        return containerTypes[obj];
+    }
+}
@@ -24,15 +24,15 @@ package pascal.taie.analysis.pta.toolkit.scaler;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import pascal.taie.analysis.pta.toolkit.PointerAnalysisResultEx;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.IBitSet;
 
 class _1ObjContextComputer extends ContextComputer {
 
     private static final Logger logger = LogManager.getLogger(_1ObjContextComputer.class);
 
-    _1ObjContextComputer(PointerAnalysisResultEx pta) {
-        super(pta);
+    _1ObjContextComputer(ScalerRelations relations) {
+        super(relations);
     }
 
     @Override
@@ -42,10 +42,11 @@ class _1ObjContextComputer extends ContextComputer {
 
     @Override
     int computeContextNumberOf(JMethod method) {
-        if (pta.getReceiverObjectsOf(method).isEmpty()) {
+        IBitSet receivers = relations.getReceiversOf(method);
+        if (receivers.isEmpty()) {
             logger.debug("Empty receiver: {}", method);
             return 1;
         }
-        return pta.getReceiverObjectsOf(method).size();
+        return receivers.cardinality();
     }
 }
@@ -24,16 +24,15 @@ package pascal.taie.analysis.pta.toolkit.scaler;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import pascal.taie.analysis.pta.core.heap.Obj;
-import pascal.taie.analysis.pta.toolkit.PointerAnalysisResultEx;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.IBitSet;
 
 class _1TypeContextComputer extends ContextComputer {
 
     private static final Logger logger = LogManager.getLogger(_1TypeContextComputer.class);
 
-    _1TypeContextComputer(PointerAnalysisResultEx pta) {
-        super(pta);
+    _1TypeContextComputer(ScalerRelations relations) {
+        super(relations);
     }
 
     @Override
@@ -43,14 +42,16 @@ class _1TypeContextComputer extends ContextComputer {
 
     @Override
     int computeContextNumberOf(JMethod method) {
-        if (pta.getReceiverObjectsOf(method).isEmpty()) {
+        IBitSet receivers = relations.getReceiversOf(method);
+        if (receivers.isEmpty()) {
             logger.debug("Empty receiver: {}", method);
             return 1;
         }
-        return (int) pta.getReceiverObjectsOf(method)
-                .stream()
-                .map(Obj::getContainerType)
-                .distinct()
-                .count();
+        IBitSet types = IBitSet.newBitSet(false);
+        for (int recv = receivers.nextSetBit(0); recv >= 0;
+             recv = receivers.nextSetBit(recv + 1)) {
+            types.set(relations.getContainerTypeOf(recv));
+        }
+        return types.cardinality();
     }
 }
@@ -24,20 +24,15 @@ package pascal.taie.analysis.pta.toolkit.scaler;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import pascal.taie.analysis.pta.core.heap.Obj;
-import pascal.taie.analysis.pta.toolkit.PointerAnalysisResultEx;
 import pascal.taie.language.classes.JMethod;
-import pascal.taie.util.graph.Graph;
+import pascal.taie.util.collection.IBitSet;
 
 class _2ObjContextComputer extends ContextComputer {
 
     private static final Logger logger = LogManager.getLogger(_2ObjContextComputer.class);
 
-    private final Graph<Obj> oag;
-
-    _2ObjContextComputer(PointerAnalysisResultEx pta, Graph<Obj> oag) {
-        super(pta);
-        this.oag = oag;
+    _2ObjContextComputer(ScalerRelations relations) {
+        super(relations);
     }
 
     @Override
@@ -47,13 +42,15 @@ class _2ObjContextComputer extends ContextComputer {
 
     @Override
     int computeContextNumberOf(JMethod method) {
-        if (pta.getReceiverObjectsOf(method).isEmpty()) {
+        IBitSet receivers = relations.getReceiversOf(method);
+        if (receivers.isEmpty()) {
             logger.debug("Empty receiver: {}", method);
             return 1;
         }
         int count = 0;
-        for (Obj recv : pta.getReceiverObjectsOf(method)) {
-            int inDegree = oag.getInDegreeOf(recv);
+        for (int recv = receivers.nextSetBit(0); recv >= 0;
+             recv = receivers.nextSetBit(recv + 1)) {
+            int inDegree = relations.getAllocatorCountOf(recv);
             if (inDegree > 0) {
                 count += inDegree;
             } else {
@@ -24,25 +24,18 @@ package pascal.taie.analysis.pta.toolkit.scaler;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import pascal.taie.analysis.pta.core.heap.Obj;
-import pascal.taie.analysis.pta.toolkit.PointerAnalysisResultEx;
 import pascal.taie.language.classes.JMethod;
-import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.IBitSet;
 import pascal.taie.util.collection.Sets;
-import pascal.taie.util.graph.Graph;
 
-import java.util.List;
 import java.util.Set;
 
 class _2TypeContextComputer extends ContextComputer {
 
     private static final Logger logger = LogManager.getLogger(_2TypeContextComputer.class);
 
-    private final Graph<Obj> oag;
-
-    _2TypeContextComputer(PointerAnalysisResultEx pta, Graph<Obj> oag) {
-        super(pta);
-        this.oag = oag;
+    _2TypeContextComputer(ScalerRelations relations) {
+        super(relations);
     }
 
     @Override
@@ -52,19 +45,26 @@ class _2TypeContextComputer extends ContextComputer {
 
     @Override
     int computeContextNumberOf(JMethod method) {
-        if (pta.getReceiverObjectsOf(method).isEmpty()) {
+        IBitSet receivers = relations.getReceiversOf(method);
+        if (receivers.isEmpty()) {
             logger.debug("Empty receiver: {}", method);
             return 1;
         }
-        Set<List<Type>> contexts = Sets.newHybridSet();
-        for (Obj recv : pta.getReceiverObjectsOf(method)) {
-            int inDegree = oag.getInDegreeOf(recv);
-            if (inDegree > 0) {
-                oag.getPredsOf(recv).forEach(pred ->
-                        contexts.add(List.of(pred.getContainerType(),
-                                recv.getContainerType())));
+        // a context [t1, t2] is encoded as ((t1 + 1) << 32) | t2,
+        // and a 1-type context [t] is encoded as t
+        Set<Long> contexts = Sets.newHybridSet();
+        for (int recv = receivers.nextSetBit(0); recv >= 0;
+             recv = receivers.nextSetBit(recv + 1)) {
+            int recvType = relations.getContainerTypeOf(recv);
+            IBitSet allocators = relations.getAllocatorsOf(recv);
+            if (!allocators.isEmpty()) {
+                for (int pred = allocators.nextSetBit(0); pred >= 0;
+                     pred = allocators.nextSetBit(pred + 1)) {
+                    int predType = relations.getContainerTypeOf(pred);
+                    contexts.add(((long) (predType + 1) << 32) | recvType);
+                }
             } else { // without allocator, back to 1-type
-                contexts.add(List.of(recv.getContainerType()));
+                contexts.add((long) recvType);
             }
         }
         return contexts.size();
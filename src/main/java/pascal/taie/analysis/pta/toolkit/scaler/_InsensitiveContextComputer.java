@@ -22,7 +22,6 @@
 
 package pascal.taie.analysis.pta.toolkit.scaler;
 
-import pascal.taie.analysis.pta.toolkit.PointerAnalysisResultEx;
 import pascal.taie.language.classes.JMethod;
 
 /**
@@ -31,8 +30,8 @@ import pascal.taie.language.classes.JMethod;
  */
 class _InsensitiveContextComputer extends ContextComputer {
 
-    _InsensitiveContextComputer(PointerAnalysisResultEx pta) {
-        super(pta);
+    _InsensitiveContextComputer(ScalerRelations relations) {
+        super(relations);
     }
 
     @Override
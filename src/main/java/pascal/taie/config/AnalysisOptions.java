@@ -27,11 +27,13 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import pascal.taie.util.collection.Maps;
 
 import java.io.IOException;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Wrapper class for analysis options.
@@ -90,6 +92,13 @@ public class AnalysisOptions {
         return options.containsKey(key);
     }
 
+    /**
+     * @return the keys of all options in this AnalysisOptions.
+     */
+    public Set<String> keySet() {
+        return Collections.unmodifiableSet(options.keySet());
+    }
+
     /**
      * @return value for given option key.
      * @throws ConfigException if this AnalysisOptions do not contain the key.
@@ -118,6 +127,22 @@ public class AnalysisOptions {
         return (Float) get(key);
     }
 
+    /**
+     * @return a copy of this AnalysisOptions, in which the value
+     * for given option key is replaced by given value.
+     * @throws ConfigException if this AnalysisOptions do not contain the key.
+     */
+    public AnalysisOptions with(String key, Object value) {
+        if (!has(key)) {
+            throw new ConfigException("Cannot find option '" + key + "'," +
+                    " please check your configuration and option key");
+        }
+        Map<String, Object> copy = Maps.newLinkedHashMap();
+        copy.putAll(options);
+        copy.put(key, value);
+        return new AnalysisOptions(copy);
+    }
+
     @Override
     public String toString() {
         return "AnalysisOptions" + options;
@@ -0,0 +1,191 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import pascal.taie.World;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ArrayType;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+/**
+ * Object streams for the analysis states which refer to the program
+ * elements of {@link World} (e.g., classes, methods, fields, types,
+ * variables and statements).
+ * <p>
+ * Instead of copies of the program elements, the output stream writes
+ * symbolic references (e.g., signatures and indexes) to them, and
+ * the input stream resolves the references against the current world,
+ * so that the loaded states refer to the same program elements as
+ * the other analyses in the current run.
+ */
+public class WorldRefStreams {
+
+    private WorldRefStreams() {
+    }
+
+    public static ObjectOutputStream newOutputStream(OutputStream out)
+            throws IOException {
+        return new RefOutputStream(out);
+    }
+
+    public static ObjectInputStream newInputStream(InputStream in)
+            throws IOException {
+        return new RefInputStream(in);
+    }
+
+    /**
+     * Symbolic references to the program elements of {@link World}.
+     */
+    private record ClassRef(String name) implements Serializable {
+    }
+
+    private record MethodRef(String signature) implements Serializable {
+    }
+
+    private record FieldRef(String signature) implements Serializable {
+    }
+
+    private record TypeRef(String name) implements Serializable {
+    }
+
+    private record VarRef(String method, int index) implements Serializable {
+    }
+
+    private record StmtRef(String method, int index) implements Serializable {
+    }
+
+    private enum WorldRef {
+        WORLD, HIERARCHY, TYPE_SYSTEM
+    }
+
+    private static class RefOutputStream extends ObjectOutputStream {
+
+        private RefOutputStream(OutputStream out) throws IOException {
+            super(out);
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) {
+            if (obj instanceof JClass jclass) {
+                return new ClassRef(jclass.getName());
+            } else if (obj instanceof JMethod method) {
+                return new MethodRef(method.getSignature());
+            } else if (obj instanceof JField field) {
+                return new FieldRef(field.getSignature());
+            } else if (obj instanceof ClassType || obj instanceof ArrayType) {
+                return new TypeRef(((Type) obj).getName());
+            } else if (obj instanceof Var var) {
+                IR ir = var.getMethod().getIR();
+                int index = var.getIndex();
+                if (index < ir.getVars().size() && ir.getVar(index) == var) {
+                    return new VarRef(var.getMethod().getSignature(), index);
+                }
+            } else if (obj instanceof Invoke || obj instanceof New) {
+                Stmt stmt = (Stmt) obj;
+                JMethod container = obj instanceof Invoke invoke
+                        ? invoke.getContainer() : ((New) obj).getContainer();
+                IR ir = container.getIR();
+                int index = stmt.getIndex();
+                if (index >= 0 && index < ir.getStmts().size()
+                        && ir.getStmt(index) == stmt) {
+                    return new StmtRef(container.getSignature(), index);
+                }
+            } else if (obj instanceof World) {
+                return WorldRef.WORLD;
+            } else if (obj instanceof ClassHierarchy) {
+                return WorldRef.HIERARCHY;
+            } else if (obj instanceof TypeSystem) {
+                return WorldRef.TYPE_SYSTEM;
+            }
+            // synthetic elements (e.g., the variables and statements
+            // created by plugins) are written as they are
+            return obj;
+        }
+    }
+
+    private static class RefInputStream extends ObjectInputStream {
+
+        private final ClassHierarchy hierarchy = World.get().getClassHierarchy();
+
+        private final TypeSystem typeSystem = World.get().getTypeSystem();
+
+        private RefInputStream(InputStream in) throws IOException {
+            super(in);
+            enableResolveObject(true);
+        }
+
+        @Override
+        protected Object resolveObject(Object obj) throws IOException {
+            if (obj instanceof ClassRef ref) {
+                return check(hierarchy.getClass(ref.name()), ref);
+            } else if (obj instanceof MethodRef ref) {
+                return check(hierarchy.getMethod(ref.signature()), ref);
+            } else if (obj instanceof FieldRef ref) {
+                return check(hierarchy.getField(ref.signature()), ref);
+            } else if (obj instanceof TypeRef ref) {
+                return typeSystem.getType(ref.name());
+            } else if (obj instanceof VarRef ref) {
+                return getIR(ref.method(), ref).getVar(ref.index());
+            } else if (obj instanceof StmtRef ref) {
+                return getIR(ref.method(), ref).getStmt(ref.index());
+            } else if (obj instanceof WorldRef ref) {
+                return switch (ref) {
+                    case WORLD -> World.get();
+                    case HIERARCHY -> hierarchy;
+                    case TYPE_SYSTEM -> typeSystem;
+                };
+            }
+            return obj;
+        }
+
+        private IR getIR(String methodSig, Object ref) throws IOException {
+            return check(hierarchy.getMethod(methodSig), ref).getIR();
+        }
+
+        private static <T> T check(T elem, Object ref) throws IOException {
+            if (elem == null) {
+                throw new InvalidObjectException("Failed to resolve " + ref);
+            }
+            return elem;
+        }
+    }
+}
@@ -24,10 +24,12 @@ package pascal.taie.language.classes;
 
 import pascal.taie.language.type.ClassType;
 import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.Sets;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -36,11 +38,31 @@ import java.util.stream.Collectors;
 
 /**
  * Provides functionality to match signatures by given patterns.
+ * <p>
+ * The matching results and the compiled matchers are cached, so that
+ * the patterns sharing the same class pattern (or name pattern) do not
+ * iterate the class hierarchy repeatedly. Thus, the class hierarchy
+ * should not change during the lifetime of this matcher.
  */
 public class SignatureMatcher {
 
     private final ClassHierarchy hierarchy;
 
+    /**
+     * Map from name pattern to the classes whose names match the pattern.
+     */
+    private final Map<Pattern.NamePattern, Set<JClass>> namedClasses = Maps.newMap();
+
+    private final Map<Pattern.ClassPattern, Set<JClass>> classes = Maps.newMap();
+
+    private final Map<String, Set<JMethod>> methods = Maps.newMap();
+
+    private final Map<String, Set<JField>> fields = Maps.newMap();
+
+    private final Map<Pattern.NamePattern, NameMatcher> nameMatchers = Maps.newMap();
+
+    private final Map<Pattern.TypePattern, TypeMatcher> typeMatchers = Maps.newMap();
+
     public SignatureMatcher(ClassHierarchy hierarchy) {
         this.hierarchy = hierarchy;
     }
@@ -53,24 +75,43 @@ public class SignatureMatcher {
     }
 
     private Set<JClass> getClasses(Pattern.ClassPattern classPattern) {
-        Set<JClass> result = Sets.newLinkedSet();
-        Pattern.NamePattern name = classPattern.name();
-        if (!name.hasWildcard()) {
-            JClass klass = hierarchy.getClass(name.toString());
-            if (klass != null) {
-                result.add(klass);
+        Set<JClass> result = classes.get(classPattern);
+        if (result == null) {
+            result = Sets.newLinkedSet();
+            result.addAll(getNamedClasses(classPattern.name()));
+            if (classPattern.includeSubclasses()) {
+                for (JClass c : new ArrayList<>(result)) {
+                    result.addAll(hierarchy.getAllSubclassesOf(c));
+                }
             }
-        } else {
-            // Iterate the whole class hierarchy to find matched classes.
-            // This operation MAY cause performance issues.
-            Predicate<String> nameMatcher = new NameMatcher(name);
-            hierarchy.allClasses()
-                    .filter(c -> nameMatcher.test(c.getName()))
-                    .forEach(result::add);
+            result = Collections.unmodifiableSet(result);
+            classes.put(classPattern, result);
         }
-        if (classPattern.includeSubclasses()) {
-            new ArrayList<>(result).forEach(c ->
-                    result.addAll(hierarchy.getAllSubclassesOf(c)));
+        return result;
+    }
+
+    /**
+     * @return the classes whose names match given name pattern.
+     */
+    private Set<JClass> getNamedClasses(Pattern.NamePattern name) {
+        Set<JClass> result = namedClasses.get(name);
+        if (result == null) {
+            result = Sets.newLinkedSet();
+            if (!name.hasWildcard()) {
+                JClass klass = hierarchy.getClass(name.toString());
+                if (klass != null) {
+                    result.add(klass);
+                }
+            } else {
+                // Iterate the whole class hierarchy to find matched classes.
+                // This operation MAY cause performance issues, thus
+                // getMethods(Collection) matches the patterns in bulk.
+                Predicate<String> nameMatcher = getNameMatcher(name);
+                hierarchy.allClasses()
+                        .filter(c -> nameMatcher.test(c.getName()))
+                        .forEach(result::add);
+            }
+            namedClasses.put(name, result);
         }
         return result;
     }
@@ -79,7 +120,68 @@ public class SignatureMatcher {
      * @return the methods that match given pattern.
      */
     public Set<JMethod> getMethods(String methodPattern) {
-        Pattern.MethodPattern pattern = Pattern.parseMethodPattern(methodPattern);
+        Set<JMethod> result = methods.get(methodPattern);
+        if (result == null) {
+            result = Collections.unmodifiableSet(
+                    matchMethods(Pattern.parseMethodPattern(methodPattern)));
+            methods.put(methodPattern, result);
+        }
+        return result;
+    }
+
+    /**
+     * Matches given method patterns in bulk. The name patterns with
+     * wildcards of the classes in the method patterns are matched in
+     * one pass over the class hierarchy, instead of one pass per pattern.
+     *
+     * @return map from each given pattern to the methods that match it.
+     */
+    public Map<String, Set<JMethod>> getMethods(Collection<String> methodPatterns) {
+        List<Pattern.NamePattern> names = new ArrayList<>();
+        for (String methodPattern : methodPatterns) {
+            if (!methods.containsKey(methodPattern)) {
+                Pattern.MethodPattern pattern = Pattern.parseMethodPattern(methodPattern);
+                if (!pattern.isExactMatch()) {
+                    names.add(pattern.klass().name());
+                }
+            }
+        }
+        matchNames(names);
+        Map<String, Set<JMethod>> result = Maps.newLinkedHashMap();
+        methodPatterns.forEach(p -> result.put(p, getMethods(p)));
+        return result;
+    }
+
+    /**
+     * Matches the names of all classes in the class hierarchy against
+     * given name patterns in one pass.
+     */
+    private void matchNames(Collection<Pattern.NamePattern> names) {
+        Map<Pattern.NamePattern, Set<JClass>> pending = Maps.newLinkedHashMap();
+        names.forEach(name -> {
+            if (name.hasWildcard() && !namedClasses.containsKey(name)) {
+                pending.put(name, Sets.newLinkedSet());
+            }
+        });
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<NameMatcher, Set<JClass>>> matchers = pending.entrySet()
+                .stream()
+                .map(e -> Map.entry(getNameMatcher(e.getKey()), e.getValue()))
+                .toList();
+        hierarchy.allClasses().forEach(c -> {
+            String className = c.getName();
+            for (var e : matchers) {
+                if (e.getKey().test(className)) {
+                    e.getValue().add(c);
+                }
+            }
+        });
+        namedClasses.putAll(pending);
+    }
+
+    private Set<JMethod> matchMethods(Pattern.MethodPattern pattern) {
         Set<JMethod> result = Sets.newLinkedSet();
         if (pattern.isExactMatch()) {
             JMethod method = hierarchy.getMethod(pattern.toString());
@@ -87,8 +189,8 @@ public class SignatureMatcher {
                 result.add(method);
             }
         } else {
-            Predicate<Type> typeMatcher = new TypeMatcher(pattern.retType());
-            Predicate<String> nameMatcher = new NameMatcher(pattern.name());
+            Predicate<Type> typeMatcher = getTypeMatcher(pattern.retType());
+            Predicate<String> nameMatcher = getNameMatcher(pattern.name());
             Predicate<List<Type>> paramsMatcher = new ParamsMatcher(pattern.params());
             getClasses(pattern.klass())
                     .stream()
@@ -106,7 +208,16 @@ public class SignatureMatcher {
      * @return the fields that match given pattern.
      */
     public Set<JField> getFields(String fieldPattern) {
-        Pattern.FieldPattern pattern = Pattern.parseFieldPattern(fieldPattern);
+        Set<JField> result = fields.get(fieldPattern);
+        if (result == null) {
+            result = Collections.unmodifiableSet(
+                    matchFields(Pattern.parseFieldPattern(fieldPattern)));
+            fields.put(fieldPattern, result);
+        }
+        return result;
+    }
+
+    private Set<JField> matchFields(Pattern.FieldPattern pattern) {
         Set<JField> result = Sets.newLinkedSet();
         if (pattern.isExactMatch()) {
             JField field = hierarchy.getField(pattern.toString());
@@ -114,8 +225,8 @@ public class SignatureMatcher {
                 result.add(field);
             }
         } else {
-            Predicate<Type> typeMatcher = new TypeMatcher(pattern.type());
-            Predicate<String> nameMatcher = new NameMatcher(pattern.name());
+            Predicate<Type> typeMatcher = getTypeMatcher(pattern.type());
+            Predicate<String> nameMatcher = getNameMatcher(pattern.name());
             getClasses(pattern.klass())
                     .stream()
                     .map(JClass::getDeclaredFields)
@@ -127,6 +238,24 @@ public class SignatureMatcher {
         return result;
     }
 
+    private NameMatcher getNameMatcher(Pattern.NamePattern pattern) {
+        NameMatcher matcher = nameMatchers.get(pattern);
+        if (matcher == null) {
+            matcher = new NameMatcher(pattern);
+            nameMatchers.put(pattern, matcher);
+        }
+        return matcher;
+    }
+
+    private TypeMatcher getTypeMatcher(Pattern.TypePattern pattern) {
+        TypeMatcher matcher = typeMatchers.get(pattern);
+        if (matcher == null) {
+            matcher = new TypeMatcher(pattern);
+            typeMatchers.put(pattern, matcher);
+        }
+        return matcher;
+    }
+
     private static class NameMatcher implements Predicate<String> {
 
         private final Predicate<String> matcher;
@@ -171,7 +300,7 @@ public class SignatureMatcher {
                 matcher = null;
             } else {
                 superClasses = null;
-                matcher = new NameMatcher(pattern.name());
+                matcher = getNameMatcher(pattern.name());
             }
         }
 
@@ -203,7 +332,7 @@ public class SignatureMatcher {
                     .map(Pattern.ParamUnit::type)
                     .collect(Collectors.toMap(
                             tp -> tp,
-                            TypeMatcher::new,
+                            SignatureMatcher.this::getTypeMatcher,
                             (tm1, tm2) -> tm1));
         }
 
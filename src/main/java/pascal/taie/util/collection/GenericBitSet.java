@@ -58,7 +58,15 @@ public abstract class GenericBitSet<E> extends AbstractSetEx<E>
     protected IBitSet bitSet;
 
     protected GenericBitSet(boolean isSparse) {
-        bitSet = IBitSet.newBitSet(isSparse);
+        this(IBitSet.newBitSet(isSparse));
+    }
+
+    /**
+     * @param bitSet the (empty) bit set used to store the indexes
+     *               of the elements.
+     */
+    protected GenericBitSet(IBitSet bitSet) {
+        this.bitSet = bitSet;
     }
 
     @Override
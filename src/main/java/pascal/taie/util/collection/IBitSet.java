@@ -353,6 +353,14 @@ public interface IBitSet extends Copyable<IBitSet>, Serializable {
         return isSparse ? new SparseBitSet() : new RegularBitSet();
     }
 
+    /**
+     * Creates a new empty set of the same implementation as given set.
+     */
+    static IBitSet newBitSetLike(IBitSet set) {
+        return set instanceof RoaringBitSet ?
+                new RoaringBitSet() : newBitSet(isSparse(set));
+    }
+
     /**
      * @return {@code true} if the given bit set is sparse.
      */
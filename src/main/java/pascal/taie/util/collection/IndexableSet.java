@@ -66,6 +66,11 @@ public class IndexableSet<E extends Indexable> extends AbstractSetEx<E> {
         return o instanceof Indexable i && bitSet.clear(i.getIndex());
     }
 
+    @Override
+    public void clear() {
+        bitSet.clear();
+    }
+
     @Override
     public Iterator<E> iterator() {
         throw new UnsupportedOperationException(
@@ -39,7 +39,11 @@ public class IndexerBitSet<E> extends GenericBitSet<E>
     private final Indexer<E> indexer;
 
     public IndexerBitSet(Indexer<E> indexer, boolean isSparse) {
-        super(isSparse);
+        this(indexer, IBitSet.newBitSet(isSparse));
+    }
+
+    public IndexerBitSet(Indexer<E> indexer, IBitSet bitSet) {
+        super(bitSet);
         this.indexer = indexer;
     }
 
@@ -60,6 +64,6 @@ public class IndexerBitSet<E> extends GenericBitSet<E>
 
     @Override
     protected GenericBitSet<E> newSet() {
-        return new IndexerBitSet<>(indexer, IBitSet.isSparse(bitSet));
+        return new IndexerBitSet<>(indexer, IBitSet.newBitSetLike(bitSet));
     }
 }
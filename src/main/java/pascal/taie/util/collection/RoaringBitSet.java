@@ -0,0 +1,1351 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Compressed bit set in the style of Roaring bitmaps, see
+ * "Consistently faster and smaller compressed bitmaps with Roaring"
+ * (Lemire et al., SPE 2016).
+ * <p>
+ * This implementation partitions the (non-negative) bit indexes into
+ * chunks of 2^16 bits, and the high 16 bits of an index is the key of
+ * its chunk. Each non-empty chunk is stored in a container, and the
+ * representation of the container is chosen by the density of the chunk:
+ * <ul>
+ *     <li>array container: sorted array of the low 16 bits of set bits,
+ *     for the chunks that contain at most {@value #MAX_ARRAY_SIZE} bits;</li>
+ *     <li>bitmap container: plain words, for dense chunks;</li>
+ *     <li>run container: sorted runs of consecutive set bits,
+ *     when it is more compact than above two representations.</li>
+ * </ul>
+ * Compared to {@link SparseBitSet}, this set does not allocate words
+ * for the chunks in which the set bits are scattered, and it saves
+ * memory when the set bits spread in a large index space. Conversely,
+ * when the set bits are clustered in small ranges, {@link SparseBitSet}
+ * is smaller and faster, as it operates on words instead of containers.
+ */
+public class RoaringBitSet extends AbstractBitSet {
+
+    private static final int CHUNK_BITS = 16;
+
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    private static final int LOW_MASK = CHUNK_SIZE - 1;
+
+    private static final int WORDS_PER_CHUNK = CHUNK_SIZE / BITS_PER_WORD;
+
+    /**
+     * Maximum number of bits in an array container.
+     */
+    private static final int MAX_ARRAY_SIZE = 4096;
+
+    private static final char[] EMPTY_KEYS = {};
+
+    private static final Container[] EMPTY_CONTAINERS = {};
+
+    /**
+     * Sorted keys of the containers.
+     */
+    private char[] keys = EMPTY_KEYS;
+
+    /**
+     * Non-empty containers, {@code containers[i]} stores the chunk
+     * whose key is {@code keys[i]}.
+     */
+    private Container[] containers = EMPTY_CONTAINERS;
+
+    /**
+     * Number of containers.
+     */
+    private int size = 0;
+
+    public RoaringBitSet() {
+    }
+
+    public RoaringBitSet(int... bits) {
+        for (int i : bits) {
+            set(i);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // single-bit operations
+    // ------------------------------------------------------------------------
+
+    @Override
+    public boolean set(int bitIndex) {
+        checkIndex(bitIndex);
+        char key = highBits(bitIndex);
+        int low = lowBits(bitIndex);
+        int pos = indexOfKey(key);
+        if (pos < 0) {
+            Container c = new ArrayContainer();
+            insertContainer(-pos - 1, key, c.add(low));
+            return true;
+        }
+        Container c = containers[pos];
+        if (c.contains(low)) {
+            return false;
+        }
+        containers[pos] = c.add(low);
+        return true;
+    }
+
+    @Override
+    public boolean clear(int bitIndex) {
+        checkIndex(bitIndex);
+        int pos = indexOfKey(highBits(bitIndex));
+        int low = lowBits(bitIndex);
+        if (pos < 0 || !containers[pos].contains(low)) {
+            return false;
+        }
+        updateContainer(pos, containers[pos].remove(low));
+        return true;
+    }
+
+    @Override
+    public boolean get(int bitIndex) {
+        checkIndex(bitIndex);
+        int pos = indexOfKey(highBits(bitIndex));
+        return pos >= 0 && containers[pos].contains(lowBits(bitIndex));
+    }
+
+    @Override
+    public void flip(int bitIndex) {
+        if (get(bitIndex)) {
+            clear(bitIndex);
+        } else {
+            set(bitIndex);
+        }
+    }
+
+    @Override
+    public int nextSetBit(int fromIndex) {
+        if (fromIndex < 0) {
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        }
+        int pos = indexOfKey(highBits(fromIndex));
+        if (pos >= 0) {
+            int low = containers[pos].nextSetBit(lowBits(fromIndex));
+            if (low >= 0) {
+                return combine(keys[pos], low);
+            }
+            ++pos;
+        } else {
+            pos = -pos - 1;
+        }
+        return pos < size ? combine(keys[pos], containers[pos].nextSetBit(0)) : -1;
+    }
+
+    @Override
+    public int nextClearBit(int fromIndex) {
+        if (fromIndex < 0) {
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        }
+        int i = fromIndex;
+        while (true) {
+            int pos = indexOfKey(highBits(i));
+            if (pos < 0) {
+                return i;
+            }
+            int low = containers[pos].nextClearBit(lowBits(i));
+            if (low < CHUNK_SIZE) {
+                return combine(keys[pos], low);
+            }
+            i = (keys[pos] + 1) << CHUNK_BITS;
+            if (i < 0) { // all bits up to Integer.MAX_VALUE are set
+                return -1;
+            }
+        }
+    }
+
+    @Override
+    public int previousSetBit(int fromIndex) {
+        if (fromIndex < 0) {
+            if (fromIndex == -1) {
+                return -1;
+            }
+            throw new IndexOutOfBoundsException("fromIndex < -1: " + fromIndex);
+        }
+        int pos = indexOfKey(highBits(fromIndex));
+        if (pos >= 0) {
+            int low = containers[pos].previousSetBit(lowBits(fromIndex));
+            if (low >= 0) {
+                return combine(keys[pos], low);
+            }
+            --pos;
+        } else {
+            pos = -pos - 2;
+        }
+        return pos >= 0 ?
+                combine(keys[pos], containers[pos].previousSetBit(LOW_MASK)) : -1;
+    }
+
+    @Override
+    public int previousClearBit(int fromIndex) {
+        if (fromIndex < 0) {
+            if (fromIndex == -1) {
+                return -1;
+            }
+            throw new IndexOutOfBoundsException("fromIndex < -1: " + fromIndex);
+        }
+        int i = fromIndex;
+        while (true) {
+            int pos = indexOfKey(highBits(i));
+            if (pos < 0) {
+                return i;
+            }
+            int low = containers[pos].previousClearBit(lowBits(i));
+            if (low >= 0) {
+                return combine(keys[pos], low);
+            }
+            if (keys[pos] == 0) {
+                return -1;
+            }
+            i = combine(keys[pos], 0) - 1;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // bulk operations
+    // ------------------------------------------------------------------------
+
+    @Override
+    public boolean intersects(IBitSet set) {
+        if (!(set instanceof RoaringBitSet other)) {
+            return super.intersects(set);
+        }
+        for (int i = 0, j = 0; i < size && j < other.size; ) {
+            if (keys[i] < other.keys[j]) {
+                ++i;
+            } else if (keys[i] > other.keys[j]) {
+                ++j;
+            } else {
+                if (containers[i++].intersects(other.containers[j++])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(IBitSet set) {
+        if (!(set instanceof RoaringBitSet other)) {
+            return super.contains(set);
+        }
+        int i = 0;
+        for (int j = 0; j < other.size; ++j) {
+            while (i < size && keys[i] < other.keys[j]) {
+                ++i;
+            }
+            if (i == size || keys[i] != other.keys[j]
+                    || !containers[i].containsAll(other.containers[j])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean and(IBitSet set) {
+        if (!(set instanceof RoaringBitSet other)) {
+            boolean changed = false;
+            for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+                if (!set.get(i)) {
+                    clear(i);
+                    changed = true;
+                }
+                if (i == Integer.MAX_VALUE) {
+                    break;
+                }
+            }
+            return changed;
+        }
+        boolean changed = false;
+        int newSize = 0;
+        for (int i = 0, j = 0; i < size; ++i) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                ++j;
+            }
+            Container c = containers[i];
+            if (j < other.size && other.keys[j] == keys[i]) {
+                int card = c.cardinality();
+                c = c.and(other.containers[j]);
+                changed |= c.cardinality() != card;
+            } else {
+                c = null;
+                changed = true;
+            }
+            if (c != null && !c.isEmpty()) {
+                keys[newSize] = keys[i];
+                containers[newSize++] = c;
+            }
+        }
+        Arrays.fill(containers, newSize, size, null);
+        size = newSize;
+        return changed;
+    }
+
+    @Override
+    public boolean andNot(IBitSet set) {
+        if (!(set instanceof RoaringBitSet other)) {
+            return super.andNot(set);
+        }
+        boolean changed = false;
+        int newSize = 0;
+        for (int i = 0, j = 0; i < size; ++i) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                ++j;
+            }
+            Container c = containers[i];
+            if (j < other.size && other.keys[j] == keys[i]) {
+                int card = c.cardinality();
+                c = c.andNot(other.containers[j]);
+                changed |= c.cardinality() != card;
+            }
+            if (!c.isEmpty()) {
+                keys[newSize] = keys[i];
+                containers[newSize++] = c;
+            }
+        }
+        Arrays.fill(containers, newSize, size, null);
+        size = newSize;
+        return changed;
+    }
+
+    @Override
+    public boolean or(IBitSet set) {
+        if (!(set instanceof RoaringBitSet other)) {
+            return super.or(set);
+        }
+        boolean changed = false;
+        for (int j = 0; j < other.size; ++j) {
+            int pos = indexOfKey(other.keys[j]);
+            if (pos < 0) {
+                insertContainer(-pos - 1, other.keys[j], other.containers[j].copy());
+                changed = true;
+            } else {
+                Container c = containers[pos];
+                int card = c.cardinality();
+                containers[pos] = c = c.or(other.containers[j]);
+                changed |= c.cardinality() != card;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public IBitSet orDiff(IBitSet set) {
+        if (!(set instanceof RoaringBitSet other)) {
+            return super.orDiff(set);
+        }
+        RoaringBitSet diff = new RoaringBitSet();
+        for (int j = 0; j < other.size; ++j) {
+            char key = other.keys[j];
+            int pos = indexOfKey(key);
+            if (pos < 0) {
+                insertContainer(-pos - 1, key, other.containers[j].copy());
+                diff.insertContainer(diff.size, key, other.containers[j].copy());
+            } else {
+                Container d = other.containers[j].diff(containers[pos]);
+                if (!d.isEmpty()) {
+                    containers[pos] = containers[pos].or(d);
+                    diff.insertContainer(diff.size, key, d);
+                }
+            }
+        }
+        return diff;
+    }
+
+    @Override
+    public boolean xor(IBitSet set) {
+        if (!(set instanceof RoaringBitSet other)) {
+            return super.xor(set);
+        }
+        if (other == this) {
+            boolean changed = !isEmpty();
+            clear();
+            return changed;
+        }
+        boolean changed = false;
+        for (int j = 0; j < other.size; ++j) {
+            int pos = indexOfKey(other.keys[j]);
+            if (pos < 0) {
+                insertContainer(-pos - 1, other.keys[j], other.containers[j].copy());
+            } else {
+                updateContainer(pos, containers[pos].xor(other.containers[j]));
+            }
+            changed = true;
+        }
+        return changed;
+    }
+
+    @Override
+    public void setTo(IBitSet set) {
+        if (set instanceof RoaringBitSet other) {
+            keys = Arrays.copyOf(other.keys, other.size);
+            containers = new Container[other.size];
+            for (int i = 0; i < other.size; ++i) {
+                containers[i] = other.containers[i].copy();
+            }
+            size = other.size;
+        } else {
+            super.setTo(set);
+        }
+    }
+
+    @Override
+    public void clear() {
+        keys = EMPTY_KEYS;
+        containers = EMPTY_CONTAINERS;
+        size = 0;
+    }
+
+    // ------------------------------------------------------------------------
+    // state queries
+    // ------------------------------------------------------------------------
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int length() {
+        if (size == 0) {
+            return 0;
+        }
+        int last = size - 1;
+        return combine(keys[last], containers[last].previousSetBit(LOW_MASK)) + 1;
+    }
+
+    @Override
+    public int size() {
+        return size == 0 ? 0 : (int) Math.min(Integer.MAX_VALUE,
+                ((long) keys[size - 1] + 1) << CHUNK_BITS);
+    }
+
+    @Override
+    public int cardinality() {
+        int card = 0;
+        for (int i = 0; i < size; ++i) {
+            card += containers[i].cardinality();
+        }
+        return card;
+    }
+
+    // ------------------------------------------------------------------------
+    // utilities
+    // ------------------------------------------------------------------------
+
+    @Override
+    public RoaringBitSet copy() {
+        RoaringBitSet copy = new RoaringBitSet();
+        copy.setTo(this);
+        return copy;
+    }
+
+    @Override
+    public int hashCode() {
+        // consistent with RegularBitSet, regardless of container types
+        long h = 1234;
+        for (int i = 0; i < size; ++i) {
+            Container c = containers[i];
+            long base = (long) keys[i] * WORDS_PER_CHUNK;
+            if (c instanceof BitmapContainer bitmap) {
+                for (int w = 0; w < WORDS_PER_CHUNK; ++w) {
+                    h ^= bitmap.words[w] * (base + w + 1);
+                }
+            } else {
+                // assembles the words from the set bits
+                int x = c.nextSetBit(0);
+                while (x >= 0) {
+                    int w = x >>> ADDRESS_BITS_PER_WORD;
+                    long word = 0;
+                    do {
+                        word |= 1L << x;
+                        x = c.nextSetBit(x + 1);
+                    } while (x >= 0 && x >>> ADDRESS_BITS_PER_WORD == w);
+                    h ^= word * (base + w + 1);
+                }
+            }
+        }
+        return (int) ((h >> 32) ^ h);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof RoaringBitSet other) || size != other.size) {
+            return false;
+        }
+        for (int i = 0; i < size; ++i) {
+            if (keys[i] != other.keys[i]
+                    || containers[i].cardinality() != other.containers[i].cardinality()
+                    || !containers[i].containsAll(other.containers[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void checkIndex(int bitIndex) {
+        if (bitIndex < 0) {
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+        }
+    }
+
+    private static char highBits(int bitIndex) {
+        return (char) (bitIndex >>> CHUNK_BITS);
+    }
+
+    private static int lowBits(int bitIndex) {
+        return bitIndex & LOW_MASK;
+    }
+
+    private static int combine(char key, int low) {
+        return (key << CHUNK_BITS) | low;
+    }
+
+    /**
+     * @return index of the container of given key if it exists;
+     * otherwise, {@code (-(insertion point) - 1)}.
+     */
+    private int indexOfKey(char key) {
+        // fast path for appending bits in increasing order
+        if (size > 0 && keys[size - 1] == key) {
+            return size - 1;
+        }
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insertContainer(int pos, char key, Container c) {
+        if (size == keys.length) {
+            int newLength = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, newLength);
+            containers = Arrays.copyOf(containers, newLength);
+        }
+        System.arraycopy(keys, pos, keys, pos + 1, size - pos);
+        System.arraycopy(containers, pos, containers, pos + 1, size - pos);
+        keys[pos] = key;
+        containers[pos] = c;
+        ++size;
+    }
+
+    /**
+     * Replaces the container at given position by {@code c},
+     * and removes the position if {@code c} is empty.
+     */
+    private void updateContainer(int pos, Container c) {
+        if (c.isEmpty()) {
+            System.arraycopy(keys, pos + 1, keys, pos, size - pos - 1);
+            System.arraycopy(containers, pos + 1, containers, pos, size - pos - 1);
+            containers[--size] = null;
+        } else {
+            containers[pos] = c;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // containers
+    // ------------------------------------------------------------------------
+
+    /**
+     * Container of the bits in a chunk. All bit indexes in containers
+     * are the low 16 bits, i.e., in range [0, 2^16).
+     * <p>
+     * The operations that may change the representation of a container
+     * return the resulting container, which may be the receiver itself.
+     * The resulting container never shares storage with the argument
+     * container.
+     */
+    private abstract static class Container implements Serializable {
+
+        abstract int cardinality();
+
+        boolean isEmpty() {
+            return cardinality() == 0;
+        }
+
+        abstract boolean contains(int x);
+
+        /**
+         * Adds bit x which is absent in this container.
+         */
+        abstract Container add(int x);
+
+        /**
+         * Removes bit x which is present in this container.
+         */
+        abstract Container remove(int x);
+
+        /**
+         * @return the next set bit on or after {@code from},
+         * or -1 if there is no such bit.
+         */
+        abstract int nextSetBit(int from);
+
+        /**
+         * @return the next clear bit on or after {@code from},
+         * or {@link #CHUNK_SIZE} if there is no such bit.
+         */
+        abstract int nextClearBit(int from);
+
+        /**
+         * @return the previous set bit on or before {@code from},
+         * or -1 if there is no such bit.
+         */
+        abstract int previousSetBit(int from);
+
+        /**
+         * @return the previous clear bit on or before {@code from},
+         * or -1 if there is no such bit.
+         */
+        abstract int previousClearBit(int from);
+
+        /**
+         * Sets the bits of this container in given words.
+         */
+        abstract void orInto(long[] words);
+
+        /**
+         * @return the words of this container, which must not be modified.
+         */
+        long[] words() {
+            return toWords();
+        }
+
+        /**
+         * @return new words that contain the bits of this container.
+         */
+        long[] toWords() {
+            long[] words = new long[WORDS_PER_CHUNK];
+            orInto(words);
+            return words;
+        }
+
+        abstract Container copy();
+
+        Container or(Container other) {
+            long[] words = toWords();
+            other.orInto(words);
+            return fromWords(words);
+        }
+
+        Container and(Container other) {
+            if (other instanceof ArrayContainer array) {
+                return array.filter(this, true);
+            }
+            long[] words = toWords();
+            long[] otherWords = other.words();
+            for (int i = 0; i < WORDS_PER_CHUNK; ++i) {
+                words[i] &= otherWords[i];
+            }
+            return fromWords(words);
+        }
+
+        Container andNot(Container other) {
+            long[] words = toWords();
+            long[] otherWords = other.words();
+            for (int i = 0; i < WORDS_PER_CHUNK; ++i) {
+                words[i] &= ~otherWords[i];
+            }
+            return fromWords(words);
+        }
+
+        /**
+         * @return a container that contains the bits of this container
+         * which are not contained in {@code other}. Unlike
+         * {@link #andNot(Container)}, this container is not modified.
+         */
+        Container diff(Container other) {
+            return andNot(other);
+        }
+
+        Container xor(Container other) {
+            long[] words = toWords();
+            long[] otherWords = other.words();
+            for (int i = 0; i < WORDS_PER_CHUNK; ++i) {
+                words[i] ^= otherWords[i];
+            }
+            return fromWords(words);
+        }
+
+        boolean intersects(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.intersects(this);
+            }
+            long[] words = words();
+            long[] otherWords = other.words();
+            for (int i = 0; i < WORDS_PER_CHUNK; ++i) {
+                if ((words[i] & otherWords[i]) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean containsAll(Container other) {
+            if (other.cardinality() > cardinality()) {
+                return false;
+            }
+            for (int x = other.nextSetBit(0); x >= 0; x = other.nextSetBit(x + 1)) {
+                if (!contains(x)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Creates the most compact container for the bits in given words.
+     * The container may take the ownership of {@code words}.
+     */
+    private static Container fromWords(long[] words) {
+        int card = 0;
+        int nRuns = 0;
+        long prev = 0;
+        for (long word : words) {
+            card += Long.bitCount(word);
+            // counts the set bits whose preceding bits are clear
+            nRuns += Long.bitCount(word & ~((word << 1) | (prev >>> 63)));
+            prev = word;
+        }
+        int runBytes = 2 + 4 * nRuns;
+        if (runBytes < Math.min(2 * card, 8 * WORDS_PER_CHUNK)) {
+            return RunContainer.from(words, nRuns, card);
+        } else if (card <= MAX_ARRAY_SIZE) {
+            return ArrayContainer.from(words, card);
+        } else {
+            return new BitmapContainer(words, card);
+        }
+    }
+
+    private static int nextSetBit(long[] words, int from) {
+        if (from >= CHUNK_SIZE) {
+            return -1;
+        }
+        int u = from >>> ADDRESS_BITS_PER_WORD;
+        long word = words[u] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (u << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            }
+            if (++u == WORDS_PER_CHUNK) {
+                return -1;
+            }
+            word = words[u];
+        }
+    }
+
+    private static int nextClearBit(long[] words, int from) {
+        if (from >= CHUNK_SIZE) {
+            return CHUNK_SIZE;
+        }
+        int u = from >>> ADDRESS_BITS_PER_WORD;
+        long word = ~words[u] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (u << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            }
+            if (++u == WORDS_PER_CHUNK) {
+                return CHUNK_SIZE;
+            }
+            word = ~words[u];
+        }
+    }
+
+    private static int previousSetBit(long[] words, int from) {
+        int u = from >>> ADDRESS_BITS_PER_WORD;
+        long word = words[u] & (-1L >>> -(from + 1));
+        while (true) {
+            if (word != 0) {
+                return (u + 1) * BITS_PER_WORD - 1 - Long.numberOfLeadingZeros(word);
+            }
+            if (u-- == 0) {
+                return -1;
+            }
+            word = words[u];
+        }
+    }
+
+    private static int previousClearBit(long[] words, int from) {
+        int u = from >>> ADDRESS_BITS_PER_WORD;
+        long word = ~words[u] & (-1L >>> -(from + 1));
+        while (true) {
+            if (word != 0) {
+                return (u + 1) * BITS_PER_WORD - 1 - Long.numberOfLeadingZeros(word);
+            }
+            if (u-- == 0) {
+                return -1;
+            }
+            word = ~words[u];
+        }
+    }
+
+    /**
+     * Container that stores the set bits in a sorted array.
+     */
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+
+        private int card;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        private ArrayContainer(char[] values, int card) {
+            this.values = values;
+            this.card = card;
+        }
+
+        static ArrayContainer from(long[] words, int card) {
+            char[] values = new char[card];
+            int n = 0;
+            for (int x = RoaringBitSet.nextSetBit(words, 0); x >= 0;
+                 x = RoaringBitSet.nextSetBit(words, x + 1)) {
+                values[n++] = (char) x;
+            }
+            return new ArrayContainer(values, card);
+        }
+
+        private int indexOf(int x) {
+            return Arrays.binarySearch(values, 0, card, (char) x);
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        boolean contains(int x) {
+            return indexOf(x) >= 0;
+        }
+
+        @Override
+        Container add(int x) {
+            if (card == MAX_ARRAY_SIZE) {
+                long[] words = toWords();
+                words[x >>> ADDRESS_BITS_PER_WORD] |= 1L << x;
+                return new BitmapContainer(words, card + 1);
+            }
+            int pos = -indexOf(x) - 1;
+            if (card == values.length) {
+                values = Arrays.copyOf(values,
+                        Math.min(MAX_ARRAY_SIZE, Math.max(4, card * 2)));
+            }
+            System.arraycopy(values, pos, values, pos + 1, card - pos);
+            values[pos] = (char) x;
+            ++card;
+            return this;
+        }
+
+        @Override
+        Container remove(int x) {
+            int pos = indexOf(x);
+            System.arraycopy(values, pos + 1, values, pos, card - pos - 1);
+            --card;
+            return this;
+        }
+
+        @Override
+        int nextSetBit(int from) {
+            if (from >= CHUNK_SIZE) {
+                return -1;
+            }
+            int pos = indexOf(from);
+            if (pos < 0) {
+                pos = -pos - 1;
+            }
+            return pos < card ? values[pos] : -1;
+        }
+
+        @Override
+        int nextClearBit(int from) {
+            if (from >= CHUNK_SIZE) {
+                return CHUNK_SIZE;
+            }
+            int pos = indexOf(from);
+            if (pos < 0) {
+                return from;
+            }
+            while (pos + 1 < card && values[pos + 1] == values[pos] + 1) {
+                ++pos;
+            }
+            return values[pos] + 1;
+        }
+
+        @Override
+        int previousSetBit(int from) {
+            int pos = indexOf(from);
+            if (pos >= 0) {
+                return from;
+            }
+            pos = -pos - 2;
+            return pos >= 0 ? values[pos] : -1;
+        }
+
+        @Override
+        int previousClearBit(int from) {
+            int pos = indexOf(from);
+            if (pos < 0) {
+                return from;
+            }
+            while (pos > 0 && values[pos - 1] == values[pos] - 1) {
+                --pos;
+            }
+            return values[pos] - 1;
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < card; ++i) {
+                int x = values[i];
+                words[x >>> ADDRESS_BITS_PER_WORD] |= 1L << x;
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, card), card);
+        }
+
+        @Override
+        Container or(Container other) {
+            if (!(other instanceof ArrayContainer array)
+                    || card + array.card > MAX_ARRAY_SIZE) {
+                return super.or(other);
+            }
+            // merges two sorted arrays
+            char[] merged = new char[card + array.card];
+            int i = 0, j = 0, n = 0;
+            while (i < card && j < array.card) {
+                char a = values[i], b = array.values[j];
+                if (a < b) {
+                    merged[n++] = a;
+                    ++i;
+                } else if (a > b) {
+                    merged[n++] = b;
+                    ++j;
+                } else {
+                    merged[n++] = a;
+                    ++i;
+                    ++j;
+                }
+            }
+            while (i < card) {
+                merged[n++] = values[i++];
+            }
+            while (j < array.card) {
+                merged[n++] = array.values[j++];
+            }
+            values = merged;
+            card = n;
+            return this;
+        }
+
+        @Override
+        Container and(Container other) {
+            return filter(other, true);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            if (!(other instanceof ArrayContainer array)) {
+                return filter(other, false);
+            }
+            // walks two sorted arrays
+            char[] result = new char[card];
+            int i = 0, j = 0, n = 0;
+            while (i < card && j < array.card) {
+                char a = values[i], b = array.values[j];
+                if (a < b) {
+                    result[n++] = a;
+                    ++i;
+                } else {
+                    if (a == b) {
+                        ++i;
+                    }
+                    ++j;
+                }
+            }
+            while (i < card) {
+                result[n++] = values[i++];
+            }
+            return new ArrayContainer(result, n);
+        }
+
+        /**
+         * @return a new array container that contains the bits of this
+         * container which are (if {@code present} is true) or are not
+         * (otherwise) contained in {@code other}.
+         */
+        ArrayContainer filter(Container other, boolean present) {
+            char[] result = new char[card];
+            int n = 0;
+            for (int i = 0; i < card; ++i) {
+                if (other.contains(values[i]) == present) {
+                    result[n++] = values[i];
+                }
+            }
+            return new ArrayContainer(result, n);
+        }
+
+        @Override
+        boolean intersects(Container other) {
+            for (int i = 0; i < card; ++i) {
+                if (other.contains(values[i])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Container that stores the bits in plain words.
+     */
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+
+        private int card;
+
+        private BitmapContainer(long[] words, int card) {
+            this.words = words;
+            this.card = card;
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        boolean contains(int x) {
+            return (words[x >>> ADDRESS_BITS_PER_WORD] & (1L << x)) != 0;
+        }
+
+        @Override
+        Container add(int x) {
+            words[x >>> ADDRESS_BITS_PER_WORD] |= 1L << x;
+            ++card;
+            return this;
+        }
+
+        @Override
+        Container remove(int x) {
+            words[x >>> ADDRESS_BITS_PER_WORD] &= ~(1L << x);
+            --card;
+            return card <= MAX_ARRAY_SIZE ? ArrayContainer.from(words, card) : this;
+        }
+
+        @Override
+        int nextSetBit(int from) {
+            return RoaringBitSet.nextSetBit(words, from);
+        }
+
+        @Override
+        int nextClearBit(int from) {
+            return RoaringBitSet.nextClearBit(words, from);
+        }
+
+        @Override
+        int previousSetBit(int from) {
+            return RoaringBitSet.previousSetBit(words, from);
+        }
+
+        @Override
+        int previousClearBit(int from) {
+            return RoaringBitSet.previousClearBit(words, from);
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < WORDS_PER_CHUNK; ++i) {
+                words[i] |= this.words[i];
+            }
+        }
+
+        @Override
+        long[] words() {
+            return words;
+        }
+
+        @Override
+        long[] toWords() {
+            return words.clone();
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), card);
+        }
+
+        /**
+         * The union of a bitmap container has more than
+         * {@value #MAX_ARRAY_SIZE} bits, so it stays a bitmap container,
+         * and this method does not rescan the words to look for runs.
+         */
+        @Override
+        Container or(Container other) {
+            if (other instanceof ArrayContainer array) {
+                for (int i = 0; i < array.card; ++i) {
+                    int x = array.values[i];
+                    int u = x >>> ADDRESS_BITS_PER_WORD;
+                    long word = words[u];
+                    words[u] = word | (1L << x);
+                    card += (int) ((~word >>> x) & 1L);
+                }
+            } else {
+                long[] otherWords = other.words();
+                int newCard = 0;
+                for (int i = 0; i < WORDS_PER_CHUNK; ++i) {
+                    newCard += Long.bitCount(words[i] |= otherWords[i]);
+                }
+                card = newCard;
+            }
+            return this;
+        }
+
+        @Override
+        Container diff(Container other) {
+            return other instanceof ArrayContainer ?
+                    copy().andNot(other) : super.andNot(other);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            if (other instanceof ArrayContainer array) {
+                for (int i = 0; i < array.card; ++i) {
+                    int x = array.values[i];
+                    words[x >>> ADDRESS_BITS_PER_WORD] &= ~(1L << x);
+                }
+                return fromWords(words);
+            }
+            return super.andNot(other);
+        }
+
+        @Override
+        boolean containsAll(Container other) {
+            if (other instanceof ArrayContainer) {
+                return super.containsAll(other);
+            }
+            long[] otherWords = other.words();
+            for (int i = 0; i < WORDS_PER_CHUNK; ++i) {
+                if ((otherWords[i] & ~words[i]) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Container that stores the set bits as sorted runs. The i-th run
+     * starts from {@code runs[2 * i]} and contains
+     * {@code runs[2 * i + 1] + 1} bits.
+     */
+    private static final class RunContainer extends Container {
+
+        private char[] runs;
+
+        private int nRuns;
+
+        private int card;
+
+        private RunContainer(char[] runs, int nRuns, int card) {
+            this.runs = runs;
+            this.nRuns = nRuns;
+            this.card = card;
+        }
+
+        static RunContainer from(long[] words, int nRuns, int card) {
+            char[] runs = new char[2 * nRuns];
+            int n = 0;
+            for (int start = RoaringBitSet.nextSetBit(words, 0); start >= 0; ) {
+                int end = RoaringBitSet.nextClearBit(words, start);
+                runs[2 * n] = (char) start;
+                runs[2 * n + 1] = (char) (end - start - 1);
+                ++n;
+                start = RoaringBitSet.nextSetBit(words, end);
+            }
+            return new RunContainer(runs, nRuns, card);
+        }
+
+        private int start(int i) {
+            return runs[2 * i];
+        }
+
+        private int end(int i) {
+            return runs[2 * i] + runs[2 * i + 1];
+        }
+
+        /**
+         * @return index of the last run that starts on or before x,
+         * or -1 if there is no such run.
+         */
+        private int findRun(int x) {
+            int low = 0, high = nRuns - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (start(mid) <= x) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high;
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        boolean contains(int x) {
+            int i = findRun(x);
+            return i >= 0 && x <= end(i);
+        }
+
+        @Override
+        Container add(int x) {
+            int i = findRun(x);
+            boolean extendsLeft = i >= 0 && end(i) + 1 == x;
+            boolean extendsRight = i + 1 < nRuns && start(i + 1) == x + 1;
+            if (extendsLeft && extendsRight) { // merges run i and run i+1
+                runs[2 * i + 1] = (char) (end(i + 1) - start(i));
+                System.arraycopy(runs, 2 * (i + 2), runs, 2 * (i + 1),
+                        2 * (nRuns - i - 2));
+                --nRuns;
+            } else if (extendsLeft) {
+                ++runs[2 * i + 1];
+            } else if (extendsRight) {
+                --runs[2 * (i + 1)];
+                ++runs[2 * (i + 1) + 1];
+            } else { // inserts a new run after run i
+                if (2 * nRuns == runs.length) {
+                    runs = Arrays.copyOf(runs, Math.max(4, runs.length * 2));
+                }
+                int pos = i + 1;
+                System.arraycopy(runs, 2 * pos, runs, 2 * (pos + 1),
+                        2 * (nRuns - pos));
+                runs[2 * pos] = (char) x;
+                runs[2 * pos + 1] = 0;
+                ++nRuns;
+            }
+            ++card;
+            if (2 + 4 * nRuns >= Math.min(2 * card, 8 * WORDS_PER_CHUNK)) {
+                // runs are no longer compact
+                return fromWords(toWords());
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(int x) {
+            long[] words = toWords();
+            words[x >>> ADDRESS_BITS_PER_WORD] &= ~(1L << x);
+            return fromWords(words);
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof ArrayContainer array && array.card <= nRuns) {
+                // adding a few bits is cheaper than rebuilding the runs
+                Container c = this;
+                for (int i = 0; i < array.card; ++i) {
+                    if (!c.contains(array.values[i])) {
+                        c = c.add(array.values[i]);
+                    }
+                }
+                return c;
+            }
+            return super.or(other);
+        }
+
+        @Override
+        int nextSetBit(int from) {
+            int i = findRun(from);
+            if (i >= 0 && from <= end(i)) {
+                return from;
+            }
+            return i + 1 < nRuns ? start(i + 1) : -1;
+        }
+
+        @Override
+        int nextClearBit(int from) {
+            int i = findRun(from);
+            return i >= 0 && from <= end(i) ? end(i) + 1 : from;
+        }
+
+        @Override
+        int previousSetBit(int from) {
+            int i = findRun(from);
+            return i >= 0 ? Math.min(from, end(i)) : -1;
+        }
+
+        @Override
+        int previousClearBit(int from) {
+            int i = findRun(from);
+            return i >= 0 && from <= end(i) ? start(i) - 1 : from;
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < nRuns; ++i) {
+                int start = start(i);
+                int end = end(i) + 1; // exclusive
+                int startWord = start >>> ADDRESS_BITS_PER_WORD;
+                int endWord = (end - 1) >>> ADDRESS_BITS_PER_WORD;
+                long firstMask = -1L << start;
+                long lastMask = -1L >>> -end;
+                if (startWord == endWord) {
+                    words[startWord] |= firstMask & lastMask;
+                } else {
+                    words[startWord] |= firstMask;
+                    for (int w = startWord + 1; w < endWord; ++w) {
+                        words[w] = -1L;
+                    }
+                    words[endWord] |= lastMask;
+                }
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new RunContainer(Arrays.copyOf(runs, 2 * nRuns), nRuns, card);
+        }
+    }
+}
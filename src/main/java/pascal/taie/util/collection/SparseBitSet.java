@@ -230,7 +230,7 @@ public class SparseBitSet extends AbstractBitSet
             invalidateState();
             return true;
         }
-        return true;
+        return false;
     }
 
     @Override
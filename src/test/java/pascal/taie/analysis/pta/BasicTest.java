@@ -22,9 +22,42 @@
 
 package pascal.taie.analysis.pta;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.Main;
+import pascal.taie.World;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.core.solver.CheckpointProbePlugin;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.core.solver.SolverMetrics;
+import pascal.taie.analysis.pta.core.solver.StateFile;
+import pascal.taie.analysis.pta.core.solver.TimeoutPlugin;
+import pascal.taie.analysis.pta.plugin.ResultProcessor;
+import pascal.taie.analysis.pta.plugin.taint.TaintAnalysis;
+import pascal.taie.config.ConfigException;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.MultiStringsSource;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Tests basic functionalities of pointer analysis
@@ -33,6 +66,8 @@ public class BasicTest {
 
     static final String DIR = "basic";
 
+    private static final String CHECK = "<RedBlackBST: boolean check()>";
+
     /**
      * Tests for handling basic pointer analysis statements
      */
@@ -63,4 +98,442 @@ public class BasicTest {
         Tests.testPTA(DIR, mainClass);
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "InstanceField",
+            "LinkedQueue",
+            "RedBlackBST",
+            "Dispatch",
+            "Recursion",
+            "Cycle",
+    })
+    void testParallelSolver(String mainClass) {
+        Tests.testPTA(DIR, mainClass, "solver:parallel", "solver-threads:4");
+    }
+
+    @ParameterizedTest
+    @MultiStringsSource({"LinkedQueue", "solver-parallel-threshold:1"})
+    @MultiStringsSource({"RedBlackBST", "solver-parallel-threshold:1"})
+    @MultiStringsSource({"Cycle", "solver-parallel-threshold:1",
+            "collapse-cycles:true"})
+    void testParallelPropagation(String mainClass, String... opts) {
+        // with threshold 1, every round is propagated by the worker threads
+        List<String> options = new ArrayList<>(List.of(opts));
+        options.add("solver:parallel");
+        options.add("solver-threads:4");
+        Tests.testPTA(DIR, mainClass, options.toArray(String[]::new));
+    }
+
+    @ParameterizedTest
+    @MultiStringsSource({"LinkedQueue", "worklist:topo"})
+    @MultiStringsSource({"RedBlackBST", "worklist:topo"})
+    @MultiStringsSource({"Cycle", "worklist:topo"})
+    @MultiStringsSource({"LinkedQueue", "worklist:lrf"})
+    @MultiStringsSource({"RedBlackBST", "worklist:lrf"})
+    @MultiStringsSource({"LinkedQueue", "worklist:pts-size"})
+    @MultiStringsSource({"RedBlackBST", "worklist:pts-size"})
+    void testWorkListStrategy(String mainClass, String... opts) {
+        Tests.testPTA(DIR, mainClass, opts);
+    }
+
+    @ParameterizedTest
+    @MultiStringsSource({"Cycle", "collapse-cycles:true"})
+    @MultiStringsSource({"ComplexAssign", "collapse-cycles:true"})
+    @MultiStringsSource({"LinkedQueue", "collapse-cycles:true"})
+    @MultiStringsSource({"Cycle", "collapse-cycles:true", "solver:parallel"})
+    void testCollapseCycles(String mainClass, String... opts) {
+        Tests.testPTA(DIR, mainClass, opts);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"collapse-cycles:false", "collapse-cycles:true"})
+    void testFilterInCycle(String collapseCycles) {
+        Tests.testPTA(false, DIR, "CycleFilter", collapseCycles,
+                "plugins:[pascal.taie.analysis.pta.LateFilterPlugin]");
+        assertEquals(collapseCycles.endsWith("true"), LateFilterPlugin.isCollapsed());
+        // the filter added to the parameter of f() after the cycle has
+        // been collapsed stops the rejected objects from flowing around
+        // the cycle, i.e., they reach x but not the parameter of g()
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        Var x = hierarchy.getMethod(LateFilterPlugin.MAIN).getIR().getVars()
+                .stream()
+                .filter(var -> var.getName().equals("x"))
+                .findFirst()
+                .orElseThrow();
+        Var o = hierarchy.getMethod(LateFilterPlugin.F).getIR().getParam(0);
+        Var p = hierarchy.getMethod(LateFilterPlugin.G).getIR().getParam(0);
+        assertTrue(hasObjOf(result, x, LateFilterPlugin.REJECTED));
+        assertTrue(hasObjOf(result, x, "Apple"));
+        assertFalse(hasObjOf(result, o, LateFilterPlugin.REJECTED));
+        assertFalse(hasObjOf(result, p, LateFilterPlugin.REJECTED));
+        assertTrue(hasObjOf(result, p, "Apple"));
+    }
+
+    private static boolean hasObjOf(PointerAnalysisResult result, Var var, String type) {
+        return result.getPointsToSet(var)
+                .stream()
+                .anyMatch(obj -> obj.getType().getName().equals(type));
+    }
+
+    @ParameterizedTest
+    @MultiStringsSource({"LinkedQueue", "pts:shared"})
+    @MultiStringsSource({"RedBlackBST", "pts:shared"})
+    @MultiStringsSource({"Cycle", "pts:shared", "collapse-cycles:true"})
+    @MultiStringsSource({"RedBlackBST", "pts:shared", "solver:parallel"})
+    @MultiStringsSource({"LinkedQueue", "pts:roaring"})
+    @MultiStringsSource({"RedBlackBST", "pts:roaring"})
+    @MultiStringsSource({"Cycle", "pts:roaring", "collapse-cycles:true"})
+    void testPointsToSetRepresentation(String mainClass, String... opts) {
+        Tests.testPTA(DIR, mainClass, opts);
+    }
+
+    @ParameterizedTest
+    @MultiStringsSource({"LinkedQueue", "cs-manager:array"})
+    @MultiStringsSource({"RedBlackBST", "cs-manager:array"})
+    @MultiStringsSource({"RedBlackBST", "cs-manager:array", "solver:parallel"})
+    void testArrayBasedCSManager(String mainClass, String... opts) {
+        Tests.testPTA(DIR, mainClass, opts);
+    }
+
+    @Test
+    void testPluginTiming() throws IOException {
+        File profileFile = new File("output", "pta-profile.txt");
+        profileFile.delete();
+        Tests.testPTA("taint", "SimpleTaint",
+                "taint-config:src/test/resources/pta/taint/taint-config.yml",
+                "plugins:[pascal.taie.analysis.pta.plugin.Profiler]");
+        String profile = Files.readString(profileFile.toPath());
+        int section = profile.indexOf("Elapsed time of plugins");
+        assertTrue(section >= 0);
+        String times = profile.substring(section);
+        assertTrue(times.contains("\t" + TaintAnalysis.class.getName()));
+        assertTrue(times.contains("\t" + ResultProcessor.class.getName()));
+        assertTrue(times.contains("\tonStart: 1/"));
+    }
+
+    @Test
+    void testSubscription() {
+        Tests.testPTA(DIR, "InstanceField",
+                "plugins:[pascal.taie.analysis.pta.SubscriptionPlugin]");
+        // the plugin only receives the events of
+        // the variable and the callee it subscribes to
+        List<Var> vars = SubscriptionPlugin.getReceivedVars();
+        assertFalse(vars.isEmpty());
+        vars.forEach(var -> {
+            assertEquals(SubscriptionPlugin.VAR_METHOD, var.getMethod().toString());
+            assertEquals(SubscriptionPlugin.VAR_NAME, var.getName());
+        });
+        List<JMethod> callees = SubscriptionPlugin.getReceivedCallees();
+        assertFalse(callees.isEmpty());
+        callees.forEach(callee ->
+                assertEquals(SubscriptionPlugin.CALLEE, callee.toString()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"solver:default", "solver:parallel"})
+    void testRemoveMethods(String solver) {
+        String[] opts = {"incremental:true", solver, "solver-threads:2",
+                "plugins:[pascal.taie.analysis.pta.IncrementalUpdatePlugin]"};
+        // solves the program without check() from the beginning
+        IncrementalUpdatePlugin.setIgnoredMethods(Set.of(CHECK));
+        try {
+            Tests.testPTA(false, DIR, "RedBlackBST", opts);
+        } finally {
+            IncrementalUpdatePlugin.setIgnoredMethods(Set.of());
+        }
+        Map<String, Set<String>> expected = getPointsToSetStrings(
+                World.get().getResult(PointerAnalysis.ID));
+        // solves the whole program, and then removes check()
+        // when the first phase finishes
+        String isBST = "<RedBlackBST: boolean isBST(Node,int,int)>";
+        Solver[] solved = new Solver[1];
+        IncrementalUpdatePlugin.setUpdate(pta -> {
+            solved[0] = pta;
+            ClassHierarchy hierarchy = World.get().getClassHierarchy();
+            JMethod check = hierarchy.getMethod(CHECK);
+            Var x = hierarchy.getMethod(isBST).getIR().getParam(0);
+            assertTrue(pta.getResult().getCallGraph().contains(check));
+            assertFalse(pta.getResult().getPointsToSet(x).isEmpty());
+            pta.removeMethods(Set.of(check));
+            // removing a method again changes nothing
+            pta.removeMethods(Set.of(check));
+        });
+        try {
+            Tests.testPTA(false, DIR, "RedBlackBST", opts);
+        } finally {
+            IncrementalUpdatePlugin.setUpdate(pta -> {
+            });
+        }
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        JMethod check = hierarchy.getMethod(CHECK);
+        Var x = hierarchy.getMethod(isBST).getIR().getParam(0);
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        assertFalse(result.getCallGraph().contains(check));
+        // isBST(Node,int,int) is only (transitively) called by check(),
+        // thus removing check() also removes the objects pointed to by
+        // the parameter of isBST(Node,int,int)
+        assertTrue(result.getPointsToSet(x).isEmpty());
+        // the results irrelevant to check() are kept, i.e., the results
+        // are sound w.r.t. the ones of solving without check()
+        Map<String, Set<String>> actual = getPointsToSetStrings(result);
+        expected.forEach((var, objs) ->
+                assertTrue(actual.getOrDefault(var, Set.of()).containsAll(objs),
+                        var + " lost objects after removal"));
+        // the plugins have released their states once the solver
+        // finishes, thus the methods cannot be removed anymore
+        assertThrows(AnalysisException.class,
+                () -> solved[0].removeMethods(Set.of(check)));
+    }
+
+    @Test
+    void testCheckpoint() {
+        File checkpointFile = new File("output", "pta-checkpoint-InstanceField.bin");
+        checkpointFile.delete();
+        String[] opts = {"checkpoint-file:" + checkpointFile,
+                "plugins:[pascal.taie.analysis.pta.core.solver.TimeoutPlugin]"};
+        // the first run times out when the first call edge is found,
+        // so it stops early and saves the checkpoint
+        TimeoutPlugin.setEnabled(true);
+        try {
+            Tests.testPTA(false, DIR, "InstanceField", opts);
+        } finally {
+            TimeoutPlugin.setEnabled(false);
+        }
+        Map<String, Set<String>> partial = getPointsToSetStrings(
+                World.get().getResult(PointerAnalysis.ID));
+        assertTrue(checkpointFile.exists());
+        // the second run (with the same options) resumes from the
+        // checkpoint, and deletes it after the analysis finishes
+        Tests.testPTA(false, DIR, "InstanceField", opts);
+        Map<String, Set<String>> resumed = getPointsToSetStrings(
+                World.get().getResult(PointerAnalysis.ID));
+        assertFalse(checkpointFile.exists());
+        // the resumed results are expected to be the same as
+        // the ones of full solve
+        Tests.testPTA(DIR, "InstanceField");
+        Map<String, Set<String>> full = getPointsToSetStrings(
+                World.get().getResult(PointerAnalysis.ID));
+        assertNotEquals(full, partial);
+        assertEquals(full, resumed);
+    }
+
+    @Test
+    void testCheckpointWithPreAnalysis() {
+        File checkpointFile = new File("output", "pta-checkpoint-Zipper.bin");
+        checkpointFile.delete();
+        String[] opts = {"advanced:zipper", "cs:2-obj",
+                "checkpoint-file:" + checkpointFile,
+                "plugins:[pascal.taie.analysis.pta.core.solver.TimeoutPlugin," +
+                        "pascal.taie.analysis.pta.core.solver.CheckpointProbePlugin]"};
+        // both the pre-analysis and the main analysis time out in the
+        // first run, and only the main analysis saves the checkpoint
+        CheckpointProbePlugin.setCheckpointFile(checkpointFile);
+        TimeoutPlugin.setEnabled(true);
+        try {
+            Tests.testPTA(false, "misc", "Zipper", opts);
+        } finally {
+            TimeoutPlugin.setEnabled(false);
+        }
+        assertEquals(List.of("start:false", "finish:false",
+                        "start:false", "finish:true"),
+                CheckpointProbePlugin.getEvents());
+        // in the second run, the pre-analysis leaves the checkpoint
+        // alone, and the main analysis resumes from it and deletes it
+        CheckpointProbePlugin.setCheckpointFile(checkpointFile);
+        Tests.testPTA(false, "misc", "Zipper", opts);
+        assertEquals(List.of("start:true", "finish:true",
+                        "start:true", "finish:false"),
+                CheckpointProbePlugin.getEvents());
+        Map<String, Set<String>> resumed = getPointsToSetStrings(
+                World.get().getResult(PointerAnalysis.ID));
+        Tests.testPTA(false, "misc", "Zipper", "advanced:zipper", "cs:2-obj");
+        Map<String, Set<String>> full = getPointsToSetStrings(
+                World.get().getResult(PointerAnalysis.ID));
+        assertEquals(full, resumed);
+    }
+
+    /**
+     * Converts the points-to sets to strings, so that the results
+     * of different runs (i.e., in different worlds) can be compared.
+     */
+    static Map<String, Set<String>> getPointsToSetStrings(
+            PointerAnalysisResult result) {
+        Map<String, Set<String>> pointsToSets = Maps.newMap();
+        result.getVars().forEach(var -> {
+            Set<String> objs = Sets.newSet();
+            result.getPointsToSet(var).forEach(obj -> objs.add(obj.toString()));
+            pointsToSets.put(var.getMethod() + "/" + var.getName(), objs);
+        });
+        return pointsToSets;
+    }
+
+    @Test
+    void testStateFile() {
+        File stateFile = new File("output", "pta-state-InstanceField.bin");
+        stateFile.delete();
+        // Tests.testPTA() always adds plugin AssertionChecker,
+        // which cannot be used with state file
+        String classPath = "src/test/resources/pta/" + DIR;
+        String options = "implicit-entries:false;only-app:true;"
+                + "distinguish-string-constants:all;"
+                + "state-file:" + stateFile;
+        String[] args = {"-pp", "-cp", classPath, "-m", "InstanceField",
+                "-a", "pta=" + options + ";"
+                + "expected-file:" + classPath + "/InstanceField-pta-expected.txt"};
+        // the first run solves and saves the state
+        Main.main(args);
+        assertTrue(stateFile.exists());
+        PointerAnalysisResult solved = World.get().getResult(PointerAnalysis.ID);
+        assertFalse(solved.hasResult(StateFile.LOADED_FROM));
+        Map<String, Set<String>> solvedPts = getPointsToSetStrings(solved);
+        Set<String> solvedEdges = getCallEdgeStrings(solved);
+        // the second run loads the state
+        Main.main(args);
+        PointerAnalysisResult loaded = World.get().getResult(PointerAnalysis.ID);
+        assertTrue(loaded.hasResult(StateFile.LOADED_FROM));
+        assertEquals(solvedPts, getPointsToSetStrings(loaded));
+        assertEquals(solvedEdges, getCallEdgeStrings(loaded));
+        // the state is outdated when the options change, and
+        // the run with context sensitivity solves and saves again
+        String[] csArgs = {"-pp", "-cp", classPath, "-m", "InstanceField",
+                "-a", "pta=" + options + ";cs:2-obj"};
+        Main.main(csArgs);
+        solved = World.get().getResult(PointerAnalysis.ID);
+        assertFalse(solved.hasResult(StateFile.LOADED_FROM));
+        solvedPts = getPointsToSetStrings(solved);
+        solvedEdges = getCallEdgeStrings(solved);
+        Main.main(csArgs);
+        loaded = World.get().getResult(PointerAnalysis.ID);
+        assertTrue(loaded.hasResult(StateFile.LOADED_FROM));
+        assertEquals(solvedPts, getPointsToSetStrings(loaded));
+        assertEquals(solvedEdges, getCallEdgeStrings(loaded));
+        assertEquals(solved.getCSVars().size(), loaded.getCSVars().size());
+        assertTrue(stateFile.delete());
+    }
+
+    private static Set<String> getCallEdgeStrings(PointerAnalysisResult result) {
+        Set<String> edges = Sets.newSet();
+        result.getCSCallGraph().edges().forEach(edge -> edges.add(edge.toString()));
+        return edges;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"cs:ci", "cs:1-call", "cs:2-obj"})
+    void testUpdateStateFile(String cs) {
+        File stateFile = new File("output", "pta-state-Incremental.bin");
+        stateFile.delete();
+        // v2 changes a method, adds a method and a class,
+        // and removes a method of v1
+        String v1 = "src/test/resources/pta/incremental/v1";
+        String v2 = "src/test/resources/pta/incremental/v2";
+        String options = "pta=implicit-entries:false;only-app:true;" + cs;
+        String update = options + ";incremental:true;state-file:" + stateFile;
+        // the results of solving v2 from scratch
+        Main.main("-pp", "-cp", v2, "-m", "Incremental", "-a", options);
+        PointerAnalysisResult solved = World.get().getResult(PointerAnalysis.ID);
+        Map<String, Set<String>> solvedPts = getPointsToSetStrings(solved);
+        Set<String> solvedEdges = getCallEdgeStrings(solved);
+        // solves v1 and saves the state, which is then updated for v2
+        Main.main("-pp", "-cp", v1, "-m", "Incremental", "-a", update);
+        PointerAnalysisResult saved = World.get().getResult(PointerAnalysis.ID);
+        assertFalse(saved.hasResult(StateFile.UPDATED_FROM));
+        Main.main("-pp", "-cp", v2, "-m", "Incremental", "-a", update);
+        PointerAnalysisResult updated = World.get().getResult(PointerAnalysis.ID);
+        assertTrue(updated.hasResult(StateFile.UPDATED_FROM));
+        assertEquals(solvedPts, getPointsToSetStrings(updated));
+        assertEquals(solvedEdges, getCallEdgeStrings(updated));
+        // the updated state is saved, and it is loaded by the next run
+        Main.main("-pp", "-cp", v2, "-m", "Incremental", "-a", update);
+        PointerAnalysisResult loaded = World.get().getResult(PointerAnalysis.ID);
+        assertTrue(loaded.hasResult(StateFile.LOADED_FROM));
+        assertEquals(solvedPts, getPointsToSetStrings(loaded));
+        assertTrue(stateFile.delete());
+    }
+
+    @Test
+    void testStateFileWithPlugins() {
+        File stateFile = new File("output", "pta-state-LinkedQueue.bin");
+        assertThrows(ConfigException.class, () ->
+                Tests.testPTA(DIR, "LinkedQueue", "state-file:" + stateFile));
+        assertFalse(stateFile.exists());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"jsonl", "csv"})
+    void testMetrics(String format) throws IOException {
+        File metricsFile = new File("output", "pta-metrics." + format);
+        metricsFile.delete();
+        Tests.testPTA(DIR, "LinkedQueue",
+                "metrics-interval:1", "metrics-format:" + format);
+        List<Map<String, Long>> samples = readMetrics(metricsFile, format);
+        // the counters never decrease between samples
+        for (int i = 1; i < samples.size(); ++i) {
+            for (String counter : List.of(SolverMetrics.PROPAGATIONS,
+                    SolverMetrics.PFG_EDGES, SolverMetrics.PTS_VOLUME)) {
+                assertTrue(samples.get(i).get(counter)
+                        >= samples.get(i - 1).get(counter), counter);
+            }
+        }
+        // the final sample is taken after the work list is drained,
+        // and it agrees with the results of the analysis
+        Map<String, Long> last = samples.get(samples.size() - 1);
+        assertEquals(0L, (long) last.get(SolverMetrics.WORK_LIST_SIZE));
+        assertTrue(last.get(SolverMetrics.PROPAGATIONS) > 0);
+        assertTrue(last.get(SolverMetrics.PFG_EDGES) > 0);
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        assertEquals(result.getCSCallGraph().getNumberOfEdges(),
+                (long) last.get(SolverMetrics.CALL_EDGES));
+        assertEquals(result.getCSCallGraph().getNumberOfMethods(),
+                (long) last.get(SolverMetrics.CS_METHODS));
+        long ptsVolume = result.getCSVars()
+                .stream()
+                .filter(v -> v.getPointsToSet() != null)
+                .mapToLong(v -> v.getPointsToSet().size())
+                .sum();
+        // pts-volume also counts the objects of fields and arrays
+        assertTrue(last.get(SolverMetrics.PTS_VOLUME) >= ptsVolume);
+        assertTrue(ptsVolume > 0);
+    }
+
+    /**
+     * Reads the samples in the metrics file, and checks that each sample
+     * has the expected keys.
+     */
+    private static List<Map<String, Long>> readMetrics(File metricsFile, String format)
+            throws IOException {
+        List<String> expectedKeys = List.of("elapsed-ms", "propagations-per-sec",
+                SolverMetrics.WORK_LIST_SIZE, SolverMetrics.PROPAGATIONS,
+                SolverMetrics.PFG_EDGES, SolverMetrics.PTS_VOLUME,
+                SolverMetrics.POINTERS, SolverMetrics.CS_OBJECTS,
+                SolverMetrics.CS_METHODS, SolverMetrics.CALL_EDGES);
+        List<String> lines = Files.readAllLines(metricsFile.toPath());
+        List<Map<String, Long>> samples = new ArrayList<>();
+        if (format.equals("csv")) {
+            assertTrue(lines.size() >= 2);
+            List<String> header = List.of(lines.get(0).split(","));
+            assertTrue(header.containsAll(expectedKeys));
+            for (String line : lines.subList(1, lines.size())) {
+                String[] values = line.split(",");
+                assertEquals(header.size(), values.length);
+                Map<String, Long> sample = Maps.newMap();
+                for (int i = 0; i < values.length; ++i) {
+                    sample.put(header.get(i), Long.parseLong(values[i]));
+                }
+                samples.add(sample);
+            }
+        } else {
+            assertFalse(lines.isEmpty());
+            ObjectMapper mapper = new ObjectMapper();
+            for (String line : lines) {
+                Map<String, Long> sample = Maps.newMap();
+                mapper.readTree(line).fields().forEachRemaining(e ->
+                        sample.put(e.getKey(), e.getValue().asLong()));
+                assertTrue(sample.keySet().containsAll(expectedKeys));
+                samples.add(sample);
+            }
+        }
+        return samples;
+    }
+
 }
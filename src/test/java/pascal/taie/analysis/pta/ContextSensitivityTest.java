@@ -22,10 +22,19 @@
 
 package pascal.taie.analysis.pta;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import pascal.taie.World;
 import pascal.taie.analysis.Tests;
 import pascal.taie.util.MultiStringsSource;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 
 /**
  * Tests context-sensitive pointer analyses.
@@ -50,4 +59,41 @@ public class ContextSensitivityTest {
         Tests.testPTA(DIR, mainClass, opts);
     }
 
+    /**
+     * The small programs stay below the default limits of demotion,
+     * thus the adaptive selector should be as precise as the plain one.
+     */
+    @ParameterizedTest
+    @MultiStringsSource({"TwoObject", "cs:2-obj", "advanced:adaptive"})
+    @MultiStringsSource({"TwoType", "cs:2-type", "advanced:adaptive=100,100000"})
+    void testAdaptive(String mainClass, String... opts) {
+        Tests.testPTA(DIR, mainClass, opts);
+    }
+
+    /**
+     * With a low limit, the methods of Box are demoted once they are
+     * selected with two contexts, thus the boxes whose methods are
+     * called after the demotion are merged, and the results are
+     * a superset of the ones of the plain selector.
+     */
+    @Test
+    void testAdaptiveDemotion() {
+        Tests.testPTA(false, DIR, "AdaptiveDemotion", "cs:1-obj");
+        Map<String, Set<String>> full = BasicTest.getPointsToSetStrings(
+                World.get().getResult(PointerAnalysis.ID));
+        Tests.testPTA(false, DIR, "AdaptiveDemotion", "cs:1-obj",
+                "advanced:adaptive=1,100000");
+        Map<String, Set<String>> adaptive = BasicTest.getPointsToSetStrings(
+                World.get().getResult(PointerAnalysis.ID));
+        full.forEach((var, objs) ->
+                assertTrue(adaptive.getOrDefault(var, Set.of()).containsAll(objs),
+                        var + " lost objects after demotion"));
+        List<String> results = List.of("r1", "r2", "r3", "r4");
+        String main = "<AdaptiveDemotion: void main(java.lang.String[])>/";
+        // each box keeps its own item with full contexts ...
+        results.forEach(r -> assertEquals(1, full.get(main + r).size()));
+        // ... while some boxes share the items after demotion
+        assertTrue(results.stream().anyMatch(r ->
+                adaptive.get(main + r).size() > 1));
+    }
 }
@@ -0,0 +1,83 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta;
+
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.plugin.Plugin;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Updates the results of the solver when the first phase of pointer
+ * analysis finishes, e.g., to remove methods from the results in the same
+ * way as the clients of incremental update. It can also make the solver
+ * ignore some methods from the beginning, to compare the results of
+ * removing methods with the results of solving without them.
+ */
+public class IncrementalUpdatePlugin implements Plugin {
+
+    private static Collection<String> ignoredMethods = Set.of();
+
+    private static Consumer<Solver> update = solver -> {
+    };
+
+    private Solver solver;
+
+    private boolean updated;
+
+    @Override
+    public void setSolver(Solver solver) {
+        this.solver = solver;
+    }
+
+    @Override
+    public void onStart() {
+        ignoredMethods.forEach(sig -> solver.addIgnoredMethod(
+                solver.getHierarchy().getMethod(sig)));
+    }
+
+    @Override
+    public void onPhaseFinish() {
+        if (!updated) {
+            updated = true;
+            update.accept(solver);
+        }
+    }
+
+    /**
+     * Sets the signatures of the methods to be ignored by the solver
+     * of the subsequent analyses.
+     */
+    static void setIgnoredMethods(Collection<String> signatures) {
+        ignoredMethods = signatures;
+    }
+
+    /**
+     * Sets the update to the results of the subsequent analyses.
+     */
+    static void setUpdate(Consumer<Solver> update) {
+        IncrementalUpdatePlugin.update = update;
+    }
+}
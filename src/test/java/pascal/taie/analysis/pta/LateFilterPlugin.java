@@ -0,0 +1,95 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+
+/**
+ * Adds a filter to a pointer of a pointer flow graph cycle in CycleFilter
+ * after the first phase, i.e., after the cycle has been collapsed (if
+ * cycle collapsing is enabled), and then adds the objects rejected by
+ * the filter to another pointer of the cycle.
+ */
+public class LateFilterPlugin implements Plugin {
+
+    static final String MAIN = "<CycleFilter: void main(java.lang.String[])>";
+
+    static final String F = "<CycleFilter: java.lang.Object f(java.lang.Object)>";
+
+    static final String G = "<CycleFilter: java.lang.Object g(java.lang.Object)>";
+
+    static final String REJECTED = "Banana";
+
+    private static boolean collapsed;
+
+    private Solver solver;
+
+    private boolean filtered;
+
+    @Override
+    public void setSolver(Solver solver) {
+        this.solver = solver;
+        collapsed = false;
+    }
+
+    @Override
+    public void onPhaseFinish() {
+        if (filtered) {
+            return;
+        }
+        filtered = true;
+        CSManager csManager = solver.getCSManager();
+        Context ctx = solver.getContextSelector().getEmptyContext();
+        IR main = solver.getHierarchy().getMethod(MAIN).getIR();
+        CSVar x = csManager.getCSVar(ctx, getVar(main, "x"));
+        CSVar b = csManager.getCSVar(ctx, getVar(main, "b"));
+        CSVar o = csManager.getCSVar(ctx,
+                solver.getHierarchy().getMethod(F).getIR().getParam(0));
+        CSVar p = csManager.getCSVar(ctx,
+                solver.getHierarchy().getMethod(G).getIR().getParam(0));
+        // pointers of a collapsed cycle share the same points-to set
+        collapsed = x.getPointsToSet() == p.getPointsToSet();
+        solver.addPointerFilter(o, obj -> !obj.getObject().getType()
+                .getName().equals(REJECTED));
+        solver.addPointsTo(x, b.getPointsToSet());
+    }
+
+    private static Var getVar(IR ir, String name) {
+        return ir.getVars()
+                .stream()
+                .filter(var -> var.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    static boolean isCollapsed() {
+        return collapsed;
+    }
+}
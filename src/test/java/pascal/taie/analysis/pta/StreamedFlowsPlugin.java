@@ -0,0 +1,66 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta;
+
+import pascal.taie.World;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the lines of the streamed taint flow file at the end of each
+ * phase, i.e., before any plugin finishes, so that the tests can check
+ * the taint flows which are written during pointer analysis.
+ */
+public class StreamedFlowsPlugin implements Plugin {
+
+    private static final List<String> linesBeforeFinish = new ArrayList<>();
+
+    @Override
+    public void setSolver(Solver solver) {
+        linesBeforeFinish.clear();
+    }
+
+    @Override
+    public void onPhaseFinish() {
+        File file = new File(World.get().getOptions().getOutputDir(),
+                "taint-flows.jsonl");
+        linesBeforeFinish.clear();
+        try {
+            linesBeforeFinish.addAll(Files.readAllLines(file.toPath()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static List<String> getLinesBeforeFinish() {
+        return linesBeforeFinish;
+    }
+}
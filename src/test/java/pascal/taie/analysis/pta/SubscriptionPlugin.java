@@ -0,0 +1,100 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta;
+
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.analysis.pta.plugin.Subscription;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Subscribes to the events of a variable and a callee in InstanceField,
+ * and records the events it receives, so that the tests can check that
+ * only the events of the subscribed elements are delivered.
+ */
+public class SubscriptionPlugin implements Plugin {
+
+    static final String VAR_METHOD = "<A: void callField()>";
+
+    static final String VAR_NAME = "c";
+
+    static final String CALLEE = "<B: C foo()>";
+
+    private static final List<Var> receivedVars = new ArrayList<>();
+
+    private static final List<JMethod> receivedCallees = new ArrayList<>();
+
+    private ClassHierarchy hierarchy;
+
+    private Subscription subscription;
+
+    @Override
+    public void setSolver(Solver solver) {
+        hierarchy = solver.getHierarchy();
+        receivedVars.clear();
+        receivedCallees.clear();
+    }
+
+    @Override
+    public void setSubscription(Subscription subscription) {
+        this.subscription = subscription;
+    }
+
+    @Override
+    public void onStart() {
+        JMethod method = hierarchy.getMethod(VAR_METHOD);
+        method.getIR().getVars()
+                .stream()
+                .filter(var -> var.getName().equals(VAR_NAME))
+                .forEach(subscription::subscribe);
+        subscription.subscribe(hierarchy.getMethod(CALLEE));
+    }
+
+    @Override
+    public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
+        receivedVars.add(csVar.getVar());
+    }
+
+    @Override
+    public void onNewCallEdge(Edge<CSCallSite, CSMethod> edge) {
+        receivedCallees.add(edge.getCallee().getMethod());
+    }
+
+    static List<Var> getReceivedVars() {
+        return receivedVars;
+    }
+
+    static List<JMethod> getReceivedCallees() {
+        return receivedCallees;
+    }
+}
@@ -22,17 +22,36 @@
 
 package pascal.taie.analysis.pta;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import pascal.taie.Main;
+import pascal.taie.World;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.plugin.taint.TaintAnalysis;
+import pascal.taie.analysis.pta.plugin.taint.TaintFlow;
 import pascal.taie.util.MultiStringsSource;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TaintTest {
 
@@ -97,6 +116,143 @@ public class TaintTest {
         }
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {"collapse-cycles:false", "collapse-cycles:true"})
+    void testSanitizerInCycle(String collapseCycles) {
+        Tests.testPTA(false, DIR, "SanitizerCycle", TAINT_CONFIG, collapseCycles);
+        // the taint does not get past the sanitizer in the cycle,
+        // thus only sink(s) is reached
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        Set<TaintFlow> taintFlows = result.getResult(
+                TaintAnalysis.getResultKey(null));
+        assertEquals(1, taintFlows.size());
+        assertTrue(taintFlows.iterator().next().toString()
+                .endsWith("SourceSink.sink(s)/0}"));
+    }
+
+    @ParameterizedTest
+    @MultiStringsSource({"ComplexTaint", TAINT_CONFIG})
+    @MultiStringsSource({"CycleTaint", TAINT_CONFIG})
+    @MultiStringsSource({"TaintInList", "cs:2-obj", TAINT_CONFIG})
+    void testParallelSolver(String mainClass, String... opts) {
+        // with threshold 1, every round is propagated by the worker threads,
+        // while the taint transfers are still applied by the solver thread
+        String[] newOpts = Arrays.copyOf(opts, opts.length + 3);
+        newOpts[opts.length] = "solver:parallel";
+        newOpts[opts.length + 1] = "solver-threads:4";
+        newOpts[opts.length + 2] = "solver-parallel-threshold:1";
+        Tests.testPTA(DIR, mainClass, newOpts);
+    }
+
+    @ParameterizedTest
+    @MultiStringsSource({"ComplexTaint", TAINT_CONFIG, "taint-flow-paths:true"})
+    @MultiStringsSource({"TaintInList", "cs:2-obj", TAINT_CONFIG, "taint-flow-paths:true"})
+    void testTaintFlowPaths(String mainClass, String... opts) throws IOException {
+        Tests.testPTA(DIR, mainClass, opts);
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        Set<TaintFlow> taintFlows = result.getResult(
+                TaintAnalysis.getResultKey(null));
+        File file = new File(World.get().getOptions().getOutputDir(),
+                "taint-flow-paths.txt");
+        // each block is a taint flow followed by the (indented) nodes
+        // of its path
+        Map<String, List<String>> paths = new LinkedHashMap<>();
+        List<String> path = null;
+        for (String line : Files.readAllLines(file.toPath())) {
+            if (line.startsWith("  ")) {
+                path.add(line);
+            } else {
+                path = new ArrayList<>();
+                paths.put(line, path);
+            }
+        }
+        assertEquals(taintFlows.stream().map(TaintFlow::toString)
+                .collect(Collectors.toSet()), paths.keySet());
+        Pattern sourceVar = Pattern.compile("\\] (\\S+) = invokestatic SourceSink\\.source\\(\\)/result ->");
+        Pattern sinkVar = Pattern.compile("SourceSink\\.sink\\((\\S+)\\)/0}$");
+        paths.forEach((flow, nodes) -> {
+            // the flows of the tests are all in application code,
+            // and their sources are different from their sinks
+            assertTrue(nodes.size() >= 2, flow + " has no path");
+            Matcher source = sourceVar.matcher(flow);
+            Matcher sink = sinkVar.matcher(flow);
+            assertTrue(source.find() && sink.find());
+            assertTrue(nodes.get(0).startsWith("  VarNode{")
+                    && nodes.get(0).endsWith("/" + source.group(1) + "}"), flow);
+            nodes.subList(1, nodes.size()).forEach(node ->
+                    assertTrue(node.startsWith("  -["), node));
+            assertTrue(nodes.get(nodes.size() - 1)
+                    .endsWith("/" + sink.group(1) + "}"), flow);
+        });
+    }
+
+    @ParameterizedTest
+    @MultiStringsSource({"ArrayTaint", TAINT_CONFIG})
+    @MultiStringsSource({"FieldTaint", TAINT_CONFIG})
+    @MultiStringsSource({"TaintInList", "cs:2-obj", TAINT_CONFIG})
+    @MultiStringsSource({"ArrayFieldTransfer",
+            TAINT_CONFIG_PREFIX + "taint-config-array-field-transfer.yml"})
+    @MultiStringsSource({"CallSiteMode",
+            TAINT_CONFIG_PREFIX + "taint-config-call-site-model.yml"})
+    void testTaintFlowStream(String mainClass, String... opts) throws IOException {
+        String[] newOpts = Arrays.copyOf(opts, opts.length + 2);
+        newOpts[opts.length] = "taint-flow-stream:true";
+        newOpts[opts.length + 1] = "plugins:[pascal.taie.analysis.pta.StreamedFlowsPlugin]";
+        Tests.testPTA(DIR, mainClass, newOpts);
+        // the streamed taint flows are exactly the reported ones
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        Set<TaintFlow> taintFlows = result.getResult(
+                TaintAnalysis.getResultKey(null));
+        File file = new File(World.get().getOptions().getOutputDir(),
+                "taint-flows.jsonl");
+        List<String> streamed = readStreamedFlows(Files.readAllLines(file.toPath()));
+        assertEquals(taintFlows.size(), streamed.size());
+        assertEquals(taintFlows.stream().map(TaintFlow::toString)
+                .collect(Collectors.toSet()), Set.copyOf(streamed));
+        // the flows to the sinks on variables are written during pointer
+        // analysis, i.e., before the taint analysis finishes, while
+        // the ones to array elements and fields may be written when
+        // it finishes
+        Set<String> beforeFinish = Set.copyOf(readStreamedFlows(
+                StreamedFlowsPlugin.getLinesBeforeFinish()));
+        assertFalse(beforeFinish.isEmpty());
+        assertTrue(streamed.containsAll(beforeFinish));
+        Pattern varSink = Pattern.compile("/(\\d+|base|result)}$");
+        taintFlows.stream()
+                .map(TaintFlow::toString)
+                .filter(flow -> varSink.matcher(flow).find())
+                .forEach(flow -> assertTrue(beforeFinish.contains(flow),
+                        flow + " is not written before finish"));
+    }
+
+    private static List<String> readStreamedFlows(List<String> lines)
+            throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<String> flows = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode node = mapper.readTree(line);
+            flows.add(String.format("TaintFlow{%s -> %s}",
+                    node.get("source").asText(), node.get("sink").asText()));
+        }
+        return flows;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SimpleTaint", "ComplexTaint"})
+    void testMultipleConfigs(String mainClass) {
+        String config = "src/test/resources/pta/taint/taint-config.yml";
+        Tests.testPTA(false, DIR, mainClass, "taint-config:" + config,
+                "taint-configs:[" + config + ",src/test/resources/pta/taint/"
+                        + "taint-config-call-source.yml]");
+        // the same config analyzed in one run yields the same taint flows
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        Set<TaintFlow> taintFlows = result.getResult(
+                TaintAnalysis.getResultKey(null));
+        assertFalse(taintFlows.isEmpty());
+        assertEquals(taintFlows, result.getResult(
+                TaintAnalysis.getResultKey("taint-config")));
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {
             "SimpleTaint",
@@ -25,6 +25,7 @@ package pascal.taie.analysis.pta.core.cs.context;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class ContextTest {
 
@@ -45,6 +46,25 @@ public class ContextTest {
         assertEquals(cde.getParent(), cd);
     }
 
+    @Test
+    void testContextIndexes() {
+        TrieContext.Factory<String> factory = new TrieContext.Factory<>();
+        assertEquals(0, factory.getEmptyContext().getIndex());
+        // create enough children under the same parent to exercise
+        // all layouts of the child table
+        int n = 20;
+        TrieContext[] contexts = new TrieContext[n];
+        for (int i = 0; i < n; ++i) {
+            contexts[i] = factory.make("A", "C" + i);
+        }
+        for (int i = 0; i < n; ++i) {
+            assertSame(contexts[i], factory.make("A", "C" + i));
+            assertEquals(i + 2, contexts[i].getIndex());
+        }
+        // root, "A", and the children of "A"
+        assertEquals(n + 2, factory.getContextCount());
+    }
+
     private static void testContext(ContextFactory<String> factory) {
         Context a = factory.make("A");
         Context empty1 = factory.getEmptyContext();
@@ -0,0 +1,72 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.TrieContext;
+import pascal.taie.analysis.pta.core.heap.Descriptor;
+import pascal.taie.analysis.pta.core.heap.MockObj;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.type.IntType;
+import pascal.taie.util.Indexer;
+
+/**
+ * Makes context-sensitive objects with consecutive indexes, so that
+ * points-to sets can be tested without building a world.
+ */
+public class MockCSObjs implements Indexer<CSObj> {
+
+    private final CSObj[] objs;
+
+    public MockCSObjs(int count) {
+        Context empty = new TrieContext.Factory<>().getEmptyContext();
+        objs = new CSObj[count];
+        for (int i = 0; i < count; ++i) {
+            objs[i] = new CSObj(new MockObj(Descriptor.ENTRY_DESC,
+                    "o" + i, IntType.INT, null, false), empty, i);
+        }
+    }
+
+    /**
+     * @return a context-sensitive variable of {@code var} in the empty
+     * context, which can be used without building a world.
+     */
+    public static CSVar makeCSVar(Var var) {
+        return new CSVar(var, new TrieContext.Factory<>().getEmptyContext(), 0);
+    }
+
+    public int size() {
+        return objs.length;
+    }
+
+    @Override
+    public int getIndex(CSObj o) {
+        return o.getIndex();
+    }
+
+    @Override
+    public CSObj getObject(int index) {
+        return objs[index];
+    }
+}
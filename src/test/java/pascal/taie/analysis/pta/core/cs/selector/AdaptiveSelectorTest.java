@@ -0,0 +1,116 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.core.cs.selector;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.MockCSObjs;
+import pascal.taie.analysis.pta.core.heap.NewObj;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.IntType;
+import pascal.taie.language.type.VoidType;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveSelectorTest {
+
+    private static final JMethod M = new JMethod(new JClass(null, "T"), "m",
+            Set.of(), List.of(), VoidType.VOID, List.of(), null,
+            AnnotationHolder.emptyHolder(), null, null, null);
+
+    /**
+     * Selects a new context of two fresh elements for every call.
+     */
+    private static class FreshSelector extends AbstractContextSelector<Object> {
+
+        private int count = 0;
+
+        @Override
+        public Context selectContext(CSCallSite callSite, JMethod callee) {
+            return factory.make("e" + count++, "e" + count++);
+        }
+
+        @Override
+        public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
+            return selectContext(callSite, callee);
+        }
+
+        @Override
+        protected Context selectNewObjContext(CSMethod method, NewObj obj) {
+            return getEmptyContext();
+        }
+    }
+
+    @Test
+    void testDemoteByContexts() {
+        AdaptiveSelector selector = new AdaptiveSelector(
+                new FreshSelector(), 2, Long.MAX_VALUE);
+        // each demotion happens when the third context is selected
+        // since the last demotion, and shortens the later contexts
+        int[] lengths = {2, 2, 2, 1, 1, 1, 0, 0};
+        for (int length : lengths) {
+            assertEquals(length, selector.selectContext(null, M).getLength());
+        }
+        assertEquals(Set.of(M), selector.getCIMethods());
+        assertSame(selector.getEmptyContext(), selector.selectContext(null, M));
+    }
+
+    @Test
+    void testDemoteByPointsToSets() {
+        AdaptiveSelector selector = new AdaptiveSelector(
+                new FreshSelector(), Integer.MAX_VALUE, 5);
+        CSVar x = MockCSObjs.makeCSVar(new Var(M, "x", IntType.INT, 0));
+        MockCSObjs objs = new MockCSObjs(10);
+        PointsToSetFactory factory = new PointsToSetFactory(objs);
+        PointsToSet small = factory.make();
+        for (int i = 0; i < 5; ++i) {
+            small.addObject(objs.getObject(i));
+        }
+        assertEquals(2, selector.selectContext(null, M).getLength());
+        // the volume reaches but does not exceed the limit
+        selector.getMonitor().onNewPointsToSet(x, small);
+        assertEquals(2, selector.selectContext(null, M).getLength());
+        // the volume exceeds the limit
+        selector.getMonitor().onNewPointsToSet(x, factory.make(objs.getObject(5)));
+        assertEquals(1, selector.selectContext(null, M).getLength());
+        selector.getMonitor().onNewPointsToSet(x, small);
+        selector.getMonitor().onNewPointsToSet(x, small);
+        assertEquals(0, selector.selectContext(null, M).getLength());
+        assertTrue(selector.getCIMethods().contains(M));
+    }
+}
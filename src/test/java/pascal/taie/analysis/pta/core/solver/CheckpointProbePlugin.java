@@ -0,0 +1,68 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import pascal.taie.analysis.pta.plugin.Plugin;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records whether the checkpoint file exists when each solver starts and
+ * finishes, so that the tests can check which of the solvers (e.g., the
+ * pre-analysis and the main analysis) save, resume from, or delete
+ * the checkpoint.
+ */
+public class CheckpointProbePlugin implements Plugin {
+
+    private static File checkpointFile;
+
+    private static final List<String> events = new ArrayList<>();
+
+    /**
+     * Sets the checkpoint file to be probed, and clears the recorded events.
+     */
+    public static void setCheckpointFile(File file) {
+        checkpointFile = file;
+        events.clear();
+    }
+
+    /**
+     * @return the events recorded in the order of the solvers, i.e.,
+     * "start:" or "finish:" followed by whether the file exists.
+     */
+    public static List<String> getEvents() {
+        return events;
+    }
+
+    @Override
+    public void onStart() {
+        events.add("start:" + checkpointFile.exists());
+    }
+
+    @Override
+    public void onFinish() {
+        events.add("finish:" + checkpointFile.exists());
+    }
+}
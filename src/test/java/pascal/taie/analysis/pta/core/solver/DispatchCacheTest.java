@@ -0,0 +1,142 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.core.solver;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.ir.exp.InvokeStatic;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.BooleanType;
+import pascal.taie.language.type.ByteType;
+import pascal.taie.language.type.CharType;
+import pascal.taie.language.type.DoubleType;
+import pascal.taie.language.type.FloatType;
+import pascal.taie.language.type.IntType;
+import pascal.taie.language.type.LongType;
+import pascal.taie.language.type.ShortType;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.VoidType;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class DispatchCacheTest {
+
+    private static final JClass T = new JClass(null, "T");
+
+    private static JMethod method(String name) {
+        return new JMethod(T, name, Set.of(), List.of(), VoidType.VOID,
+                List.of(), null, AnnotationHolder.emptyHolder(),
+                null, null, null);
+    }
+
+    private static Invoke invoke(JMethod container, String callee) {
+        MethodRef ref = MethodRef.get(T, callee, List.of(), VoidType.VOID, true);
+        return new Invoke(container, new InvokeStatic(ref, List.of()));
+    }
+
+    /**
+     * Receiver types, which are only compared by the cache.
+     */
+    private static final List<Type> TYPES = List.of(
+            IntType.INT, LongType.LONG, BooleanType.BOOLEAN, ByteType.BYTE,
+            CharType.CHAR, ShortType.SHORT, FloatType.FLOAT, DoubleType.DOUBLE);
+
+    @Test
+    void testMonoPolyMega() {
+        List<Type> types = TYPES.subList(0, DispatchCache.POLY_LIMIT + 3);
+        // each type resolves to its own callee, except the last one
+        Map<Type, JMethod> callees = new HashMap<>();
+        for (int i = 0; i < types.size() - 1; ++i) {
+            callees.put(types.get(i), method("m" + i));
+        }
+        Map<Type, Integer> resolved = new HashMap<>();
+        DispatchCache cache = new DispatchCache((type, callSite) -> {
+            resolved.merge(type, 1, Integer::sum);
+            return callees.get(type);
+        });
+        DispatchCache.Site site = cache.getSite(invoke(method("main"), "foo"));
+        long misses = 0, hits = 0;
+        for (int i = 0; i < types.size(); ++i) {
+            Type type = types.get(i);
+            // the first lookup of each type misses ...
+            assertEquals(callees.get(type), cache.resolve(site, type));
+            ++misses;
+            // ... and the subsequent lookups of all seen types hit
+            for (int j = 0; j <= i; ++j) {
+                assertEquals(callees.get(types.get(j)),
+                        cache.resolve(site, types.get(j)));
+                ++hits;
+            }
+            assertEquals(misses, cache.getMisses());
+            assertEquals(hits, cache.getHits());
+            int[] expected;
+            if (i == 0) {
+                expected = new int[]{1, 0, 0};
+            } else if (i < DispatchCache.POLY_LIMIT) {
+                expected = new int[]{0, 1, 0};
+            } else {
+                expected = new int[]{0, 0, 1};
+            }
+            assertArrayEquals(expected, cache.countSites());
+        }
+        // the unresolved callee is cached too
+        assertNull(cache.resolve(site, types.get(types.size() - 1)));
+        // each type is resolved only once
+        types.forEach(type -> assertEquals(1, (int) resolved.get(type)));
+    }
+
+    @Test
+    void testRemoveSitesIn() {
+        Type type = TYPES.get(0);
+        JMethod callee = method("callee");
+        DispatchCache cache = new DispatchCache((t, callSite) -> callee);
+        JMethod removed = method("removed");
+        JMethod kept = method("kept");
+        Invoke removedSite = invoke(removed, "foo");
+        Invoke keptSite = invoke(kept, "foo");
+        cache.resolve(cache.getSite(removedSite), type);
+        cache.resolve(cache.getSite(keptSite), type);
+        assertEquals(2, cache.getMisses());
+        cache.removeSitesIn(Set.of(removed));
+        assertArrayEquals(new int[]{1, 0, 0}, cache.countSites());
+        // the call site in the kept method still hits ...
+        cache.resolve(cache.getSite(keptSite), type);
+        assertEquals(1, cache.getHits());
+        // ... while the one in the removed method starts from scratch
+        DispatchCache.Site site = cache.getSite(removedSite);
+        assertArrayEquals(new int[]{2, 0, 0}, cache.countSites());
+        cache.resolve(site, type);
+        assertEquals(3, cache.getMisses());
+    }
+}
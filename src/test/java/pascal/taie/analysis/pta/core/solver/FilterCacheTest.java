@@ -0,0 +1,99 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.core.solver;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.MockCSObjs;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FilterCacheTest {
+
+    private static final int N = 300;
+
+    private final MockCSObjs objs = new MockCSObjs(N);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"bit", "shared", "roaring"})
+    void testApply(String kind) {
+        PointsToSetFactory factory = new PointsToSetFactory(
+                objs, kind);
+        // counts how many times each object is tested
+        Map<CSObj, Integer> tests = new HashMap<>();
+        Predicate<CSObj> counter = o -> {
+            tests.merge(o, 1, Integer::sum);
+            return true;
+        };
+        Predicate<CSObj> even = o -> o.getIndex() % 2 == 0;
+        Predicate<CSObj> notFive = o -> o.getIndex() % 5 != 0;
+        FilterCache cache = new FilterCache(Set.of(counter, even, notFive), factory);
+        Random random = new Random(kind.hashCode());
+        for (int i = 0; i < 200; ++i) {
+            PointsToSet pts = randomPointsToSet(factory, random);
+            Set<CSObj> before = Set.copyOf(pts.getObjects());
+            Set<CSObj> expected = before.stream()
+                    .filter(even.and(notFive))
+                    .collect(Collectors.toSet());
+            assertEquals(expected, cache.apply(pts).getObjects());
+            // the given points-to set is not modified
+            assertEquals(before, pts.getObjects());
+        }
+        // each object is tested at most once (the filters in the set
+        // may be applied in any order, thus counter may be skipped)
+        assertTrue(tests.values().stream().allMatch(n -> n == 1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"bit", "shared", "roaring"})
+    void testEmpty(String kind) {
+        PointsToSetFactory factory = new PointsToSetFactory(
+                objs, kind);
+        FilterCache cache = new FilterCache(Set.of(o -> false), factory);
+        assertEquals(0, cache.apply(factory.make()).size());
+        PointsToSet pts = factory.make(objs.getObject(0));
+        assertEquals(0, cache.apply(pts).size());
+        assertEquals(1, pts.size());
+    }
+
+    private PointsToSet randomPointsToSet(PointsToSetFactory factory, Random random) {
+        int size = random.nextBoolean() ? random.nextInt(8) : random.nextInt(N);
+        PointsToSet pts = factory.make();
+        for (int i = 0; i < size; ++i) {
+            pts.addObject(objs.getObject(random.nextInt(N)));
+        }
+        return pts;
+    }
+}
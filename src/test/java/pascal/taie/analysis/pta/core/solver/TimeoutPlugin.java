@@ -0,0 +1,59 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.plugin.Plugin;
+
+/**
+ * Makes the solver time out when the first call edge is found, so that
+ * the tests can make pointer analysis stop early at a deterministic point,
+ * regardless of the time limit and the speed of the machine.
+ */
+public class TimeoutPlugin implements Plugin {
+
+    private static boolean enabled;
+
+    private DefaultSolver solver;
+
+    private boolean timedOut;
+
+    public static void setEnabled(boolean enabled) {
+        TimeoutPlugin.enabled = enabled;
+    }
+
+    @Override
+    public void setSolver(Solver solver) {
+        this.solver = (DefaultSolver) solver;
+    }
+
+    @Override
+    public void onNewCallEdge(Edge<CSCallSite, CSMethod> edge) {
+        if (enabled && !timedOut) {
+            timedOut = true;
+            solver.setTimeout();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.demand;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.core.solver.DeclaredParamProvider;
+import pascal.taie.analysis.pta.core.solver.EntryPoint;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DemandPointerAnalysisTest {
+
+    /**
+     * Queries every variable on demand, and compares the results
+     * with the ones of whole-program context-insensitive analysis.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Assign",
+            "StoreLoad",
+            "InstanceField",
+            "Cast",
+            "Array",
+            "MultiArray",
+            "CallParamRet",
+            "Dispatch",
+            "StaticField",
+            "Cycle",
+            "Recursion",
+            "LinkedQueue",
+    })
+    void test(String mainClass) {
+        Tests.testPTA(false, "basic", mainClass);
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        CallGraph<Invoke, JMethod> callGraph = pta.getCallGraph();
+        AnalysisOptions options = new AnalysisOptions(Map.of(
+                "distinguish-string-constants", "all",
+                "merge-string-objects", true,
+                "merge-string-builders", true,
+                "merge-exception-objects", true));
+        HeapModel heapModel = new AllocationSiteBasedModel(options);
+        JMethod main = World.get().getMainMethod();
+        DemandPointerAnalysisResult demand = new DemandPointerAnalysisResult(
+                callGraph, heapModel,
+                List.of(new EntryPoint(main,
+                        new DeclaredParamProvider(main, heapModel, 1))),
+                1_000_000);
+        for (Var var : pta.getVars()) {
+            Set<String> demanded = toStrings(demand.getPointsToSet(var));
+            assertTrue(demand.isComplete());
+            assertEquals(toStrings(pta.getPointsToSet(var)), demanded,
+                    var.getMethod() + "/" + var);
+        }
+    }
+
+    /**
+     * Runs demand-pta through the analysis configuration, on the call
+     * graph built by CHA, and queries the parameter of main method.
+     */
+    @Test
+    void testOnCHA() {
+        Tests.testPTA(false, "basic", "Array");
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        Set<String> expected = toStrings(pta.getPointsToSet(
+                World.get().getMainMethod().getIR().getParam(0)));
+        Main.main(new String[]{
+                "-pp",
+                "-cp", "src/test/resources/pta",
+                "-cp", "src/test/resources/pta/basic",
+                "-m", "Array",
+                "-a", "cg=algorithm:cha",
+                "-a", DemandPointerAnalysis.ID + "=implicit-entries:false;"
+                + "distinguish-string-constants:all"});
+        DemandPointerAnalysisResult demand = World.get()
+                .getResult(DemandPointerAnalysis.ID);
+        Var args = World.get().getMainMethod().getIR().getParam(0);
+        Set<String> demanded = toStrings(demand.getPointsToSet(args));
+        assertTrue(demand.isComplete());
+        assertFalse(demanded.isEmpty());
+        assertEquals(expected, demanded);
+    }
+
+    private static Set<String> toStrings(Set<Obj> objs) {
+        return objs.stream()
+                .map(Obj::toString)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.taint;
+
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.SignatureMatcher;
+import pascal.taie.language.type.ReferenceType;
+import pascal.taie.util.Timer;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Measures the cost of large taint configurations. It generates a config
+ * with the given number of sink/transfer rules (every {@code -wildcard}-th
+ * rule uses a wildcard class pattern) for the methods of the analyzed
+ * program, and then reports:
+ * <ul>
+ *     <li>the time of matching the method patterns of the rules one by one
+ *     (with a fresh {@link SignatureMatcher} per pattern) and in bulk;</li>
+ *     <li>the time of loading the config;</li>
+ *     <li>the time of pointer analysis with the config as an independent
+ *     taint config. The elapsed time and the number of calls of the
+ *     taint analysis on each event are dumped to {@code pta-profile.txt}
+ *     in the output directory.</li>
+ * </ul>
+ */
+@CommandLine.Command
+public class TaintConfigBenchmark {
+
+    private static final String BASE_CONFIG = "src/test/resources/pta/taint/taint-config.yml";
+
+    @CommandLine.Option(names = "-rules", defaultValue = "10000")
+    private int rules;
+
+    @CommandLine.Option(names = "-wildcard", defaultValue = "10")
+    private int wildcard;
+
+    @CommandLine.Option(names = "-cp", defaultValue = "src/test/resources/pta/taint")
+    private String classPath;
+
+    @CommandLine.Option(names = "-m", defaultValue = "ComplexTaint")
+    private String mainClass;
+
+    public static void main(String[] args) throws IOException {
+        TaintConfigBenchmark benchmark = CommandLine.populateCommand(
+                new TaintConfigBenchmark(), args);
+        benchmark.run();
+    }
+
+    private void run() throws IOException {
+        Main.buildWorld("-pp", "-cp", classPath, "-m", mainClass);
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        List<String> patterns = generatePatterns(hierarchy);
+        System.out.printf("Generated %d rules%n", patterns.size());
+
+        long start = System.nanoTime();
+        int matched = 0;
+        for (String pattern : patterns) {
+            matched += new SignatureMatcher(hierarchy).getMethods(pattern).size();
+        }
+        report("Matched " + matched + " methods one by one", start);
+        start = System.nanoTime();
+        Map<String, Set<JMethod>> result =
+                new SignatureMatcher(hierarchy).getMethods(patterns);
+        matched = result.values().stream().mapToInt(Set::size).sum();
+        report("Matched " + matched + " methods in bulk", start);
+
+        Path configDir = writeConfig(hierarchy, patterns);
+        start = System.nanoTime();
+        var provider = new YamlTaintConfigProvider(
+                hierarchy, World.get().getTypeSystem());
+        provider.setPath(configDir.toString());
+        TaintConfig config = provider.get();
+        report("Loaded " + config.sinks().size() + " sinks and "
+                + config.transfers().size() + " transfers", start);
+
+        Timer.runAndCount(() -> Main.main(
+                "-pp", "-cp", classPath, "-m", mainClass,
+                "-a", "pta=cs:ci;taint-configs:[" + configDir + "];"
+                        + "plugins:[pascal.taie.analysis.pta.plugin.Profiler]"),
+                "Pointer analysis with generated taint config");
+    }
+
+    /**
+     * Generates method patterns of the rules from the methods
+     * (with at least one parameter) in the class hierarchy.
+     */
+    private List<String> generatePatterns(ClassHierarchy hierarchy) {
+        List<String> patterns = new ArrayList<>(rules);
+        hierarchy.allClasses()
+                .flatMap(c -> c.getDeclaredMethods().stream())
+                .filter(m -> m.getParamCount() > 0)
+                .limit(rules)
+                .forEach(m -> {
+                    if (patterns.size() % wildcard == 0) {
+                        String className = m.getDeclaringClass().getName();
+                        int i = className.lastIndexOf('.');
+                        String pkg = i == -1 ? "" : className.substring(0, i + 1);
+                        patterns.add("<" + pkg + "*: " + m.getSubsignature() + ">");
+                    } else {
+                        patterns.add(m.getSignature());
+                    }
+                });
+        return patterns;
+    }
+
+    /**
+     * Writes the generated rules, together with the sources
+     * in {@link #BASE_CONFIG}, to a temporary directory.
+     * The rules of the methods returning references are transfers
+     * (from the first argument to the result), and others are sinks.
+     */
+    private static Path writeConfig(ClassHierarchy hierarchy, List<String> patterns)
+            throws IOException {
+        Path dir = Files.createTempDirectory("taint-config-benchmark");
+        Files.copy(Path.of(BASE_CONFIG), dir.resolve("taint-config.yml"));
+        List<String> sinks = new ArrayList<>();
+        List<String> transfers = new ArrayList<>();
+        SignatureMatcher matcher = new SignatureMatcher(hierarchy);
+        for (String pattern : patterns) {
+            boolean returnsReference = matcher.getMethods(pattern)
+                    .stream()
+                    .allMatch(m -> m.getReturnType() instanceof ReferenceType);
+            if (returnsReference) {
+                transfers.add(pattern);
+            } else {
+                sinks.add(pattern);
+            }
+        }
+        try (PrintWriter out = new PrintWriter(
+                Files.newBufferedWriter(dir.resolve("generated.yml")))) {
+            out.println("sinks:");
+            sinks.forEach(p -> out.printf("  - { method: \"%s\", index: 0 }%n", p));
+            out.println("transfers:");
+            transfers.forEach(p -> out.printf(
+                    "  - { method: \"%s\", from: 0, to: result }%n", p));
+        }
+        return dir;
+    }
+
+    private static void report(String task, long startNanos) {
+        System.out.printf("%s in %.2fms%n", task,
+                (System.nanoTime() - startNanos) / 1_000_000.0);
+    }
+}
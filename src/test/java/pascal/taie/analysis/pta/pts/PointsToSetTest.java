@@ -0,0 +1,187 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.pts;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.MockCSObjs;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PointsToSetTest {
+
+    private static final int N = 300;
+
+    private final MockCSObjs objs = new MockCSObjs(N);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"bit", "shared", "roaring", "plain"})
+    void testRemoveAll(String kind) {
+        PointsToSetFactory factory = makeFactory(kind);
+        Random random = new Random(kind.hashCode());
+        for (int i = 0; i < 200; ++i) {
+            Set<CSObj> s1 = randomObjs(random), s2 = randomObjs(random);
+            PointsToSet pts = make(factory, s1);
+            Set<CSObj> expected = Sets.newSet(s1);
+            assertEquals(expected.removeAll(s2), pts.removeAll(make(factory, s2)));
+            assertEquals(expected, pts.getObjects());
+            assertEquals(expected.size(), pts.size());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"bit", "shared", "roaring", "plain"})
+    void testRetainAll(String kind) {
+        PointsToSetFactory factory = makeFactory(kind);
+        Random random = new Random(kind.hashCode());
+        for (int i = 0; i < 200; ++i) {
+            Set<CSObj> s1 = randomObjs(random), s2 = randomObjs(random);
+            PointsToSet pts = make(factory, s1);
+            Set<CSObj> expected = Sets.newSet(s1);
+            assertEquals(expected.retainAll(s2), pts.retainAll(make(factory, s2)));
+            assertEquals(expected, pts.getObjects());
+            assertEquals(expected.size(), pts.size());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"bit", "shared", "roaring", "plain"})
+    void testSharedSetIsNotModified(String kind) {
+        // the other set of removeAll/retainAll, and the copies of
+        // the modified set, are left unchanged
+        PointsToSetFactory factory = makeFactory(kind);
+        Random random = new Random(kind.hashCode());
+        Set<CSObj> s1 = randomObjs(random), s2 = randomObjs(random);
+        PointsToSet pts1 = make(factory, s1), pts2 = make(factory, s2);
+        PointsToSet copy = pts1.copy();
+        pts1.removeAll(pts2);
+        assertEquals(s1, copy.getObjects());
+        assertEquals(s2, pts2.getObjects());
+        copy.retainAll(pts2);
+        assertEquals(s2, pts2.getObjects());
+        Set<CSObj> expected = Sets.newSet(s1);
+        expected.retainAll(s2);
+        assertEquals(expected, copy.getObjects());
+    }
+
+    /**
+     * @return a random set of objects, which is small or large, so that
+     * both the sparse and the dense representations of the sets are used.
+     */
+    private Set<CSObj> randomObjs(Random random) {
+        int size = random.nextBoolean() ? random.nextInt(8) : random.nextInt(N);
+        Set<CSObj> result = Sets.newSet();
+        for (int i = 0; i < size; ++i) {
+            result.add(objs.getObject(random.nextInt(N)));
+        }
+        return result;
+    }
+
+    /**
+     * @return the factory of given kind of points-to sets, where "plain"
+     * makes the sets which use the default implementations of
+     * {@link PointsToSet#removeAll} and {@link PointsToSet#retainAll}.
+     */
+    private PointsToSetFactory makeFactory(String kind) {
+        if (kind.equals("plain")) {
+            PointsToSetFactory factory = new PointsToSetFactory(objs, "bit");
+            return new PointsToSetFactory(objs) {
+                @Override
+                public PointsToSet make() {
+                    return new PlainPointsToSet(factory.make());
+                }
+            };
+        }
+        return new PointsToSetFactory(objs, kind);
+    }
+
+    private static PointsToSet make(PointsToSetFactory factory, Set<CSObj> objs) {
+        PointsToSet pts = factory.make();
+        objs.forEach(pts::addObject);
+        return pts;
+    }
+
+    /**
+     * Points-to set which only implements the abstract methods.
+     */
+    private record PlainPointsToSet(PointsToSet set) implements PointsToSet {
+
+        @Override
+        public boolean addObject(CSObj obj) {
+            return set.addObject(obj);
+        }
+
+        @Override
+        public boolean addAll(PointsToSet pts) {
+            return set.addAll(pts);
+        }
+
+        @Override
+        public PointsToSet addAllDiff(PointsToSet pts) {
+            return set.addAllDiff(pts);
+        }
+
+        @Override
+        public void removeIf(Predicate<CSObj> filter) {
+            set.removeIf(filter);
+        }
+
+        @Override
+        public boolean contains(CSObj obj) {
+            return set.contains(obj);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return set.isEmpty();
+        }
+
+        @Override
+        public int size() {
+            return set.size();
+        }
+
+        @Override
+        public Set<CSObj> getObjects() {
+            return set.getObjects();
+        }
+
+        @Override
+        public Stream<CSObj> objects() {
+            return set.objects();
+        }
+
+        @Override
+        public PointsToSet copy() {
+            return new PlainPointsToSet(set.copy());
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.mahjong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.Descriptor;
+import pascal.taie.analysis.pta.core.heap.MockObj;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.type.BooleanType;
+import pascal.taie.language.type.IntType;
+import pascal.taie.language.type.LongType;
+import pascal.taie.language.type.Type;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class MahjongTest {
+
+    private static final String BASIC = "basic";
+
+    /**
+     * Mahjong only merges the objects whose field points-to graphs
+     * are type-consistent, thus for context-insensitive analysis,
+     * the types of the objects pointed to by each variable are
+     * expected to be the same as the ones of allocation-site abstraction.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "InstanceField",
+            "CallField",
+            "Interface",
+            "Recursion",
+    })
+    void testMahjong(String mainClass) {
+        Tests.testPTA(false, BASIC, mainClass);
+        Map<String, Set<String>> expected = getPointsToTypes(
+                World.get().getResult(PointerAnalysis.ID));
+        Tests.testPTA(false, BASIC, mainClass, "advanced:mahjong");
+        assertEquals(expected, getPointsToTypes(
+                World.get().getResult(PointerAnalysis.ID)));
+    }
+
+    private static Map<String, Set<String>> getPointsToTypes(
+            PointerAnalysisResult result) {
+        Map<String, Set<String>> pointsToTypes = new HashMap<>();
+        result.getVars().forEach(var -> {
+            Set<String> types = new HashSet<>();
+            result.getPointsToSet(var).forEach(obj ->
+                    types.add(obj.getType().toString()));
+            pointsToTypes.put(var.getMethod() + "/" + var.getName(), types);
+        });
+        return pointsToTypes;
+    }
+
+    // hand-built DFAs for DFAMinimizer
+
+    private static final Type A = IntType.INT;
+
+    private static final Type B = LongType.LONG;
+
+    private static final Type C = BooleanType.BOOLEAN;
+
+    private final Field.Factory fieldFactory = new Field.Factory();
+
+    private final Field f = fieldFactory.get(new JField(
+            new JClass(null, "T"), "f", Set.of(), A,
+            null, AnnotationHolder.emptyHolder()));
+
+    private final Field g = fieldFactory.getArrayIndex();
+
+    private static DFAState state(String name, Type... output) {
+        return new DFAState(
+                Set.of(new MockObj(Descriptor.ENTRY_DESC, name, A, null, false)),
+                Set.of(output));
+    }
+
+    @Test
+    void testMinimizerEquivalentStates() {
+        // s1 -f-> s2 and s3 -f-> s4
+        DFAState s1 = state("s1", A), s2 = state("s2", B);
+        DFAState s3 = state("s3", A), s4 = state("s4", B);
+        s1.addTransition(f, s2);
+        s3.addTransition(f, s4);
+        DFAMinimizer minimizer = new DFAMinimizer(List.of(s1, s3));
+        assertEquals(minimizer.classOf(s1), minimizer.classOf(s3));
+        assertEquals(minimizer.classOf(s2), minimizer.classOf(s4));
+        assertNotEquals(minimizer.classOf(s1), minimizer.classOf(s2));
+    }
+
+    @Test
+    void testMinimizerDifferentOutputs() {
+        // s1 -f-> s2 and s3 -f-> s4, but s2 and s4 have different outputs
+        DFAState s1 = state("s1", A), s2 = state("s2", B);
+        DFAState s3 = state("s3", A), s4 = state("s4", C);
+        s1.addTransition(f, s2);
+        s3.addTransition(f, s4);
+        DFAMinimizer minimizer = new DFAMinimizer(List.of(s1, s3));
+        assertNotEquals(minimizer.classOf(s1), minimizer.classOf(s3));
+        assertNotEquals(minimizer.classOf(s2), minimizer.classOf(s4));
+    }
+
+    @Test
+    void testMinimizerMissingTransitions() {
+        // s1 has no g-transition, which goes to the dead state,
+        // thus s1 is not equivalent to s3
+        DFAState s1 = state("s1", A), s2 = state("s2", B);
+        DFAState s3 = state("s3", A), s4 = state("s4", B), s5 = state("s5", B);
+        s1.addTransition(f, s2);
+        s3.addTransition(f, s4);
+        s3.addTransition(g, s5);
+        // the missing transition can also be deeper:
+        // s6 -f-> s7 -f-> s8 vs. s1 -f-> s2 (no transition)
+        DFAState s6 = state("s6", A), s7 = state("s7", B), s8 = state("s8", B);
+        s6.addTransition(f, s7);
+        s7.addTransition(f, s8);
+        DFAMinimizer minimizer = new DFAMinimizer(List.of(s1, s3, s6));
+        assertNotEquals(minimizer.classOf(s1), minimizer.classOf(s3));
+        assertNotEquals(minimizer.classOf(s1), minimizer.classOf(s6));
+        assertNotEquals(minimizer.classOf(s3), minimizer.classOf(s6));
+        assertNotEquals(minimizer.classOf(s2), minimizer.classOf(s7));
+        // states without outgoing transitions and with the same output
+        // are equivalent
+        assertEquals(minimizer.classOf(s2), minimizer.classOf(s4));
+        assertEquals(minimizer.classOf(s2), minimizer.classOf(s8));
+    }
+
+    @Test
+    void testMinimizerCycles() {
+        // s1 -f-> s1 and s2 -f-> s3 -f-> s2 accept the same
+        // infinite field paths with the same outputs
+        DFAState s1 = state("s1", A);
+        DFAState s2 = state("s2", A), s3 = state("s3", A);
+        s1.addTransition(f, s1);
+        s2.addTransition(f, s3);
+        s3.addTransition(f, s2);
+        // s4 -f-> s5 -f-> s4 differs as s5 has a different output
+        DFAState s4 = state("s4", A), s5 = state("s5", B);
+        s4.addTransition(f, s5);
+        s5.addTransition(f, s4);
+        DFAMinimizer minimizer = new DFAMinimizer(List.of(s1, s2, s4));
+        assertEquals(minimizer.classOf(s1), minimizer.classOf(s2));
+        assertEquals(minimizer.classOf(s1), minimizer.classOf(s3));
+        assertNotEquals(minimizer.classOf(s1), minimizer.classOf(s4));
+    }
+}
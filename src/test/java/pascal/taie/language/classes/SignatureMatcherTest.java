@@ -27,6 +27,8 @@ import org.junit.jupiter.api.Test;
 import pascal.taie.Main;
 import pascal.taie.World;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -181,4 +183,22 @@ public class SignatureMatcherTest {
         assertEquals(Set.of(e1_x1_x_x1, e1_x1_x_x),
                 matcher.getFields("<com.example1.X1: * *>"));
     }
+
+    @Test
+    void testGetMethodsInBulk() {
+        List<String> patterns = List.of(
+                "<com.example.X: void foo(*{1+})>",
+                "<com.example.X*: void foo(int)>",
+                "<com.example.XFather^: void foo(java.lang.String)>",
+                "<com.example.Y: void fun(com.example.*)>",
+                "<com.example.Y: com.example.XFather^ foo(*{1+})>",
+                "<*: * foo(*{0+})>",
+                "<*: * multi(*{0+})>",
+                "<com.example.XFather: void foo(int)>");
+        // use a fresh matcher so that all patterns are matched in bulk
+        Map<String, Set<JMethod>> result =
+                new SignatureMatcher(hierarchy).getMethods(patterns);
+        assertEquals(patterns, List.copyOf(result.keySet()));
+        patterns.forEach(p -> assertEquals(matcher.getMethods(p), result.get(p)));
+    }
 }
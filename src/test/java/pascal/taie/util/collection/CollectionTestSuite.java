@@ -35,6 +35,7 @@ import org.junit.platform.suite.api.Suite;
         IndexMapTest.class,
         MultiMapTest.class,
         RegularBitSetTest.class,
+        RoaringBitSetTest.class,
         SetQueueTest.class,
         SparseBitSetTest.class,
         StreamsTest.class,
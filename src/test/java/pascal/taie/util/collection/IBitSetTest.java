@@ -64,9 +64,12 @@ public abstract class IBitSetTest {
     void testClear() {
         IBitSet s = of(1, 10000);
         assertEquals(2, s.cardinality());
-        s.clear(1);
+        assertTrue(s.clear(1));
+        assertFalse(s.clear(1));
+        assertFalse(s.clear(2));
         assertEquals(1, s.cardinality());
-        s.clear(10000);
+        assertTrue(s.clear(10000));
+        assertFalse(s.clear(10000));
         assertEquals(0, s.cardinality());
     }
 
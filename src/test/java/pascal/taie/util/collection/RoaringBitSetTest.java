@@ -0,0 +1,174 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RoaringBitSetTest extends IBitSetTest {
+
+    @Override
+    protected IBitSet of(int... indexes) {
+        return new RoaringBitSet(indexes);
+    }
+
+    // ------------------------------------------------------------------------
+    // differential test against RegularBitSet
+    // ------------------------------------------------------------------------
+
+    private static final int ROUNDS = 2000;
+
+    /**
+     * Applies random bulk operations to pairs of random sets, whose bits
+     * are scattered, clustered, or in runs (so that all kinds of containers
+     * meet each other), and checks that every result of
+     * {@link RoaringBitSet} is the same as {@link RegularBitSet}.
+     */
+    @Test
+    void testRandomOperations() {
+        Random random = new Random(0);
+        for (int round = 0; round < ROUNDS; ++round) {
+            int[] bits1 = randomBits(random);
+            int[] bits2 = randomBits(random);
+            IBitSet r1 = new RoaringBitSet(bits1), r2 = new RoaringBitSet(bits2);
+            IBitSet e1 = regular(bits1), e2 = regular(bits2);
+            assertSameBits(e1, r1);
+            assertEquals(e1.intersects(e2), r1.intersects(r2));
+            assertEquals(e1.contains(e2), r1.contains(r2));
+            assertEquals(e1.contains(e1), r1.contains(r1.copy()));
+            switch (random.nextInt(6)) {
+                case 0 -> assertSameResult(e1, e2, r1, r2, IBitSet::or);
+                case 1 -> assertSameResult(e1, e2, r1, r2, IBitSet::and);
+                case 2 -> assertSameResult(e1, e2, r1, r2, IBitSet::andNot);
+                case 3 -> assertSameResult(e1, e2, r1, r2, IBitSet::xor);
+                case 4 -> {
+                    assertSameBits(e1.orDiff(e2), r1.orDiff(r2));
+                    assertSameBits(e1, r1);
+                    assertSameBits(e2, r2);
+                }
+                default -> {
+                    for (int i = 0; i < 100; ++i) {
+                        int bit = randomBit(random, bits1);
+                        switch (random.nextInt(3)) {
+                            case 0 -> assertEquals(e1.set(bit), r1.set(bit));
+                            case 1 -> assertEquals(e1.clear(bit), r1.clear(bit));
+                            default -> {
+                                e1.flip(bit);
+                                r1.flip(bit);
+                            }
+                        }
+                    }
+                    assertSameBits(e1, r1);
+                }
+            }
+            // the other set may be changed by the operation on itself
+            assertSameBits(e2, r2);
+            int bit = randomBit(random, bits1);
+            assertEquals(e1.get(bit), r1.get(bit));
+            assertEquals(e1.nextSetBit(bit), r1.nextSetBit(bit));
+            assertEquals(e1.nextClearBit(bit), r1.nextClearBit(bit));
+            assertEquals(e1.previousSetBit(bit), r1.previousSetBit(bit));
+            assertEquals(e1.previousClearBit(bit), r1.previousClearBit(bit));
+        }
+    }
+
+    /**
+     * Applies an in-place bulk operation to both kinds of sets,
+     * and checks the results and the return values.
+     */
+    private static void assertSameResult(
+            IBitSet e1, IBitSet e2, IBitSet r1, IBitSet r2,
+            BiFunction<IBitSet, IBitSet, Boolean> op) {
+        assertEquals(op.apply(e1, e2), op.apply(r1, r2));
+        assertSameBits(e1, r1);
+        assertSameBits(e2, r2);
+    }
+
+    private static void assertSameBits(IBitSet expected, IBitSet actual) {
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(expected.cardinality(), actual.cardinality());
+        assertEquals(expected.length(), actual.length());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+        assertEquals(expected.hashCode(), actual.hashCode());
+        assertEquals(actual, actual.copy());
+    }
+
+    private static IBitSet regular(int... bits) {
+        IBitSet set = new RegularBitSet();
+        for (int bit : bits) {
+            set.set(bit);
+        }
+        return set;
+    }
+
+    private static int[] randomBits(Random random) {
+        int base = random.nextInt(4) << 16;
+        return switch (random.nextInt(4)) {
+            case 0 -> new int[0];
+            case 1 -> { // scattered in several chunks
+                int[] bits = new int[random.nextInt(200)];
+                for (int i = 0; i < bits.length; ++i) {
+                    bits[i] = random.nextInt(1 << 19);
+                }
+                yield bits;
+            }
+            case 2 -> { // clustered, may exceed the size of array container
+                int[] bits = new int[random.nextInt(8000)];
+                for (int i = 0; i < bits.length; ++i) {
+                    bits[i] = base + random.nextInt(10000);
+                }
+                yield bits;
+            }
+            default -> { // runs of consecutive bits, may cross chunks
+                int nRuns = random.nextInt(20);
+                int[] bits = new int[nRuns * 500];
+                int n = 0;
+                for (int i = 0; i < nRuns; ++i) {
+                    int start = base + random.nextInt(1 << 17);
+                    int length = 1 + random.nextInt(500);
+                    for (int j = 0; j < length; ++j) {
+                        bits[n++] = start + j;
+                    }
+                }
+                yield Arrays.copyOf(bits, n);
+            }
+        };
+    }
+
+    /**
+     * @return a bit near the given bits, so that it hits the set
+     * and the neighbouring bits of the set.
+     */
+    private static int randomBit(Random random, int[] bits) {
+        if (bits.length == 0) {
+            return random.nextInt(1 << 19);
+        }
+        int bit = bits[random.nextInt(bits.length)] + random.nextInt(5) - 2;
+        return Math.max(0, bit);
+    }
+}
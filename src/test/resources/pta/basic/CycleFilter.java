@@ -0,0 +1,23 @@
+class CycleFilter {
+    public static void main(String[] args) {
+        Object x = new Apple();
+        for (int i = 0; i < args.length; ++i) {
+            x = f(x); // x -> o -> p -> temp -> x forms a cycle
+        }
+        Object b = new Banana();
+    }
+
+    static Object f(Object o) {
+        return g(o);
+    }
+
+    static Object g(Object p) {
+        return p;
+    }
+}
+
+class Apple {
+}
+
+class Banana {
+}
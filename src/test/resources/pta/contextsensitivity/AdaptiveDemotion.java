@@ -0,0 +1,30 @@
+class AdaptiveDemotion {
+
+    public static void main(String[] args) {
+        Box b1 = new Box();
+        b1.set(new Object());
+        Box b2 = new Box();
+        b2.set(new Object());
+        Box b3 = new Box();
+        b3.set(new Object());
+        Box b4 = new Box();
+        b4.set(new Object());
+        Object r1 = b1.get();
+        Object r2 = b2.get();
+        Object r3 = b3.get();
+        Object r4 = b4.get();
+    }
+}
+
+class Box {
+
+    Object item;
+
+    void set(Object item) {
+        this.item = item;
+    }
+
+    Object get() {
+        return item;
+    }
+}
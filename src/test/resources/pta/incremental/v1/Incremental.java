@@ -0,0 +1,62 @@
+class Incremental {
+
+    static Object shared;
+
+    public static void main(String[] args) {
+        Box box = new Box();
+        box.put(new Item());
+        Object x = box.get();
+        Producer p = new Producer();
+        Object y = p.produce();
+        Producer q = new SubProducer();
+        Object z = q.produce();
+        update();
+        Object w = read();
+        Object v = wrap(new Item());
+    }
+
+    static void update() {
+        shared = new Item();
+        Object o = identity(new Box());
+    }
+
+    static Object identity(Object o) {
+        return o;
+    }
+
+    static Object read() {
+        return shared;
+    }
+
+    static Object wrap(Object o) {
+        Box b = new Box();
+        b.put(o);
+        return b.get();
+    }
+}
+
+class Box {
+
+    Object content;
+
+    void put(Object o) {
+        content = o;
+    }
+
+    Object get() {
+        return content;
+    }
+}
+
+class Item {
+}
+
+class Producer {
+
+    Object produce() {
+        return new Item();
+    }
+}
+
+class SubProducer extends Producer {
+}
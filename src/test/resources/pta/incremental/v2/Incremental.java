@@ -0,0 +1,68 @@
+class Incremental {
+
+    static Object shared;
+
+    public static void main(String[] args) {
+        Box box = new Box();
+        box.put(new Item());
+        Object x = box.get();
+        Producer p = new Producer();
+        Object y = p.produce();
+        Producer q = new SubProducer();
+        Object z = q.produce();
+        update();
+        Object w = read();
+        Object v = wrap(new Item());
+    }
+
+    // changed method, which does not call the removed method identity()
+    // anymore, and allocates an object of new class Extra
+    static void update() {
+        shared = new Extra();
+        Object o = wrap(new Box());
+    }
+
+    static Object read() {
+        return shared;
+    }
+
+    static Object wrap(Object o) {
+        Box b = new Box();
+        b.put(o);
+        return b.get();
+    }
+}
+
+class Box {
+
+    Object content;
+
+    void put(Object o) {
+        content = o;
+    }
+
+    Object get() {
+        return content;
+    }
+}
+
+class Item {
+}
+
+class Extra {
+}
+
+class Producer {
+
+    Object produce() {
+        return new Item();
+    }
+}
+
+class SubProducer extends Producer {
+
+    // added method, which overrides Producer.produce()
+    Object produce() {
+        return new Box();
+    }
+}
@@ -0,0 +1,12 @@
+class SanitizerCycle {
+    public static void main(String[] args) {
+        String s = SourceSink.source();
+        String t = new String();
+        for (int i = 0; i < args.length; ++i) {
+            SourceSink.sink(t); // no taint
+            t = Sanitizer.sanitize(s); // s -> input -> t -> s forms a cycle
+            s = t;
+        }
+        SourceSink.sink(s); // taint
+    }
+}